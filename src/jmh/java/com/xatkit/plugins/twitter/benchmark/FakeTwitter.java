@@ -0,0 +1,365 @@
+package com.xatkit.plugins.twitter.benchmark;
+
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import twitter4j.DirectMessage;
+import twitter4j.DirectMessageList;
+import twitter4j.Location;
+import twitter4j.Query;
+import twitter4j.QueryResult;
+import twitter4j.RateLimitStatus;
+import twitter4j.ResponseList;
+import twitter4j.Status;
+import twitter4j.Trends;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+import twitter4j.TwitterObjectFactory;
+import twitter4j.TwitterResponse;
+import twitter4j.User;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stand-in for the Twitter API used by the benchmarks.
+ * <p>
+ * This class creates {@link Twitter} clients that answer the calls made by the platform's actions with responses
+ * built when the stand-in is created, after a configurable latency. The responses are created with
+ * {@link TwitterObjectFactory} from JSON payloads following the format of the Twitter API, so that the actions
+ * manipulate the same objects as with the actual API.
+ * <p>
+ * The rate-limit status returned by the stand-in grants an unlimited budget to all the endpoints: the benchmarks
+ * measure the cost of the actions, not the waiting time imposed by the rate-limit scheduler. Calls to methods that
+ * are not used by the platform throw an {@link UnsupportedOperationException}.
+ */
+final class FakeTwitter implements InvocationHandler {
+
+    /**
+     * The ID of the authenticated user.
+     */
+    static final long SELF_ID = 42;
+
+    /**
+     * The screen name of the direct message recipient used by the benchmarks.
+     */
+    static final String RECIPIENT_SCREEN_NAME = "recipient";
+
+    /**
+     * The WOEID of the trend location returned by the stand-in.
+     */
+    static final int WOEID = 23424977;
+
+    /**
+     * The name of the trend location returned by the stand-in.
+     */
+    static final String LOCATION_NAME = "United States";
+
+    /**
+     * The {@code created_at} value of the JSON payloads.
+     */
+    private static final String CREATED_AT = "Wed Oct 10 20:19:24 +0000 2018";
+
+    /**
+     * The latency of each call, in nanoseconds.
+     */
+    private final long latencyNanos;
+
+    /**
+     * The number of calls made to the stand-in.
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * The authenticated user.
+     */
+    private final User self;
+
+    /**
+     * The users returned by the stand-in, indexed by ID.
+     */
+    private final Map<Long, User> users = new HashMap<>();
+
+    /**
+     * The tweets returned by the search requests, from the newest to the oldest.
+     */
+    private final List<Status> tweets;
+
+    /**
+     * The direct messages returned by the direct message requests, from the newest to the oldest.
+     */
+    private final List<DirectMessage> directMessages;
+
+    /**
+     * The trends returned by the trend requests.
+     */
+    private final Trends trends;
+
+    /**
+     * The trend locations returned by the available trends requests.
+     */
+    private final List<Location> locations;
+
+    /**
+     * Constructs a {@link FakeTwitter} with the provided parameters.
+     *
+     * @param latencyMicros   the latency of each call, in microseconds
+     * @param tweetCount      the number of tweets that can be returned by the search requests
+     * @param messageCount    the number of direct messages returned by the direct message requests
+     * @param trendCount      the number of trends returned by the trend requests
+     * @param textLength      the length of the texts of the tweets and direct messages
+     * @throws TwitterException if an error occurred when creating the responses
+     */
+    FakeTwitter(long latencyMicros, int tweetCount, int messageCount, int trendCount, int textLength)
+            throws TwitterException {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        String text = text(textLength);
+        this.self = TwitterObjectFactory.createUser(userJson(SELF_ID));
+        this.users.put(SELF_ID, self);
+        this.tweets = new ArrayList<>(tweetCount);
+        for (int i = 0; i < tweetCount; i++) {
+            long id = tweetCount - i;
+            long authorId = 1000 + i % 100;
+            this.tweets.add(TwitterObjectFactory.createStatus("{\"id\":" + id + ",\"id_str\":\"" + id + "\","
+                    + "\"text\":\"" + text + "\",\"created_at\":\"" + CREATED_AT + "\",\"user\":"
+                    + userJson(authorId) + "}"));
+        }
+        this.directMessages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            long id = messageCount - i;
+            long senderId = 2000 + i;
+            this.users.put(senderId, TwitterObjectFactory.createUser(userJson(senderId)));
+            this.directMessages.add(TwitterObjectFactory.createDirectMessage("{\"type\":\"message_create\","
+                    + "\"id\":\"" + id + "\",\"created_timestamp\":\"1600000000000\",\"message_create\":{"
+                    + "\"target\":{\"recipient_id\":\"" + SELF_ID + "\"},\"sender_id\":\"" + senderId + "\","
+                    + "\"message_data\":{\"text\":\"" + text + "\",\"entities\":{}}}}"));
+        }
+        StringBuilder trendsJson = new StringBuilder("[{\"as_of\":\"2020-01-01T00:00:00Z\",\"created_at\":"
+                + "\"2020-01-01T00:00:00Z\",\"locations\":[{\"name\":\"" + LOCATION_NAME + "\",\"woeid\":" + WOEID
+                + "}],\"trends\":[");
+        for (int i = 0; i < trendCount; i++) {
+            trendsJson.append(i == 0 ? "" : ",").append("{\"name\":\"#trend").append(i)
+                    .append("\",\"url\":\"http://twitter.com/search?q=trend").append(i)
+                    .append("\",\"query\":\"trend").append(i).append("\",\"tweet_volume\":").append(1000 * i)
+                    .append('}');
+        }
+        this.trends = TwitterObjectFactory.createTrends(trendsJson.append("]}]").toString());
+        this.locations = Collections.singletonList(TwitterObjectFactory.createLocation("{\"name\":\""
+                + LOCATION_NAME + "\",\"woeid\":" + WOEID + ",\"countryCode\":\"US\",\"country\":\"" + LOCATION_NAME
+                + "\",\"placeType\":{\"code\":12,\"name\":\"Country\"},\"url\":\"http://where.yahooapis.com/v1/place/"
+                + WOEID + "\",\"parentid\":1}"));
+    }
+
+    /**
+     * Creates a {@link Twitter} client backed by this stand-in.
+     *
+     * @return the created {@link Twitter} client
+     */
+    Twitter createClient() {
+        return (Twitter) Proxy.newProxyInstance(Twitter.class.getClassLoader(), new Class<?>[]{Twitter.class}, this);
+    }
+
+    /**
+     * Returns the number of calls made to the stand-in since the last invocation of this method.
+     *
+     * @return the number of calls made to the stand-in since the last invocation of this method
+     */
+    long drainCalls() {
+        return calls.sumThenReset();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return FakeTwitter.class.getSimpleName();
+            default:
+                break;
+        }
+        calls.increment();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        switch (method.getName()) {
+            case "getRateLimitStatus":
+                return this.unlimitedRateLimitStatus();
+            case "verifyCredentials":
+                return self;
+            case "showUser":
+                return this.user((Long) args[0]);
+            case "lookupUsers":
+                List<User> result = new ArrayList<>();
+                for (long id : (long[]) args[0]) {
+                    result.add(this.user(id));
+                }
+                return responseList(ResponseList.class, result, null);
+            case "search":
+                return this.search((Query) args[0]);
+            case "getPlaceTrends":
+                return trends;
+            case "getAvailableTrends":
+                return responseList(ResponseList.class, locations, null);
+            case "getDirectMessages":
+                return responseList(DirectMessageList.class,
+                        directMessages.subList(0, Math.min((Integer) args[0], directMessages.size())), null);
+            case "getMentionsTimeline":
+                return responseList(ResponseList.class, Collections.emptyList(), null);
+            case "updateStatus":
+                return tweets.get(0);
+            case "sendDirectMessage":
+                return directMessages.get(0);
+            default:
+                throw new UnsupportedOperationException("The benchmark Twitter client does not support "
+                        + method.getName());
+        }
+    }
+
+    /**
+     * Returns the user with the provided {@code id}.
+     *
+     * @param id the ID of the user to retrieve
+     * @return the user
+     * @throws TwitterException if the user does not exist
+     */
+    private User user(long id) throws TwitterException {
+        User user = users.get(id);
+        if (user == null) {
+            throw new TwitterException("User " + id + " not found");
+        }
+        return user;
+    }
+
+    /**
+     * Returns the page of tweets matching the provided {@code query}.
+     * <p>
+     * The page contains the {@code query.getCount()} tweets following the {@code query.getMaxId()} cursor.
+     *
+     * @param query the query to answer
+     * @return the page of tweets
+     */
+    private QueryResult search(Query query) {
+        int from = query.getMaxId() <= 0 ? 0 : (int) Math.max(0, tweets.size() - query.getMaxId());
+        int to = Math.min(tweets.size(), from + Math.max(1, query.getCount()));
+        List<Status> page = from >= to ? Collections.emptyList() : tweets.subList(from, to);
+        boolean hasNext = to < tweets.size();
+        return (QueryResult) Proxy.newProxyInstance(QueryResult.class.getClassLoader(),
+                new Class<?>[]{QueryResult.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTweets":
+                            return page;
+                        case "hasNext":
+                            return hasNext;
+                        case "getCount":
+                            return page.size();
+                        case "getQuery":
+                            return query.getQuery();
+                        case "getRateLimitStatus":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException("The benchmark query result does not "
+                                    + "support " + method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Returns a rate-limit status granting an unlimited budget to all the {@link TwitterEndpoint}s.
+     *
+     * @return the rate-limit status of the endpoints, indexed by resource
+     * @throws TwitterException if an error occurred when creating the rate-limit status
+     */
+    private Map<String, RateLimitStatus> unlimitedRateLimitStatus() throws TwitterException {
+        /*
+         * The reset time must not match the window estimated by the scheduler (24 hours for the direct messages),
+         * otherwise the scheduler keeps the smallest of the two budgets.
+         */
+        long reset = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(7);
+        Map<String, StringBuilder> families = new HashMap<>();
+        for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+            String family = endpoint.getResource().split("/")[1];
+            StringBuilder builder = families.computeIfAbsent(family, key -> new StringBuilder());
+            builder.append(builder.length() == 0 ? "" : ",").append('"').append(endpoint.getResource())
+                    .append("\":{\"limit\":").append(Integer.MAX_VALUE).append(",\"remaining\":")
+                    .append(Integer.MAX_VALUE).append(",\"reset\":").append(reset).append('}');
+        }
+        StringBuilder json = new StringBuilder("{\"resources\":{");
+        boolean first = true;
+        for (Map.Entry<String, StringBuilder> family : families.entrySet()) {
+            json.append(first ? "" : ",").append('"').append(family.getKey()).append("\":{")
+                    .append(family.getValue()).append('}');
+            first = false;
+        }
+        return TwitterObjectFactory.createRateLimitStatus(json.append("}}").toString());
+    }
+
+    /**
+     * Creates a {@link ResponseList} (or one of its sub-interfaces) backed by the provided {@code elements}.
+     *
+     * @param type       the type of the list to create
+     * @param elements   the elements of the list
+     * @param nextCursor the cursor of the next page, or {@code null} if there is no next page
+     * @param <L>        the type of the list to create
+     * @return the created list
+     */
+    private static <L> L responseList(Class<L> type, List<?> elements, String nextCursor) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass().isAssignableFrom(List.class)) {
+                try {
+                    return method.invoke(elements, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            switch (method.getName()) {
+                case "getNextCursor":
+                    return nextCursor;
+                case "getAccessLevel":
+                    return TwitterResponse.READ_WRITE_DIRECTMESSAGES;
+                case "getRateLimitStatus":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException("The benchmark response list does not support "
+                            + method.getName());
+            }
+        }));
+    }
+
+    /**
+     * Returns the JSON payload of the user with the provided {@code id}.
+     *
+     * @param id the ID of the user
+     * @return the JSON payload of the user
+     */
+    private static String userJson(long id) {
+        return "{\"id\":" + id + ",\"id_str\":\"" + id + "\",\"name\":\"User " + id + "\",\"screen_name\":\"user"
+                + id + "\",\"created_at\":\"" + CREATED_AT + "\"}";
+    }
+
+    /**
+     * Returns a text of the provided {@code length}.
+     *
+     * @param length the length of the text
+     * @return the text
+     */
+    private static String text(int length) {
+        char[] text = new char[length];
+        Arrays.fill(text, 'a');
+        for (int i = 7; i < length; i += 8) {
+            text[i] = ' ';
+        }
+        return new String(text);
+    }
+}
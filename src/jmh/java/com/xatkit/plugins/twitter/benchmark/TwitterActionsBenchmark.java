@@ -0,0 +1,245 @@
+package com.xatkit.plugins.twitter.benchmark;
+
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.action.GetTrends;
+import com.xatkit.plugins.twitter.platform.action.LookForTweets;
+import com.xatkit.plugins.twitter.platform.action.PostAtweet;
+import com.xatkit.plugins.twitter.platform.action.ReceiveDM;
+import com.xatkit.plugins.twitter.platform.action.SendDM;
+import com.xatkit.plugins.twitter.platform.service.AccountPool;
+import com.xatkit.plugins.twitter.platform.service.RateLimitScheduler;
+import com.xatkit.plugins.twitter.platform.service.TwitterAccount;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks of the Twitter actions against an in-process {@link FakeTwitter} client.
+ * <p>
+ * Each benchmark executes an action (or its asynchronous variant) the same way the Xatkit execution engine does,
+ * and returns its result. The benchmarks report their throughput and latency percentiles, and the number of calls
+ * made to the Twitter API per second ({@code apiCalls} secondary result): the ratio between this number and the
+ * throughput is the number of API calls made by each action, and exposes regressions such as per-message user
+ * lookups. Allocation rates are reported when the benchmarks are run with the GC profiler ({@code -prof gc}, enabled
+ * by default by the {@code benchmark} Maven profile).
+ * <p>
+ * The {@code caches} parameter controls whether the user and trend caches of the platform are cleared before each
+ * action ({@code cold}) or kept ({@code warm}), and the {@code mode} parameter controls whether the actions are
+ * executed synchronously or with their {@code *Async} variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TwitterActionsBenchmark {
+
+    /**
+     * The latency of each call to the Twitter API, in microseconds.
+     */
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    /**
+     * The number of tweets, direct messages, and trends returned by each call to the Twitter API.
+     */
+    @Param({"20", "100"})
+    public int pageSize;
+
+    /**
+     * The length of the tweets and direct messages returned by the Twitter API.
+     */
+    @Param({"140"})
+    public int textLength;
+
+    /**
+     * Whether the platform's caches are kept ({@code warm}) or cleared before each action ({@code cold}).
+     */
+    @Param({"warm", "cold"})
+    public String caches;
+
+    /**
+     * Whether the actions are executed synchronously ({@code sync}) or asynchronously ({@code async}).
+     */
+    @Param({"sync", "async"})
+    public String mode;
+
+    /**
+     * The stand-in for the Twitter API.
+     */
+    private FakeTwitter twitter;
+
+    /**
+     * The platform executing the actions.
+     */
+    private TwitterPlatform platform;
+
+    /**
+     * The context of the executed actions.
+     */
+    private StateContext context;
+
+    /**
+     * The counter used to create unique tweets and direct messages (identical messages are rejected by the
+     * platform).
+     */
+    private final AtomicLong messageCounter = new AtomicLong();
+
+    /**
+     * The counters reported as secondary results of the benchmarks.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ApiCalls {
+
+        /**
+         * The number of calls made to the Twitter API.
+         */
+        public long apiCalls;
+    }
+
+    /**
+     * Starts a {@link TwitterPlatform} backed by a {@link FakeTwitter} client.
+     *
+     * @throws Exception if an error occurred when creating the {@link FakeTwitter} client
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        twitter = new FakeTwitter(latencyMicros, pageSize * 10, pageSize, pageSize, textLength);
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not pace the outbound messages: the benchmarks measure the cost of sending a message, not the delays
+         * imposed by the dispatcher.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_INTERVAL_KEY, 0);
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_RECIPIENT_INTERVAL_KEY, 0);
+        AccountPool accountPool = new AccountPool(Collections.singletonList(new TwitterAccount("benchmark",
+                twitter.createClient(), new RateLimitScheduler(configuration))));
+        platform = new TwitterPlatform();
+        platform.start(null, configuration, accountPool);
+        context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("benchmark");
+    }
+
+    /**
+     * Shuts down the {@link TwitterPlatform}.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platform.shutdown();
+    }
+
+    /**
+     * Retrieves the trends of a location with the {@link GetTrends} action.
+     */
+    @Benchmark
+    public Object getTrends(ApiCalls counters) {
+        this.prepare();
+        Object result = isAsync() ? platform.getTrendsAsync(context, FakeTwitter.LOCATION_NAME).join() :
+                new GetTrends(platform, context, FakeTwitter.LOCATION_NAME).call().getResult();
+        counters.apiCalls += twitter.drainCalls();
+        return result;
+    }
+
+    /**
+     * Searches three pages of tweets with the {@link LookForTweets} action.
+     */
+    @Benchmark
+    public Object lookForTweets(ApiCalls counters) {
+        this.prepare();
+        Object result = isAsync() ? platform.lookForTweetsAsync(context, "xatkit", pageSize, pageSize * 3).join() :
+                new LookForTweets(platform, context, "xatkit", pageSize, pageSize * 3).call().getResult();
+        counters.apiCalls += twitter.drainCalls();
+        return result;
+    }
+
+    /**
+     * Retrieves a page of direct messages with the {@link ReceiveDM} action.
+     */
+    @Benchmark
+    public Object receiveDM(ApiCalls counters) {
+        this.prepare();
+        Object result = isAsync() ? platform.receiveDMAsync(context, pageSize).join() :
+                new ReceiveDM(platform, context, pageSize).call().getResult();
+        counters.apiCalls += twitter.drainCalls();
+        return result;
+    }
+
+    /**
+     * Posts a tweet with the {@link PostAtweet} action, and waits until the outbound dispatcher has sent it.
+     */
+    @Benchmark
+    public Object postAtweet(ApiCalls counters) {
+        String content = "tweet " + messageCounter.incrementAndGet();
+        Object result = isAsync() ? platform.postAtweetAsync(context, content).join() :
+                new PostAtweet(platform, context, content).call().getResult();
+        this.awaitOutboundMessages();
+        counters.apiCalls += twitter.drainCalls();
+        return result;
+    }
+
+    /**
+     * Sends a direct message with the {@link SendDM} action, and waits until the outbound dispatcher has sent it.
+     */
+    @Benchmark
+    public Object sendDM(ApiCalls counters) {
+        String text = "message " + messageCounter.incrementAndGet();
+        Object result = isAsync() ? platform.sendDMAsync(context, FakeTwitter.RECIPIENT_SCREEN_NAME, text).join() :
+                new SendDM(platform, context, FakeTwitter.RECIPIENT_SCREEN_NAME, text).call().getResult();
+        this.awaitOutboundMessages();
+        counters.apiCalls += twitter.drainCalls();
+        return result;
+    }
+
+    /**
+     * Clears the platform's caches if the benchmark runs with {@code cold} caches.
+     */
+    private void prepare() {
+        if ("cold".equals(caches)) {
+            platform.getUserResolver().clear();
+            platform.getTrendService().clear();
+        }
+    }
+
+    /**
+     * Waits until the outbound dispatcher has sent all the queued messages.
+     * <p>
+     * {@link PostAtweet} and {@link SendDM} return as soon as their message is queued: waiting for the delivery
+     * includes the cost of the dispatcher in the measurement, and prevents the queue from filling up.
+     */
+    private void awaitOutboundMessages() {
+        while (platform.getOutboundDispatcher().getPendingCount() > 0) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Returns whether the actions are executed asynchronously.
+     *
+     * @return {@code true} if the actions are executed asynchronously, {@code false} otherwise
+     */
+    private boolean isAsync() {
+        return "async".equals(mode);
+    }
+}
@@ -40,4 +40,1059 @@ public interface TwitterUtils {
      */
     String TWITTER_CONSUMER_SECRET = "xatkit.twitter.consumerSecret";
 
+    /**
+     * The {@link Configuration} key to store the maximum number of users cached by the platform.
+     *
+     * @see #DEFAULT_USER_CACHE_SIZE
+     * @see TwitterPlatform#getUserResolver()
+     */
+    String TWITTER_USER_CACHE_SIZE_KEY = "xatkit.twitter.cache.users.size";
+
+    /**
+     * The default maximum number of users cached by the platform.
+     */
+    int DEFAULT_USER_CACHE_SIZE = 10000;
+
+    /**
+     * The {@link Configuration} key to store the time-to-live (in seconds) of the users cached by the platform.
+     *
+     * @see #DEFAULT_USER_CACHE_TTL
+     * @see TwitterPlatform#getUserResolver()
+     */
+    String TWITTER_USER_CACHE_TTL_KEY = "xatkit.twitter.cache.users.ttl";
+
+    /**
+     * The default time-to-live (in seconds) of the users cached by the platform.
+     */
+    long DEFAULT_USER_CACHE_TTL = 3600;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of tweets recorded in the conversation index.
+     * <p>
+     * The oldest recorded tweets are evicted when the index is full.
+     *
+     * @see #DEFAULT_CONVERSATION_INDEX_SIZE
+     * @see TwitterPlatform#getConversationIndex()
+     */
+    String TWITTER_CONVERSATION_INDEX_SIZE_KEY = "xatkit.twitter.cache.conversations.size";
+
+    /**
+     * The default maximum number of tweets recorded in the conversation index.
+     */
+    int DEFAULT_CONVERSATION_INDEX_SIZE = 10000;
+
+    /**
+     * The {@link Configuration} key to store the time-to-live (in seconds) of the trend location index.
+     * <p>
+     * The index is refreshed in the background once this time-to-live has expired.
+     *
+     * @see #DEFAULT_LOCATION_INDEX_TTL
+     * @see TwitterPlatform#getLocationIndex()
+     */
+    String TWITTER_LOCATION_INDEX_TTL_KEY = "xatkit.twitter.cache.locations.ttl";
+
+    /**
+     * The default time-to-live (in seconds) of the trend location index.
+     */
+    long DEFAULT_LOCATION_INDEX_TTL = 86400;
+
+    /**
+     * The {@link Configuration} key to store the aliases of the trend locations.
+     * <p>
+     * Each alias is specified with the {@code alias=Location Name} syntax (e.g. {@code NYC=New York}).
+     *
+     * @see TwitterPlatform#getLocationIndex()
+     */
+    String TWITTER_LOCATION_ALIASES_KEY = "xatkit.twitter.locations.aliases";
+
+    /**
+     * The {@link Configuration} key to store the maximum number of locations whose trends are retrieved concurrently
+     * by a multi-location trends request.
+     *
+     * @see #DEFAULT_TRENDS_PARALLELISM
+     * @see com.xatkit.plugins.twitter.platform.service.TrendService#getTrends(java.util.Collection)
+     */
+    String TWITTER_TRENDS_PARALLELISM_KEY = "xatkit.twitter.trends.parallelism";
+
+    /**
+     * The default maximum number of locations whose trends are retrieved concurrently.
+     */
+    int DEFAULT_TRENDS_PARALLELISM = 8;
+
+    /**
+     * The {@link Configuration} key to store the deadline (in milliseconds) of the multi-location trends requests.
+     * <p>
+     * The trends retrieved when the deadline expires are returned, and the other locations are reported as missing.
+     *
+     * @see #DEFAULT_TRENDS_DEADLINE
+     * @see com.xatkit.plugins.twitter.platform.service.TrendService#getTrends(java.util.Collection)
+     */
+    String TWITTER_TRENDS_DEADLINE_KEY = "xatkit.twitter.trends.deadline";
+
+    /**
+     * The default deadline (in milliseconds) of the multi-location trends requests.
+     */
+    long DEFAULT_TRENDS_DEADLINE = 5000;
+
+    /**
+     * The {@link Configuration} key to store the minimum relative change (e.g. {@code 0.1} for 10%) of the tweet
+     * volume of a trend reported as a change when its rank does not change.
+     *
+     * @see #DEFAULT_TRENDS_VOLUME_CHANGE_RATIO
+     * @see com.xatkit.plugins.twitter.platform.service.TrendDelta
+     */
+    String TWITTER_TRENDS_VOLUME_CHANGE_RATIO_KEY = "xatkit.twitter.trends.volumeChangeRatio";
+
+    /**
+     * The default minimum relative change of the tweet volume of a trend reported as a change.
+     */
+    double DEFAULT_TRENDS_VOLUME_CHANGE_RATIO = 0.1;
+
+    /**
+     * The {@link Configuration} key to store the locations watched by the
+     * {@link com.xatkit.plugins.twitter.platform.io.TwitterTrendEventProvider}.
+     * <p>
+     * This property contains a list of WOEIDs or (english) location names.
+     */
+    String TWITTER_TRENDS_WATCH_KEY = "xatkit.twitter.trends.watch";
+
+    /**
+     * The {@link Configuration} key to store the interval (in seconds) between two refreshes of the watched
+     * locations.
+     *
+     * @see #DEFAULT_TRENDS_WATCH_INTERVAL
+     */
+    String TWITTER_TRENDS_WATCH_INTERVAL_KEY = "xatkit.twitter.trends.watchInterval";
+
+    /**
+     * The default interval (in seconds) between two refreshes of the watched locations.
+     * <p>
+     * Twitter computes the trends of a location every 5 minutes.
+     */
+    long DEFAULT_TRENDS_WATCH_INTERVAL = 300;
+
+    /**
+     * The {@link Configuration} key to store the number of top trends used to emit the
+     * {@link com.xatkit.plugins.twitter.platform.io.TwitterTrendEventProvider#TrendEnteredTop} events.
+     *
+     * @see #DEFAULT_TRENDS_TOP
+     */
+    String TWITTER_TRENDS_TOP_KEY = "xatkit.twitter.trends.top";
+
+    /**
+     * The default number of top trends used to emit the
+     * {@link com.xatkit.plugins.twitter.platform.io.TwitterTrendEventProvider#TrendEnteredTop} events.
+     */
+    int DEFAULT_TRENDS_TOP = 10;
+
+    /**
+     * The prefix of the {@link Configuration} keys used to configure the rate-limit policies.
+     * <p>
+     * Policies can be configured globally ({@code xatkit.twitter.ratelimit.policy}) or per endpoint
+     * ({@code xatkit.twitter.ratelimit.search.policy}), see
+     * {@link com.xatkit.plugins.twitter.platform.service.RateLimitScheduler} for the list of supported keys.
+     *
+     * @see TwitterPlatform#getRateLimitScheduler()
+     */
+    String TWITTER_RATE_LIMIT_PREFIX = "xatkit.twitter.ratelimit.";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the
+     * {@link com.xatkit.plugins.twitter.platform.service.RateLimitPolicy} of the endpoints.
+     *
+     * @see #DEFAULT_RATE_LIMIT_POLICY
+     */
+    String TWITTER_RATE_LIMIT_POLICY_SUFFIX = "policy";
+
+    /**
+     * The default {@link com.xatkit.plugins.twitter.platform.service.RateLimitPolicy} of the endpoints.
+     */
+    String DEFAULT_RATE_LIMIT_POLICY = "QUEUE";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the maximum time (in milliseconds) a call can wait
+     * for rate-limit budget.
+     *
+     * @see #DEFAULT_RATE_LIMIT_MAX_WAIT
+     */
+    String TWITTER_RATE_LIMIT_MAX_WAIT_SUFFIX = "maxWait";
+
+    /**
+     * The default maximum time (in milliseconds) a call can wait for rate-limit budget.
+     */
+    long DEFAULT_RATE_LIMIT_MAX_WAIT = 5000;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the maximum number of calls waiting for rate-limit
+     * budget at the same time.
+     *
+     * @see #DEFAULT_RATE_LIMIT_MAX_QUEUE
+     */
+    String TWITTER_RATE_LIMIT_MAX_QUEUE_SUFFIX = "maxQueue";
+
+    /**
+     * The default maximum number of calls waiting for rate-limit budget at the same time.
+     */
+    int DEFAULT_RATE_LIMIT_MAX_QUEUE = 50;
+
+    /**
+     * The prefix of the {@link Configuration} keys used to configure the retries and the circuit breakers of the
+     * endpoints.
+     * <p>
+     * Each key can be set globally ({@code xatkit.twitter.resilience.<suffix>}) or for a specific endpoint
+     * ({@code xatkit.twitter.resilience.<endpoint>.<suffix>}, where {@code <endpoint>} is the
+     * {@link com.xatkit.plugins.twitter.platform.service.TwitterEndpoint#getConfigurationName()} of the endpoint).
+     *
+     * @see com.xatkit.plugins.twitter.platform.service.ResiliencePolicy
+     */
+    String TWITTER_RESILIENCE_PREFIX = "xatkit.twitter.resilience.";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the maximum number of times a failed call to an
+     * idempotent endpoint is retried.
+     *
+     * @see #DEFAULT_RESILIENCE_MAX_RETRIES
+     */
+    String TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX = "maxRetries";
+
+    /**
+     * The default maximum number of times a failed call to an idempotent endpoint is retried.
+     */
+    int DEFAULT_RESILIENCE_MAX_RETRIES = 2;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the delay (in milliseconds) before the first retry
+     * of a failed call.
+     * <p>
+     * The delay is doubled after each retry.
+     *
+     * @see #DEFAULT_RESILIENCE_BASE_DELAY
+     */
+    String TWITTER_RESILIENCE_BASE_DELAY_SUFFIX = "baseDelay";
+
+    /**
+     * The default delay (in milliseconds) before the first retry of a failed call.
+     */
+    long DEFAULT_RESILIENCE_BASE_DELAY = 100;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the maximum delay (in milliseconds) before a retry.
+     * <p>
+     * Failed calls are not retried if the Twitter API asks to wait longer than this delay.
+     *
+     * @see #DEFAULT_RESILIENCE_MAX_DELAY
+     */
+    String TWITTER_RESILIENCE_MAX_DELAY_SUFFIX = "maxDelay";
+
+    /**
+     * The default maximum delay (in milliseconds) before a retry.
+     */
+    long DEFAULT_RESILIENCE_MAX_DELAY = 2000;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the number of consecutive failed calls opening the
+     * circuit breaker of an endpoint.
+     *
+     * @see #DEFAULT_RESILIENCE_FAILURE_THRESHOLD
+     */
+    String TWITTER_RESILIENCE_FAILURE_THRESHOLD_SUFFIX = "failureThreshold";
+
+    /**
+     * The default number of consecutive failed calls opening the circuit breaker of an endpoint.
+     */
+    int DEFAULT_RESILIENCE_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the time (in milliseconds) the circuit breaker of
+     * an endpoint stays open before letting a probe call through.
+     *
+     * @see #DEFAULT_RESILIENCE_OPEN_DURATION
+     */
+    String TWITTER_RESILIENCE_OPEN_DURATION_SUFFIX = "openDuration";
+
+    /**
+     * The default time (in milliseconds) the circuit breaker of an endpoint stays open.
+     */
+    long DEFAULT_RESILIENCE_OPEN_DURATION = 30000;
+
+    /**
+     * The {@link Configuration} key to store whether the platform serves stale cached results when an endpoint
+     * cannot be accessed.
+     *
+     * @see #DEFAULT_RESILIENCE_SERVE_STALE
+     */
+    String TWITTER_RESILIENCE_SERVE_STALE_KEY = TWITTER_RESILIENCE_PREFIX + "serveStale";
+
+    /**
+     * The default value of the {@link #TWITTER_RESILIENCE_SERVE_STALE_KEY} key.
+     */
+    boolean DEFAULT_RESILIENCE_SERVE_STALE = true;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of pages fetched when polling new direct messages or
+     * mentions.
+     * <p>
+     * This value bounds the number of requests used to drain a backlog accumulated between two polls, and the number
+     * of pages containing only messages sent by the bot that {@code ReceiveDM} skips to return a page of messages.
+     *
+     * @see #DEFAULT_POLLING_MAX_PAGES
+     * @see TwitterPlatform#getIncrementalReceiver()
+     */
+    String TWITTER_POLLING_MAX_PAGES_KEY = "xatkit.twitter.polling.maxPages";
+
+    /**
+     * The default maximum number of pages fetched when polling new direct messages or mentions.
+     */
+    int DEFAULT_POLLING_MAX_PAGES = 5;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of search queries whose returned tweets are tracked
+     * by the platform.
+     * <p>
+     * The least recently used query is forgotten when this limit is reached.
+     *
+     * @see #DEFAULT_SEARCH_TRACKED_QUERIES
+     * @see TwitterPlatform#getSearchTracker()
+     */
+    String TWITTER_SEARCH_TRACKED_QUERIES_KEY = "xatkit.twitter.search.trackedQueries";
+
+    /**
+     * The default maximum number of search queries whose returned tweets are tracked by the platform.
+     */
+    int DEFAULT_SEARCH_TRACKED_QUERIES = 100;
+
+    /**
+     * The {@link Configuration} key to store the number of returned tweet IDs remembered for each tracked search
+     * query.
+     *
+     * @see #DEFAULT_SEARCH_SEEN_IDS
+     * @see TwitterPlatform#getSearchTracker()
+     */
+    String TWITTER_SEARCH_SEEN_IDS_KEY = "xatkit.twitter.search.seenIds";
+
+    /**
+     * The default number of returned tweet IDs remembered for each tracked search query.
+     */
+    int DEFAULT_SEARCH_SEEN_IDS = 10000;
+
+    /**
+     * The {@link Configuration} key to store the formatter rendering the results of the actions.
+     * <p>
+     * This property contains the name of a built-in formatter ({@code slack}, {@code text}, {@code json}, or
+     * {@code records}) or the fully qualified name of a
+     * {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter} implementation.
+     *
+     * @see #DEFAULT_FORMATTER
+     * @see TwitterPlatform#getFormatter()
+     */
+    String TWITTER_FORMATTER_KEY = "xatkit.twitter.formatter";
+
+    /**
+     * The default formatter rendering the results of the actions (Slack attachments).
+     */
+    String DEFAULT_FORMATTER = "slack";
+
+    /**
+     * The {@link Configuration} key to store the port of the webhook endpoint receiving the Twitter account
+     * activity events.
+     *
+     * @see #DEFAULT_WEBHOOK_PORT
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterWebhookEventProvider
+     */
+    String TWITTER_WEBHOOK_PORT_KEY = "xatkit.twitter.webhook.port";
+
+    /**
+     * The default port of the webhook endpoint receiving the Twitter account activity events.
+     */
+    int DEFAULT_WEBHOOK_PORT = 5050;
+
+    /**
+     * The {@link Configuration} key to store the path of the webhook endpoint receiving the Twitter account activity
+     * events.
+     *
+     * @see #DEFAULT_WEBHOOK_PATH
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterWebhookEventProvider
+     */
+    String TWITTER_WEBHOOK_PATH_KEY = "xatkit.twitter.webhook.path";
+
+    /**
+     * The default path of the webhook endpoint receiving the Twitter account activity events.
+     */
+    String DEFAULT_WEBHOOK_PATH = "/twitter/webhook";
+
+    /**
+     * The {@link Configuration} key to store the number of threads parsing the received webhook payloads.
+     *
+     * @see #DEFAULT_WEBHOOK_WORKERS
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterWebhookEventProvider
+     */
+    String TWITTER_WEBHOOK_WORKERS_KEY = "xatkit.twitter.webhook.workers";
+
+    /**
+     * The default number of threads parsing the received webhook payloads.
+     */
+    int DEFAULT_WEBHOOK_WORKERS = 2;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of received webhook payloads waiting to be parsed.
+     * <p>
+     * Payloads received when this limit is reached are rejected with a {@code 503} status, and are sent again by
+     * Twitter later.
+     *
+     * @see #DEFAULT_WEBHOOK_QUEUE_SIZE
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterWebhookEventProvider
+     */
+    String TWITTER_WEBHOOK_QUEUE_SIZE_KEY = "xatkit.twitter.webhook.queueSize";
+
+    /**
+     * The default maximum number of received webhook payloads waiting to be parsed.
+     */
+    int DEFAULT_WEBHOOK_QUEUE_SIZE = 100;
+
+    /**
+     * The {@link Configuration} key to store whether the signature of the received webhook payloads is checked.
+     * <p>
+     * This option should only be disabled when the webhook endpoint is fed by a local stand-in.
+     *
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterWebhookEventProvider
+     */
+    String TWITTER_WEBHOOK_CHECK_SIGNATURE_KEY = "xatkit.twitter.webhook.checkSignature";
+
+    /**
+     * The {@link Configuration} key to store the keywords tracked by the filtered stream.
+     * <p>
+     * This key accepts a list of keywords (or phrases), and follows the syntax of the {@code track} parameter of the
+     * Twitter filtered stream. The filtered stream must track at least one keyword or follow at least one user (see
+     * {@link #TWITTER_STREAM_FOLLOW_KEY}).
+     *
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterStreamEventProvider
+     */
+    String TWITTER_STREAM_TRACK_KEY = "xatkit.twitter.stream.track";
+
+    /**
+     * The {@link Configuration} key to store the IDs of the users followed by the filtered stream.
+     *
+     * @see #TWITTER_STREAM_TRACK_KEY
+     * @see com.xatkit.plugins.twitter.platform.io.TwitterStreamEventProvider
+     */
+    String TWITTER_STREAM_FOLLOW_KEY = "xatkit.twitter.stream.follow";
+
+    /**
+     * The {@link Configuration} key to store the base URL of the Twitter streaming API.
+     * <p>
+     * This property is typically used to point the filtered stream to a
+     * {@link com.xatkit.plugins.twitter.platform.io.LocalStreamServer}. Defaults to the URL of the Twitter streaming
+     * API.
+     *
+     * @see #DEFAULT_STREAM_BASE_URL
+     */
+    String TWITTER_STREAM_BASE_URL_KEY = "xatkit.twitter.stream.baseUrl";
+
+    /**
+     * The default base URL of the Twitter streaming API.
+     */
+    String DEFAULT_STREAM_BASE_URL = "https://stream.twitter.com/1.1/";
+
+    /**
+     * The {@link Configuration} key to store the maximum number of streamed tweets waiting to be emitted.
+     *
+     * @see #DEFAULT_STREAM_QUEUE_SIZE
+     * @see #TWITTER_STREAM_OVERFLOW_KEY
+     */
+    String TWITTER_STREAM_QUEUE_SIZE_KEY = "xatkit.twitter.stream.queueSize";
+
+    /**
+     * The default maximum number of streamed tweets waiting to be emitted.
+     */
+    int DEFAULT_STREAM_QUEUE_SIZE = 1000;
+
+    /**
+     * The {@link Configuration} key to store the policy applied when a tweet is streamed while the queue of tweets
+     * waiting to be emitted is full.
+     * <p>
+     * This key accepts the following values:
+     * <ul>
+     * <li>{@code drop}: the tweet is dropped, and the stream keeps up with Twitter</li>
+     * <li>{@code block}: the stream stops reading the connection until the queue has room for the tweet. Twitter
+     * closes the connections of the clients that fall too far behind, and the stream reconnects</li>
+     * </ul>
+     *
+     * @see #DEFAULT_STREAM_OVERFLOW
+     */
+    String TWITTER_STREAM_OVERFLOW_KEY = "xatkit.twitter.stream.overflow";
+
+    /**
+     * The default policy applied when a tweet is streamed while the queue of tweets waiting to be emitted is full.
+     */
+    String DEFAULT_STREAM_OVERFLOW = "drop";
+
+    /**
+     * The {@link Configuration} key to store the time (in seconds) the filtered stream waits for data before
+     * considering the connection as stalled and reconnecting.
+     * <p>
+     * Twitter sends a keep-alive newline every {@code 30} seconds on an idle connection.
+     *
+     * @see #DEFAULT_STREAM_STALL_TIMEOUT
+     */
+    String TWITTER_STREAM_STALL_TIMEOUT_KEY = "xatkit.twitter.stream.stallTimeout";
+
+    /**
+     * The default time (in seconds) the filtered stream waits for data before reconnecting.
+     */
+    int DEFAULT_STREAM_STALL_TIMEOUT = 90;
+
+    /**
+     * The prefix of the {@link Configuration} keys storing the keywords matched against the received tweets and
+     * direct messages.
+     * <p>
+     * Each key defines a group of keywords identified by the suffix of the key, e.g.
+     * {@code xatkit.twitter.matcher.keywords.support = help, #support, @xatkit_support}. The IDs of the groups
+     * matched by a tweet or a direct message are attached to the events and the results of the platform.
+     *
+     * @see com.xatkit.plugins.twitter.platform.service.KeywordMatcher
+     * @see TwitterPlatform#getKeywordMatcher()
+     */
+    String TWITTER_MATCHER_KEYWORDS_PREFIX = "xatkit.twitter.matcher.keywords.";
+
+    /**
+     * The {@link Configuration} key to store whether the keywords only match whole words.
+     *
+     * @see #DEFAULT_MATCHER_WHOLE_WORDS
+     * @see #TWITTER_MATCHER_KEYWORDS_PREFIX
+     */
+    String TWITTER_MATCHER_WHOLE_WORDS_KEY = "xatkit.twitter.matcher.wholeWords";
+
+    /**
+     * The default value of the {@link #TWITTER_MATCHER_WHOLE_WORDS_KEY} key.
+     */
+    boolean DEFAULT_MATCHER_WHOLE_WORDS = true;
+
+    /**
+     * The {@link Configuration} key to store the number of threads running the asynchronous actions of the platform.
+     * <p>
+     * This value is ignored if the asynchronous actions run on virtual threads (see
+     * {@link #TWITTER_ASYNC_VIRTUAL_THREADS_KEY}).
+     *
+     * @see #DEFAULT_ASYNC_THREADS
+     * @see TwitterPlatform#postAtweetAsync(com.xatkit.execution.StateContext, String)
+     */
+    String TWITTER_ASYNC_THREADS_KEY = "xatkit.twitter.async.threads";
+
+    /**
+     * The default number of threads running the asynchronous actions of the platform.
+     */
+    int DEFAULT_ASYNC_THREADS = 16;
+
+    /**
+     * The {@link Configuration} key to store whether the asynchronous actions of the platform run on virtual threads.
+     * <p>
+     * Virtual threads are only used if the JVM supports them, otherwise the asynchronous actions run on a pool of
+     * {@link #TWITTER_ASYNC_THREADS_KEY} threads. Defaults to {@code true}.
+     *
+     * @see TwitterPlatform#postAtweetAsync(com.xatkit.execution.StateContext, String)
+     */
+    String TWITTER_ASYNC_VIRTUAL_THREADS_KEY = "xatkit.twitter.async.virtualThreads";
+
+    /**
+     * The {@link Configuration} key to store the maximum number of contexts whose result cursor is kept by the
+     * platform.
+     * <p>
+     * The least recently used cursor is evicted when this limit is reached.
+     *
+     * @see #DEFAULT_PAGING_MAX_CONTEXTS
+     * @see TwitterPlatform#getResultPager()
+     */
+    String TWITTER_PAGING_MAX_CONTEXTS_KEY = "xatkit.twitter.paging.maxContexts";
+
+    /**
+     * The default maximum number of contexts whose result cursor is kept by the platform.
+     */
+    int DEFAULT_PAGING_MAX_CONTEXTS = 1000;
+
+    /**
+     * The {@link Configuration} key to store the delay (in seconds) after which an unused result cursor is evicted.
+     *
+     * @see #DEFAULT_PAGING_IDLE_TIMEOUT
+     * @see TwitterPlatform#getResultPager()
+     */
+    String TWITTER_PAGING_IDLE_TIMEOUT_KEY = "xatkit.twitter.paging.idleTimeout";
+
+    /**
+     * The default delay (in seconds) after which an unused result cursor is evicted.
+     */
+    long DEFAULT_PAGING_IDLE_TIMEOUT = 600;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of results of a page returned by the
+     * {@code ShowMore} action.
+     * <p>
+     * This value bounds the number of results prefetched for each context.
+     *
+     * @see #DEFAULT_PAGING_MAX_PAGE_SIZE
+     * @see TwitterPlatform#getResultPager()
+     */
+    String TWITTER_PAGING_MAX_PAGE_SIZE_KEY = "xatkit.twitter.paging.maxPageSize";
+
+    /**
+     * The default maximum number of results of a page returned by the {@code ShowMore} action.
+     */
+    int DEFAULT_PAGING_MAX_PAGE_SIZE = 100;
+
+    /**
+     * The {@link Configuration} key to store whether the next page of results is prefetched in the background.
+     * <p>
+     * When this option is enabled the next page of a cursor is fetched in the background once a page has been
+     * returned by {@code ShowMore}, meaning that each page shown costs an additional call to the Twitter API if the
+     * user does not ask for the following one. When it is disabled the pages are retrieved when they are requested.
+     *
+     * @see #DEFAULT_PAGING_PREFETCH
+     * @see TwitterPlatform#getResultPager()
+     */
+    String TWITTER_PAGING_PREFETCH_KEY = "xatkit.twitter.paging.prefetch";
+
+    /**
+     * The default value of the {@link #TWITTER_PAGING_PREFETCH_KEY} key.
+     */
+    boolean DEFAULT_PAGING_PREFETCH = false;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of tweets and direct messages waiting to be sent.
+     * <p>
+     * Messages submitted when this limit is reached are rejected.
+     *
+     * @see #DEFAULT_OUTBOUND_QUEUE_SIZE
+     * @see TwitterPlatform#getOutboundDispatcher()
+     */
+    String TWITTER_OUTBOUND_QUEUE_SIZE_KEY = "xatkit.twitter.outbound.queueSize";
+
+    /**
+     * The default maximum number of tweets and direct messages waiting to be sent.
+     */
+    int DEFAULT_OUTBOUND_QUEUE_SIZE = 10000;
+
+    /**
+     * The {@link Configuration} key to store the minimum delay (in milliseconds) between two tweets or direct
+     * messages sent by the platform.
+     *
+     * @see #DEFAULT_OUTBOUND_INTERVAL
+     * @see TwitterPlatform#getOutboundDispatcher()
+     */
+    String TWITTER_OUTBOUND_INTERVAL_KEY = "xatkit.twitter.outbound.interval";
+
+    /**
+     * The default minimum delay (in milliseconds) between two tweets or direct messages sent by the platform.
+     */
+    long DEFAULT_OUTBOUND_INTERVAL = 200;
+
+    /**
+     * The {@link Configuration} key to store the minimum delay (in milliseconds) between two direct messages sent to
+     * the same recipient.
+     *
+     * @see #DEFAULT_OUTBOUND_RECIPIENT_INTERVAL
+     * @see TwitterPlatform#getOutboundDispatcher()
+     */
+    String TWITTER_OUTBOUND_RECIPIENT_INTERVAL_KEY = "xatkit.twitter.outbound.recipientInterval";
+
+    /**
+     * The default minimum delay (in milliseconds) between two direct messages sent to the same recipient.
+     */
+    long DEFAULT_OUTBOUND_RECIPIENT_INTERVAL = 1000;
+
+    /**
+     * The {@link Configuration} key to store the duration (in seconds) during which identical tweets or direct
+     * messages are rejected.
+     *
+     * @see #DEFAULT_OUTBOUND_DEDUPE_WINDOW
+     * @see TwitterPlatform#getOutboundDispatcher()
+     */
+    String TWITTER_OUTBOUND_DEDUPE_WINDOW_KEY = "xatkit.twitter.outbound.dedupeWindow";
+
+    /**
+     * The default duration (in seconds) during which identical tweets or direct messages are rejected.
+     */
+    long DEFAULT_OUTBOUND_DEDUPE_WINDOW = 3600;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of attempts made to send a tweet or a direct
+     * message.
+     * <p>
+     * Direct messages are only retried when Twitter did not process their request (e.g. connection failures or
+     * rate-limited responses), to make sure a recipient never receives the same message twice.
+     *
+     * @see #DEFAULT_OUTBOUND_MAX_ATTEMPTS
+     * @see TwitterPlatform#getOutboundDispatcher()
+     */
+    String TWITTER_OUTBOUND_MAX_ATTEMPTS_KEY = "xatkit.twitter.outbound.maxAttempts";
+
+    /**
+     * The default maximum number of attempts made to send a tweet or a direct message.
+     */
+    int DEFAULT_OUTBOUND_MAX_ATTEMPTS = 5;
+
+    /**
+     * The {@link Configuration} key to store the size (in bytes) of the segments of the uploaded media.
+     * <p>
+     * Media are read and uploaded one segment at a time, meaning that this property and
+     * {@link #TWITTER_MEDIA_PARALLELISM_KEY} bound the memory used by an upload. The segment size is increased for
+     * large media (the Twitter API accepts at most 1000 segments), and cannot exceed 5 MB.
+     *
+     * @see #DEFAULT_MEDIA_CHUNK_SIZE
+     * @see TwitterPlatform#getMediaUploader()
+     */
+    String TWITTER_MEDIA_CHUNK_SIZE_KEY = "xatkit.twitter.media.chunkSize";
+
+    /**
+     * The default size (in bytes) of the segments of the uploaded media.
+     */
+    int DEFAULT_MEDIA_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of segments of a media uploaded in parallel.
+     * <p>
+     * Set this property to {@code 1} to upload the segments sequentially.
+     *
+     * @see #DEFAULT_MEDIA_PARALLELISM
+     * @see TwitterPlatform#getMediaUploader()
+     */
+    String TWITTER_MEDIA_PARALLELISM_KEY = "xatkit.twitter.media.parallelism";
+
+    /**
+     * The default maximum number of segments of a media uploaded in parallel.
+     */
+    int DEFAULT_MEDIA_PARALLELISM = 3;
+
+    /**
+     * The {@link Configuration} key to store the maximum number of attempts made for each call of a media upload.
+     * <p>
+     * Uploads failing after this number of attempts can be resumed from their last acknowledged segment, see
+     * {@link com.xatkit.plugins.twitter.platform.service.MediaUploader#resume}.
+     *
+     * @see #DEFAULT_MEDIA_MAX_ATTEMPTS
+     * @see TwitterPlatform#getMediaUploader()
+     */
+    String TWITTER_MEDIA_MAX_ATTEMPTS_KEY = "xatkit.twitter.media.maxAttempts";
+
+    /**
+     * The default maximum number of attempts made for each call of a media upload.
+     */
+    int DEFAULT_MEDIA_MAX_ATTEMPTS = 5;
+
+    /**
+     * The prefix of the {@link Configuration} keys storing the credentials of additional Twitter accounts.
+     * <p>
+     * The accounts are defined with indexed keys starting at {@code 0}, e.g.
+     * {@code xatkit.twitter.accounts.0.consumerKey}, {@code xatkit.twitter.accounts.0.consumerSecret},
+     * {@code xatkit.twitter.accounts.0.accessToken}, and {@code xatkit.twitter.accounts.0.accessSecretToken}.
+     * The calls to account-neutral endpoints (e.g. search and trends) are load-balanced across all the accounts.
+     *
+     * @see com.xatkit.plugins.twitter.platform.service.AccountPool
+     */
+    String TWITTER_ACCOUNTS_PREFIX = "xatkit.twitter.accounts.";
+
+    /**
+     * The suffix of the {@link Configuration} keys storing the name of an additional Twitter account.
+     *
+     * @see #TWITTER_ACCOUNTS_PREFIX
+     */
+    String TWITTER_ACCOUNT_NAME_SUFFIX = "name";
+
+    /**
+     * The suffix of the {@link Configuration} keys storing the consumer key of an additional Twitter account.
+     *
+     * @see #TWITTER_ACCOUNTS_PREFIX
+     */
+    String TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX = "consumerKey";
+
+    /**
+     * The suffix of the {@link Configuration} keys storing the consumer secret of an additional Twitter account.
+     *
+     * @see #TWITTER_ACCOUNTS_PREFIX
+     */
+    String TWITTER_ACCOUNT_CONSUMER_SECRET_SUFFIX = "consumerSecret";
+
+    /**
+     * The suffix of the {@link Configuration} keys storing the access token of an additional Twitter account.
+     *
+     * @see #TWITTER_ACCOUNTS_PREFIX
+     */
+    String TWITTER_ACCOUNT_ACCESS_TOKEN_SUFFIX = "accessToken";
+
+    /**
+     * The suffix of the {@link Configuration} keys storing the access token secret of an additional Twitter account.
+     *
+     * @see #TWITTER_ACCOUNTS_PREFIX
+     */
+    String TWITTER_ACCOUNT_ACCESS_SECRET_TOKEN_SUFFIX = "accessSecretToken";
+
+    /**
+     * The {@link Configuration} key to store the exporters exposing the metrics of the platform.
+     * <p>
+     * This property contains a list of exporter names: {@code jmx}, {@code prometheus}, or the fully qualified name
+     * of a {@link com.xatkit.plugins.twitter.platform.metrics.MetricsExporter} implementation. The metrics are not
+     * exported by default.
+     *
+     * @see TwitterPlatform#getMetrics()
+     */
+    String TWITTER_METRICS_EXPORTERS_KEY = "xatkit.twitter.metrics.exporters";
+
+    /**
+     * The {@link Configuration} key to store whether the calls to the Twitter API are traced.
+     * <p>
+     * Traced calls are logged with the ID of the context of the action that performed them. Defaults to
+     * {@code false}.
+     *
+     * @see com.xatkit.plugins.twitter.platform.metrics.TwitterMetrics#addSpanListener
+     */
+    String TWITTER_METRICS_TRACING_KEY = "xatkit.twitter.metrics.tracing";
+
+    /**
+     * The {@link Configuration} key to store the port of the Prometheus metrics endpoint.
+     *
+     * @see #DEFAULT_METRICS_PROMETHEUS_PORT
+     */
+    String TWITTER_METRICS_PROMETHEUS_PORT_KEY = "xatkit.twitter.metrics.prometheus.port";
+
+    /**
+     * The default port of the Prometheus metrics endpoint.
+     */
+    int DEFAULT_METRICS_PROMETHEUS_PORT = 9464;
+
+    /**
+     * The {@link Configuration} key to store the path of the Prometheus metrics endpoint.
+     *
+     * @see #DEFAULT_METRICS_PROMETHEUS_PATH
+     */
+    String TWITTER_METRICS_PROMETHEUS_PATH_KEY = "xatkit.twitter.metrics.prometheus.path";
+
+    /**
+     * The default path of the Prometheus metrics endpoint.
+     */
+    String DEFAULT_METRICS_PROMETHEUS_PATH = "/metrics";
+
+    /**
+     * The {@link Configuration} key to store the base URL of the Twitter REST API.
+     * <p>
+     * This property is typically used to point the platform to a
+     * {@link com.xatkit.plugins.twitter.platform.simulator.TwitterApiSimulator} (e.g.
+     * {@code http://localhost:8090/1.1/}). Defaults to the URL of the Twitter API.
+     */
+    String TWITTER_REST_BASE_URL_KEY = "xatkit.twitter.restBaseUrl";
+
+    /**
+     * The {@link Configuration} key to store the base URL of the Twitter upload API.
+     * <p>
+     * Defaults to the value of {@link #TWITTER_REST_BASE_URL_KEY} if it is set (the
+     * {@link com.xatkit.plugins.twitter.platform.simulator.TwitterApiSimulator} serves both APIs), and to the URL of
+     * the Twitter upload API otherwise.
+     */
+    String TWITTER_UPLOAD_BASE_URL_KEY = "xatkit.twitter.uploadBaseUrl";
+
+    /**
+     * The {@link Configuration} key to store the timeout (in milliseconds) of the connections to the Twitter API.
+     *
+     * @see #DEFAULT_HTTP_CONNECT_TIMEOUT
+     */
+    String TWITTER_HTTP_CONNECT_TIMEOUT_KEY = "xatkit.twitter.http.connectTimeout";
+
+    /**
+     * The default timeout (in milliseconds) of the connections to the Twitter API.
+     */
+    int DEFAULT_HTTP_CONNECT_TIMEOUT = 5000;
+
+    /**
+     * The {@link Configuration} key to store the maximum time (in milliseconds) a call to the Twitter API waits for
+     * the response data.
+     *
+     * @see #DEFAULT_HTTP_READ_TIMEOUT
+     */
+    String TWITTER_HTTP_READ_TIMEOUT_KEY = "xatkit.twitter.http.readTimeout";
+
+    /**
+     * The default maximum time (in milliseconds) a call to the Twitter API waits for the response data.
+     */
+    int DEFAULT_HTTP_READ_TIMEOUT = 30000;
+
+    /**
+     * The {@link Configuration} key to store whether the responses of the Twitter API are compressed with gzip.
+     *
+     * @see #DEFAULT_HTTP_GZIP
+     */
+    String TWITTER_HTTP_GZIP_KEY = "xatkit.twitter.http.gzip";
+
+    /**
+     * The default value of the {@link #TWITTER_HTTP_GZIP_KEY} key.
+     */
+    boolean DEFAULT_HTTP_GZIP = true;
+
+    /**
+     * The {@link Configuration} key to store the host of the HTTP proxy used to access the Twitter API.
+     */
+    String TWITTER_HTTP_PROXY_HOST_KEY = "xatkit.twitter.http.proxy.host";
+
+    /**
+     * The {@link Configuration} key to store the port of the HTTP proxy used to access the Twitter API.
+     *
+     * @see #DEFAULT_HTTP_PROXY_PORT
+     */
+    String TWITTER_HTTP_PROXY_PORT_KEY = "xatkit.twitter.http.proxy.port";
+
+    /**
+     * The default port of the HTTP proxy used to access the Twitter API.
+     */
+    int DEFAULT_HTTP_PROXY_PORT = 8080;
+
+    /**
+     * The {@link Configuration} key to store the user name used to authenticate to the HTTP proxy.
+     */
+    String TWITTER_HTTP_PROXY_USER_KEY = "xatkit.twitter.http.proxy.user";
+
+    /**
+     * The {@link Configuration} key to store the password used to authenticate to the HTTP proxy.
+     */
+    String TWITTER_HTTP_PROXY_PASSWORD_KEY = "xatkit.twitter.http.proxy.password";
+
+    /**
+     * The {@link Configuration} key to store the directory containing the persisted state of the platform.
+     * <p>
+     * The platform restores the high-water marks of its polls, its resolved users, its trend locations, and its seen
+     * IDs from this directory when it starts. The state is not persisted if this key is not defined.
+     *
+     * @see TwitterPlatform#getStateStore()
+     */
+    String TWITTER_STATE_DIRECTORY_KEY = "xatkit.twitter.state.directory";
+
+    /**
+     * The {@link Configuration} key to store the delay (in milliseconds) between two flushes of the state journal.
+     * <p>
+     * The changes performed since the last flush are lost if the JVM crashes.
+     *
+     * @see #DEFAULT_STATE_FLUSH_INTERVAL
+     */
+    String TWITTER_STATE_FLUSH_INTERVAL_KEY = "xatkit.twitter.state.flushInterval";
+
+    /**
+     * The default delay (in milliseconds) between two flushes of the state journal.
+     */
+    long DEFAULT_STATE_FLUSH_INTERVAL = 1000;
+
+    /**
+     * The {@link Configuration} key to store the number of records of the state journal triggering its compaction
+     * into a new snapshot.
+     *
+     * @see #DEFAULT_STATE_COMPACTION_THRESHOLD
+     */
+    String TWITTER_STATE_COMPACTION_THRESHOLD_KEY = "xatkit.twitter.state.compactionThreshold";
+
+    /**
+     * The default number of records of the state journal triggering its compaction.
+     */
+    int DEFAULT_STATE_COMPACTION_THRESHOLD = 10000;
+
+    /**
+     * The {@link Configuration} key to store the number of recently seen tweet IDs and direct message IDs remembered
+     * by the platform.
+     * <p>
+     * Tweets and direct messages delivered again with an ID the platform remembers are not processed again.
+     *
+     * @see #DEFAULT_STATE_SEEN_IDS
+     */
+    String TWITTER_STATE_SEEN_IDS_KEY = "xatkit.twitter.state.seenIds";
+
+    /**
+     * The default number of recently seen tweet IDs and direct message IDs remembered by the platform.
+     */
+    int DEFAULT_STATE_SEEN_IDS = 10000;
+
+    /**
+     * The prefix of the {@link Configuration} keys used to configure the
+     * {@link com.xatkit.plugins.twitter.platform.simulator.TwitterApiSimulator}.
+     * <p>
+     * The behavior of the simulated endpoints can be configured globally
+     * ({@code xatkit.twitter.simulator.latency.max}) or per endpoint
+     * ({@code xatkit.twitter.simulator.search.latency.max}), see
+     * {@link com.xatkit.plugins.twitter.platform.simulator.TwitterApiSimulator} for the list of supported keys.
+     */
+    String TWITTER_SIMULATOR_PREFIX = "xatkit.twitter.simulator.";
+
+    /**
+     * The {@link Configuration} key to store the port of the Twitter API simulator.
+     *
+     * @see #DEFAULT_SIMULATOR_PORT
+     */
+    String TWITTER_SIMULATOR_PORT_KEY = TWITTER_SIMULATOR_PREFIX + "port";
+
+    /**
+     * The default port of the Twitter API simulator.
+     */
+    int DEFAULT_SIMULATOR_PORT = 8090;
+
+    /**
+     * The {@link Configuration} key to store the seed of the data and errors generated by the Twitter API simulator.
+     */
+    String TWITTER_SIMULATOR_SEED_KEY = TWITTER_SIMULATOR_PREFIX + "seed";
+
+    /**
+     * The {@link Configuration} key to store the number of users generated by the Twitter API simulator.
+     *
+     * @see #DEFAULT_SIMULATOR_USERS
+     */
+    String TWITTER_SIMULATOR_USERS_KEY = TWITTER_SIMULATOR_PREFIX + "users";
+
+    /**
+     * The default number of users generated by the Twitter API simulator.
+     */
+    int DEFAULT_SIMULATOR_USERS = 1000;
+
+    /**
+     * The {@link Configuration} key to store the number of direct messages and mentions received per second by the
+     * simulated accounts.
+     *
+     * @see #DEFAULT_SIMULATOR_MESSAGE_RATE
+     */
+    String TWITTER_SIMULATOR_MESSAGE_RATE_KEY = TWITTER_SIMULATOR_PREFIX + "messageRate";
+
+    /**
+     * The default number of direct messages and mentions received per second by the simulated accounts.
+     */
+    double DEFAULT_SIMULATOR_MESSAGE_RATE = 1;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the minimum latency (in milliseconds) of the
+     * simulated endpoints.
+     */
+    String TWITTER_SIMULATOR_MIN_LATENCY_SUFFIX = "latency.min";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the maximum latency (in milliseconds) of the
+     * simulated endpoints.
+     */
+    String TWITTER_SIMULATOR_MAX_LATENCY_SUFFIX = "latency.max";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the ratio (between {@code 0} and {@code 1}) of the
+     * requests failing with an injected error.
+     */
+    String TWITTER_SIMULATOR_ERROR_RATE_SUFFIX = "errorRate";
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the HTTP status of the injected errors.
+     *
+     * @see #DEFAULT_SIMULATOR_ERROR_STATUS
+     */
+    String TWITTER_SIMULATOR_ERROR_STATUS_SUFFIX = "errorStatus";
+
+    /**
+     * The default HTTP status of the injected errors.
+     */
+    int DEFAULT_SIMULATOR_ERROR_STATUS = 503;
+
+    /**
+     * The suffix of the {@link Configuration} keys used to store the number of requests allowed per account in a
+     * rate-limit window of the simulated endpoints.
+     * <p>
+     * The limits default to the ones of the Twitter API (see
+     * {@link com.xatkit.plugins.twitter.platform.service.TwitterEndpoint#getDefaultLimit()}).
+     */
+    String TWITTER_SIMULATOR_RATE_LIMIT_SUFFIX = "rateLimit";
+
 }
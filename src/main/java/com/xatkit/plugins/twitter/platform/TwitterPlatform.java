@@ -1,45 +1,448 @@
 package com.xatkit.plugins.twitter.platform;
 
 import com.xatkit.core.XatkitBot;
+import com.xatkit.core.XatkitException;
 import com.xatkit.core.platform.RuntimePlatform;
+import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.core.platform.action.RuntimeActionResult;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.action.GetThread;
 import com.xatkit.plugins.twitter.platform.action.GetTrends;
 import com.xatkit.plugins.twitter.platform.action.LookForTweets;
 import com.xatkit.plugins.twitter.platform.action.PostAtweet;
 import com.xatkit.plugins.twitter.platform.action.ReceiveDM;
+import com.xatkit.plugins.twitter.platform.action.ReceiveMentions;
+import com.xatkit.plugins.twitter.platform.action.ReplyToTweet;
 import com.xatkit.plugins.twitter.platform.action.SendDM;
+import com.xatkit.plugins.twitter.platform.action.ShowMore;
+import com.xatkit.plugins.twitter.platform.format.JsonFormatter;
+import com.xatkit.plugins.twitter.platform.format.PlainTextFormatter;
+import com.xatkit.plugins.twitter.platform.format.RecordFormatter;
+import com.xatkit.plugins.twitter.platform.format.ResultFormatter;
+import com.xatkit.plugins.twitter.platform.format.SlackAttachmentFormatter;
+import com.xatkit.plugins.twitter.platform.metrics.TwitterMetrics;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryReport;
+import com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher;
+import com.xatkit.plugins.twitter.platform.outbound.OutboundMessage;
+import com.xatkit.plugins.twitter.platform.service.AccountPool;
+import com.xatkit.plugins.twitter.platform.service.ConversationIndex;
+import com.xatkit.plugins.twitter.platform.service.IncrementalReceiver;
+import com.xatkit.plugins.twitter.platform.service.KeywordMatcher;
+import com.xatkit.plugins.twitter.platform.service.LocationIndex;
+import com.xatkit.plugins.twitter.platform.service.MediaUploader;
+import com.xatkit.plugins.twitter.platform.service.RateLimitScheduler;
+import com.xatkit.plugins.twitter.platform.service.ResiliencePolicy;
+import com.xatkit.plugins.twitter.platform.service.ResultPager;
+import com.xatkit.plugins.twitter.platform.service.SearchTracker;
+import com.xatkit.plugins.twitter.platform.service.TrendService;
+import com.xatkit.plugins.twitter.platform.service.TweetSearchIterator;
+import com.xatkit.plugins.twitter.platform.service.TwitterAccount;
+import com.xatkit.plugins.twitter.platform.service.TwitterCall;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import com.xatkit.plugins.twitter.platform.service.UserResolver;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import com.xatkit.plugins.twitter.platform.state.StateStore;
+import com.xatkit.plugins.twitter.platform.state.StoredUser;
+import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
+import twitter4j.Query;
+import twitter4j.Status;
 import twitter4j.Twitter;
-import twitter4j.TwitterFactory;
-import twitter4j.auth.AccessToken;
+import twitter4j.TwitterException;
+
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A {@link RuntimePlatform} class that connects and interacts with the Twitter API.
+ * <p>
+ * Each action method has an {@code *Async} counterpart returning a {@link CompletableFuture}. Asynchronous actions
+ * run on a dedicated executor (using virtual threads when the JVM supports them) instead of blocking the calling
+ * thread, and store their result in the session of their {@link StateContext} (see
+ * {@link #ASYNC_RESULT_SESSION_KEY_PREFIX}).
+ * <p>
+ * The tweets and direct messages are sent asynchronously by the platform's {@link OutboundDispatcher}: the actions
+ * sending them store the delivery report of their message in the session of their {@link StateContext} (see
+ * {@link #DELIVERY_REPORT_SESSION_KEY_PREFIX}).
  */
 public class TwitterPlatform extends RuntimePlatform {
 
     /**
-     * The {@link Twitter} service used to retrieve information and post messages on Twitter.
+     * The prefix of the {@link StateContext} session keys storing the results of the asynchronous actions.
+     * <p>
+     * The result of an asynchronous action is stored with the key {@code <prefix><action name>} (e.g.
+     * {@code twitter.result.PostAtweet}). This key holds the result of the last completed call of the action, the
+     * result of each call is also returned by its {@link CompletableFuture}.
+     */
+    public static final String ASYNC_RESULT_SESSION_KEY_PREFIX = "twitter.result.";
+
+    /**
+     * The prefix of the {@link StateContext} session keys storing the delivery reports of the sent messages.
+     * <p>
+     * The actions sending a tweet or a direct message ({@link PostAtweet}, {@link ReplyToTweet}, and {@link SendDM})
+     * store the {@link CompletableFuture} completed with the {@link DeliveryReport} of their message with the key
+     * {@code <prefix><action name>} (e.g. {@code twitter.delivery.SendDM}). This key holds the report of the last
+     * message submitted by the action, including the messages that failed after the action returned.
+     *
+     * @see #submit(StateContext, RuntimeAction, OutboundMessage)
+     */
+    public static final String DELIVERY_REPORT_SESSION_KEY_PREFIX = "twitter.delivery.";
+
+    /**
+     * The {@link AccountPool} containing the Twitter accounts used to retrieve information and post messages on
+     * Twitter.
+     */
+    private AccountPool accountPool;
+
+    /**
+     * The {@link UserResolver} used to resolve and cache the users returned by the Twitter API.
+     */
+    private UserResolver userResolver;
+
+    /**
+     * The {@link UserSummary} of the authenticated user (i.e. the bot's account).
+     * <p>
+     * This field is resolved once when the platform starts, see {@link #getSelf()}.
+     */
+    private volatile UserSummary self;
+
+    /**
+     * The {@link ConversationIndex} recording the reply graph of the tweets seen and posted by the platform.
+     */
+    private ConversationIndex conversationIndex;
+
+    /**
+     * The {@link LocationIndex} used to retrieve the WOEID of the trend locations.
+     */
+    private LocationIndex locationIndex;
+
+    /**
+     * The {@link TrendService} used to retrieve and cache the trends of the Twitter locations.
+     */
+    private TrendService trendService;
+
+    /**
+     * The {@link IncrementalReceiver} used to retrieve the direct messages and mentions received since the last poll.
+     */
+    private IncrementalReceiver incrementalReceiver;
+
+    /**
+     * The {@link SearchTracker} used to only return the new tweets of repeated searches.
+     */
+    private SearchTracker searchTracker;
+
+    /**
+     * The {@link ScheduledExecutorService} used to run the platform's background tasks (e.g. cache refreshes).
+     */
+    private ScheduledExecutorService backgroundExecutor;
+
+    /**
+     * The {@link ExecutorService} running the asynchronous actions of the platform.
+     * <p>
+     * This executor uses virtual threads if they are supported by the JVM and enabled in the configuration, see
+     * {@link TwitterUtils#TWITTER_ASYNC_VIRTUAL_THREADS_KEY}.
+     */
+    private ExecutorService asyncExecutor;
+
+    /**
+     * The {@link OutboundDispatcher} queuing and pacing the tweets and direct messages sent by the platform.
+     */
+    private OutboundDispatcher outboundDispatcher;
+
+    /**
+     * The {@link TwitterMetrics} recording the calls performed by the platform to the Twitter API.
+     */
+    private TwitterMetrics metrics;
+
+    /**
+     * The {@link ResiliencePolicy} retrying the failed calls and holding the circuit breakers of the endpoints.
+     */
+    private ResiliencePolicy resiliencePolicy;
+
+    /**
+     * The {@link StateStore} persisting the state of the platform across restarts.
+     */
+    private StateStore stateStore;
+
+    /**
+     * The {@link ResultFormatter} rendering the results of the actions.
      */
-    private Twitter twitterService;
+    private ResultFormatter<?> formatter;
+
+    /**
+     * The {@link KeywordMatcher} matching the received tweets and direct messages against the configured keywords.
+     */
+    private KeywordMatcher keywordMatcher;
+
+    /**
+     * The {@link MediaUploader} uploading the media attached to the posted tweets.
+     */
+    private MediaUploader mediaUploader;
+
+    /**
+     * The {@link ResultPager} keeping the cursor of the last search of each context.
+     */
+    private ResultPager resultPager;
 
     /**
      * {@inheritDoc}
      * <p>
-     * This method initializes the underlying {@link Twitter} service.
+     * This method initializes the {@link AccountPool} (with a {@link Twitter} client and a
+     * {@link RateLimitScheduler} seeded with the current rate-limit status of each account), the
+     * {@link ResiliencePolicy}, the {@link UserResolver}, the {@link ConversationIndex}, the {@link LocationIndex},
+     * the {@link TrendService}, the {@link IncrementalReceiver}, the {@link SearchTracker}, the
+     * {@link ResultFormatter}, the {@link KeywordMatcher}, the executor running the asynchronous actions, the
+     * {@link OutboundDispatcher}, the {@link MediaUploader}, the {@link ResultPager}, and the {@link TwitterMetrics}
+     * (and their exporters), restores the state persisted by the {@link StateStore}, and resolves the authenticated
+     * user.
      */
     @Override
     public void start(XatkitBot xatkitBot, Configuration configuration) {
+        this.start(xatkitBot, configuration, AccountPool.create(configuration));
+    }
+
+    /**
+     * Starts the platform with the provided {@code accountPool}.
+     * <p>
+     * This method behaves as {@link #start(XatkitBot, Configuration)}, but uses the provided {@code accountPool}
+     * instead of creating one from the {@code configuration}. It allows to start the platform with {@link Twitter}
+     * clients that are not created from credentials (e.g. the in-process clients used by the benchmarks).
+     *
+     * @param xatkitBot     the {@link XatkitBot} instance managing this platform
+     * @param configuration the platform's {@link Configuration}
+     * @param accountPool   the {@link AccountPool} used to access the Twitter API
+     */
+    public void start(XatkitBot xatkitBot, Configuration configuration, @NonNull AccountPool accountPool) {
         super.start(xatkitBot, configuration);
-        twitterService = TwitterFactory.getSingleton();
-        twitterService.setOAuthConsumer(configuration.getString(TwitterUtils.TWITTER_CONSUMER_KEY),
-                configuration.getString(TwitterUtils.TWITTER_CONSUMER_SECRET));
-        AccessToken accessToken = new AccessToken(configuration.getString(TwitterUtils.TWITTER_ACCESS_TOKEN_KEY),
-                configuration.getString(TwitterUtils.TWITTER_ACCESS_SECRET_TOKEN_KEY));
-        twitterService.setOAuthAccessToken(accessToken);
+        this.metrics = new TwitterMetrics(this);
+        this.resiliencePolicy = new ResiliencePolicy(configuration);
+        this.stateStore = StateStore.open(configuration);
+        this.accountPool = accountPool;
+        this.accountPool.seed();
+        userResolver = new UserResolver(this,
+                configuration.getInt(TwitterUtils.TWITTER_USER_CACHE_SIZE_KEY, TwitterUtils.DEFAULT_USER_CACHE_SIZE),
+                configuration.getLong(TwitterUtils.TWITTER_USER_CACHE_TTL_KEY, TwitterUtils.DEFAULT_USER_CACHE_TTL),
+                TimeUnit.SECONDS);
+        conversationIndex = new ConversationIndex(this,
+                configuration.getInt(TwitterUtils.TWITTER_CONVERSATION_INDEX_SIZE_KEY,
+                        TwitterUtils.DEFAULT_CONVERSATION_INDEX_SIZE));
+        backgroundExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Platform Background Tasks");
+            thread.setDaemon(true);
+            return thread;
+        });
+        locationIndex = new LocationIndex(this, backgroundExecutor,
+                configuration.getLong(TwitterUtils.TWITTER_LOCATION_INDEX_TTL_KEY,
+                        TwitterUtils.DEFAULT_LOCATION_INDEX_TTL), TimeUnit.SECONDS);
+        for (String alias : configuration.getList(String.class, TwitterUtils.TWITTER_LOCATION_ALIASES_KEY,
+                Collections.emptyList())) {
+            String[] splitAlias = alias.split("=", 2);
+            if (splitAlias.length == 2) {
+                locationIndex.addAlias(splitAlias[0], splitAlias[1]);
+            } else {
+                Log.warn("{0} Ignoring the location alias {1}, expected an alias=Location Name value",
+                        this.getClass().getSimpleName(), alias);
+            }
+        }
+        trendService = new TrendService(this,
+                configuration.getInt(TwitterUtils.TWITTER_TRENDS_PARALLELISM_KEY,
+                        TwitterUtils.DEFAULT_TRENDS_PARALLELISM),
+                configuration.getLong(TwitterUtils.TWITTER_TRENDS_DEADLINE_KEY, TwitterUtils.DEFAULT_TRENDS_DEADLINE),
+                TimeUnit.MILLISECONDS,
+                configuration.getDouble(TwitterUtils.TWITTER_TRENDS_VOLUME_CHANGE_RATIO_KEY,
+                        TwitterUtils.DEFAULT_TRENDS_VOLUME_CHANGE_RATIO));
+        incrementalReceiver = new IncrementalReceiver(this,
+                configuration.getInt(TwitterUtils.TWITTER_POLLING_MAX_PAGES_KEY,
+                        TwitterUtils.DEFAULT_POLLING_MAX_PAGES));
+        searchTracker = new SearchTracker(this,
+                configuration.getInt(TwitterUtils.TWITTER_SEARCH_TRACKED_QUERIES_KEY,
+                        TwitterUtils.DEFAULT_SEARCH_TRACKED_QUERIES),
+                configuration.getInt(TwitterUtils.TWITTER_SEARCH_SEEN_IDS_KEY, TwitterUtils.DEFAULT_SEARCH_SEEN_IDS),
+                configuration.getInt(TwitterUtils.TWITTER_POLLING_MAX_PAGES_KEY,
+                        TwitterUtils.DEFAULT_POLLING_MAX_PAGES));
+        formatter = createFormatter(configuration.getString(TwitterUtils.TWITTER_FORMATTER_KEY,
+                TwitterUtils.DEFAULT_FORMATTER).trim());
+        keywordMatcher = KeywordMatcher.create(configuration);
+        asyncExecutor = createAsyncExecutor(configuration);
+        outboundDispatcher = new OutboundDispatcher(this, configuration);
+        mediaUploader = new MediaUploader(this, configuration, backgroundExecutor);
+        resultPager = new ResultPager(configuration, asyncExecutor, backgroundExecutor);
+        metrics.start(configuration);
+        this.restoreState();
+        if (stateStore.isPersistent()) {
+            long flushInterval = configuration.getLong(TwitterUtils.TWITTER_STATE_FLUSH_INTERVAL_KEY,
+                    TwitterUtils.DEFAULT_STATE_FLUSH_INTERVAL);
+            backgroundExecutor.scheduleWithFixedDelay(stateStore::flush, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+        try {
+            this.getSelf();
+        } catch (TwitterException e) {
+            Log.error(e, "{0} Cannot resolve the authenticated user, the platform will try again on the next "
+                    + "request", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method stops the platform's background tasks, the asynchronous actions that are not started yet, the
+     * {@link OutboundDispatcher} (the messages that are not sent yet are cancelled), the pending media uploads, the
+     * result cursors, and the metrics exporters, and closes the {@link StateStore}.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (outboundDispatcher != null) {
+            outboundDispatcher.close();
+        }
+        if (mediaUploader != null) {
+            mediaUploader.close();
+        }
+        if (resultPager != null) {
+            resultPager.close();
+        }
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdownNow();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+        if (trendService != null) {
+            trendService.close();
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
+        if (stateStore != null) {
+            stateStore.close();
+        }
+    }
+
+    /**
+     * Restores the high-water marks, the resolved users, and the trend locations persisted by the
+     * {@link StateStore}.
+     */
+    private void restoreState() {
+        incrementalReceiver.restoreHighWaterMarks(stateStore.getHighWaterMarks());
+        for (StoredUser user : stateStore.getUsers()) {
+            userResolver.restore(user.getUser(), user.getStoredAt());
+        }
+        locationIndex.restore(stateStore.getLocations(), stateStore.getLocationsLoadedAt());
+    }
+
+    /**
+     * Executes the provided {@code call} to the Twitter API.
+     * <p>
+     * This method selects the account used to execute the {@code call} (see
+     * {@link AccountPool#select(TwitterEndpoint)}), checks the rate-limit budget of the provided {@code endpoint}
+     * for this account before executing the {@code call} (see {@link RateLimitScheduler#acquire(TwitterEndpoint)}),
+     * and updates it with the rate-limit headers of the response. Calls to an endpoint whose circuit breaker is open
+     * are rejected without accessing the Twitter API, and the failed calls to idempotent endpoints are retried
+     * according to the platform's {@link ResiliencePolicy}. The latency and the result of each attempt are recorded
+     * in the platform's {@link TwitterMetrics}. Actions and services accessing the Twitter API should always use
+     * this method instead of accessing the {@link Twitter} clients directly.
+     *
+     * @param endpoint the {@link TwitterEndpoint} accessed by the {@code call}
+     * @param call     the {@link TwitterCall} to execute
+     * @param <T>      the type of the call's result
+     * @return the result of the call
+     * @throws TwitterException if an error occurred when accessing the Twitter API, or if the call has been rejected
+     *                          to preserve the rate-limit budget of the {@code endpoint} or because its circuit
+     *                          breaker is open
+     */
+    public <T> T execute(@NonNull TwitterEndpoint endpoint, @NonNull TwitterCall<T> call) throws TwitterException {
+        int attempt = 0;
+        while (true) {
+            try {
+                return this.executeOnce(endpoint, call);
+            } catch (TwitterException e) {
+                attempt++;
+                long delay = resiliencePolicy.getRetryDelay(endpoint, e, attempt);
+                if (delay < 0) {
+                    throw e;
+                }
+                metrics.recordRetry(endpoint);
+                Log.debug("{0} Retrying the call to {1} in {2} ms (attempt {3}): {4}",
+                        this.getClass().getSimpleName(), endpoint.getResource(), delay, attempt, e.getMessage());
+                if (delay > 0) {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a single attempt of the provided {@code call} to the Twitter API.
+     *
+     * @param endpoint the {@link TwitterEndpoint} accessed by the {@code call}
+     * @param call     the {@link TwitterCall} to execute
+     * @param <T>      the type of the call's result
+     * @return the result of the call
+     * @throws TwitterException if an error occurred when accessing the Twitter API, or if the call has been rejected
+     *                          by the {@link ResiliencePolicy} or the {@link RateLimitScheduler}
+     * @see #execute(TwitterEndpoint, TwitterCall)
+     */
+    private <T> T executeOnce(TwitterEndpoint endpoint, TwitterCall<T> call) throws TwitterException {
+        try {
+            resiliencePolicy.beforeCall(endpoint);
+        } catch (TwitterException e) {
+            metrics.recordShortCircuit(endpoint);
+            throw e;
+        }
+        TwitterAccount account;
+        RateLimitScheduler rateLimitScheduler;
+        try {
+            account = accountPool.select(endpoint);
+            rateLimitScheduler = account.getRateLimitScheduler();
+            rateLimitScheduler.acquire(endpoint);
+        } catch (TwitterException e) {
+            resiliencePolicy.release(endpoint);
+            metrics.recordRejection(endpoint);
+            throw e;
+        } catch (RuntimeException e) {
+            resiliencePolicy.release(endpoint);
+            throw e;
+        }
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        try {
+            T result = call.call(account.getTwitter());
+            metrics.recordCall(endpoint, account, startMillis, System.nanoTime() - start, null);
+            resiliencePolicy.onSuccess(endpoint);
+            rateLimitScheduler.onResponse(endpoint, result);
+            return result;
+        } catch (TwitterException e) {
+            metrics.recordCall(endpoint, account, startMillis, System.nanoTime() - start, e);
+            resiliencePolicy.onFailure(endpoint, e);
+            rateLimitScheduler.onError(endpoint, e);
+            throw e;
+        } catch (RuntimeException e) {
+            resiliencePolicy.release(endpoint);
+            throw e;
+        }
     }
 
     /**
@@ -49,7 +452,7 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void getTrends(@NonNull StateContext context) {
         GetTrends action = new GetTrends(this, context);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -60,7 +463,7 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void getTrends(@NonNull StateContext context, @NonNull Integer woeid) {
         GetTrends action = new GetTrends(this, context, woeid);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -73,7 +476,19 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void getTrends(@NonNull StateContext context, @NonNull String locationName) {
         GetTrends action = new GetTrends(this, context, locationName);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Search the top trending topics {@link GetTrends} of the provided locations, merged into a single ranked view.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param woeids  the woeids of the locations to return trending information for
+     * @see TrendService#getTrends(Collection)
+     */
+    public void getTrends(@NonNull StateContext context, @NonNull Collection<Integer> woeids) {
+        GetTrends action = new GetTrends(this, context, woeids);
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -84,7 +499,7 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void lookForTweets(@NonNull StateContext context, @NonNull String query) {
         LookForTweets action = new LookForTweets(this, context, query);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -96,7 +511,73 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void lookForTweets(@NonNull StateContext context, @NonNull String query, @NonNull Integer resultsPerPage) {
         LookForTweets action = new LookForTweets(this, context, query, resultsPerPage);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Search for tweets {@link LookForTweets} across multiple pages.
+     *
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     */
+    public void lookForTweets(@NonNull StateContext context, @NonNull String query, @NonNull Integer resultsPerPage,
+                              @NonNull Integer maxResults) {
+        LookForTweets action = new LookForTweets(this, context, query, resultsPerPage, maxResults);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Search for tweets {@link LookForTweets} across multiple pages, only returning the tweets that have not been
+     * returned by a previous search of the same {@code query} if {@code onlyNew} is {@code true}.
+     *
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     * @param onlyNew        whether to only return the tweets that have not been returned by a previous search
+     */
+    public void lookForTweets(@NonNull StateContext context, @NonNull String query, @NonNull Integer resultsPerPage,
+                              @NonNull Integer maxResults, @NonNull Boolean onlyNew) {
+        LookForTweets action = new LookForTweets(this, context, query, resultsPerPage, maxResults, onlyNew);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Returns a lazy {@link Stream} of the tweets matching the provided {@code query}.
+     *
+     * @param query the query to search for tweets
+     * @param limit the maximum number of tweets to return
+     * @return a lazy {@link Stream} of the tweets matching the provided {@code query}
+     * @see #searchTweets(Query, int)
+     */
+    public Stream<Status> searchTweets(@NonNull String query, int limit) {
+        return this.searchTweets(new Query(query), limit);
+    }
+
+    /**
+     * Returns a lazy {@link Stream} of the tweets matching the provided {@code query}.
+     * <p>
+     * The returned {@link Stream} fetches the result pages from the Twitter API when they are consumed, and only
+     * holds the current page in memory, meaning that large searches can be processed with a constant memory
+     * footprint. Short-circuiting operations (e.g. {@link Stream#limit(long)}, {@link Stream#anyMatch}) stop the
+     * search without fetching the remaining pages. The {@code sinceId} and {@code maxId} of the provided
+     * {@code query} can be used to bound the search, and its {@code count} defines the page size (see
+     * {@link TweetSearchIterator}).
+     * <p>
+     * Errors raised when fetching a page are thrown as
+     * {@link com.xatkit.plugins.twitter.platform.service.UncheckedTwitterException}s by the terminal operation of
+     * the {@link Stream}.
+     *
+     * @param query the {@link Query} to search tweets with
+     * @param limit the maximum number of tweets to return
+     * @return a lazy {@link Stream} of the tweets matching the provided {@code query}
+     */
+    public Stream<Status> searchTweets(@NonNull Query query, int limit) {
+        TweetSearchIterator iterator = new TweetSearchIterator(this, query, limit);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
     }
 
     /**
@@ -107,7 +588,21 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void postAtweet(@NonNull StateContext context, String content) {
         PostAtweet action = new PostAtweet(this, context, content);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Post a new tweet {@link PostAtweet} with an attached media.
+     * <p>
+     * The media is uploaded with the chunked upload flow of the Twitter API, see {@link MediaUploader}.
+     *
+     * @param context   the {@link StateContext} associated to this action
+     * @param content   the content of the tweet to post
+     * @param mediaPath the path of the media file attached to the tweet
+     */
+    public void postAtweet(@NonNull StateContext context, String content, @NonNull String mediaPath) {
+        PostAtweet action = new PostAtweet(this, context, content, Paths.get(mediaPath));
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -117,7 +612,7 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void receiveDM(@NonNull StateContext context) {
         ReceiveDM action = new ReceiveDM(this, context);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -128,7 +623,40 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void receiveDM(@NonNull StateContext context, @NonNull Integer messagesPerPage) {
         ReceiveDM action = new ReceiveDM(this, context, messagesPerPage);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Shows the direct messages {@link ReceiveDM} received since the previous call if {@code onlyNew} is {@code true}.
+     *
+     * @param context         the {@link StateContext} associated to this action
+     * @param messagesPerPage the number of messages to retrieve per page
+     * @param onlyNew         whether to only return the messages received since the previous call
+     */
+    public void receiveDM(@NonNull StateContext context, @NonNull Integer messagesPerPage, @NonNull Boolean onlyNew) {
+        ReceiveDM action = new ReceiveDM(this, context, messagesPerPage, onlyNew);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Shows the tweets mentioning the configured user since the previous call {@link ReceiveMentions}.
+     *
+     * @param context the {@link StateContext} associated to this action
+     */
+    public void receiveMentions(@NonNull StateContext context) {
+        ReceiveMentions action = new ReceiveMentions(this, context);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Shows the tweets mentioning the configured user since the previous call {@link ReceiveMentions} paginated.
+     *
+     * @param context         the {@link StateContext} associated to this action
+     * @param mentionsPerPage the number of mentions to retrieve per page
+     */
+    public void receiveMentions(@NonNull StateContext context, @NonNull Integer mentionsPerPage) {
+        ReceiveMentions action = new ReceiveMentions(this, context, mentionsPerPage);
+        RuntimeActionResult result = this.call(context, action);
     }
 
     /**
@@ -140,15 +668,663 @@ public class TwitterPlatform extends RuntimePlatform {
      */
     public void sendDM(@NonNull StateContext context, @NonNull String user, @NonNull String text) {
         SendDM action = new SendDM(this, context, user, text);
-        RuntimeActionResult result = action.call();
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Replies to a tweet {@link ReplyToTweet}.
+     *
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to reply to
+     * @param content  the content of the reply
+     */
+    public void replyToTweet(@NonNull StateContext context, @NonNull Long statusId, @NonNull String content) {
+        ReplyToTweet action = new ReplyToTweet(this, context, statusId, content);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Retrieves the thread of a tweet {@link GetThread}.
+     *
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to retrieve the thread of
+     */
+    public void getThread(@NonNull StateContext context, @NonNull Long statusId) {
+        GetThread action = new GetThread(this, context, statusId);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Retrieves the thread of a tweet {@link GetThread}, with at most {@code maxLookups} calls to the Twitter API.
+     *
+     * @param context    the {@link StateContext} associated to this action
+     * @param statusId   the ID of the tweet to retrieve the thread of
+     * @param maxLookups the maximum number of tweets of the thread to retrieve from the Twitter API
+     */
+    public void getThread(@NonNull StateContext context, @NonNull Long statusId, @NonNull Integer maxLookups) {
+        GetThread action = new GetThread(this, context, statusId, maxLookups);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Shows the next page of results of the last search {@link ShowMore}.
+     *
+     * @param context the {@link StateContext} associated to this action
+     */
+    public void showMore(@NonNull StateContext context) {
+        ShowMore action = new ShowMore(this, context);
+        RuntimeActionResult result = this.call(context, action);
+    }
+
+    /**
+     * Search the top worldwide trending topics {@link GetTrends} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getTrendsAsync(@NonNull StateContext context) {
+        return this.callAsync(context, new GetTrends(this, context));
+    }
+
+    /**
+     * Search the top trending topics {@link GetTrends} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param woeid   the woeid of the location to return trending information for
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getTrendsAsync(@NonNull StateContext context, @NonNull Integer woeid) {
+        return this.callAsync(context, new GetTrends(this, context, woeid));
+    }
+
+    /**
+     * Search the top trending topics {@link GetTrends} of the provided location asynchronously.
+     *
+     * @param context      the {@link StateContext} associated to this action
+     * @param locationName the name of the location, in english, to return trending information for
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getTrendsAsync(@NonNull StateContext context, @NonNull String locationName) {
+        return this.callAsync(context, new GetTrends(this, context, locationName));
+    }
+
+    /**
+     * Search the top trending topics {@link GetTrends} of the provided locations asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param woeids  the woeids of the locations to return trending information for
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getTrendsAsync(@NonNull StateContext context,
+                                                    @NonNull Collection<Integer> woeids) {
+        return this.callAsync(context, new GetTrends(this, context, woeids));
+    }
+
+    /**
+     * Search for tweets {@link LookForTweets} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param query   the query to search for tweets
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> lookForTweetsAsync(@NonNull StateContext context, @NonNull String query) {
+        return this.callAsync(context, new LookForTweets(this, context, query));
+    }
+
+    /**
+     * Search for tweets {@link LookForTweets} paginated asynchronously.
+     *
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to return per page
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> lookForTweetsAsync(@NonNull StateContext context, @NonNull String query,
+                                                        @NonNull Integer resultsPerPage) {
+        return this.callAsync(context, new LookForTweets(this, context, query, resultsPerPage));
+    }
+
+    /**
+     * Search for tweets {@link LookForTweets} across multiple pages asynchronously.
+     *
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> lookForTweetsAsync(@NonNull StateContext context, @NonNull String query,
+                                                        @NonNull Integer resultsPerPage, @NonNull Integer maxResults) {
+        return this.callAsync(context, new LookForTweets(this, context, query, resultsPerPage, maxResults));
+    }
+
+    /**
+     * Search for new tweets {@link LookForTweets} across multiple pages asynchronously.
+     *
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     * @param onlyNew        whether to only return the tweets that have not been returned by a previous search
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> lookForTweetsAsync(@NonNull StateContext context, @NonNull String query,
+                                                        @NonNull Integer resultsPerPage, @NonNull Integer maxResults,
+                                                        @NonNull Boolean onlyNew) {
+        return this.callAsync(context, new LookForTweets(this, context, query, resultsPerPage, maxResults,
+                onlyNew));
+    }
+
+    /**
+     * Post a new tweet {@link PostAtweet} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param content the content of the tweet to post
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> postAtweetAsync(@NonNull StateContext context, String content) {
+        return this.callAsync(context, new PostAtweet(this, context, content));
+    }
+
+    /**
+     * Post a new tweet {@link PostAtweet} with an attached media asynchronously.
+     *
+     * @param context   the {@link StateContext} associated to this action
+     * @param content   the content of the tweet to post
+     * @param mediaPath the path of the media file attached to the tweet
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> postAtweetAsync(@NonNull StateContext context, String content,
+                                                     @NonNull String mediaPath) {
+        return this.callAsync(context, new PostAtweet(this, context, content, Paths.get(mediaPath)));
+    }
+
+    /**
+     * Shows the latest incoming direct messages {@link ReceiveDM} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> receiveDMAsync(@NonNull StateContext context) {
+        return this.callAsync(context, new ReceiveDM(this, context));
+    }
+
+    /**
+     * Shows the latest incoming direct messages {@link ReceiveDM} paginated asynchronously.
+     *
+     * @param context         the {@link StateContext} associated to this action
+     * @param messagesPerPage the number of messages to retrieve per page
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> receiveDMAsync(@NonNull StateContext context, @NonNull Integer messagesPerPage) {
+        return this.callAsync(context, new ReceiveDM(this, context, messagesPerPage));
     }
 
     /**
-     * Returns the internal {@link Twitter} service.
+     * Shows the direct messages {@link ReceiveDM} received since the previous call asynchronously.
      *
-     * @return the internal {@link Twitter} service
+     * @param context         the {@link StateContext} associated to this action
+     * @param messagesPerPage the number of messages to retrieve per page
+     * @param onlyNew         whether to only return the messages received since the previous call
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> receiveDMAsync(@NonNull StateContext context, @NonNull Integer messagesPerPage,
+                                                    @NonNull Boolean onlyNew) {
+        return this.callAsync(context, new ReceiveDM(this, context, messagesPerPage, onlyNew));
+    }
+
+    /**
+     * Shows the tweets mentioning the configured user since the previous call {@link ReceiveMentions}
+     * asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> receiveMentionsAsync(@NonNull StateContext context) {
+        return this.callAsync(context, new ReceiveMentions(this, context));
+    }
+
+    /**
+     * Shows the tweets mentioning the configured user since the previous call {@link ReceiveMentions} paginated
+     * asynchronously.
+     *
+     * @param context         the {@link StateContext} associated to this action
+     * @param mentionsPerPage the number of mentions to retrieve per page
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> receiveMentionsAsync(@NonNull StateContext context,
+                                                          @NonNull Integer mentionsPerPage) {
+        return this.callAsync(context, new ReceiveMentions(this, context, mentionsPerPage));
+    }
+
+    /**
+     * Sends a direct message to a user {@link SendDM} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @param user    the user to send the message
+     * @param text    the content of the message
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> sendDMAsync(@NonNull StateContext context, @NonNull String user,
+                                                 @NonNull String text) {
+        return this.callAsync(context, new SendDM(this, context, user, text));
+    }
+
+    /**
+     * Replies to a tweet {@link ReplyToTweet} asynchronously.
+     *
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to reply to
+     * @param content  the content of the reply
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> replyToTweetAsync(@NonNull StateContext context, @NonNull Long statusId,
+                                                       @NonNull String content) {
+        return this.callAsync(context, new ReplyToTweet(this, context, statusId, content));
+    }
+
+    /**
+     * Retrieves the thread of a tweet {@link GetThread} asynchronously.
+     *
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to retrieve the thread of
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getThreadAsync(@NonNull StateContext context, @NonNull Long statusId) {
+        return this.callAsync(context, new GetThread(this, context, statusId));
+    }
+
+    /**
+     * Retrieves the thread of a tweet {@link GetThread} asynchronously, with at most {@code maxLookups} calls to the
+     * Twitter API.
+     *
+     * @param context    the {@link StateContext} associated to this action
+     * @param statusId   the ID of the tweet to retrieve the thread of
+     * @param maxLookups the maximum number of tweets of the thread to retrieve from the Twitter API
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> getThreadAsync(@NonNull StateContext context, @NonNull Long statusId,
+                                                    @NonNull Integer maxLookups) {
+        return this.callAsync(context, new GetThread(this, context, statusId, maxLookups));
+    }
+
+    /**
+     * Shows the next page of results of the last search {@link ShowMore} asynchronously.
+     *
+     * @param context the {@link StateContext} associated to this action
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    public CompletableFuture<Object> showMoreAsync(@NonNull StateContext context) {
+        return this.callAsync(context, new ShowMore(this, context));
+    }
+
+    /**
+     * Executes the provided {@code action} in the calling thread.
+     * <p>
+     * The calls performed by the {@code action} to the Twitter API are tagged with the ID of the provided
+     * {@code context} (see {@link TwitterMetrics#openScope(String)}).
+     *
+     * @param context the {@link StateContext} associated to the action
+     * @param action  the {@link RuntimeAction} to execute
+     * @return the {@link RuntimeActionResult} of the action
+     */
+    @SuppressWarnings("try")
+    private RuntimeActionResult call(StateContext context, RuntimeAction<TwitterPlatform> action) {
+        try (TwitterMetrics.TraceScope ignored = metrics.openScope(context.getContextId())) {
+            return action.call();
+        }
+    }
+
+    /**
+     * Executes the provided {@code action} on the platform's asynchronous executor.
+     * <p>
+     * The action is created (and its parameters checked) by the calling thread, but the calls to the Twitter API
+     * are performed by the asynchronous executor, meaning that the calling thread is not blocked while waiting for
+     * Twitter. Once the action is completed its result is stored in the session of its {@link StateContext} with
+     * the key {@code twitter.result.<action name>} (see {@link #ASYNC_RESULT_SESSION_KEY_PREFIX}), and the returned
+     * {@link CompletableFuture} is completed with the same result. If the action throws an exception (or if the
+     * action cannot be executed or its result cannot be stored) the returned {@link CompletableFuture} is completed
+     * exceptionally and the session is not updated.
+     * <p>
+     * <b>Note</b>: the session key only identifies the action, if the same action is executed concurrently in a
+     * context the key holds the result of the last completed call. The returned {@link CompletableFuture} should be
+     * used to retrieve the result of each call.
+     *
+     * @param context the {@link StateContext} associated to the action
+     * @param action  the {@link RuntimeAction} to execute
+     * @return a {@link CompletableFuture} completed with the result of the action
+     */
+    private CompletableFuture<Object> callAsync(StateContext context, RuntimeAction<TwitterPlatform> action) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    RuntimeActionResult result = this.call(context, action);
+                    if (result.isError()) {
+                        future.completeExceptionally(result.getThrownException());
+                    } else {
+                        Map<Object, Object> session = context.getSession();
+                        synchronized (session) {
+                            session.put(ASYNC_RESULT_SESSION_KEY_PREFIX + action.getClass().getSimpleName(),
+                                    result.getResult());
+                        }
+                        future.complete(result.getResult());
+                    }
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Submits the {@code message} sent by the provided {@code action} to the platform's {@link OutboundDispatcher}.
+     * <p>
+     * The returned {@link CompletableFuture} is stored in the session of the provided {@code context} with the key
+     * {@code twitter.delivery.<action name>} (see {@link #DELIVERY_REPORT_SESSION_KEY_PREFIX}), meaning that the bot
+     * can retrieve the delivery report of a message once the action sending it has returned.
+     *
+     * @param context the {@link StateContext} associated to the action
+     * @param action  the {@link RuntimeAction} sending the message
+     * @param message the {@link OutboundMessage} to send
+     * @return a {@link CompletableFuture} completed with the {@link DeliveryReport} of the message
+     * @see OutboundDispatcher#submit(OutboundMessage)
+     */
+    public CompletableFuture<DeliveryReport> submit(@NonNull StateContext context,
+                                                    @NonNull RuntimeAction<TwitterPlatform> action,
+                                                    @NonNull OutboundMessage message) {
+        CompletableFuture<DeliveryReport> report = outboundDispatcher.submit(message);
+        Map<Object, Object> session = context.getSession();
+        synchronized (session) {
+            session.put(DELIVERY_REPORT_SESSION_KEY_PREFIX + action.getClass().getSimpleName(), report);
+        }
+        return report;
+    }
+
+    /**
+     * Returns the internal {@link Twitter} service of the primary account.
+     *
+     * @return the internal {@link Twitter} service of the primary account
+     * @see AccountPool#getPrimary()
      */
     public Twitter getTwitterService() {
-        return this.twitterService;
+        return this.accountPool.getPrimary().getTwitter();
+    }
+
+    /**
+     * Returns the {@link RateLimitScheduler} holding the rate-limit budget of the primary account.
+     *
+     * @return the {@link RateLimitScheduler} holding the rate-limit budget of the primary account
+     * @see AccountPool#getPrimary()
+     */
+    public RateLimitScheduler getRateLimitScheduler() {
+        return this.accountPool.getPrimary().getRateLimitScheduler();
+    }
+
+    /**
+     * Returns the {@link AccountPool} containing the Twitter accounts used by the platform.
+     *
+     * @return the {@link AccountPool} containing the Twitter accounts used by the platform
+     */
+    public AccountPool getAccountPool() {
+        return this.accountPool;
+    }
+
+    /**
+     * Returns the {@link TwitterMetrics} recording the calls performed by the platform to the Twitter API.
+     *
+     * @return the {@link TwitterMetrics} of the platform
+     */
+    public TwitterMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the {@link ResiliencePolicy} retrying the failed calls and holding the circuit breakers of the
+     * endpoints.
+     *
+     * @return the {@link ResiliencePolicy} of the platform
+     */
+    public ResiliencePolicy getResiliencePolicy() {
+        return this.resiliencePolicy;
+    }
+
+    /**
+     * Returns the {@link StateStore} persisting the state of the platform across restarts.
+     *
+     * @return the {@link StateStore} persisting the state of the platform
+     */
+    public StateStore getStateStore() {
+        return this.stateStore;
+    }
+
+    /**
+     * Returns the {@link ResultFormatter} rendering the results of the actions.
+     * <p>
+     * The actions return {@link com.xatkit.plugins.twitter.platform.format.FormattedResults} lists formatting their
+     * records with this formatter when they are accessed.
+     *
+     * @return the {@link ResultFormatter} rendering the results of the actions
+     * @see TwitterUtils#TWITTER_FORMATTER_KEY
+     */
+    public ResultFormatter<?> getFormatter() {
+        return this.formatter;
+    }
+
+    /**
+     * Returns the {@link KeywordMatcher} matching the received tweets and direct messages against the configured
+     * keywords.
+     * <p>
+     * The IDs of the keywords matched by a tweet or a direct message are attached to the events emitted by the
+     * platform's providers and to the records returned by the actions.
+     *
+     * @return the {@link KeywordMatcher} of the platform (that does not match anything if no keyword is configured)
+     * @see TwitterUtils#TWITTER_MATCHER_KEYWORDS_PREFIX
+     */
+    public KeywordMatcher getKeywordMatcher() {
+        return this.keywordMatcher;
+    }
+
+    /**
+     * Returns the {@link MediaUploader} uploading the media attached to the posted tweets.
+     * <p>
+     * The returned uploader can be used to upload media read from an {@link java.io.InputStream}, or to resume a
+     * failed upload.
+     *
+     * @return the {@link MediaUploader} of the platform
+     * @see TwitterUtils#TWITTER_MEDIA_CHUNK_SIZE_KEY
+     */
+    public MediaUploader getMediaUploader() {
+        return this.mediaUploader;
+    }
+
+    /**
+     * Returns the {@link UserResolver} used to resolve and cache Twitter users.
+     *
+     * @return the {@link UserResolver} used to resolve and cache Twitter users
+     */
+    public UserResolver getUserResolver() {
+        return this.userResolver;
+    }
+
+    /**
+     * Returns the {@link ConversationIndex} recording the reply graph of the tweets seen and posted by the platform.
+     * <p>
+     * The returned index answers thread queries without accessing the Twitter API, see
+     * {@link ConversationIndex#getThread(long)}.
+     *
+     * @return the {@link ConversationIndex} of the platform
+     * @see TwitterUtils#TWITTER_CONVERSATION_INDEX_SIZE_KEY
+     */
+    public ConversationIndex getConversationIndex() {
+        return this.conversationIndex;
+    }
+
+    /**
+     * Returns the {@link ResultPager} keeping the cursor of the last search of each context.
+     * <p>
+     * The cursors are opened by the {@link LookForTweets} and {@link ReceiveDM} actions, and their following pages
+     * are returned by the {@link ShowMore} action.
+     *
+     * @return the {@link ResultPager} of the platform
+     * @see TwitterUtils#TWITTER_PAGING_MAX_CONTEXTS_KEY
+     * @see TwitterUtils#TWITTER_PAGING_IDLE_TIMEOUT_KEY
+     * @see TwitterUtils#TWITTER_PAGING_MAX_PAGE_SIZE_KEY
+     * @see TwitterUtils#TWITTER_PAGING_PREFETCH_KEY
+     */
+    public ResultPager getResultPager() {
+        return this.resultPager;
+    }
+
+    /**
+     * Returns the {@link LocationIndex} used to retrieve the WOEID of the trend locations.
+     *
+     * @return the {@link LocationIndex} used to retrieve the WOEID of the trend locations
+     */
+    public LocationIndex getLocationIndex() {
+        return this.locationIndex;
+    }
+
+    /**
+     * Returns the {@link TrendService} used to retrieve and cache the trends of the Twitter locations.
+     *
+     * @return the {@link TrendService} used to retrieve and cache the trends of the Twitter locations
+     */
+    public TrendService getTrendService() {
+        return this.trendService;
+    }
+
+    /**
+     * Returns the {@link IncrementalReceiver} used to retrieve the direct messages and mentions received since the
+     * last poll.
+     *
+     * @return the {@link IncrementalReceiver} used to retrieve the new direct messages and mentions
+     */
+    public IncrementalReceiver getIncrementalReceiver() {
+        return this.incrementalReceiver;
+    }
+
+    /**
+     * Returns the {@link SearchTracker} used to only return the new tweets of repeated searches.
+     *
+     * @return the {@link SearchTracker} of the platform
+     */
+    public SearchTracker getSearchTracker() {
+        return this.searchTracker;
+    }
+
+    /**
+     * Returns the {@link ScheduledExecutorService} running the platform's background tasks.
+     *
+     * @return the {@link ScheduledExecutorService} running the platform's background tasks
+     */
+    public ScheduledExecutorService getBackgroundExecutor() {
+        return this.backgroundExecutor;
+    }
+
+    /**
+     * Returns the {@link OutboundDispatcher} queuing and pacing the tweets and direct messages sent by the platform.
+     *
+     * @return the {@link OutboundDispatcher} queuing and pacing the tweets and direct messages sent by the platform
+     */
+    public OutboundDispatcher getOutboundDispatcher() {
+        return this.outboundDispatcher;
+    }
+
+    /**
+     * Returns the {@link ExecutorService} running the asynchronous actions of the platform.
+     *
+     * @return the {@link ExecutorService} running the asynchronous actions of the platform
+     */
+    public ExecutorService getAsyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    /**
+     * Returns the {@link UserSummary} of the authenticated user (i.e. the bot's account).
+     * <p>
+     * The authenticated user is resolved once and then cached by the platform.
+     *
+     * @return the {@link UserSummary} of the authenticated user
+     * @throws TwitterException if an error occurred when resolving the authenticated user
+     */
+    public UserSummary getSelf() throws TwitterException {
+        UserSummary result = this.self;
+        if (result == null) {
+            synchronized (this) {
+                result = this.self;
+                if (result == null) {
+                    result = UserSummary.of(this.execute(TwitterEndpoint.VERIFY_CREDENTIALS,
+                            Twitter::verifyCredentials));
+                    userResolver.cache(result);
+                    this.self = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the {@link ResultFormatter} with the provided {@code name}.
+     *
+     * @param name the name of a built-in formatter, or the fully qualified name of a {@link ResultFormatter}
+     *             implementation
+     * @return the created {@link ResultFormatter}
+     * @throws XatkitException if the formatter cannot be created
+     */
+    private static ResultFormatter<?> createFormatter(String name) {
+        switch (name) {
+            case "slack":
+                return new SlackAttachmentFormatter();
+            case "text":
+                return new PlainTextFormatter();
+            case "json":
+                return new JsonFormatter();
+            case "records":
+                return new RecordFormatter();
+            default:
+                try {
+                    return Class.forName(name).asSubclass(ResultFormatter.class).getConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new XatkitException("Cannot create the result formatter " + name + ", expected one of "
+                            + Arrays.asList("slack", "text", "json", "records") + " or the name of a "
+                            + ResultFormatter.class.getSimpleName() + " implementation", e);
+                }
+        }
+    }
+
+    /**
+     * Creates the {@link ExecutorService} running the asynchronous actions of the platform.
+     * <p>
+     * This method creates a virtual thread per task executor if the JVM supports virtual threads and they are not
+     * disabled by the {@link TwitterUtils#TWITTER_ASYNC_VIRTUAL_THREADS_KEY} property. Otherwise, it creates a fixed
+     * pool of {@link TwitterUtils#TWITTER_ASYNC_THREADS_KEY} daemon threads.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @return the created {@link ExecutorService}
+     */
+    private static ExecutorService createAsyncExecutor(Configuration configuration) {
+        if (configuration.getBoolean(TwitterUtils.TWITTER_ASYNC_VIRTUAL_THREADS_KEY, true)) {
+            try {
+                /*
+                 * Virtual threads are accessed reflectively to keep the platform compatible with Java 8.
+                 */
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                Log.debug("{0} Virtual threads are not supported by the JVM, using a fixed thread pool to run the "
+                        + "asynchronous actions", TwitterPlatform.class.getSimpleName());
+            }
+        }
+        int threads = configuration.getInt(TwitterUtils.TWITTER_ASYNC_THREADS_KEY, TwitterUtils.DEFAULT_ASYNC_THREADS);
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Platform Async Action " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
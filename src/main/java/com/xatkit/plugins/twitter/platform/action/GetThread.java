@@ -0,0 +1,106 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.core.platform.action.RuntimeAction;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.format.TweetRecord;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+import java.util.List;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Shows the thread of the tweet with the provided {@code statusId}.
+ * <p>
+ * This class relies on the {@link TwitterPlatform}'s
+ * {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex} to rebuild the thread from the tweets seen
+ * by the platform, and only retrieves the missing ancestors of the tweet from the Twitter API.
+ */
+public class GetThread extends RuntimeAction<TwitterPlatform> {
+
+    /**
+     * The default maximum number of tweets of the thread retrieved from the Twitter API.
+     * <p>
+     * This value can be customized with {@link #GetThread(TwitterPlatform, StateContext, Long, Integer)}.
+     */
+    private static final int DEFAULT_MAX_LOOKUPS = 10;
+
+    /**
+     * The ID of the tweet to retrieve the thread of.
+     */
+    private Long statusId;
+
+    /**
+     * The maximum number of tweets of the thread retrieved from the Twitter API. Defaults to 10.
+     */
+    private Integer maxLookups;
+
+    /**
+     * Shows the thread of a tweet {@link GetThread} with the provided {@code platform}, {@code context}, and
+     * {@code statusId}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this action
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to retrieve the thread of
+     */
+    public GetThread(@NonNull TwitterPlatform platform, @NonNull StateContext context, @NonNull Long statusId) {
+        this(platform, context, statusId, DEFAULT_MAX_LOOKUPS);
+    }
+
+    /**
+     * Shows the thread of a tweet {@link GetThread} with the provided {@code platform}, {@code context},
+     * {@code statusId}, and {@code maxLookups}.
+     *
+     * @param platform   the {@link TwitterPlatform} containing this action
+     * @param context    the {@link StateContext} associated to this action
+     * @param statusId   the ID of the tweet to retrieve the thread of
+     * @param maxLookups the maximum number of tweets of the thread to retrieve from the Twitter API ({@code 0} to
+     *                   only return the tweets seen by the platform)
+     */
+    public GetThread(@NonNull TwitterPlatform platform, @NonNull StateContext context, @NonNull Long statusId,
+                     @NonNull Integer maxLookups) {
+        super(platform, context);
+        checkArgument(maxLookups >= 0, "Cannot construct a %s action with the provided maxLookups %s, expected a "
+                + "positive integer", this.getClass().getSimpleName(), maxLookups);
+        this.statusId = statusId;
+        this.maxLookups = maxLookups;
+    }
+
+    /**
+     * Retrieves the thread of the tweet with the provided {@code statusId}.
+     * <p>
+     * The thread contains the ancestors of the tweet followed by the tweet itself, from the oldest to the newest.
+     * The tweets recorded in the platform's {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex}
+     * are not retrieved again, and the thread stops at the first ancestor that cannot be retrieved (deleted or
+     * protected tweet, or {@code maxLookups} reached).
+     *
+     * @return 0 if the tweet cannot be found, 1 in case of an error, or a {@link FormattedResults} list rendering
+     * the tweets of the thread with the platform's {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}
+     */
+    @Override
+    protected Object compute() {
+        String result = "0";
+        try {
+            List<TweetRecord> thread = this.runtimePlatform.getConversationIndex().resolveThread(statusId,
+                    maxLookups);
+            if (!thread.isEmpty()) {
+                return FormattedResults.ofTweets(thread, this.runtimePlatform.getFormatter());
+            }
+        } catch (RateLimitExceededException | CircuitOpenException e) {
+            result = "1";
+            Log.warn("{0} Cannot retrieve the thread of the tweet {1}: {2}", this.getClass().getSimpleName(),
+                    String.valueOf(statusId), e.getMessage());
+        } catch (TwitterException e) {
+            result = "1";
+            Log.error(e, "{0} Cannot retrieve the thread of the tweet {1}", this.getClass().getSimpleName(),
+                    String.valueOf(statusId));
+        }
+        return result;
+    }
+}
@@ -1,17 +1,19 @@
 package com.xatkit.plugins.twitter.platform.action;
 
-import com.github.seratch.jslack.api.model.Attachment;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.service.AggregatedTrends;
+import com.xatkit.plugins.twitter.platform.service.CachedTrends;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
-import twitter4j.Location;
-import twitter4j.Trend;
-import twitter4j.Trends;
-import twitter4j.Twitter;
 import twitter4j.TwitterException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
@@ -32,6 +34,20 @@ public class GetTrends extends RuntimeAction<TwitterPlatform> {
      */
     private Integer woeid;
 
+    /**
+     * The 'Yahoo! Where On Earth ID's of the locations to return merged trending information for, or {@code null} if
+     * this action returns the trends of a single location.
+     */
+    private List<Integer> woeids;
+
+    /**
+     * The name of the location to return trending information for, or {@code null} if this action has been created
+     * with WOEIDs.
+     * <p>
+     * The WOEID of this location is resolved when the action is computed.
+     */
+    private String locationName;
+
     /**
      * Search the top worldwide trending topics {@link LookForTweets} action with the provided {@code platform},
      * {@code context}.
@@ -66,6 +82,12 @@ public class GetTrends extends RuntimeAction<TwitterPlatform> {
      * {@code context} and {@code locationName}.
      * <p>
      * If no woeid is obtained for locationName, worldwide trends are returned.
+     * <p>
+     * The WOEID of {@code locationName} is retrieved from the platform's
+     * {@link com.xatkit.plugins.twitter.platform.service.LocationIndex}, see
+     * {@link com.xatkit.plugins.twitter.platform.service.LocationIndex#findWoeid(String)} for the supported lookups.
+     * The lookup is performed when the action is computed, and does not block the thread constructing the action
+     * while the index is loaded.
      *
      * @param platform     the {@link TwitterPlatform} containing this action
      * @param context      the {@link StateContext} associated to this action
@@ -77,8 +99,28 @@ public class GetTrends extends RuntimeAction<TwitterPlatform> {
                 "Cannot construct a %s action with the provided locationName %s, expected a non-null and not empty "
                         + "String",
                 this.getClass().getSimpleName(), locationName);
+        this.locationName = locationName;
+    }
 
-        this.woeid = getWoeIdByLocationName(locationName);
+    /**
+     * Search the top trending topics {@link GetTrends} action of multiple locations with the provided
+     * {@code platform}, {@code context} and {@code woeids}.
+     * <p>
+     * The trends of the locations are retrieved concurrently and merged into a single ranked view (see
+     * {@link com.xatkit.plugins.twitter.platform.service.TrendService#getTrends(Collection)}).
+     *
+     * @param platform the {@link TwitterPlatform} containing this action
+     * @param context  the {@link StateContext} associated to this action
+     * @param woeids   the woeids of the locations to return trending information for
+     */
+    public GetTrends(@NonNull TwitterPlatform platform, @NonNull StateContext context,
+                     @NonNull Collection<Integer> woeids) {
+        super(platform, context);
+        checkArgument(!woeids.isEmpty() && woeids.stream().allMatch(w -> w != null && w > 0),
+                "Cannot construct a %s action with the provided woeids %s, expected a non-empty collection of "
+                        + "greater than 0 integers", this.getClass().getSimpleName(), woeids);
+        this.woeid = woeids.iterator().next();
+        this.woeids = new ArrayList<>(woeids);
     }
 
     /**
@@ -86,42 +128,45 @@ public class GetTrends extends RuntimeAction<TwitterPlatform> {
      * information is cached for 5 minutes. Requesting more frequently than that will not return any more data, and will
      * count against rate limit usage.
      * <p>
+     * The trends are retrieved from the platform's {@link com.xatkit.plugins.twitter.platform.service.TrendService},
+     * that only accesses the Twitter API once per location every 5 minutes, and are formatted at most once per
+     * refresh with the platform's {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}.
+     *
+     * <p>
+     * If this action has been created with multiple WOEIDs the trends of the locations are merged, and the trends
+     * retrieved before the deadline of the platform's
+     * {@link com.xatkit.plugins.twitter.platform.service.TrendService} are returned.
      *
-     * @return 0 if there are no trends for the location, or a list of the trends for the WOEID
+     * @return 0 if there are no trends for the location, 1 in case of an error, or a {@link FormattedResults} list
+     * rendering the trends of the WOEID
      */
     @Override
     protected Object compute() {
         String result = "0";
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
-        List<Trend> trendsList = new ArrayList<>();
-        List<Attachment> attachments = new ArrayList<>();
+
+        if (woeids != null) {
+            AggregatedTrends trends = this.runtimePlatform.getTrendService().getTrends(woeids);
+            if (!trends.isEmpty()) {
+                return FormattedResults.ofTrends(trends.getTrends(), this.runtimePlatform.getFormatter());
+            }
+            return trends.isComplete() ? "0" : "1";
+        }
+
+        if (locationName != null) {
+            woeid = this.runtimePlatform.getLocationIndex().findWoeid(locationName);
+        }
 
         // First WOEID is 1 which correspond to "Worldwide"
         if (woeid > 0) {
             try {
-                Trends trends = twitterService.getPlaceTrends(woeid);
-                if (trends.getTrends().length > 0) {
-                    for (Trend trend : trends.getTrends()) {
-                        trendsList.add(trend);
-
-                        Attachment.AttachmentBuilder attachmentBuilder = Attachment.builder();
-                        Integer tweetVolume = trend.getTweetVolume();
-                        if (tweetVolume > 0) {
-                            attachmentBuilder.text("Tweet volume: " + tweetVolume);
-                        } else {
-                            attachmentBuilder.text("Tweet volume: undefined");
-                        }
-                        attachmentBuilder.title(trend.getName());
-                        attachmentBuilder.titleLink(trend.getURL());
-                        attachmentBuilder.color("#1da1f2");
-                        attachments.add(attachmentBuilder.build());
-                    }
-                }
-
-                if (trendsList.size() > 0) {
-                    // return trendsList;
-                    return attachments;
+                CachedTrends trends = this.runtimePlatform.getTrendService().getTrends(woeid);
+                if (!trends.isEmpty()) {
+                    return trends.getFormatted(this.runtimePlatform.getFormatter());
                 }
+            } catch (RateLimitExceededException | CircuitOpenException e) {
+                result = "1";
+                Log.warn("{0} Cannot retrieve the trends of WOEID {1}: {2}", this.getClass().getSimpleName(), woeid,
+                        e.getMessage());
             } catch (TwitterException e) {
                 result = "1";
                 e.printStackTrace();
@@ -131,31 +176,4 @@ public class GetTrends extends RuntimeAction<TwitterPlatform> {
         return result;
     }
 
-    /**
-     * Returns the WOEID that corresponds with the {@code locationName}.
-     * <p>
-     * The provided {@code locationName} must be in English. This method searches for
-     * {@code locationName} in the list of available trends on Twitter and returns the corresponding WOEID if it
-     * exists.
-     *
-     * @param locationName the name of the location to search the WOEID
-     * @return the WOEID corresponding to {@code locationName}, or {@code -1} if there is no WOEID matching {@code
-     * locationName}
-     */
-    private Integer getWoeIdByLocationName(String locationName) {
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
-        int foundWoeid = -1;
-        try {
-            for (Location location : twitterService.getAvailableTrends()) {
-                if (location.getName().toLowerCase().equals(locationName.toLowerCase())) {
-                    foundWoeid = location.getWoeid();
-                    break;
-                }
-            }
-        } catch (TwitterException e) {
-            e.printStackTrace();
-        }
-        return foundWoeid;
-    }
-
 }
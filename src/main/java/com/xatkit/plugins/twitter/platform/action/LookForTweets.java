@@ -1,24 +1,35 @@
 package com.xatkit.plugins.twitter.platform.action;
 
-import com.github.seratch.jslack.api.model.Attachment;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.format.ResultFormatter;
+import com.xatkit.plugins.twitter.platform.format.TweetRecord;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.KeywordMatcher;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import com.xatkit.plugins.twitter.platform.service.ResultPager;
+import com.xatkit.plugins.twitter.platform.service.TweetSearchIterator;
+import com.xatkit.plugins.twitter.platform.service.UncheckedTwitterException;
+import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import twitter4j.Query;
-import twitter4j.QueryResult;
 import twitter4j.Status;
-import twitter4j.Twitter;
-import twitter4j.TwitterException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 
 /**
- * Searches for tweets with the provided search terms {@code query}. Right now it can only return the first page of the
- * results obtained.
+ * Searches for tweets with the provided search terms {@code query}. By default only the first page of the results is
+ * returned, use {@link #LookForTweets(TwitterPlatform, StateContext, String, Integer, Integer)} to retrieve the
+ * following pages, and {@link #LookForTweets(TwitterPlatform, StateContext, String, Integer, Integer, Boolean)} to
+ * only retrieve the tweets that have not been returned by a previous search. The following results of a search can
+ * be retrieved with the {@link ShowMore} action.
  * <p>
  * This class relies on the {@link TwitterPlatform}'s to integrate with twitter.
  */
@@ -49,6 +60,16 @@ public class LookForTweets extends RuntimeAction<TwitterPlatform> {
      */
     private Integer resultsPerPage;
 
+    /**
+     * The maximum number of tweets to return. Defaults to {@link #resultsPerPage} (i.e. a single page).
+     */
+    private Integer maxResults;
+
+    /**
+     * Whether to only return the tweets that have not been returned by a previous search of the same query.
+     */
+    private boolean onlyNew;
+
     /**
      * Seach for tweets {@link LookForTweets} action with the provided {@code platform}, {@code context},
      * {@code query}.
@@ -63,6 +84,7 @@ public class LookForTweets extends RuntimeAction<TwitterPlatform> {
                 + " %s, expected a non-null and not empty String", this.getClass().getSimpleName(), query);
         this.query = query;
         this.resultsPerPage = DEFAULT_RESULTS_PER_PAGE;
+        this.maxResults = DEFAULT_RESULTS_PER_PAGE;
     }
 
     /**
@@ -84,49 +106,164 @@ public class LookForTweets extends RuntimeAction<TwitterPlatform> {
                 + "equal to 100 integer", this.getClass().getSimpleName(), resultsPerPage);
         this.query = query;
         this.resultsPerPage = resultsPerPage;
+        this.maxResults = resultsPerPage;
+    }
+
+    /**
+     * Seach for tweets {@link LookForTweets} action with the provided {@code platform}, {@code context},
+     * {@code query}, retrieving up to {@code maxResults} tweets across multiple pages.
+     * <p>
+     * The result pages are fetched lazily (see {@link TwitterPlatform#searchTweets(Query, int)}), and the search
+     * stops as soon as {@code maxResults} tweets have been retrieved or there is no more result.
+     *
+     * @param platform       the {@link TwitterPlatform} containing this action
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     */
+    public LookForTweets(@NonNull TwitterPlatform platform, @NonNull StateContext context, @NonNull String query,
+                         @NonNull Integer resultsPerPage, @NonNull Integer maxResults) {
+        this(platform, context, query, resultsPerPage);
+        checkArgument(maxResults > 0, "Cannot construct a %s action with the provided maxResults %s, expected a "
+                + "non-null and greater than 0 integer", this.getClass().getSimpleName(), maxResults);
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Seach for tweets {@link LookForTweets} action with the provided {@code platform}, {@code context},
+     * {@code query}, retrieving up to {@code maxResults} tweets across multiple pages.
+     * <p>
+     * If {@code onlyNew} is {@code true} the tweets returned by a previous search of the same {@code query} are not
+     * returned again (see {@link com.xatkit.plugins.twitter.platform.service.SearchTracker}), and the search only
+     * requests the tweets posted since the previous one. This is typically used by bots polling the same query to
+     * monitor a hashtag.
+     *
+     * @param platform       the {@link TwitterPlatform} containing this action
+     * @param context        the {@link StateContext} associated to this action
+     * @param query          the query to search for tweets
+     * @param resultsPerPage the number of tweets to retrieve per page
+     * @param maxResults     the maximum number of tweets to return
+     * @param onlyNew        whether to only return the tweets that have not been returned by a previous search
+     */
+    public LookForTweets(@NonNull TwitterPlatform platform, @NonNull StateContext context, @NonNull String query,
+                         @NonNull Integer resultsPerPage, @NonNull Integer maxResults, @NonNull Boolean onlyNew) {
+        this(platform, context, query, resultsPerPage, maxResults);
+        this.onlyNew = onlyNew;
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * This action opens a new conection to with twiter and searches for tweets with search terms {@code query} and
-     * return {@code resultsPerPage} resultss.
+     * return {@code resultsPerPage} resultss. If {@code maxResults} is greater than {@code resultsPerPage} the
+     * following pages are retrieved until {@code maxResults} tweets have been found.
+     * <p>
+     * If the search has more results they can be retrieved with the {@link ShowMore} action: this action opens a
+     * cursor for its {@link StateContext} in the platform's {@link ResultPager}, which fetches the following pages on
+     * demand. Searches of new tweets ({@code onlyNew}) do not open a cursor.
      *
-     * @return 0 if no errors; 1 if errors
+     * @return 0 if there are no tweets, 1 in case of an error, or a {@link FormattedResults} list rendering the
+     * tweets with the platform's {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}
      */
     @Override
     protected Object compute() {
-        String result = "";
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
-        List<Attachment> attachments = new ArrayList<>();
+        List<TweetRecord> records = new ArrayList<>();
+        ResultPager pager = this.runtimePlatform.getResultPager();
+        pager.evict(this.context);
         /*
          * Gets the twitter API instance and calls search method to retrieve tweets that are the result of the search.
          */
-        try {
-            Query query = new Query(this.query);
-            query.setCount(resultsPerPage);
-
-            QueryResult queryResult = twitterService.search(query);
-            List<Status> tweetsList = queryResult.getTweets();
-            if (!tweetsList.isEmpty()) {
-                for (Status tweet : tweetsList) {
-                    Attachment.AttachmentBuilder attachmentBuilder = Attachment.builder();
-                    String authorName = tweet.getUser().getName() + " @" + tweet.getUser().getScreenName();
-                    String text = tweet.getText();
-
-                    attachmentBuilder.authorName(authorName);
-                    attachmentBuilder.text(text);
-                    attachmentBuilder.color("#1da1f2");
-                    attachmentBuilder.ts(String.valueOf(tweet.getCreatedAt().getTime() / 1000));
-                    attachments.add(attachmentBuilder.build());
+        Query query = new Query(this.query);
+        query.setCount(resultsPerPage);
+        KeywordMatcher matcher = this.runtimePlatform.getKeywordMatcher();
+        if (onlyNew) {
+            try (Stream<Status> tweets = this.runtimePlatform.getSearchTracker().searchNewTweets(query, maxResults)) {
+                tweets.forEach(tweet -> records.add(TweetRecord.of(tweet, matcher)));
+            } catch (UncheckedTwitterException e) {
+                return this.handleError(e, records);
+            }
+        } else {
+            /*
+             * The iterator is not limited to maxResults: the rest of its current page is returned by the following
+             * calls to ShowMore.
+             */
+            TweetSearchIterator tweets = new TweetSearchIterator(this.runtimePlatform, query, Integer.MAX_VALUE);
+            try {
+                while (records.size() < maxResults && tweets.hasNext()) {
+                    records.add(TweetRecord.of(tweets.next(), matcher));
                 }
-                return attachments;
+            } catch (UncheckedTwitterException e) {
+                return this.handleError(e, records);
+            }
+            if (!records.isEmpty() && !tweets.isExhausted()) {
+                pager.open(this.context, Math.min(maxResults, MAX_RESULTS_PER_PAGE), nextTweets(tweets, matcher),
+                        formatTweets(this.runtimePlatform.getFormatter()));
             }
-            result = "0";
-        } catch (TwitterException e) {
-            result = "1";
-            e.printStackTrace();
         }
-        return result;
+        if (records.isEmpty()) {
+            return "0";
+        }
+        return FormattedResults.ofTweets(records, this.runtimePlatform.getFormatter());
+    }
+
+    /**
+     * Reports the provided search {@code error}.
+     *
+     * @param error   the {@link UncheckedTwitterException} thrown by the search
+     * @param records the tweets retrieved before the error
+     * @return 1 if no tweet has been retrieved, or a {@link FormattedResults} list rendering the retrieved tweets
+     */
+    private Object handleError(UncheckedTwitterException error, List<TweetRecord> records) {
+        if (error.getCause() instanceof RateLimitExceededException
+                || error.getCause() instanceof CircuitOpenException) {
+            Log.warn("{0} Cannot search tweets: {1}", this.getClass().getSimpleName(), error.getMessage());
+        } else {
+            Log.error(error.getCause(), "{0} Cannot search tweets", this.getClass().getSimpleName());
+        }
+        if (records.isEmpty()) {
+            return "1";
+        }
+        Log.warn("{0} Returning the {1} tweets retrieved before the error", this.getClass().getSimpleName(),
+                records.size());
+        return FormattedResults.ofTweets(records, this.runtimePlatform.getFormatter());
+    }
+
+    /**
+     * Creates a {@link ResultPager.PageSource} returning the following results of the provided {@code tweets}.
+     * <p>
+     * This method is static to make sure the returned source does not reference the action (and its
+     * {@link StateContext}). The source returns the tweets retrieved before an error, and the next page resumes the
+     * search if the error is temporary (see {@link TweetSearchIterator}).
+     *
+     * @param tweets  the {@link TweetSearchIterator} to return the results of
+     * @param matcher the {@link KeywordMatcher} matching the returned tweets
+     * @return the created {@link ResultPager.PageSource}
+     */
+    private static ResultPager.PageSource<TweetRecord> nextTweets(TweetSearchIterator tweets,
+                                                                  KeywordMatcher matcher) {
+        return count -> {
+            List<TweetRecord> page = new ArrayList<>(count);
+            try {
+                while (page.size() < count && tweets.hasNext()) {
+                    page.add(TweetRecord.of(tweets.next(), matcher));
+                }
+            } catch (UncheckedTwitterException e) {
+                if (page.isEmpty()) {
+                    throw e.getCause();
+                }
+            }
+            return page;
+        };
+    }
+
+    /**
+     * Creates a {@link Function} rendering the pages returned by the {@link ShowMore} action.
+     *
+     * @param formatter the platform's {@link ResultFormatter}
+     * @return the created {@link Function}
+     */
+    private static Function<List<TweetRecord>, Object> formatTweets(ResultFormatter<?> formatter) {
+        return page -> FormattedResults.ofTweets(page, formatter);
     }
 }
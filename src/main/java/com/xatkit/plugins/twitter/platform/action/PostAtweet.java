@@ -3,9 +3,18 @@ package com.xatkit.plugins.twitter.platform.action;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryReport;
+import com.xatkit.plugins.twitter.platform.outbound.OutboundMessage;
+import com.xatkit.plugins.twitter.platform.service.MediaUpload;
+import com.xatkit.plugins.twitter.platform.service.MediaUploader;
+import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
-import twitter4j.Twitter;
-import twitter4j.TwitterException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Adds a property to the provided {@code node}.
@@ -18,6 +27,26 @@ public class PostAtweet extends RuntimeAction<TwitterPlatform> {
      */
     private String content;
 
+    /**
+     * The media file attached to the tweet, or {@code null}.
+     */
+    private Path mediaFile;
+
+    /**
+     * The {@link InputStream} to read the media attached to the tweet from, or {@code null}.
+     */
+    private InputStream mediaStream;
+
+    /**
+     * The size of the media read from {@link #mediaStream}, in bytes.
+     */
+    private long mediaSize;
+
+    /**
+     * The MIME type of the media read from {@link #mediaStream}.
+     */
+    private String mediaType;
+
     /**
      * Post a new tweet {@link PostAtweet} action with the provided {@code platform}, {@code context},
      * {@code content}.
@@ -31,26 +60,101 @@ public class PostAtweet extends RuntimeAction<TwitterPlatform> {
         this.content = content;
     }
 
+    /**
+     * Post a new tweet {@link PostAtweet} action with the provided {@code platform}, {@code context},
+     * {@code content}, and {@code mediaFile}.
+     *
+     * @param platform  the {@link TwitterPlatform} containing this action
+     * @param context   the {@link StateContext} associated to this action
+     * @param content   the content of the tweet to post
+     * @param mediaFile the media file attached to the tweet
+     * @see MediaUploader#upload(Path)
+     */
+    public PostAtweet(@NonNull TwitterPlatform platform, @NonNull StateContext context, String content,
+                      @NonNull Path mediaFile) {
+        this(platform, context, content);
+        this.mediaFile = mediaFile;
+    }
+
+    /**
+     * Post a new tweet {@link PostAtweet} action with the provided {@code platform}, {@code context},
+     * {@code content}, and the media read from {@code mediaStream}.
+     * <p>
+     * The {@code mediaStream} is not closed by this action.
+     *
+     * @param platform    the {@link TwitterPlatform} containing this action
+     * @param context     the {@link StateContext} associated to this action
+     * @param content     the content of the tweet to post
+     * @param mediaStream the {@link InputStream} to read the media attached to the tweet from
+     * @param mediaSize   the size of the media, in bytes
+     * @param mediaType   the MIME type of the media (e.g. {@code image/png} or {@code video/mp4})
+     * @see MediaUploader#upload(InputStream, long, String)
+     */
+    public PostAtweet(@NonNull TwitterPlatform platform, @NonNull StateContext context, String content,
+                      @NonNull InputStream mediaStream, long mediaSize, @NonNull String mediaType) {
+        this(platform, context, content);
+        this.mediaStream = mediaStream;
+        this.mediaSize = mediaSize;
+        this.mediaType = mediaType;
+    }
+
     /**
      * Post a tweet with the provided {@code content}.
      * <p>
-     * This action opens a new conection to with twiter and posts a tweet with the content specified by the chatbot.
+     * This action submits the tweet to the platform's
+     * {@link com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher}, which posts it asynchronously. The
+     * media attached to the tweet is first uploaded with the platform's {@link MediaUploader}, and the tweet is
+     * submitted once the media has been processed by Twitter.
+     * <p>
+     * This action does not wait for the tweet to be posted: the {@link CompletableFuture} completed with its
+     * {@link DeliveryReport} is stored in the session of the action's context with the key
+     * {@code twitter.delivery.PostAtweet} (see {@link TwitterPlatform#DELIVERY_REPORT_SESSION_KEY_PREFIX}), and
+     * reports the tweets that cannot be posted once they have been queued.
      *
-     * @return 0 if no errors; 1 if errors
+     * @return 0 if the tweet has been queued or posted; 1 if it has been rejected (duplicate or full queue), if its
+     * media cannot be uploaded, or if it failed before this action returned
      */
     @Override
     protected Object compute() {
         int error = 0;
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
+        long[] mediaIds = new long[0];
+        if (mediaFile != null || mediaStream != null) {
+            try {
+                mediaIds = new long[]{this.uploadMedia().get().getMediaId()};
+            } catch (IOException | ExecutionException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                Log.error(cause, "{0} Cannot upload the media of the tweet", this.getClass().getSimpleName());
+                return 1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Log.error("{0} Interrupted while uploading the media of the tweet", this.getClass().getSimpleName());
+                return 1;
+            }
+        }
         /*
-         * Gets the twitter API instance and calls updateStatus method to post a tweet with content {@code content}.
+         * Duplicate messages and messages submitted when the dispatcher's queue is full are reported immediately, the
+         * other ones are reported once the dispatcher tried to send them.
          */
-        try {
-            twitterService.updateStatus(this.content);
-        } catch (TwitterException e) {
+        DeliveryReport report = this.runtimePlatform.submit(this.context, this,
+                OutboundMessage.tweet(this.content, mediaIds)).getNow(null);
+        if (report != null && !report.isSent()) {
             error = 1;
-            e.printStackTrace();
         }
         return error;
     }
+
+    /**
+     * Uploads the media attached to the tweet.
+     *
+     * @return a {@link CompletableFuture} completed with the {@link MediaUpload} once the media can be attached to
+     * the tweet
+     * @throws IOException if the size of the media file cannot be read
+     */
+    private CompletableFuture<MediaUpload> uploadMedia() throws IOException {
+        MediaUploader mediaUploader = this.runtimePlatform.getMediaUploader();
+        if (mediaFile != null) {
+            return mediaUploader.upload(mediaFile);
+        }
+        return mediaUploader.upload(mediaStream, mediaSize, mediaType);
+    }
 }
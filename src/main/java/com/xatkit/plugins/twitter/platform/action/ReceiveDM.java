@@ -1,13 +1,21 @@
 package com.xatkit.plugins.twitter.platform.action;
 
-import com.github.seratch.jslack.api.model.Attachment;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.DirectMessageRecord;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.format.ResultFormatter;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.KeywordMatcher;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import com.xatkit.plugins.twitter.platform.service.ResultPager;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import com.xatkit.plugins.twitter.platform.service.UserResolver;
+import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import twitter4j.DirectMessage;
 import twitter4j.DirectMessageList;
-import twitter4j.Twitter;
 import twitter4j.TwitterException;
 
 import java.util.ArrayList;
@@ -16,7 +24,8 @@ import java.util.List;
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 
 /**
- * Shows the latest incoming direct messages. Right now it can only return the first page of the results obtained
+ * Shows the latest incoming direct messages. Right now it can only return the first page of the results obtained,
+ * the following pages can be retrieved with the {@link ShowMore} action.
  * <p>
  * This class relies on the {@link TwitterPlatform}'s {@link twitter4j.Twitter} to integrate with twitter.
  */
@@ -42,6 +51,11 @@ public class ReceiveDM extends RuntimeAction<TwitterPlatform> {
      */
     private Integer messagesPerPage;
 
+    /**
+     * Whether to only return the messages received since the previous call. Defaults to {@code false}.
+     */
+    private Boolean onlyNew = false;
+
     /**
      * Shows the latest incoming direct messages {@link ReceiveDM} with the provided {@code platform}, {@code context}.
      *
@@ -70,45 +84,191 @@ public class ReceiveDM extends RuntimeAction<TwitterPlatform> {
     }
 
     /**
-     * Retrieves the latest incoming direct messages. Right now only the first page i retrieved.
+     * Shows the incoming direct messages {@link ReceiveDM} with the provided {@code platform}, {@code context}, only
+     * returning the messages received since the previous call if {@code onlyNew} is {@code true}.
      *
-     * @return 0 if there are no messages, or a list of attachments with the DMs formated for Slack
+     * @param platform        the {@link TwitterPlatform} containing this action
+     * @param context         the {@link StateContext} associated to this action
+     * @param messagesPerPage the number of messages to retrieve per page
+     * @param onlyNew         whether to only return the messages received since the previous call
+     * @see com.xatkit.plugins.twitter.platform.service.IncrementalReceiver
+     */
+    public ReceiveDM(@NonNull TwitterPlatform platform, @NonNull StateContext context,
+                     @NonNull Integer messagesPerPage, @NonNull Boolean onlyNew) {
+        this(platform, context, messagesPerPage);
+        this.onlyNew = onlyNew;
+    }
+
+    /**
+     * Retrieves the latest incoming direct messages. Right now only the first page i retrieved, unless
+     * {@code onlyNew} is set, in which case the pages are retrieved until reaching the messages returned by the
+     * previous call.
+     * <p>
+     * The senders of the retrieved messages are resolved in bulk with the platform's
+     * {@link com.xatkit.plugins.twitter.platform.service.UserResolver}, meaning that this action only performs a
+     * single user lookup request for the entire page (or none if all the senders are cached).
      * <p>
-     * TODO make formatting flexible create a formatter that is a parameter.
+     * If there are older messages they can be retrieved with the {@link ShowMore} action: this action opens a cursor
+     * for its {@link StateContext} in the platform's {@link ResultPager}, which fetches the following pages on demand.
+     * The cursor is also opened if the first page is empty because only messages sent by the authenticated user were
+     * found within {@link com.xatkit.plugins.twitter.TwitterUtils#TWITTER_POLLING_MAX_PAGES_KEY} requests. Retrievals
+     * of new messages ({@code onlyNew}) do not open a cursor.
+     *
+     * @return 0 if there are no messages, or a {@link FormattedResults} list rendering the DMs with the platform's
+     * {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}
      */
     @Override
     protected Object compute() {
         String result = "0";
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
-        List<Attachment> attachments = new ArrayList<>();
+        ResultPager pager = this.runtimePlatform.getResultPager();
+        pager.evict(this.context);
 
         try {
-            DirectMessageList dmList = twitterService.getDirectMessages(messagesPerPage);
-            if (!dmList.isEmpty()) {
-                for (DirectMessage dm : dmList) {
-                    if (!twitterService.getScreenName()
-                            .equals(twitterService.showUser(dm.getSenderId()).getScreenName())) {
-
-                        Attachment.AttachmentBuilder attachmentBuilder = Attachment.builder();
-                        String authorName = twitterService.showUser(dm.getSenderId()).getName() + " @"
-                                + twitterService.showUser(dm.getSenderId()).getScreenName();
-                        String text = dm.getText();
-                        attachmentBuilder.authorName(authorName);
-                        attachmentBuilder.text(text);
-                        attachmentBuilder.color("#1da1f2");
-                        attachmentBuilder.ts(String.valueOf(dm.getCreatedAt().getTime() / 1000));
-                        attachments.add(attachmentBuilder.build());
-                    }
+            List<DirectMessageRecord> records;
+            if (onlyNew) {
+                records = toRecords(this.runtimePlatform, this.runtimePlatform.getIncrementalReceiver()
+                        .receiveNewDirectMessages(messagesPerPage));
+            } else {
+                DirectMessageCursor cursor = new DirectMessageCursor(this.runtimePlatform, messagesPerPage,
+                        this.runtimePlatform.getIncrementalReceiver().getMaxPages());
+                records = cursor.fetch(messagesPerPage);
+                if (cursor.hasNext()) {
+                    ResultFormatter<?> formatter = this.runtimePlatform.getFormatter();
+                    pager.open(this.context, messagesPerPage, cursor,
+                            page -> FormattedResults.ofDirectMessages(page, formatter));
                 }
             }
 
-            if (attachments.size() > 0) {
-                return attachments;
+            if (!records.isEmpty()) {
+                return FormattedResults.ofDirectMessages(records, this.runtimePlatform.getFormatter());
             }
+        } catch (RateLimitExceededException | CircuitOpenException e) {
+            result = "1";
+            Log.warn("{0} Cannot retrieve the direct messages: {1}", this.getClass().getSimpleName(),
+                    e.getMessage());
         } catch (TwitterException e) {
             result = "1";
             e.printStackTrace();
         }
         return result;
     }
+
+    /**
+     * Creates the {@link DirectMessageRecord}s of the provided {@code messages}.
+     * <p>
+     * The senders of the {@code messages} are resolved in bulk with the {@code platform}'s {@link UserResolver}.
+     *
+     * @param platform the {@link TwitterPlatform} used to resolve the senders and match the messages
+     * @param messages the {@link DirectMessage}s to create the records of
+     * @return the created {@link DirectMessageRecord}s
+     * @throws TwitterException if an error occurred when resolving the senders
+     */
+    private static List<DirectMessageRecord> toRecords(TwitterPlatform platform, List<DirectMessage> messages)
+            throws TwitterException {
+        UserResolver userResolver = platform.getUserResolver();
+        userResolver.prefetchSenders(messages);
+        List<DirectMessageRecord> records = new ArrayList<>(messages.size());
+        KeywordMatcher matcher = platform.getKeywordMatcher();
+        for (DirectMessage dm : messages) {
+            records.add(new DirectMessageRecord(dm.getId(), userResolver.resolve(dm.getSenderId()), dm.getText(),
+                    dm.getCreatedAt().getTime(), matcher.match(dm.getText())));
+        }
+        return records;
+    }
+
+    /**
+     * Retrieves the pages of direct messages, from the newest to the oldest, excluding the ones sent by the
+     * authenticated user.
+     * <p>
+     * Each fetch skips the pages containing only messages sent by the authenticated user, up to
+     * {@code maxPages} requests (see {@link com.xatkit.plugins.twitter.TwitterUtils#TWITTER_POLLING_MAX_PAGES_KEY}):
+     * once this limit is reached the fetch returns an empty page, and the following one resumes from the next Twitter
+     * cursor.
+     * <p>
+     * This class only holds the Twitter cursor of the next page, and does not reference the action (and its
+     * {@link StateContext}), so that it can be held by the platform's {@link ResultPager}.
+     */
+    private static final class DirectMessageCursor implements ResultPager.PageSource<DirectMessageRecord> {
+
+        /**
+         * The Twitter cursor of the first page.
+         */
+        private static final String FIRST_PAGE = "";
+
+        /**
+         * The {@link TwitterPlatform} used to access the Twitter API.
+         */
+        private final TwitterPlatform platform;
+
+        /**
+         * The number of messages to retrieve per page.
+         */
+        private final int messagesPerPage;
+
+        /**
+         * The maximum number of pages requested by a single fetch.
+         */
+        private final int maxPages;
+
+        /**
+         * The Twitter cursor of the next page, or {@code null} if all the pages have been retrieved.
+         */
+        private String nextCursor = FIRST_PAGE;
+
+        /**
+         * Constructs a {@link DirectMessageCursor} with the provided {@code platform}.
+         *
+         * @param platform        the {@link TwitterPlatform} used to access the Twitter API
+         * @param messagesPerPage the number of messages to retrieve per page
+         * @param maxPages        the maximum number of pages requested by a single fetch
+         */
+        private DirectMessageCursor(TwitterPlatform platform, int messagesPerPage, int maxPages) {
+            this.platform = platform;
+            this.messagesPerPage = messagesPerPage;
+            this.maxPages = maxPages;
+        }
+
+        /**
+         * Returns whether there are more pages to retrieve.
+         *
+         * @return {@code true} if there are more pages to retrieve, {@code false} otherwise
+         */
+        private boolean hasNext() {
+            return nextCursor != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The pages containing only messages sent by the authenticated user are skipped, up to {@code maxPages}
+         * requests: the returned page is empty if this limit is reached, and the cursor is not exhausted (see
+         * {@link #isExhausted()}). Note that the number of messages per page is defined when the cursor is created,
+         * and the returned page may contain less than {@code count} messages.
+         */
+        @Override
+        public List<DirectMessageRecord> fetch(int count) throws TwitterException {
+            long selfId = platform.getSelf().getId();
+            List<DirectMessage> receivedMessages = new ArrayList<>();
+            int pages = 0;
+            while (receivedMessages.isEmpty() && nextCursor != null && pages < maxPages) {
+                pages++;
+                String cursor = nextCursor;
+                DirectMessageList dmList = platform.execute(TwitterEndpoint.DIRECT_MESSAGES_LIST,
+                        twitter -> cursor.isEmpty() ? twitter.getDirectMessages(messagesPerPage)
+                                : twitter.getDirectMessages(messagesPerPage, cursor));
+                this.nextCursor = dmList.getNextCursor();
+                for (DirectMessage dm : dmList) {
+                    if (dm.getSenderId() != selfId) {
+                        receivedMessages.add(dm);
+                    }
+                }
+            }
+            return toRecords(platform, receivedMessages);
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return !this.hasNext();
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.core.platform.action.RuntimeAction;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.format.TweetRecord;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Shows the tweets mentioning the configured user since the previous call of this action.
+ * <p>
+ * This class relies on the {@link TwitterPlatform}'s
+ * {@link com.xatkit.plugins.twitter.platform.service.IncrementalReceiver} to only retrieve the new mentions.
+ */
+public class ReceiveMentions extends RuntimeAction<TwitterPlatform> {
+
+    /**
+     * The default number of mentions to retrieve per page.
+     * <p>
+     * This value can be customized with {@link #ReceiveMentions(TwitterPlatform, StateContext, Integer)}. Note that
+     * this value needs to be in {@code [1..#MAX_MENTIONS_PER_PAGE]}.
+     *
+     * @see #MAX_MENTIONS_PER_PAGE
+     */
+    private static final int DEFAULT_MENTIONS_PER_PAGE = 20;
+
+    /**
+     * The maximum number of mentions this action can retrieve per page.
+     */
+    private static final int MAX_MENTIONS_PER_PAGE = 200;
+
+    /**
+     * The number of mentions to retrieve per page, up to a maximum of 200. Defaults to 20.
+     */
+    private Integer mentionsPerPage;
+
+    /**
+     * Shows the new mentions {@link ReceiveMentions} with the provided {@code platform}, {@code context}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this action
+     * @param context  the {@link StateContext} associated to this action
+     */
+    public ReceiveMentions(@NonNull TwitterPlatform platform, @NonNull StateContext context) {
+        super(platform, context);
+        this.mentionsPerPage = DEFAULT_MENTIONS_PER_PAGE;
+    }
+
+    /**
+     * Shows the new mentions {@link ReceiveMentions} with the provided {@code platform}, {@code context}.
+     *
+     * @param platform        the {@link TwitterPlatform} containing this action
+     * @param context         the {@link StateContext} associated to this action
+     * @param mentionsPerPage the number of mentions to retrieve per page
+     */
+    public ReceiveMentions(@NonNull TwitterPlatform platform, @NonNull StateContext context,
+                           @NonNull Integer mentionsPerPage) {
+        super(platform, context);
+        checkArgument((mentionsPerPage > 0) && (mentionsPerPage <= MAX_MENTIONS_PER_PAGE), "Cannot construct a %s "
+                + "action with the provided mentionsPerPage %s, expected a non-null, greater than 0 and less "
+                + "than or equal to 200 integer", this.getClass().getSimpleName(), mentionsPerPage);
+        this.mentionsPerPage = mentionsPerPage;
+    }
+
+    /**
+     * Retrieves the tweets mentioning the configured user since the previous call of this action.
+     *
+     * @return 0 if there are no new mentions, 1 in case of an error, or a {@link FormattedResults} list rendering the
+     * mentions with the platform's {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}
+     */
+    @Override
+    protected Object compute() {
+        String result = "0";
+        List<TweetRecord> records = new ArrayList<>();
+        try {
+            for (Status tweet : this.runtimePlatform.getIncrementalReceiver().receiveNewMentions(mentionsPerPage)) {
+                records.add(TweetRecord.of(tweet, this.runtimePlatform.getKeywordMatcher()));
+            }
+            if (!records.isEmpty()) {
+                return FormattedResults.ofTweets(records, this.runtimePlatform.getFormatter());
+            }
+        } catch (RateLimitExceededException | CircuitOpenException e) {
+            result = "1";
+            Log.warn("{0} Cannot retrieve the mentions: {1}", this.getClass().getSimpleName(), e.getMessage());
+        } catch (TwitterException e) {
+            result = "1";
+            e.printStackTrace();
+        }
+        return result;
+    }
+}
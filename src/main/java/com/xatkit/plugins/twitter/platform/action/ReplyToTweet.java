@@ -0,0 +1,78 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.core.platform.action.RuntimeAction;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryReport;
+import com.xatkit.plugins.twitter.platform.outbound.OutboundMessage;
+import lombok.NonNull;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Replies to the tweet with the provided {@code statusId}.
+ * <p>
+ * This class relies on the {@link TwitterPlatform}'s
+ * {@link com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher} to post the reply.
+ */
+public class ReplyToTweet extends RuntimeAction<TwitterPlatform> {
+
+    /**
+     * The ID of the tweet to reply to.
+     */
+    private Long statusId;
+
+    /**
+     * The content of the reply.
+     */
+    private String content;
+
+    /**
+     * Replies to a tweet {@link ReplyToTweet} action with the provided {@code platform}, {@code context},
+     * {@code statusId}, {@code content}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this action
+     * @param context  the {@link StateContext} associated to this action
+     * @param statusId the ID of the tweet to reply to
+     * @param content  the content of the reply
+     */
+    public ReplyToTweet(@NonNull TwitterPlatform platform, @NonNull StateContext context, @NonNull Long statusId,
+                        @NonNull String content) {
+        super(platform, context);
+        checkArgument(statusId > 0, "Cannot construct a %s action with the provided statusId %s, expected a "
+                + "strictly positive tweet ID", this.getClass().getSimpleName(), statusId);
+        this.statusId = statusId;
+        this.content = content;
+    }
+
+    /**
+     * Replies to the tweet with the provided {@code statusId}.
+     * <p>
+     * This action submits the reply to the platform's
+     * {@link com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher}, which posts it asynchronously under
+     * the replied tweet (see {@link OutboundMessage#reply(long, String, long...)}). The posted reply is recorded in
+     * the platform's {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex}.
+     * <p>
+     * This action does not wait for the reply to be posted: the {@link java.util.concurrent.CompletableFuture}
+     * completed with its {@link DeliveryReport} is stored in the session of the action's context with the key
+     * {@code twitter.delivery.ReplyToTweet} (see {@link TwitterPlatform#DELIVERY_REPORT_SESSION_KEY_PREFIX}), and
+     * reports the replies that cannot be posted once they have been queued.
+     *
+     * @return 0 if the reply has been queued or posted; 1 if it has been rejected (duplicate or full queue), or if
+     * it failed before this action returned
+     */
+    @Override
+    protected Object compute() {
+        int error = 0;
+        /*
+         * Duplicate messages and messages submitted when the dispatcher's queue is full are reported immediately, the
+         * other ones are reported once the dispatcher tried to send them.
+         */
+        DeliveryReport report = this.runtimePlatform.submit(this.context, this,
+                OutboundMessage.reply(this.statusId, this.content)).getNow(null);
+        if (report != null && !report.isSent()) {
+            error = 1;
+        }
+        return error;
+    }
+}
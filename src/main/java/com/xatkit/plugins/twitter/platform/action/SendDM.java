@@ -3,9 +3,9 @@ package com.xatkit.plugins.twitter.platform.action;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.execution.StateContext;
 import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryReport;
+import com.xatkit.plugins.twitter.platform.outbound.OutboundMessage;
 import lombok.NonNull;
-import twitter4j.Twitter;
-import twitter4j.TwitterException;
 
 /**
  * Sends a direct message to a user whose username is {@code user}.
@@ -43,22 +43,29 @@ public class SendDM extends RuntimeAction<TwitterPlatform> {
     /**
      * Sends a Direct Message to a user whose username is {@code user}. The content of the message is {@code text}.
      * <p>
+     * This action submits the message to the platform's
+     * {@link com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher}, which sends it asynchronously while
+     * pacing the messages sent to the same user.
+     * <p>
+     * This action does not wait for the message to be sent: the {@link java.util.concurrent.CompletableFuture}
+     * completed with its {@link DeliveryReport} is stored in the session of the action's context with the key
+     * {@code twitter.delivery.SendDM} (see {@link TwitterPlatform#DELIVERY_REPORT_SESSION_KEY_PREFIX}), and reports
+     * the messages that cannot be sent once they have been queued.
      *
-     * @return 0 if no errors; 1 if errors
+     * @return 0 if the message has been queued or sent; 1 if it has been rejected (duplicate or full queue), or if
+     * it failed before this action returned
      */
     @Override
     protected Object compute() {
         int error = 0;
-        Twitter twitterService = this.runtimePlatform.getTwitterService();
         /*
-         * Gets the twitter API instance and calls the sendDirectMessage method to send a direct message to the
-         * user @code user} with the content {@code text}.
+         * Duplicate messages and messages submitted when the dispatcher's queue is full are reported immediately, the
+         * other ones are reported once the dispatcher tried to send them.
          */
-        try {
-            twitterService.sendDirectMessage(this.user, this.text);
-        } catch (TwitterException e) {
+        DeliveryReport report = this.runtimePlatform.submit(this.context, this,
+                OutboundMessage.directMessage(this.user, this.text)).getNow(null);
+        if (report != null && !report.isSent()) {
             error = 1;
-            e.printStackTrace();
         }
         return error;
     }
@@ -0,0 +1,63 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.core.platform.action.RuntimeAction;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * Shows the next page of results of the last {@link LookForTweets} or {@link ReceiveDM} action of the
+ * {@link StateContext}.
+ * <p>
+ * This class relies on the {@link TwitterPlatform}'s
+ * {@link com.xatkit.plugins.twitter.platform.service.ResultPager}, which keeps the cursor of the last search of each
+ * context and, if prefetching is enabled, prefetches its next page in the background.
+ */
+public class ShowMore extends RuntimeAction<TwitterPlatform> {
+
+    /**
+     * Shows the next page of results {@link ShowMore} action with the provided {@code platform} and {@code context}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this action
+     * @param context  the {@link StateContext} associated to this action
+     */
+    public ShowMore(@NonNull TwitterPlatform platform, @NonNull StateContext context) {
+        super(platform, context);
+    }
+
+    /**
+     * Retrieves the next page of results of the last search of the {@link StateContext}.
+     * <p>
+     * The page is returned from memory if it has been prefetched (see
+     * {@link com.xatkit.plugins.twitter.TwitterUtils#TWITTER_PAGING_PREFETCH_KEY}). The cursor of the context is
+     * evicted once all the results have been returned, when it has not been used for the configured idle timeout, or
+     * when the context performs a new search.
+     *
+     * @return 0 if there are no more results (or if the fetched page is empty, the following results can still be
+     * retrieved by executing this action again), 1 in case of an error, or a {@link FormattedResults} list rendering
+     * the results with the platform's {@link com.xatkit.plugins.twitter.platform.format.ResultFormatter}
+     */
+    @Override
+    protected Object compute() {
+        String result = "0";
+        try {
+            Object page = this.runtimePlatform.getResultPager().nextPage(this.context);
+            if (page != null) {
+                return page;
+            }
+        } catch (RateLimitExceededException | CircuitOpenException e) {
+            result = "1";
+            Log.warn("{0} Cannot retrieve the next page of results: {1}", this.getClass().getSimpleName(),
+                    e.getMessage());
+        } catch (TwitterException e) {
+            result = "1";
+            Log.error(e, "{0} Cannot retrieve the next page of results", this.getClass().getSimpleName());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,436 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A bounded cache with a time-to-live, keyed by primitive {@code long} identifiers.
+ * <p>
+ * This cache stores its keys in an open-addressing table to avoid boxing the Twitter identifiers (user IDs, status
+ * IDs, etc). The cache never holds more than {@code maxSize} entries: when it is full the least recently cached
+ * entry is evicted. Entries older than the configured time-to-live are considered absent, and are overwritten in
+ * place when the same key is cached again. Each cached entry is tagged with an insertion sequence number, so that a
+ * key that is cached again (after an update, an expiration, or an invalidation) is evicted according to its latest
+ * insertion.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <V> the type of the cached values
+ */
+public class LongTtlCache<V> {
+
+    /**
+     * The maximum number of entries stored in this cache.
+     */
+    private final int maxSize;
+
+    /**
+     * The time-to-live of the cached entries, in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The ticker returning the current time, in {@link System#nanoTime()} units.
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * The mask used to compute the slot of a key in the table ({@code capacity - 1}).
+     */
+    private final int mask;
+
+    /**
+     * The keys of the table.
+     */
+    private final long[] keys;
+
+    /**
+     * The values of the table.
+     * <p>
+     * A {@code null} value marks an empty slot.
+     */
+    private final Object[] values;
+
+    /**
+     * The expiration time of each slot, in {@link #ticker} units.
+     */
+    private final long[] expirations;
+
+    /**
+     * The insertion sequence number of each slot.
+     */
+    private final long[] sequences;
+
+    /**
+     * The keys in insertion order, used as a circular buffer to evict the oldest entries.
+     * <p>
+     * This buffer can contain the keys of invalidated entries, it is twice as large as the cache to bound the cost
+     * of removing them (see {@link #compactInsertionOrder()}).
+     */
+    private final long[] insertionOrder;
+
+    /**
+     * The insertion sequence number of each key of {@link #insertionOrder}.
+     * <p>
+     * A key whose sequence number does not match the one of its slot has been invalidated or cached again, and is
+     * skipped when evicting the oldest entries.
+     */
+    private final long[] insertionSequences;
+
+    /**
+     * The sequence number of the next inserted entry.
+     */
+    private long nextSequence;
+
+    /**
+     * The index of the oldest key in {@link #insertionOrder}.
+     */
+    private int insertionHead;
+
+    /**
+     * The number of keys stored in {@link #insertionOrder}.
+     */
+    private int insertionCount;
+
+    /**
+     * The number of entries stored in the table.
+     */
+    private int size;
+
+    /**
+     * The number of {@link #get(long)} calls that returned a cached value.
+     */
+    private long hitCount;
+
+    /**
+     * The number of {@link #get(long)} calls that did not find a cached value.
+     */
+    private long missCount;
+
+    /**
+     * Constructs a {@link LongTtlCache} with the provided {@code maxSize} and time-to-live.
+     *
+     * @param maxSize the maximum number of entries to store in the cache
+     * @param ttl     the time-to-live of the cached entries
+     * @param unit    the {@link TimeUnit} of {@code ttl}
+     * @throws IllegalArgumentException if {@code maxSize} or {@code ttl} is lower than {@code 1}
+     */
+    public LongTtlCache(int maxSize, long ttl, @NonNull TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    /**
+     * Constructs a {@link LongTtlCache} with the provided {@code maxSize}, time-to-live, and {@code ticker}.
+     *
+     * @param maxSize the maximum number of entries to store in the cache
+     * @param ttl     the time-to-live of the cached entries
+     * @param unit    the {@link TimeUnit} of {@code ttl}
+     * @param ticker  the ticker returning the current time in nanoseconds, with the semantics of
+     *                {@link System#nanoTime()}
+     * @throws IllegalArgumentException if {@code maxSize} or {@code ttl} is lower than {@code 1}
+     */
+    public LongTtlCache(int maxSize, long ttl, @NonNull TimeUnit unit, @NonNull LongSupplier ticker) {
+        checkArgument(maxSize > 0, "Cannot create a %s with the provided maxSize %s, expected a strictly positive "
+                + "integer", this.getClass().getSimpleName(), maxSize);
+        checkArgument(ttl > 0, "Cannot create a %s with the provided ttl %s, expected a strictly positive value",
+                this.getClass().getSimpleName(), ttl);
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.ticker = ticker;
+        /*
+         * Keep the load factor under 0.5 to bound the probe sequences.
+         */
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.expirations = new long[capacity];
+        this.sequences = new long[capacity];
+        this.insertionOrder = new long[maxSize * 2];
+        this.insertionSequences = new long[maxSize * 2];
+    }
+
+    /**
+     * Returns the value associated to the provided {@code key}.
+     *
+     * @param key the key to retrieve the value of
+     * @return the cached value, or {@code null} if there is no value or if it has expired
+     */
+    public synchronized V get(long key) {
+        V value = this.lookup(key);
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether the cache contains a non-expired value for the provided {@code key}.
+     *
+     * @param key the key to check
+     * @return {@code true} if the cache contains a non-expired value for {@code key}, {@code false} otherwise
+     */
+    public synchronized boolean contains(long key) {
+        return this.lookup(key) != null;
+    }
+
+    /**
+     * Associates the provided {@code value} to {@code key}.
+     * <p>
+     * This method evicts the least recently cached entry if the cache is full. The cached entry becomes the most
+     * recently cached one, including when {@code key} was already cached.
+     *
+     * @param key   the key to associate the value to
+     * @param value the value to cache
+     */
+    public synchronized void put(long key, @NonNull V value) {
+        this.put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Associates the provided {@code value} to {@code key} with a specific time-to-live.
+     * <p>
+     * This method allows to cache values that have been retrieved before they are cached (e.g. values restored from
+     * a previous run) without extending their lifetime. The provided {@code ttl} is bounded by the time-to-live of
+     * the cache.
+     *
+     * @param key   the key to associate the value to
+     * @param value the value to cache
+     * @param ttl   the time-to-live of the value
+     * @param unit  the {@link TimeUnit} of {@code ttl}
+     * @see #put(long, Object)
+     */
+    public synchronized void put(long key, @NonNull V value, long ttl, @NonNull TimeUnit unit) {
+        long expiration = ticker.getAsLong() + Math.min(ttlNanos, unit.toNanos(ttl));
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            expirations[slot] = expiration;
+            /*
+             * Move the key to the tail of the insertion order, its previous position is skipped by the eviction.
+             */
+            sequences[slot] = appendInsertionOrder(key);
+            return;
+        }
+        while (size >= maxSize) {
+            evictOldest();
+        }
+        long sequence = appendInsertionOrder(key);
+        slot = index(key);
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        expirations[slot] = expiration;
+        sequences[slot] = sequence;
+        size++;
+    }
+
+    /**
+     * Removes the value associated to the provided {@code key}.
+     *
+     * @param key the key to remove
+     */
+    public synchronized void invalidate(long key) {
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            removeAt(slot);
+        }
+    }
+
+    /**
+     * Removes all the entries of the cache.
+     */
+    public synchronized void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        insertionHead = 0;
+        insertionCount = 0;
+    }
+
+    /**
+     * Returns the number of entries stored in the cache, including the expired ones that have not been evicted yet.
+     *
+     * @return the number of entries stored in the cache
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of {@link #get(long)} calls that returned a cached value.
+     * <p>
+     * Calls to {@link #contains(long)} are not counted.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of {@link #get(long)} calls that did not find a cached value (including the expired ones).
+     * <p>
+     * Calls to {@link #contains(long)} are not counted.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the non-expired value associated to the provided {@code key}.
+     *
+     * @param key the key to retrieve the value of
+     * @return the cached value, or {@code null} if there is no value or if it has expired
+     */
+    @SuppressWarnings("unchecked")
+    private V lookup(long key) {
+        int slot = findSlot(key);
+        if (slot < 0 || expirations[slot] - ticker.getAsLong() <= 0) {
+            return null;
+        }
+        return (V) values[slot];
+    }
+
+    /**
+     * Appends the provided {@code key} to the insertion order.
+     * <p>
+     * This method compacts the insertion order if it is full. The caller must store the returned sequence number in
+     * the slot of {@code key} once the key has been appended, otherwise it is skipped by the eviction.
+     *
+     * @param key the key to append
+     * @return the insertion sequence number of the appended key
+     */
+    private long appendInsertionOrder(long key) {
+        if (insertionCount == insertionOrder.length) {
+            compactInsertionOrder();
+        }
+        long sequence = nextSequence++;
+        int tail = (insertionHead + insertionCount) % insertionOrder.length;
+        insertionOrder[tail] = key;
+        insertionSequences[tail] = sequence;
+        insertionCount++;
+        return sequence;
+    }
+
+    /**
+     * Removes the oldest key from the insertion order, and evicts its entry if it is still cached.
+     * <p>
+     * Keys that have been removed with {@link #invalidate(long)} or cached again since their insertion are skipped,
+     * see {@link #isLive(long, long)}.
+     */
+    private void evictOldest() {
+        long key = insertionOrder[insertionHead];
+        long sequence = insertionSequences[insertionHead];
+        insertionHead = (insertionHead + 1) % insertionOrder.length;
+        insertionCount--;
+        int slot = findSlot(key);
+        if (slot >= 0 && sequences[slot] == sequence) {
+            removeAt(slot);
+        }
+    }
+
+    /**
+     * Removes the keys of the invalidated and cached again entries from the insertion order.
+     * <p>
+     * This method is called when the insertion order is full: since it is twice as large as the cache, at least
+     * half of its keys are removed, meaning that the cost of the compaction is amortized over the following
+     * insertions.
+     */
+    private void compactInsertionOrder() {
+        int length = insertionOrder.length;
+        int count = 0;
+        for (int i = 0; i < insertionCount; i++) {
+            int index = (insertionHead + i) % length;
+            long key = insertionOrder[index];
+            long sequence = insertionSequences[index];
+            if (isLive(key, sequence)) {
+                /*
+                 * Move the live keys towards the head, the target index is never after the read one.
+                 */
+                int target = (insertionHead + count) % length;
+                insertionOrder[target] = key;
+                insertionSequences[target] = sequence;
+                count++;
+            }
+        }
+        insertionCount = count;
+    }
+
+    /**
+     * Returns whether the provided {@code key} of the insertion order is still cached.
+     *
+     * @param key      the key to check
+     * @param sequence the insertion sequence number of the key
+     * @return {@code true} if the table contains {@code key} with the provided {@code sequence}, {@code false}
+     * otherwise
+     */
+    private boolean isLive(long key, long sequence) {
+        int slot = findSlot(key);
+        return slot >= 0 && sequences[slot] == sequence;
+    }
+
+    /**
+     * Returns the slot containing the provided {@code key}.
+     *
+     * @param key the key to search
+     * @return the slot containing {@code key}, or {@code -1} if the table does not contain it
+     */
+    private int findSlot(long key) {
+        int slot = index(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the entry at the provided {@code slot} and shifts back the entries of its probe sequence.
+     *
+     * @param slot the slot to remove
+     */
+    private void removeAt(int slot) {
+        int hole = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                break;
+            }
+            int ideal = index(keys[current]);
+            if (((current - ideal) & mask) >= ((current - hole) & mask)) {
+                keys[hole] = keys[current];
+                values[hole] = values[current];
+                expirations[hole] = expirations[current];
+                sequences[hole] = sequences[current];
+                hole = current;
+            }
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    /**
+     * Computes the initial slot of the provided {@code key}.
+     *
+     * @param key the key to compute the slot of
+     * @return the initial slot of {@code key}
+     */
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
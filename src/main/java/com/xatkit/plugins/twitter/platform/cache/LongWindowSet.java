@@ -0,0 +1,219 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A bounded set of primitive {@code long} identifiers remembering the most recently added ones.
+ * <p>
+ * This set stores its elements in an open-addressing table to avoid boxing the Twitter identifiers (status IDs,
+ * direct message IDs, etc), and never holds more than {@code maxSize} elements: when it is full the oldest added
+ * element is evicted. Its memory footprint is allocated once when the set is created and does not depend on the
+ * number of added elements.
+ * <p>
+ * This class is thread-safe.
+ */
+public class LongWindowSet {
+
+    /**
+     * The value marking an empty slot of the table.
+     * <p>
+     * The {@code 0} element is tracked with {@link #containsEmpty} instead of being stored in the table.
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * The maximum number of elements stored in this set.
+     */
+    private final int maxSize;
+
+    /**
+     * The mask used to compute the slot of an element in the table ({@code capacity - 1}).
+     */
+    private final int mask;
+
+    /**
+     * The elements of the table.
+     */
+    private final long[] table;
+
+    /**
+     * The elements in insertion order, used as a circular buffer to evict the oldest ones.
+     */
+    private final long[] insertionOrder;
+
+    /**
+     * The index of the oldest element in {@link #insertionOrder}.
+     */
+    private int insertionHead;
+
+    /**
+     * The number of elements stored in the set.
+     */
+    private int size;
+
+    /**
+     * Whether the set contains the {@link #EMPTY} element.
+     */
+    private boolean containsEmpty;
+
+    /**
+     * Constructs a {@link LongWindowSet} with the provided {@code maxSize}.
+     *
+     * @param maxSize the maximum number of elements to store in the set
+     * @throws IllegalArgumentException if {@code maxSize} is lower than {@code 1}
+     */
+    public LongWindowSet(int maxSize) {
+        checkArgument(maxSize > 0, "Cannot create a %s with the provided maxSize %s, expected a strictly positive "
+                + "integer", this.getClass().getSimpleName(), maxSize);
+        this.maxSize = maxSize;
+        /*
+         * Keep the load factor under 0.5 to bound the probe sequences.
+         */
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.table = new long[capacity];
+        this.insertionOrder = new long[maxSize];
+    }
+
+    /**
+     * Adds the provided {@code element} to the set.
+     * <p>
+     * This method evicts the oldest element of the set if it is full. Adding an element that is already in the set
+     * does not change its position in the eviction order.
+     *
+     * @param element the element to add
+     * @return {@code true} if the set did not contain {@code element}, {@code false} otherwise
+     */
+    public synchronized boolean add(long element) {
+        if (this.contains(element)) {
+            return false;
+        }
+        if (size == maxSize) {
+            this.remove(insertionOrder[insertionHead]);
+            insertionHead = (insertionHead + 1) % maxSize;
+        }
+        if (element == EMPTY) {
+            containsEmpty = true;
+        } else {
+            int slot = index(element);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = element;
+        }
+        insertionOrder[(insertionHead + size) % maxSize] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns whether the set contains the provided {@code element}.
+     *
+     * @param element the element to check
+     * @return {@code true} if the set contains {@code element}, {@code false} otherwise
+     */
+    public synchronized boolean contains(long element) {
+        return element == EMPTY ? containsEmpty : findSlot(element) >= 0;
+    }
+
+    /**
+     * Returns the number of elements stored in the set.
+     *
+     * @return the number of elements stored in the set
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of elements stored in the set.
+     *
+     * @return the maximum number of elements stored in the set
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Performs the provided {@code action} for each element of the set, from the oldest to the newest.
+     *
+     * @param action the action to perform for each element
+     */
+    public synchronized void forEach(@NonNull LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(insertionOrder[(insertionHead + i) % maxSize]);
+        }
+    }
+
+    /**
+     * Removes all the elements of the set.
+     */
+    public synchronized void clear() {
+        Arrays.fill(table, EMPTY);
+        containsEmpty = false;
+        insertionHead = 0;
+        size = 0;
+    }
+
+    /**
+     * Removes the provided {@code element} from the table.
+     * <p>
+     * This method does not update {@link #insertionOrder}, callers are responsible of removing the element from it.
+     *
+     * @param element the element to remove
+     */
+    private void remove(long element) {
+        size--;
+        if (element == EMPTY) {
+            containsEmpty = false;
+            return;
+        }
+        int hole = findSlot(element);
+        int current = hole;
+        while (true) {
+            current = (current + 1) & mask;
+            if (table[current] == EMPTY) {
+                break;
+            }
+            int ideal = index(table[current]);
+            if (((current - ideal) & mask) >= ((current - hole) & mask)) {
+                table[hole] = table[current];
+                hole = current;
+            }
+        }
+        table[hole] = EMPTY;
+    }
+
+    /**
+     * Returns the slot containing the provided {@code element}.
+     *
+     * @param element the element to search
+     * @return the slot containing {@code element}, or {@code -1} if the table does not contain it
+     */
+    private int findSlot(long element) {
+        int slot = index(element);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == element) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the initial slot of the provided {@code element}.
+     *
+     * @param element the element to compute the slot of
+     * @return the initial slot of {@code element}
+     */
+    private int index(long element) {
+        long hash = element * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
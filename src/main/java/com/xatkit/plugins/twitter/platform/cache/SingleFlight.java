@@ -0,0 +1,110 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces concurrent loads of the same key into a single call.
+ * <p>
+ * The first thread calling {@link #execute(Object, Loader)} for a given key runs the {@link Loader}, and the threads
+ * requesting the same key while it is running wait for its result instead of running their own {@link Loader}. The
+ * result is not retained once the load is completed: callers are expected to cache it if needed.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * The loads currently running, by key.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the value of the provided {@code key} with {@code loader}, or waits for the running load of {@code key}.
+     *
+     * @param key    the key to load the value of
+     * @param loader the {@link Loader} used to load the value if there is no running load for {@code key}
+     * @return the loaded value
+     * @throws TwitterException if an error occurred when loading the value, or if the current thread has been
+     *                          interrupted while waiting for the running load
+     */
+    public V execute(@NonNull K key, @NonNull Loader<V> loader) throws TwitterException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V value = loader.load();
+            future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Returns the number of loads currently running.
+     *
+     * @return the number of loads currently running
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Waits for the provided {@code future} and returns its value.
+     *
+     * @param future the {@link CompletableFuture} to wait for
+     * @param <V>    the type of the value
+     * @return the value of the {@code future}
+     * @throws TwitterException if the {@code future} completed with an error, or if the current thread has been
+     *                          interrupted
+     */
+    private static <V> V await(CompletableFuture<V> future) throws TwitterException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TwitterException("Interrupted while waiting for a running request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TwitterException) {
+                throw (TwitterException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new TwitterException("An error occurred when running the request", cause);
+        }
+    }
+
+    /**
+     * Loads a value, possibly by accessing the Twitter API.
+     *
+     * @param <V> the type of the loaded value
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        /**
+         * Loads the value.
+         *
+         * @return the loaded value
+         * @throws TwitterException if an error occurred when accessing the Twitter API
+         */
+        V load() throws TwitterException;
+    }
+}
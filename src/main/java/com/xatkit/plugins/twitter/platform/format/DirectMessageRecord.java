@@ -0,0 +1,124 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.xatkit.plugins.twitter.platform.service.KeywordMatcher;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compact, immutable view of a direct message returned by the Twitter actions.
+ * <p>
+ * This class only holds the information needed to render a direct message, and is formatted by the platform's
+ * {@link ResultFormatter} when the result of the action is consumed.
+ *
+ * @see FormattedResults
+ */
+public final class DirectMessageRecord {
+
+    /**
+     * The unique identifier of the direct message.
+     */
+    private final long id;
+
+    /**
+     * The sender of the direct message.
+     */
+    private final UserSummary sender;
+
+    /**
+     * The text of the direct message.
+     */
+    private final String text;
+
+    /**
+     * The creation time of the direct message, in milliseconds since the epoch.
+     */
+    private final long createdAt;
+
+    /**
+     * The IDs of the keywords matched by the text of the direct message.
+     */
+    private final List<String> matches;
+
+    /**
+     * Constructs a {@link DirectMessageRecord} with the provided {@code id}, {@code sender}, {@code text}, and
+     * {@code createdAt} time, that does not match any keyword.
+     *
+     * @param id        the unique identifier of the direct message
+     * @param sender    the sender of the direct message
+     * @param text      the text of the direct message
+     * @param createdAt the creation time of the direct message, in milliseconds since the epoch
+     */
+    public DirectMessageRecord(long id, @NonNull UserSummary sender, @NonNull String text, long createdAt) {
+        this(id, sender, text, createdAt, Collections.emptyList());
+    }
+
+    /**
+     * Constructs a {@link DirectMessageRecord} with the provided {@code id}, {@code sender}, {@code text},
+     * {@code createdAt} time, and keyword {@code matches}.
+     *
+     * @param id        the unique identifier of the direct message
+     * @param sender    the sender of the direct message
+     * @param text      the text of the direct message
+     * @param createdAt the creation time of the direct message, in milliseconds since the epoch
+     * @param matches   the IDs of the keywords matched by the text of the direct message
+     * @see KeywordMatcher#match(CharSequence)
+     */
+    public DirectMessageRecord(long id, @NonNull UserSummary sender, @NonNull String text, long createdAt,
+                               @NonNull List<String> matches) {
+        this.id = id;
+        this.sender = sender;
+        this.text = text;
+        this.createdAt = createdAt;
+        this.matches = matches;
+    }
+
+    /**
+     * Returns the unique identifier of the direct message.
+     *
+     * @return the unique identifier of the direct message
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the sender of the direct message.
+     *
+     * @return the sender of the direct message
+     */
+    public UserSummary getSender() {
+        return this.sender;
+    }
+
+    /**
+     * Returns the text of the direct message.
+     *
+     * @return the text of the direct message
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Returns the creation time of the direct message, in milliseconds since the epoch.
+     *
+     * @return the creation time of the direct message
+     */
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    /**
+     * Returns the IDs of the keywords matched by the text of the direct message.
+     *
+     * @return an unmodifiable list containing the IDs of the matched keywords (empty if the text does not match
+     * any keyword)
+     * @see KeywordMatcher#match(CharSequence)
+     */
+    public List<String> getMatches() {
+        return this.matches;
+    }
+}
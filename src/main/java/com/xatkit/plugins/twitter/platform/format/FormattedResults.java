@@ -0,0 +1,125 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * An unmodifiable list of records formatted lazily by a {@link ResultFormatter}.
+ * <p>
+ * This list is returned by the Twitter actions: each record is formatted the first time it is accessed, and the
+ * formatted value is then reused. Results that are never displayed (e.g. results only checked for emptiness, or
+ * only read through {@link #getRecords()}) are never formatted.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <R> the type of the records
+ * @param <T> the type of the formatted records
+ */
+public final class FormattedResults<R, T> extends AbstractList<T> implements RandomAccess {
+
+    /**
+     * The records of the list.
+     */
+    private final List<R> records;
+
+    /**
+     * The function formatting a record.
+     */
+    private final Function<? super R, ? extends T> format;
+
+    /**
+     * The formatted records, {@code null} for the records that have not been formatted yet.
+     */
+    private final AtomicReferenceArray<T> formatted;
+
+    /**
+     * Constructs a {@link FormattedResults} with the provided {@code records} and {@code format} function.
+     *
+     * @param records the records of the list
+     * @param format  the function formatting a record
+     */
+    private FormattedResults(List<R> records, Function<? super R, ? extends T> format) {
+        this.records = Collections.unmodifiableList(records);
+        this.format = format;
+        this.formatted = new AtomicReferenceArray<>(records.size());
+    }
+
+    /**
+     * Creates a {@link FormattedResults} formatting the provided {@code tweets} with {@code formatter}.
+     *
+     * @param tweets    the {@link TweetRecord}s to format
+     * @param formatter the {@link ResultFormatter} used to format the records
+     * @param <T>       the type of the formatted records
+     * @return the created {@link FormattedResults}
+     */
+    public static <T> FormattedResults<TweetRecord, T> ofTweets(@NonNull List<TweetRecord> tweets,
+                                                                @NonNull ResultFormatter<T> formatter) {
+        return new FormattedResults<>(tweets, formatter::formatTweet);
+    }
+
+    /**
+     * Creates a {@link FormattedResults} formatting the provided {@code trends} with {@code formatter}.
+     *
+     * @param trends    the {@link TrendRecord}s to format
+     * @param formatter the {@link ResultFormatter} used to format the records
+     * @param <T>       the type of the formatted records
+     * @return the created {@link FormattedResults}
+     */
+    public static <T> FormattedResults<TrendRecord, T> ofTrends(@NonNull List<TrendRecord> trends,
+                                                                @NonNull ResultFormatter<T> formatter) {
+        return new FormattedResults<>(trends, formatter::formatTrend);
+    }
+
+    /**
+     * Creates a {@link FormattedResults} formatting the provided {@code directMessages} with {@code formatter}.
+     *
+     * @param directMessages the {@link DirectMessageRecord}s to format
+     * @param formatter      the {@link ResultFormatter} used to format the records
+     * @param <T>            the type of the formatted records
+     * @return the created {@link FormattedResults}
+     */
+    public static <T> FormattedResults<DirectMessageRecord, T> ofDirectMessages(
+            @NonNull List<DirectMessageRecord> directMessages, @NonNull ResultFormatter<T> formatter) {
+        return new FormattedResults<>(directMessages, formatter::formatDirectMessage);
+    }
+
+    /**
+     * Returns the unformatted records of the list.
+     *
+     * @return an unmodifiable list containing the records
+     */
+    public List<R> getRecords() {
+        return this.records;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The record at {@code index} is formatted the first time it is accessed.
+     */
+    @Override
+    public T get(int index) {
+        T result = formatted.get(index);
+        if (result == null) {
+            result = format.apply(records.get(index));
+            if (!formatted.compareAndSet(index, null, result)) {
+                result = formatted.get(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.records.size();
+    }
+}
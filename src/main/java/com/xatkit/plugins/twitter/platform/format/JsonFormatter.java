@@ -0,0 +1,85 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import twitter4j.JSONObject;
+
+import java.util.List;
+
+/**
+ * A {@link ResultFormatter} rendering the records as JSON objects ({@code json}).
+ * <p>
+ * The identifiers are rendered as strings (like the {@code id_str} fields of the Twitter API) because they exceed
+ * the precision of JavaScript numbers, and the times are rendered in milliseconds since the epoch. Missing values
+ * (e.g. the volume of a trend that is not provided by Twitter, or the keywords of a tweet that does not match any
+ * keyword) are omitted.
+ */
+public class JsonFormatter implements ResultFormatter<String> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatTweet(TweetRecord tweet) {
+        StringBuilder sb = new StringBuilder("{\"id\":\"").append(tweet.getId())
+                .append("\",\"author\":").append(JSONObject.quote(tweet.getAuthor().getName()))
+                .append(",\"screenName\":").append(JSONObject.quote(tweet.getAuthor().getScreenName()))
+                .append(",\"text\":").append(JSONObject.quote(tweet.getText()))
+                .append(",\"createdAt\":").append(tweet.getCreatedAt())
+                .append(",\"url\":").append(JSONObject.quote(tweet.getUrl()));
+        return appendMatches(sb, tweet.getMatches()).append('}').toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatTrend(TrendRecord trend) {
+        StringBuilder sb = new StringBuilder("{\"rank\":").append(trend.getRank())
+                .append(",\"name\":").append(JSONObject.quote(trend.getName()));
+        if (trend.getUrl() != null) {
+            sb.append(",\"url\":").append(JSONObject.quote(trend.getUrl()));
+        }
+        if (trend.getQuery() != null) {
+            sb.append(",\"query\":").append(JSONObject.quote(trend.getQuery()));
+        }
+        if (trend.getTweetVolume() > 0) {
+            sb.append(",\"tweetVolume\":").append(trend.getTweetVolume());
+        }
+        sb.append(",\"woeids\":[");
+        for (int i = 0; i < trend.getWoeids().size(); i++) {
+            sb.append(i == 0 ? "" : ",").append(trend.getWoeids().get(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatDirectMessage(DirectMessageRecord directMessage) {
+        StringBuilder sb = new StringBuilder("{\"id\":\"").append(directMessage.getId())
+                .append("\",\"senderId\":\"").append(directMessage.getSender().getId())
+                .append("\",\"sender\":").append(JSONObject.quote(directMessage.getSender().getName()))
+                .append(",\"screenName\":").append(JSONObject.quote(directMessage.getSender().getScreenName()))
+                .append(",\"text\":").append(JSONObject.quote(directMessage.getText()))
+                .append(",\"createdAt\":").append(directMessage.getCreatedAt());
+        return appendMatches(sb, directMessage.getMatches()).append('}').toString();
+    }
+
+    /**
+     * Appends the provided keyword {@code matches} to {@code sb} as a {@code matches} array, if they are not empty.
+     *
+     * @param sb      the {@link StringBuilder} containing the JSON object being rendered
+     * @param matches the IDs of the keywords matched by the record
+     * @return {@code sb}
+     */
+    private static StringBuilder appendMatches(StringBuilder sb, List<String> matches) {
+        if (!matches.isEmpty()) {
+            sb.append(",\"matches\":[");
+            for (int i = 0; i < matches.size(); i++) {
+                sb.append(i == 0 ? "" : ",").append(JSONObject.quote(matches.get(i)));
+            }
+            sb.append(']');
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,42 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+/**
+ * A {@link ResultFormatter} rendering the records as single-line plain text messages ({@code text}).
+ * <p>
+ * Tweets and direct messages are rendered as {@code "Name @screenName: text"}, and trends as
+ * {@code "rank. name (volume tweets)"} (followed by {@code " in n locations"} for the trends merged over multiple
+ * locations).
+ */
+public class PlainTextFormatter implements ResultFormatter<String> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatTweet(TweetRecord tweet) {
+        return tweet.getAuthor().getDisplayName() + ": " + tweet.getText();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatTrend(TrendRecord trend) {
+        StringBuilder sb = new StringBuilder().append(trend.getRank()).append(". ").append(trend.getName());
+        if (trend.getTweetVolume() > 0) {
+            sb.append(" (").append(trend.getTweetVolume()).append(" tweets)");
+        }
+        if (trend.getWoeids().size() > 1) {
+            sb.append(" in ").append(trend.getWoeids().size()).append(" locations");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String formatDirectMessage(DirectMessageRecord directMessage) {
+        return directMessage.getSender().getDisplayName() + ": " + directMessage.getText();
+    }
+}
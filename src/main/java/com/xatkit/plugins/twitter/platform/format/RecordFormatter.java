@@ -0,0 +1,34 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+/**
+ * A {@link ResultFormatter} returning the records as is ({@code records}).
+ * <p>
+ * This formatter lets the bot access the {@link TweetRecord}s, {@link TrendRecord}s, and
+ * {@link DirectMessageRecord}s returned by the actions, and render them itself.
+ */
+public class RecordFormatter implements ResultFormatter<Object> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object formatTweet(TweetRecord tweet) {
+        return tweet;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object formatTrend(TrendRecord trend) {
+        return trend;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object formatDirectMessage(DirectMessageRecord directMessage) {
+        return directMessage;
+    }
+}
@@ -0,0 +1,44 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+/**
+ * Renders the records returned by the Twitter actions for the channel displaying them.
+ * <p>
+ * The formatter of the platform is defined with the {@code xatkit.twitter.formatter} property, containing the name
+ * of a built-in formatter ({@code slack}, {@code text}, {@code json}, or {@code records}) or the fully qualified name
+ * of a custom implementation of this interface. Custom formatters must define a public no-argument constructor.
+ * <p>
+ * The actions do not call the formatter directly: they return {@link FormattedResults} lists that format each
+ * record the first time it is accessed. Implementations must be thread-safe.
+ *
+ * @param <T> the type of the formatted records
+ * @see SlackAttachmentFormatter
+ * @see PlainTextFormatter
+ * @see JsonFormatter
+ * @see RecordFormatter
+ */
+public interface ResultFormatter<T> {
+
+    /**
+     * Formats the provided {@code tweet}.
+     *
+     * @param tweet the {@link TweetRecord} to format
+     * @return the formatted tweet
+     */
+    T formatTweet(TweetRecord tweet);
+
+    /**
+     * Formats the provided {@code trend}.
+     *
+     * @param trend the {@link TrendRecord} to format
+     * @return the formatted trend
+     */
+    T formatTrend(TrendRecord trend);
+
+    /**
+     * Formats the provided {@code directMessage}.
+     *
+     * @param directMessage the {@link DirectMessageRecord} to format
+     * @return the formatted direct message
+     */
+    T formatDirectMessage(DirectMessageRecord directMessage);
+}
@@ -0,0 +1,61 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.github.seratch.jslack.api.model.Attachment;
+
+/**
+ * A {@link ResultFormatter} rendering the records as Slack {@link Attachment}s.
+ * <p>
+ * This is the default formatter of the platform ({@code slack}). It is the only class of the platform depending on
+ * the Slack API, meaning that bots using another formatter never load it.
+ */
+public class SlackAttachmentFormatter implements ResultFormatter<Attachment> {
+
+    /**
+     * The color of the attachments (Twitter blue).
+     */
+    private static final String TWITTER_COLOR = "#1da1f2";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attachment formatTweet(TweetRecord tweet) {
+        return Attachment.builder()
+                .authorName(tweet.getAuthor().getDisplayName())
+                .text(tweet.getText())
+                .color(TWITTER_COLOR)
+                .ts(String.valueOf(tweet.getCreatedAt() / 1000))
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attachment formatTrend(TrendRecord trend) {
+        int tweetVolume = trend.getTweetVolume();
+        String text = "Tweet volume: " + (tweetVolume > 0 ? String.valueOf(tweetVolume) : "undefined");
+        if (trend.getWoeids().size() > 1) {
+            text += " in " + trend.getWoeids().size() + " locations";
+        }
+        return Attachment.builder()
+                .text(text)
+                .title(trend.getName())
+                .titleLink(trend.getUrl())
+                .color(TWITTER_COLOR)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attachment formatDirectMessage(DirectMessageRecord directMessage) {
+        return Attachment.builder()
+                .authorName(directMessage.getSender().getDisplayName())
+                .text(directMessage.getText())
+                .color(TWITTER_COLOR)
+                .ts(String.valueOf(directMessage.getCreatedAt() / 1000))
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import lombok.NonNull;
+import twitter4j.Trend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compact, immutable view of a trending topic returned by the Twitter actions.
+ * <p>
+ * This class only holds the information needed to render a trend, and is formatted by the platform's
+ * {@link ResultFormatter} when the result of the action is consumed. Trends aggregated over multiple locations (see
+ * {@link com.xatkit.plugins.twitter.platform.service.AggregatedTrends}) hold the total volume of the trend and the
+ * WOEIDs of all the locations it appears in.
+ *
+ * @see FormattedResults
+ */
+public final class TrendRecord {
+
+    /**
+     * The rank of the trend, starting at {@code 1}.
+     */
+    private final int rank;
+
+    /**
+     * The name of the trend.
+     */
+    private final String name;
+
+    /**
+     * The Twitter Search URL of the trend.
+     */
+    private final String url;
+
+    /**
+     * The query parameter that can be used to search for the trend on Twitter Search.
+     */
+    private final String query;
+
+    /**
+     * The number of tweets of the trend in the last 24 hours, or {@code -1} if it is not provided by Twitter.
+     */
+    private final int tweetVolume;
+
+    /**
+     * The WOEIDs of the locations the trend appears in.
+     */
+    private final List<Integer> woeids;
+
+    /**
+     * Constructs a {@link TrendRecord} with the provided {@code rank}, {@code name}, {@code url}, {@code query},
+     * {@code tweetVolume}, and {@code woeids}.
+     *
+     * @param rank        the rank of the trend, starting at {@code 1}
+     * @param name        the name of the trend
+     * @param url         the Twitter Search URL of the trend
+     * @param query       the query parameter that can be used to search for the trend on Twitter Search
+     * @param tweetVolume the number of tweets of the trend in the last 24 hours, or {@code -1} if it is unknown
+     * @param woeids      the WOEIDs of the locations the trend appears in
+     */
+    public TrendRecord(int rank, @NonNull String name, String url, String query, int tweetVolume,
+                       @NonNull List<Integer> woeids) {
+        this.rank = rank;
+        this.name = name;
+        this.url = url;
+        this.query = query;
+        this.tweetVolume = tweetVolume > 0 ? tweetVolume : -1;
+        this.woeids = Collections.unmodifiableList(new ArrayList<>(woeids));
+    }
+
+    /**
+     * Creates a {@link TrendRecord} from the provided Twitter {@code trend}.
+     *
+     * @param trend the Twitter {@link Trend} to create a record of
+     * @param rank  the rank of the {@code trend} in its location, starting at {@code 1}
+     * @param woeid the WOEID of the location of the {@code trend}
+     * @return the created {@link TrendRecord}
+     */
+    public static TrendRecord of(@NonNull Trend trend, int rank, int woeid) {
+        return new TrendRecord(rank, trend.getName(), trend.getURL(), trend.getQuery(), trend.getTweetVolume(),
+                Collections.singletonList(woeid));
+    }
+
+    /**
+     * Returns the rank of the trend, starting at {@code 1}.
+     *
+     * @return the rank of the trend
+     */
+    public int getRank() {
+        return this.rank;
+    }
+
+    /**
+     * Returns the name of the trend.
+     *
+     * @return the name of the trend
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the Twitter Search URL of the trend.
+     *
+     * @return the Twitter Search URL of the trend
+     */
+    public String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Returns the query parameter that can be used to search for the trend on Twitter Search.
+     *
+     * @return the query of the trend
+     */
+    public String getQuery() {
+        return this.query;
+    }
+
+    /**
+     * Returns the number of tweets of the trend in the last 24 hours.
+     *
+     * @return the number of tweets of the trend in the last 24 hours, or {@code -1} if it is not provided by Twitter
+     */
+    public int getTweetVolume() {
+        return this.tweetVolume;
+    }
+
+    /**
+     * Returns the WOEIDs of the locations the trend appears in.
+     *
+     * @return an unmodifiable list containing the WOEIDs of the locations of the trend
+     */
+    public List<Integer> getWoeids() {
+        return this.woeids;
+    }
+}
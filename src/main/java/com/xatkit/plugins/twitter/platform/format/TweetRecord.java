@@ -0,0 +1,158 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.xatkit.plugins.twitter.platform.service.KeywordMatcher;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import lombok.NonNull;
+import twitter4j.Status;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compact, immutable view of a tweet returned by the Twitter actions.
+ * <p>
+ * This class only holds the information needed to render a tweet, and is formatted by the platform's
+ * {@link ResultFormatter} when the result of the action is consumed.
+ *
+ * @see FormattedResults
+ */
+public final class TweetRecord {
+
+    /**
+     * The unique identifier of the tweet.
+     */
+    private final long id;
+
+    /**
+     * The author of the tweet.
+     */
+    private final UserSummary author;
+
+    /**
+     * The text of the tweet.
+     */
+    private final String text;
+
+    /**
+     * The creation time of the tweet, in milliseconds since the epoch.
+     */
+    private final long createdAt;
+
+    /**
+     * The IDs of the keywords matched by the text of the tweet.
+     */
+    private final List<String> matches;
+
+    /**
+     * Constructs a {@link TweetRecord} with the provided {@code id}, {@code author}, {@code text}, and
+     * {@code createdAt} time, that does not match any keyword.
+     *
+     * @param id        the unique identifier of the tweet
+     * @param author    the author of the tweet
+     * @param text      the text of the tweet
+     * @param createdAt the creation time of the tweet, in milliseconds since the epoch
+     */
+    public TweetRecord(long id, @NonNull UserSummary author, @NonNull String text, long createdAt) {
+        this(id, author, text, createdAt, Collections.emptyList());
+    }
+
+    /**
+     * Constructs a {@link TweetRecord} with the provided {@code id}, {@code author}, {@code text},
+     * {@code createdAt} time, and keyword {@code matches}.
+     *
+     * @param id        the unique identifier of the tweet
+     * @param author    the author of the tweet
+     * @param text      the text of the tweet
+     * @param createdAt the creation time of the tweet, in milliseconds since the epoch
+     * @param matches   the IDs of the keywords matched by the text of the tweet
+     * @see KeywordMatcher#match(CharSequence)
+     */
+    public TweetRecord(long id, @NonNull UserSummary author, @NonNull String text, long createdAt,
+                       @NonNull List<String> matches) {
+        this.id = id;
+        this.author = author;
+        this.text = text;
+        this.createdAt = createdAt;
+        this.matches = matches;
+    }
+
+    /**
+     * Creates a {@link TweetRecord} from the provided Twitter {@code status}.
+     *
+     * @param status the Twitter {@link Status} to create a record of
+     * @return the created {@link TweetRecord}
+     */
+    public static TweetRecord of(@NonNull Status status) {
+        return new TweetRecord(status.getId(), UserSummary.of(status.getUser()), status.getText(),
+                status.getCreatedAt().getTime());
+    }
+
+    /**
+     * Creates a {@link TweetRecord} from the provided Twitter {@code status}, with the keywords of the provided
+     * {@code matcher} its text matches.
+     *
+     * @param status  the Twitter {@link Status} to create a record of
+     * @param matcher the {@link KeywordMatcher} to match the text of the tweet with
+     * @return the created {@link TweetRecord}
+     */
+    public static TweetRecord of(@NonNull Status status, @NonNull KeywordMatcher matcher) {
+        return new TweetRecord(status.getId(), UserSummary.of(status.getUser()), status.getText(),
+                status.getCreatedAt().getTime(), matcher.match(status.getText()));
+    }
+
+    /**
+     * Returns the unique identifier of the tweet.
+     *
+     * @return the unique identifier of the tweet
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the author of the tweet.
+     *
+     * @return the author of the tweet
+     */
+    public UserSummary getAuthor() {
+        return this.author;
+    }
+
+    /**
+     * Returns the text of the tweet.
+     *
+     * @return the text of the tweet
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Returns the creation time of the tweet, in milliseconds since the epoch.
+     *
+     * @return the creation time of the tweet
+     */
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    /**
+     * Returns the URL of the tweet.
+     *
+     * @return the URL of the tweet
+     */
+    public String getUrl() {
+        return "https://twitter.com/" + this.author.getScreenName() + "/status/" + this.id;
+    }
+
+    /**
+     * Returns the IDs of the keywords matched by the text of the tweet.
+     *
+     * @return an unmodifiable list containing the IDs of the matched keywords (empty if the text does not match
+     * any keyword)
+     * @see KeywordMatcher#match(CharSequence)
+     */
+    public List<String> getMatches() {
+        return this.matches;
+    }
+}
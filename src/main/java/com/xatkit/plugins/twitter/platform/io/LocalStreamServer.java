@@ -0,0 +1,417 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xatkit.core.XatkitException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * A local stand-in for the Twitter filtered stream, that streams newline-delimited JSON messages to its clients.
+ * <p>
+ * This class is an embedded HTTP server accepting the filtered stream requests ({@code POST} requests on
+ * {@link #FILTER_PATH}) without checking their credentials. Each connection receives the messages published after
+ * it has been opened, and a keep-alive newline when no message has been published for a while. It can be used to
+ * feed a {@link TwitterStreamEventProvider} without accessing Twitter:
+ * <pre>
+ * {@code
+ * LocalStreamServer server = new LocalStreamServer(0);
+ * server.start();
+ * configuration.addProperty(TwitterUtils.TWITTER_STREAM_BASE_URL_KEY, server.getBaseUrl());
+ * // start the provider
+ * server.publishTweet(1, 42, "xatkit", "Hello #xatkit");
+ * server.disconnectClients();
+ * }
+ * </pre>
+ * The connections can be closed (see {@link #disconnectClients()}) and the new connections rejected with an error
+ * status (see {@link #setResponseStatus(int)}) to check how the clients reconnect.
+ */
+public class LocalStreamServer implements AutoCloseable {
+
+    /**
+     * The path of the filtered stream endpoint.
+     */
+    public static final String FILTER_PATH = "/1.1/statuses/filter.json";
+
+    /**
+     * The format of the {@code created_at} fields of the published tweets.
+     */
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern(
+            "EEE MMM dd HH:mm:ss Z yyyy", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * The port the embedded HTTP server listens on ({@code 0} selects an available port).
+     */
+    private final int configuredPort;
+
+    /**
+     * The interval (in milliseconds) between two keep-alive newlines on an idle connection.
+     */
+    private final long keepAliveInterval;
+
+    /**
+     * The open connections.
+     */
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of filtered stream requests received by the server.
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * The HTTP status returned to the new connections.
+     */
+    private volatile int responseStatus = 200;
+
+    /**
+     * The parameters of the last filtered stream request.
+     */
+    private volatile Map<String, String> lastParameters = Collections.emptyMap();
+
+    /**
+     * The embedded HTTP server.
+     */
+    private HttpServer server;
+
+    /**
+     * The executor running the connections.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Constructs a {@link LocalStreamServer} listening on the provided {@code port}.
+     * <p>
+     * The server sends a keep-alive newline every {@code 30} seconds on an idle connection, like Twitter does.
+     *
+     * @param port the port of the server ({@code 0} selects an available port)
+     */
+    public LocalStreamServer(int port) {
+        this(port, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Constructs a {@link LocalStreamServer} listening on the provided {@code port} and sending keep-alive newlines
+     * every {@code keepAliveInterval} on an idle connection.
+     *
+     * @param port              the port of the server ({@code 0} selects an available port)
+     * @param keepAliveInterval the interval between two keep-alive newlines
+     * @param unit              the {@link TimeUnit} of {@code keepAliveInterval}
+     * @throws IllegalArgumentException if {@code port} is negative or {@code keepAliveInterval} is lower than
+     *                                  {@code 1}
+     */
+    public LocalStreamServer(int port, long keepAliveInterval, @NonNull TimeUnit unit) {
+        checkArgument(port >= 0 && keepAliveInterval > 0, "Cannot create a %s with the provided port (%s) and "
+                + "keep-alive interval (%s)", this.getClass().getSimpleName(), port, keepAliveInterval);
+        this.configuredPort = port;
+        this.keepAliveInterval = unit.toMillis(keepAliveInterval);
+    }
+
+    /**
+     * Starts the embedded HTTP server.
+     *
+     * @throws XatkitException       if the HTTP server cannot be started
+     * @throws IllegalStateException if the server is already started
+     */
+    public synchronized void start() {
+        if (nonNull(server)) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is already started");
+        }
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(configuredPort), 0);
+        } catch (IOException e) {
+            throw new XatkitException("Cannot start the local stream server on port " + configuredPort, e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Local Stream Server " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(FILTER_PATH, this::handle);
+        server.start();
+        Log.info("{0} Streaming at {1}", this.getClass().getSimpleName(), this.getBaseUrl());
+    }
+
+    /**
+     * Closes the open connections and stops the embedded HTTP server.
+     */
+    @Override
+    public synchronized void close() {
+        if (nonNull(server)) {
+            this.disconnectClients();
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Returns the port the embedded HTTP server is listening on.
+     *
+     * @return the port the embedded HTTP server is listening on
+     * @throws IllegalStateException if the server is not started
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the base URL of the streaming API served by this server.
+     * <p>
+     * This URL is the value of the {@link com.xatkit.plugins.twitter.TwitterUtils#TWITTER_STREAM_BASE_URL_KEY}
+     * property of a {@link TwitterStreamEventProvider} using this server.
+     *
+     * @return the base URL of the streaming API served by this server
+     * @throws IllegalStateException if the server is not started
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + this.getPort() + "/1.1/";
+    }
+
+    /**
+     * Sends the provided {@code message} to the open connections.
+     * <p>
+     * The {@code message} is sent as a single line, and must not contain any line break.
+     *
+     * @param message the JSON message to send
+     * @return the number of connections the message has been sent to
+     * @throws IllegalArgumentException if the {@code message} contains a line break
+     */
+    public int publish(@NonNull String message) {
+        checkArgument(message.indexOf('\n') < 0 && message.indexOf('\r') < 0, "Cannot publish the provided "
+                + "message, it contains a line break");
+        int count = 0;
+        for (Client client : clients) {
+            client.lines.add(message);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Sends a tweet with the provided {@code id}, {@code userId}, {@code screenName}, and {@code text} to the open
+     * connections.
+     *
+     * @param id         the ID of the tweet
+     * @param userId     the ID of the author of the tweet
+     * @param screenName the screen name of the author of the tweet
+     * @param text       the text of the tweet
+     * @return the number of connections the tweet has been sent to
+     */
+    public int publishTweet(long id, long userId, @NonNull String screenName, @NonNull String text) {
+        String createdAt = CREATED_AT_FORMAT.format(Instant.now());
+        try {
+            return this.publish(new JSONObject()
+                    .put("id", id)
+                    .put("id_str", Long.toString(id))
+                    .put("text", text)
+                    .put("created_at", createdAt)
+                    .put("user", new JSONObject()
+                            .put("id", userId)
+                            .put("id_str", Long.toString(userId))
+                            .put("name", screenName)
+                            .put("screen_name", screenName)
+                            .put("created_at", createdAt))
+                    .toString());
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Cannot create the tweet " + id, e);
+        }
+    }
+
+    /**
+     * Closes the open connections.
+     * <p>
+     * The messages that have not been sent yet are discarded.
+     */
+    public void disconnectClients() {
+        for (Client client : clients) {
+            client.disconnected = true;
+            client.lines.add("");
+        }
+    }
+
+    /**
+     * Sets the HTTP status returned to the new connections.
+     * <p>
+     * The connections are accepted with the {@code 200} status (the default), and are rejected with any other
+     * status (e.g. {@code 420} or {@code 503}).
+     *
+     * @param status the HTTP status returned to the new connections
+     */
+    public void setResponseStatus(int status) {
+        this.responseStatus = status;
+    }
+
+    /**
+     * Returns the number of filtered stream requests received by this server.
+     * <p>
+     * This count includes the rejected requests.
+     *
+     * @return the number of received filtered stream requests
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return the number of open connections
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Returns the parameters of the last filtered stream request (e.g. {@code track} and {@code follow}).
+     *
+     * @return an unmodifiable map containing the decoded parameters of the last request
+     */
+    public Map<String, String> getLastParameters() {
+        return this.lastParameters;
+    }
+
+    /**
+     * Handles a request sent to the filtered stream endpoint.
+     * <p>
+     * This method streams the published messages until the connection is closed by the client or by
+     * {@link #disconnectClients()}.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @throws IOException if an error occurred when reading the request
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            requestCount.incrementAndGet();
+            this.lastParameters = Collections.unmodifiableMap(decodeParameters(read(exchange.getRequestBody())));
+            int status = responseStatus;
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            this.stream(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Streams the published messages to the client of the provided {@code exchange}.
+     *
+     * @param exchange the {@link HttpExchange} of the connection
+     */
+    private void stream(HttpExchange exchange) {
+        Client client = new Client();
+        clients.add(client);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream outputStream = exchange.getResponseBody();
+            while (!client.disconnected) {
+                String line = client.lines.poll(keepAliveInterval, TimeUnit.MILLISECONDS);
+                if (client.disconnected) {
+                    break;
+                }
+                outputStream.write(((line == null ? "" : line) + "\r\n").getBytes(StandardCharsets.UTF_8));
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            /*
+             * The client closed the connection.
+             */
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    /**
+     * Decodes the provided form-encoded {@code body}.
+     *
+     * @param body the form-encoded body of a request
+     * @return the decoded parameters
+     * @throws IOException if the UTF-8 encoding is not supported
+     */
+    private static Map<String, String> decodeParameters(String body) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        for (String parameter : body.split("&")) {
+            String[] keyValue = parameter.split("=", 2);
+            if (keyValue.length == 2) {
+                parameters.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8.name()),
+                        URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8.name()));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads the provided {@code inputStream} as a UTF-8 {@link String}.
+     *
+     * @param inputStream the {@link InputStream} to read
+     * @return the content of the stream
+     * @throws IOException if an error occurred when reading the stream
+     */
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An open connection.
+     */
+    private static final class Client {
+
+        /**
+         * The messages waiting to be sent to the client.
+         */
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        /**
+         * A flag telling whether the connection must be closed.
+         */
+        private volatile boolean disconnected;
+    }
+}
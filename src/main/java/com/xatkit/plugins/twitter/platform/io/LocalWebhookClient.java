@@ -0,0 +1,120 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import lombok.NonNull;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A local stand-in for the Twitter account activity API that sends requests to a webhook endpoint.
+ * <p>
+ * This class signs the payloads it sends like Twitter does, and can be used to feed a
+ * {@link TwitterWebhookEventProvider} (or any other account activity webhook) without registering it on Twitter:
+ * <pre>
+ * {@code
+ * LocalWebhookClient client = new LocalWebhookClient("http://localhost:5050/twitter/webhook", consumerSecret);
+ * client.checkChallenge();
+ * client.post("{\"for_user_id\": \"42\", \"follow_events\": [...]}");
+ * }
+ * </pre>
+ */
+public class LocalWebhookClient {
+
+    /**
+     * The URL of the webhook endpoint.
+     */
+    private final String endpoint;
+
+    /**
+     * The consumer secret used to sign the payloads and check the CRC responses.
+     */
+    private final String consumerSecret;
+
+    /**
+     * Constructs a {@link LocalWebhookClient} sending requests to the provided {@code endpoint}.
+     *
+     * @param endpoint       the URL of the webhook endpoint
+     * @param consumerSecret the consumer secret used to sign the payloads and check the CRC responses
+     */
+    public LocalWebhookClient(@NonNull String endpoint, @NonNull String consumerSecret) {
+        this.endpoint = endpoint;
+        this.consumerSecret = consumerSecret;
+    }
+
+    /**
+     * Sends a CRC challenge to the webhook endpoint and checks its response.
+     *
+     * @return {@code true} if the endpoint answered with a valid response token, {@code false} otherwise
+     * @throws IOException if an error occurred when sending the challenge
+     */
+    public boolean checkChallenge() throws IOException {
+        String crcToken = Long.toHexString(System.nanoTime());
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint + "?crc_token="
+                + URLEncoder.encode(crcToken, StandardCharsets.UTF_8.name())).openConnection();
+        try {
+            if (connection.getResponseCode() != 200) {
+                return false;
+            }
+            String responseToken = new JSONObject(read(connection.getInputStream())).optString("response_token");
+            return WebhookSignatures.isValid(consumerSecret, crcToken.getBytes(StandardCharsets.UTF_8),
+                    responseToken);
+        } catch (JSONException e) {
+            return false;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Sends the provided account activity {@code payload} to the webhook endpoint.
+     *
+     * @param payload the JSON payload to send
+     * @return the HTTP status returned by the endpoint
+     * @throws IOException if an error occurred when sending the payload
+     */
+    public int post(@NonNull String payload) throws IOException {
+        byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("X-Twitter-Webhooks-Signature", WebhookSignatures.sign(consumerSecret,
+                    body));
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body);
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Reads the provided {@code inputStream} as a UTF-8 {@link String}.
+     *
+     * @param inputStream the {@link InputStream} to read
+     * @return the content of the stream
+     * @throws IOException if an error occurred when reading the stream
+     */
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream stream = inputStream) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
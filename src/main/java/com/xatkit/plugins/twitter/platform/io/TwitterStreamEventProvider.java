@@ -0,0 +1,718 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.HttpClientConfiguration;
+import twitter4j.HttpParameter;
+import twitter4j.HttpRequest;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+import twitter4j.RequestMethod;
+import twitter4j.Status;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+import twitter4j.TwitterObjectFactory;
+import twitter4j.auth.Authorization;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link RuntimeEventProvider} that receives the tweets matching a filter on a long-lived connection to the
+ * Twitter filtered stream.
+ * <p>
+ * This provider opens a single connection to the filtered stream, tracking the keywords listed in
+ * {@code xatkit.twitter.stream.track} and following the users listed in {@code xatkit.twitter.stream.follow}. The
+ * stream is parsed incrementally as the newline-delimited messages are read from the connection, and the tweets are
+ * handed over to the bot through a bounded queue (see {@code xatkit.twitter.stream.queueSize}): when the bot cannot
+ * keep up the tweets are dropped or the connection stops being read, depending on
+ * {@code xatkit.twitter.stream.overflow}.
+ * <p>
+ * The connection is reopened when it is closed, when it stalls (see {@code xatkit.twitter.stream.stallTimeout}),
+ * or when it is rejected, following the back-off strategy recommended by Twitter: linear (from {@code 250}
+ * milliseconds up to {@code 16} seconds) for network errors, exponential (from {@code 5} seconds up to
+ * {@code 320} seconds) for HTTP errors, and exponential from {@code 1} minute when the connection is rate limited.
+ * The provider stops reconnecting when the request is rejected because of its credentials or its parameters.
+ * <p>
+ * This provider emits a {@link #TweetReceived} event for each streamed tweet, in the {@code twitter-stream} context.
+ * The data of the events are stored in their platform data (see the {@code *_KEY} constants, including the IDs of
+ * the keywords matched by the tweets), the authors of the tweets are cached in the platform's
+ * {@link com.xatkit.plugins.twitter.platform.service.UserResolver}, and the tweets are recorded in its
+ * {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex}.
+ * <p>
+ * The stream can be fed by a local stand-in (see {@link LocalStreamServer}) instead of the Twitter API.
+ */
+public class TwitterStreamEventProvider extends RuntimeEventProvider<TwitterPlatform> {
+
+    /**
+     * The event emitted when a tweet matching the filter is streamed.
+     */
+    public static final EventDefinition TweetReceived = eventDefinition("Twitter_Stream_Tweet_Received");
+
+    /**
+     * The platform data key containing the ID of the streamed tweet.
+     */
+    public static final String ID_KEY = "id";
+
+    /**
+     * The platform data key containing the text of the streamed tweet.
+     */
+    public static final String TEXT_KEY = "text";
+
+    /**
+     * The platform data key containing the ID of the author of the streamed tweet.
+     */
+    public static final String USER_ID_KEY = "userId";
+
+    /**
+     * The platform data key containing the name of the author of the streamed tweet.
+     */
+    public static final String USER_NAME_KEY = "userName";
+
+    /**
+     * The platform data key containing the screen name of the author of the streamed tweet.
+     */
+    public static final String USER_SCREEN_NAME_KEY = "userScreenName";
+
+    /**
+     * The platform data key containing the streamed {@link Status}.
+     */
+    public static final String ITEM_KEY = "item";
+
+    /**
+     * The platform data key containing the IDs of the keywords matched by the text of the streamed tweet.
+     *
+     * @see TwitterPlatform#getKeywordMatcher()
+     */
+    public static final String MATCHES_KEY = "matches";
+
+    /**
+     * The ID of the {@link StateContext} receiving the events.
+     */
+    public static final String CONTEXT_ID = "twitter-stream";
+
+    /**
+     * The path of the filtered stream endpoint, relative to the base URL of the streaming API.
+     */
+    private static final String FILTER_PATH = "statuses/filter.json";
+
+    /**
+     * The increment (in milliseconds) of the delay before reconnecting after a network error.
+     */
+    private static final long NETWORK_BACKOFF_STEP = 250;
+
+    /**
+     * The maximum delay (in milliseconds) before reconnecting after a network error.
+     */
+    private static final long NETWORK_BACKOFF_MAX = 16000;
+
+    /**
+     * The initial delay (in milliseconds) before reconnecting after an HTTP error.
+     */
+    private static final long HTTP_BACKOFF_MIN = 5000;
+
+    /**
+     * The maximum delay (in milliseconds) before reconnecting after an HTTP error.
+     */
+    private static final long HTTP_BACKOFF_MAX = 320000;
+
+    /**
+     * The initial delay (in milliseconds) before reconnecting after the connection has been rate limited.
+     */
+    private static final long RATE_LIMIT_BACKOFF_MIN = 60000;
+
+    /**
+     * The maximum delay (in milliseconds) before reconnecting after the connection has been rate limited.
+     */
+    private static final long RATE_LIMIT_BACKOFF_MAX = 960000;
+
+    /**
+     * The policies applied when a tweet is streamed while the queue of tweets waiting to be emitted is full.
+     *
+     * @see TwitterUtils#TWITTER_STREAM_OVERFLOW_KEY
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drops the streamed tweet.
+         */
+        DROP,
+        /**
+         * Stops reading the connection until the queue has room for the streamed tweet.
+         */
+        BLOCK
+    }
+
+    /**
+     * The URL of the filtered stream endpoint.
+     */
+    private String filterUrl;
+
+    /**
+     * The parameters of the filtered stream request.
+     */
+    private HttpParameter[] filterParameters;
+
+    /**
+     * The {@link Authorization} used to sign the filtered stream request.
+     */
+    private Authorization authorization;
+
+    /**
+     * The proxy used to connect to the streaming API.
+     */
+    private Proxy proxy;
+
+    /**
+     * The timeout (in milliseconds) of the connections to the streaming API.
+     */
+    private int connectTimeout;
+
+    /**
+     * The time (in milliseconds) the stream waits for data before reconnecting.
+     */
+    private int stallTimeout;
+
+    /**
+     * The policy applied when a tweet is streamed while {@link #queue} is full.
+     */
+    private OverflowPolicy overflowPolicy;
+
+    /**
+     * The streamed tweets waiting to be emitted.
+     */
+    private BlockingQueue<Status> queue;
+
+    /**
+     * The thread reading the stream.
+     */
+    private Thread readerThread;
+
+    /**
+     * The thread emitting the streamed tweets.
+     */
+    private Thread dispatcherThread;
+
+    /**
+     * The open connection to the filtered stream, if any.
+     */
+    private volatile HttpURLConnection connection;
+
+    /**
+     * A flag telling whether the provider is connected to the filtered stream.
+     */
+    private volatile boolean connected;
+
+    /**
+     * A flag telling whether the provider is closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The delay (in milliseconds) applied before the next reconnection, or {@code 0} if the last connection has
+     * received data.
+     * <p>
+     * This field is only accessed by {@link #readerThread}.
+     */
+    private long backoff;
+
+    /**
+     * The number of undelivered tweets reported by the limit notices of the open connection.
+     * <p>
+     * This field is only accessed by {@link #readerThread}.
+     */
+    private long connectionUndeliveredCount;
+
+    /**
+     * The number of connections opened to the filtered stream.
+     */
+    private final AtomicLong connectionCount = new AtomicLong();
+
+    /**
+     * The number of tweets received from the filtered stream.
+     */
+    private final AtomicLong receivedTweetCount = new AtomicLong();
+
+    /**
+     * The number of tweets dropped because {@link #queue} was full.
+     */
+    private final AtomicLong droppedTweetCount = new AtomicLong();
+
+    /**
+     * The number of tweets matching the filter that have not been delivered by Twitter.
+     */
+    private final AtomicLong undeliveredTweetCount = new AtomicLong();
+
+    /**
+     * Constructs a {@link TwitterStreamEventProvider} with the provided {@code platform}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this provider
+     */
+    public TwitterStreamEventProvider(@NonNull TwitterPlatform platform) {
+        super(platform);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method starts the threads reading the filtered stream and emitting the streamed tweets. The stream
+     * requests are signed with the credentials of the platform's primary account.
+     *
+     * @throws IllegalArgumentException if the configuration does not contain any tracked keyword or followed user,
+     *                                  if a followed user is not a numeric ID, or if the queue size or the stall
+     *                                  timeout is lower than {@code 1}
+     * @throws XatkitException          if the overflow policy is unknown
+     */
+    @Override
+    public void start(@NonNull Configuration configuration) {
+        super.start(configuration);
+        List<HttpParameter> parameters = new ArrayList<>();
+        String track = join(configuration.getList(String.class, TwitterUtils.TWITTER_STREAM_TRACK_KEY,
+                Collections.emptyList()));
+        if (!track.isEmpty()) {
+            parameters.add(new HttpParameter("track", track));
+        }
+        String follow = join(configuration.getList(String.class, TwitterUtils.TWITTER_STREAM_FOLLOW_KEY,
+                Collections.emptyList()));
+        if (!follow.isEmpty()) {
+            checkArgument(follow.matches("[0-9]+(,[0-9]+)*"), "Cannot start the %s, the followed users must be "
+                    + "numeric IDs (%s)", this.getClass().getSimpleName(), follow);
+            parameters.add(new HttpParameter("follow", follow));
+        }
+        checkArgument(!parameters.isEmpty(), "Cannot start the %s, the configuration does not contain any tracked "
+                        + "keyword (%s) or followed user (%s)", this.getClass().getSimpleName(),
+                TwitterUtils.TWITTER_STREAM_TRACK_KEY, TwitterUtils.TWITTER_STREAM_FOLLOW_KEY);
+        parameters.add(new HttpParameter("stall_warnings", "true"));
+        this.filterParameters = parameters.toArray(new HttpParameter[0]);
+        String baseUrl = configuration.getString(TwitterUtils.TWITTER_STREAM_BASE_URL_KEY,
+                TwitterUtils.DEFAULT_STREAM_BASE_URL);
+        this.filterUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + FILTER_PATH;
+        int queueSize = configuration.getInt(TwitterUtils.TWITTER_STREAM_QUEUE_SIZE_KEY,
+                TwitterUtils.DEFAULT_STREAM_QUEUE_SIZE);
+        long stallTimeoutSeconds = configuration.getLong(TwitterUtils.TWITTER_STREAM_STALL_TIMEOUT_KEY,
+                TwitterUtils.DEFAULT_STREAM_STALL_TIMEOUT);
+        checkArgument(queueSize > 0 && stallTimeoutSeconds > 0, "Cannot start the %s with the provided queue size "
+                        + "(%s) and stall timeout (%s), expected strictly positive values",
+                this.getClass().getSimpleName(), queueSize, stallTimeoutSeconds);
+        this.overflowPolicy = createOverflowPolicy(configuration.getString(TwitterUtils.TWITTER_STREAM_OVERFLOW_KEY,
+                TwitterUtils.DEFAULT_STREAM_OVERFLOW).trim());
+        this.stallTimeout = (int) Math.min(TimeUnit.SECONDS.toMillis(stallTimeoutSeconds), Integer.MAX_VALUE);
+        this.connectTimeout = configuration.getInt(TwitterUtils.TWITTER_HTTP_CONNECT_TIMEOUT_KEY,
+                TwitterUtils.DEFAULT_HTTP_CONNECT_TIMEOUT);
+        Twitter twitter = this.runtimePlatform.getAccountPool().getPrimary().getTwitter();
+        this.authorization = twitter.getAuthorization();
+        HttpClientConfiguration httpConfiguration = twitter.getConfiguration().getHttpClientConfiguration();
+        if (nonNull(httpConfiguration.getHttpProxyHost())) {
+            this.proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(httpConfiguration.getHttpProxyHost(),
+                    httpConfiguration.getHttpProxyPort()));
+        }
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.readerThread = new Thread(this::stream, "Twitter Stream Reader");
+        readerThread.setDaemon(true);
+        this.dispatcherThread = new Thread(this::dispatch, "Twitter Stream Dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+        readerThread.start();
+        Log.info("{0} Streaming the tweets matching {1}", this.getClass().getSimpleName(),
+                HttpParameter.encodeParameters(filterParameters));
+    }
+
+    /**
+     * Does nothing, the stream is read and emitted on its own threads.
+     */
+    @Override
+    public void run() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method closes the connection to the filtered stream and stops the threads reading and emitting the
+     * streamed tweets. The tweets waiting to be emitted are discarded.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        HttpURLConnection openConnection = this.connection;
+        if (nonNull(openConnection)) {
+            openConnection.disconnect();
+        }
+        if (nonNull(readerThread)) {
+            readerThread.interrupt();
+        }
+        if (nonNull(dispatcherThread)) {
+            dispatcherThread.interrupt();
+        }
+        super.close();
+    }
+
+    /**
+     * Returns whether this provider is connected to the filtered stream.
+     *
+     * @return {@code true} if this provider is connected, {@code false} if it is (re)connecting or closed
+     */
+    public boolean isConnected() {
+        return this.connected;
+    }
+
+    /**
+     * Returns the number of connections opened to the filtered stream, including the rejected ones.
+     *
+     * @return the number of connections opened to the filtered stream
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Returns the number of tweets received from the filtered stream.
+     * <p>
+     * This count includes the tweets that have been dropped.
+     *
+     * @return the number of received tweets
+     */
+    public long getReceivedTweetCount() {
+        return receivedTweetCount.get();
+    }
+
+    /**
+     * Returns the number of tweets dropped because the queue of tweets waiting to be emitted was full.
+     *
+     * @return the number of dropped tweets
+     */
+    public long getDroppedTweetCount() {
+        return droppedTweetCount.get();
+    }
+
+    /**
+     * Returns the number of tweets matching the filter that have not been delivered by Twitter.
+     * <p>
+     * Twitter does not deliver all the tweets matching a filter when they exceed the capacity of the stream, and
+     * reports the number of undelivered tweets in limit notices.
+     *
+     * @return the number of undelivered tweets
+     */
+    public long getUndeliveredTweetCount() {
+        return undeliveredTweetCount.get();
+    }
+
+    /**
+     * Returns the number of streamed tweets waiting to be emitted.
+     *
+     * @return the number of streamed tweets waiting to be emitted
+     */
+    public int getQueuedTweetCount() {
+        return nonNull(queue) ? queue.size() : 0;
+    }
+
+    /**
+     * Reads the filtered stream and reconnects until this provider is closed.
+     */
+    private void stream() {
+        while (!closed) {
+            long delay;
+            try {
+                HttpURLConnection openConnection = this.connect();
+                int status = openConnection.getResponseCode();
+                if (status == 200) {
+                    this.connected = true;
+                    Log.info("{0} Connected to the filtered stream", this.getClass().getSimpleName());
+                    this.read(openConnection);
+                    delay = nextBackoff(Math.min(backoff + NETWORK_BACKOFF_STEP, NETWORK_BACKOFF_MAX));
+                } else if (status == 420 || status == 429) {
+                    delay = nextBackoff(backoff < RATE_LIMIT_BACKOFF_MIN ? RATE_LIMIT_BACKOFF_MIN :
+                            Math.min(backoff * 2, RATE_LIMIT_BACKOFF_MAX));
+                    Log.warn("{0} The filtered stream is rate limited, reconnecting in {1} ms",
+                            this.getClass().getSimpleName(), delay);
+                } else if (isPermanentError(status)) {
+                    Log.error("{0} The filtered stream rejected the request (HTTP {1}), check the credentials and "
+                            + "the filter", this.getClass().getSimpleName(), status);
+                    return;
+                } else {
+                    delay = nextBackoff(backoff < HTTP_BACKOFF_MIN ? HTTP_BACKOFF_MIN :
+                            Math.min(backoff * 2, HTTP_BACKOFF_MAX));
+                    Log.warn("{0} The filtered stream failed (HTTP {1}), reconnecting in {2} ms",
+                            this.getClass().getSimpleName(), status, delay);
+                }
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                delay = nextBackoff(Math.min(backoff + NETWORK_BACKOFF_STEP, NETWORK_BACKOFF_MAX));
+                Log.warn("{0} The connection to the filtered stream failed ({1}), reconnecting in {2} ms",
+                        this.getClass().getSimpleName(), e.getMessage(), delay);
+            } finally {
+                this.connected = false;
+                HttpURLConnection openConnection = this.connection;
+                if (nonNull(openConnection)) {
+                    openConnection.disconnect();
+                    this.connection = null;
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Opens a connection to the filtered stream and sends the filter.
+     *
+     * @return the open {@link HttpURLConnection}
+     * @throws IOException if an error occurred when opening the connection or sending the filter
+     */
+    private HttpURLConnection connect() throws IOException {
+        connectionCount.incrementAndGet();
+        URL url = new URL(filterUrl);
+        HttpURLConnection openConnection = (HttpURLConnection) (nonNull(proxy) ? url.openConnection(proxy) :
+                url.openConnection());
+        this.connection = openConnection;
+        this.connectionUndeliveredCount = 0;
+        byte[] body = HttpParameter.encodeParameters(filterParameters).getBytes(StandardCharsets.UTF_8);
+        openConnection.setRequestMethod("POST");
+        openConnection.setDoOutput(true);
+        openConnection.setUseCaches(false);
+        openConnection.setConnectTimeout(connectTimeout);
+        openConnection.setReadTimeout(stallTimeout);
+        openConnection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        if (nonNull(authorization) && authorization.isEnabled()) {
+            openConnection.setRequestProperty("Authorization", authorization.getAuthorizationHeader(
+                    new HttpRequest(RequestMethod.POST, filterUrl, filterParameters, authorization,
+                            Collections.emptyMap())));
+        }
+        openConnection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream outputStream = openConnection.getOutputStream()) {
+            outputStream.write(body);
+        }
+        return openConnection;
+    }
+
+    /**
+     * Reads the messages streamed on the provided {@code openConnection} until it is closed.
+     * <p>
+     * The back-off delay is reset as soon as the connection receives data (including keep-alive newlines).
+     *
+     * @param openConnection the {@link HttpURLConnection} to read
+     * @throws IOException if an error occurred when reading the connection, or if the connection stalled
+     */
+    private void read(HttpURLConnection openConnection) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(openConnection.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                this.backoff = 0;
+                if (!line.isEmpty()) {
+                    this.onMessage(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the provided streamed {@code message}.
+     * <p>
+     * The tweets are added to {@link #queue} according to {@link #overflowPolicy}, the limit notices are recorded,
+     * and the other messages (deletion notices, stall warnings, ...) are logged or ignored.
+     *
+     * @param message the streamed JSON message
+     */
+    private void onMessage(String message) {
+        try {
+            switch (firstKey(message)) {
+                case "limit":
+                    long undelivered = new JSONObject(message).getJSONObject("limit").optLong("track");
+                    if (undelivered > connectionUndeliveredCount) {
+                        undeliveredTweetCount.addAndGet(undelivered - connectionUndeliveredCount);
+                        connectionUndeliveredCount = undelivered;
+                    }
+                    break;
+                case "warning":
+                case "disconnect":
+                    Log.warn("{0} The filtered stream sent the notice {1}", this.getClass().getSimpleName(),
+                            message);
+                    break;
+                case "delete":
+                case "scrub_geo":
+                case "status_withheld":
+                case "user_withheld":
+                    break;
+                default:
+                    this.enqueue(TwitterObjectFactory.createStatus(message));
+            }
+        } catch (JSONException | TwitterException e) {
+            Log.error(e, "{0} Cannot parse the streamed message {1}", this.getClass().getSimpleName(), message);
+        }
+    }
+
+    /**
+     * Adds the provided {@code tweet} to {@link #queue} according to {@link #overflowPolicy}.
+     *
+     * @param tweet the streamed {@link Status}
+     */
+    private void enqueue(Status tweet) {
+        receivedTweetCount.incrementAndGet();
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(tweet);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (!queue.offer(tweet) && droppedTweetCount.incrementAndGet() % 1000 == 1) {
+            Log.warn("{0} Dropping streamed tweets, the bot cannot keep up with the stream ({1} tweets dropped)",
+                    this.getClass().getSimpleName(), droppedTweetCount.get());
+        }
+    }
+
+    /**
+     * Emits the streamed tweets until this provider is closed.
+     */
+    private void dispatch() {
+        while (!closed) {
+            Status tweet;
+            try {
+                tweet = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                this.emit(tweet);
+            } catch (RuntimeException e) {
+                Log.error(e, "{0} Cannot emit the streamed tweet {1}", this.getClass().getSimpleName(),
+                        String.valueOf(tweet.getId()));
+            }
+        }
+    }
+
+    /**
+     * Emits a {@link #TweetReceived} event for the provided {@code tweet}.
+     *
+     * @param tweet the streamed {@link Status}
+     */
+    private void emit(Status tweet) {
+        UserSummary author = UserSummary.of(tweet.getUser());
+        this.runtimePlatform.getUserResolver().cache(author);
+        this.runtimePlatform.getConversationIndex().record(tweet);
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        eventInstance.setDefinition(TweetReceived);
+        eventInstance.getPlatformData().put(ID_KEY, tweet.getId());
+        eventInstance.getPlatformData().put(TEXT_KEY, tweet.getText());
+        eventInstance.getPlatformData().put(MATCHES_KEY,
+                this.runtimePlatform.getKeywordMatcher().match(tweet.getText()));
+        eventInstance.getPlatformData().put(USER_ID_KEY, author.getId());
+        eventInstance.getPlatformData().put(USER_NAME_KEY, author.getName());
+        eventInstance.getPlatformData().put(USER_SCREEN_NAME_KEY, author.getScreenName());
+        eventInstance.getPlatformData().put(ITEM_KEY, tweet);
+        StateContext context = this.runtimePlatform.getXatkitBot().getOrCreateContext(CONTEXT_ID);
+        this.sendEventInstance(eventInstance, context);
+    }
+
+    /**
+     * Records the provided {@code delay} as the current back-off delay and returns it.
+     *
+     * @param delay the delay (in milliseconds) before the next reconnection
+     * @return the provided {@code delay}
+     */
+    private long nextBackoff(long delay) {
+        this.backoff = delay;
+        return delay;
+    }
+
+    /**
+     * Returns whether the provided HTTP {@code status} is returned for a request that cannot succeed when retried.
+     *
+     * @param status the HTTP status returned by the filtered stream
+     * @return {@code true} if the request cannot succeed when retried, {@code false} otherwise
+     */
+    private static boolean isPermanentError(int status) {
+        return status == 401 || status == 403 || status == 404 || status == 406 || status == 413 || status == 416;
+    }
+
+    /**
+     * Returns the first key of the provided JSON {@code message}.
+     * <p>
+     * The notices sent by the filtered stream (limit notices, deletion notices, ...) are objects with a single key
+     * that never appears in a tweet, so this key is enough to tell them from tweets without parsing the message.
+     *
+     * @param message the JSON message
+     * @return the first key of the {@code message}, or an empty {@link String} if it cannot be found
+     */
+    private static String firstKey(String message) {
+        int start = message.indexOf('"');
+        int end = start < 0 ? -1 : message.indexOf('"', start + 1);
+        return end < 0 ? "" : message.substring(start + 1, end);
+    }
+
+    /**
+     * Joins the provided {@code values} with commas, ignoring the blank ones.
+     *
+     * @param values the values to join
+     * @return the joined values
+     */
+    private static String join(List<String> values) {
+        StringBuilder builder = new StringBuilder();
+        for (String value : values) {
+            if (!value.trim().isEmpty()) {
+                builder.append(builder.length() > 0 ? "," : "").append(value.trim());
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates the {@link OverflowPolicy} with the provided {@code name}.
+     *
+     * @param name the name of the policy ({@code drop} or {@code block})
+     * @return the created {@link OverflowPolicy}
+     * @throws XatkitException if the policy is unknown
+     */
+    private static OverflowPolicy createOverflowPolicy(String name) {
+        switch (name.toLowerCase()) {
+            case "drop":
+                return OverflowPolicy.DROP;
+            case "block":
+                return OverflowPolicy.BLOCK;
+            default:
+                throw new XatkitException("Unknown stream overflow policy " + name + ", expected drop or block");
+        }
+    }
+
+    /**
+     * Creates an {@link EventDefinition} with the provided {@code name}.
+     *
+     * @param name the name of the event
+     * @return the created {@link EventDefinition}
+     */
+    private static EventDefinition eventDefinition(String name) {
+        EventDefinition eventDefinition = IntentFactory.eINSTANCE.createEventDefinition();
+        eventDefinition.setName(name);
+        return eventDefinition;
+    }
+}
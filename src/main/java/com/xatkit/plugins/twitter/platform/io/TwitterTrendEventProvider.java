@@ -0,0 +1,290 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.service.LocationIndex;
+import com.xatkit.plugins.twitter.platform.service.TrendChange;
+import com.xatkit.plugins.twitter.platform.service.TrendChangeListener;
+import com.xatkit.plugins.twitter.platform.service.TrendDelta;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link RuntimeEventProvider} that watches the trends of a set of locations and emits an event when they change.
+ * <p>
+ * This provider refreshes the trends of the locations listed in {@code xatkit.twitter.trends.watch} every
+ * {@code xatkit.twitter.trends.watchInterval} seconds with the platform's
+ * {@link com.xatkit.plugins.twitter.platform.service.TrendService}, that computes the {@link TrendDelta} of each
+ * location with its previous trends. The events are emitted from the deltas, meaning that the bot only processes the
+ * changes instead of the complete trend lists. The first refresh of a location is only recorded and does not emit
+ * any event.
+ * <p>
+ * This provider emits the following events to the {@code twitter-trends-<woeid>} context of the location:
+ * <ul>
+ * <li>{@link #TrendsChanged} when the trends of the location changed</li>
+ * <li>{@link #TrendEnteredTop} when a trend entered the top {@code xatkit.twitter.trends.top} trends of the
+ * location</li>
+ * </ul>
+ * The data of the events are stored in their platform data (see the {@code *_KEY} constants).
+ */
+public class TwitterTrendEventProvider extends RuntimeEventProvider<TwitterPlatform> {
+
+    /**
+     * The event emitted when the trends of a watched location changed.
+     */
+    public static final EventDefinition TrendsChanged = eventDefinition("Twitter_Trends_Changed");
+
+    /**
+     * The event emitted when a trend entered the top trends of a watched location.
+     */
+    public static final EventDefinition TrendEnteredTop = eventDefinition("Twitter_Trend_Entered_Top");
+
+    /**
+     * The platform data key containing the WOEID of the location.
+     */
+    public static final String WOEID_KEY = "woeid";
+
+    /**
+     * The platform data key containing the {@link TrendDelta} of the location.
+     */
+    public static final String DELTA_KEY = "delta";
+
+    /**
+     * The platform data key containing the name of the trend that entered the top trends.
+     */
+    public static final String NAME_KEY = "name";
+
+    /**
+     * The platform data key containing the rank of the trend that entered the top trends.
+     */
+    public static final String RANK_KEY = "rank";
+
+    /**
+     * The platform data key containing the previous rank of the trend that entered the top trends ({@code 0} if it
+     * was not part of the trends).
+     */
+    public static final String PREVIOUS_RANK_KEY = "previousRank";
+
+    /**
+     * The platform data key containing the tweet volume of the trend that entered the top trends ({@code -1} if it
+     * is unknown).
+     */
+    public static final String TWEET_VOLUME_KEY = "tweetVolume";
+
+    /**
+     * The {@link TrendChangeListener} handing the deltas of the watched locations over to {@link #executor}.
+     */
+    private final TrendChangeListener changeListener = this::onTrendChanges;
+
+    /**
+     * The watched locations, as configured (WOEIDs or location names).
+     */
+    private List<String> watchedLocations;
+
+    /**
+     * The WOEIDs of the watched locations.
+     * <p>
+     * This field is initialized by the first refresh, once the location names have been resolved.
+     */
+    private volatile Set<Integer> watchedWoeids = Collections.emptySet();
+
+    /**
+     * The number of top trends used to emit the {@link #TrendEnteredTop} events.
+     */
+    private int top;
+
+    /**
+     * The executor refreshing the trends and emitting the events.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructs a {@link TwitterTrendEventProvider} with the provided {@code platform}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this provider
+     */
+    public TwitterTrendEventProvider(@NonNull TwitterPlatform platform) {
+        super(platform);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method registers a {@link TrendChangeListener} on the platform's
+     * {@link com.xatkit.plugins.twitter.platform.service.TrendService}, and schedules the refreshes of the watched
+     * locations.
+     *
+     * @throws IllegalArgumentException if the configuration does not contain any watched location, or if the
+     *                                  interval or the number of top trends is lower than {@code 1}
+     */
+    @Override
+    public void start(@NonNull Configuration configuration) {
+        super.start(configuration);
+        this.watchedLocations = new ArrayList<>();
+        for (String location : configuration.getList(String.class, TwitterUtils.TWITTER_TRENDS_WATCH_KEY,
+                Collections.emptyList())) {
+            if (!location.trim().isEmpty()) {
+                watchedLocations.add(location.trim());
+            }
+        }
+        long interval = configuration.getLong(TwitterUtils.TWITTER_TRENDS_WATCH_INTERVAL_KEY,
+                TwitterUtils.DEFAULT_TRENDS_WATCH_INTERVAL);
+        this.top = configuration.getInt(TwitterUtils.TWITTER_TRENDS_TOP_KEY, TwitterUtils.DEFAULT_TRENDS_TOP);
+        checkArgument(!watchedLocations.isEmpty(), "Cannot start the %s, the configuration does not contain any "
+                + "watched location (%s)", this.getClass().getSimpleName(), TwitterUtils.TWITTER_TRENDS_WATCH_KEY);
+        checkArgument(interval > 0 && top > 0, "Cannot start the %s with the provided interval (%s) and top (%s), "
+                + "expected strictly positive values", this.getClass().getSimpleName(), interval, top);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Trends Watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runtimePlatform.getTrendService().addChangeListener(changeListener);
+        executor.scheduleWithFixedDelay(this::refresh, 0, interval, TimeUnit.SECONDS);
+        Log.info("{0} Watching the trends of {1} every {2} seconds", this.getClass().getSimpleName(),
+                watchedLocations, interval);
+    }
+
+    /**
+     * Does nothing, the refreshes run on their own thread.
+     */
+    @Override
+    public void run() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method unregisters the {@link TrendChangeListener} and stops the refreshes.
+     */
+    @Override
+    public void close() {
+        this.runtimePlatform.getTrendService().removeChangeListener(changeListener);
+        if (nonNull(executor)) {
+            executor.shutdownNow();
+        }
+        super.close();
+    }
+
+    /**
+     * Returns the WOEIDs of the watched locations.
+     *
+     * @return an unmodifiable set containing the WOEIDs of the watched locations (empty until the first refresh)
+     */
+    public Set<Integer> getWatchedWoeids() {
+        return this.watchedWoeids;
+    }
+
+    /**
+     * Refreshes the trends of the watched locations.
+     * <p>
+     * The location names are resolved with the platform's {@link LocationIndex} on the first refresh, and until all
+     * of them are resolved.
+     */
+    private void refresh() {
+        try {
+            if (watchedWoeids.size() < watchedLocations.size()) {
+                this.resolveWatchedLocations();
+            }
+            if (!watchedWoeids.isEmpty()) {
+                this.runtimePlatform.getTrendService().getTrends(watchedWoeids);
+            }
+        } catch (RuntimeException e) {
+            Log.error(e, "{0} Cannot refresh the watched trends", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Resolves the WOEIDs of the watched locations.
+     */
+    private void resolveWatchedLocations() {
+        Set<Integer> woeids = new LinkedHashSet<>();
+        for (String location : watchedLocations) {
+            int woeid;
+            try {
+                woeid = Integer.parseInt(location);
+            } catch (NumberFormatException e) {
+                woeid = this.runtimePlatform.getLocationIndex().findWoeid(location);
+            }
+            if (woeid > 0) {
+                woeids.add(woeid);
+            } else {
+                Log.warn("{0} Cannot find the WOEID of the watched location {1}", this.getClass().getSimpleName(),
+                        location);
+            }
+        }
+        this.watchedWoeids = Collections.unmodifiableSet(woeids);
+    }
+
+    /**
+     * Hands the provided {@code delta} over to {@link #executor} if it concerns a watched location.
+     *
+     * @param delta the {@link TrendDelta} of a location
+     */
+    private void onTrendChanges(TrendDelta delta) {
+        if (!delta.isEmpty() && watchedWoeids.contains(delta.getWoeid())) {
+            try {
+                executor.execute(() -> this.emit(delta));
+            } catch (RejectedExecutionException e) {
+                Log.debug("{0} Ignoring the trend changes of {1}, the provider is closed",
+                        this.getClass().getSimpleName(), delta.getWoeid());
+            }
+        }
+    }
+
+    /**
+     * Emits the events of the provided {@code delta}.
+     *
+     * @param delta the {@link TrendDelta} of a watched location
+     */
+    private void emit(TrendDelta delta) {
+        String contextId = "twitter-trends-" + delta.getWoeid();
+        EventInstance changedEvent = IntentFactory.eINSTANCE.createEventInstance();
+        changedEvent.setDefinition(TrendsChanged);
+        changedEvent.getPlatformData().put(WOEID_KEY, delta.getWoeid());
+        changedEvent.getPlatformData().put(DELTA_KEY, delta);
+        StateContext context = this.runtimePlatform.getXatkitBot().getOrCreateContext(contextId);
+        this.sendEventInstance(changedEvent, context);
+        for (TrendChange change : delta.getEnteredTop(top)) {
+            EventInstance enteredEvent = IntentFactory.eINSTANCE.createEventInstance();
+            enteredEvent.setDefinition(TrendEnteredTop);
+            enteredEvent.getPlatformData().put(WOEID_KEY, delta.getWoeid());
+            enteredEvent.getPlatformData().put(NAME_KEY, change.getName());
+            enteredEvent.getPlatformData().put(RANK_KEY, change.getRank());
+            enteredEvent.getPlatformData().put(PREVIOUS_RANK_KEY, change.getPreviousRank());
+            enteredEvent.getPlatformData().put(TWEET_VOLUME_KEY, change.getTweetVolume());
+            this.sendEventInstance(enteredEvent, context);
+        }
+    }
+
+    /**
+     * Creates an {@link EventDefinition} with the provided {@code name}.
+     *
+     * @param name the name of the event
+     * @return the created {@link EventDefinition}
+     */
+    private static EventDefinition eventDefinition(String name) {
+        EventDefinition eventDefinition = IntentFactory.eINSTANCE.createEventDefinition();
+        eventDefinition.setName(name);
+        return eventDefinition;
+    }
+}
@@ -0,0 +1,597 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import com.xatkit.plugins.twitter.platform.state.StateStore;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.DirectMessage;
+import twitter4j.JSONArray;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+import twitter4j.TwitterObjectFactory;
+import twitter4j.UserMentionEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkNotNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link RuntimeEventProvider} that receives the Twitter account activity events on an embedded webhook endpoint.
+ * <p>
+ * This provider starts an HTTP server listening on {@code xatkit.twitter.webhook.port} and
+ * {@code xatkit.twitter.webhook.path}. It answers the CRC challenges sent by Twitter ({@code GET} requests with a
+ * {@code crc_token} parameter), and accepts the account activity payloads ({@code POST} requests) after checking
+ * their signature. The payloads are parsed on a bounded pool of workers (see {@code xatkit.twitter.webhook.workers}
+ * and {@code xatkit.twitter.webhook.queueSize}): when the queue of pending payloads is full the endpoint answers
+ * with a {@code 503} status, and Twitter sends the payload again later.
+ * <p>
+ * This provider emits the following events:
+ * <ul>
+ * <li>{@link #DirectMessageReceived} when a direct message is received by the account</li>
+ * <li>{@link #MentionReceived} when a tweet mentions or replies to the account</li>
+ * <li>{@link #FollowReceived} when a user follows the account</li>
+ * </ul>
+ * The data of the events are stored in their platform data (see the {@code *_KEY} constants, including the IDs of
+ * the keywords matched by the received texts), and the users included in the payloads are cached in the platform's
+ * {@link com.xatkit.plugins.twitter.platform.service.UserResolver}. The received tweets are recorded in the
+ * platform's {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex}, and the IDs of the received
+ * direct messages and mentions are recorded in the platform's {@link StateStore}: Twitter may send the same event
+ * more than once, but each of them is only emitted once.
+ * <p>
+ * The endpoint can be fed by a local stand-in (see {@link LocalWebhookClient}) instead of the Twitter API.
+ */
+public class TwitterWebhookEventProvider extends RuntimeEventProvider<TwitterPlatform> {
+
+    /**
+     * The event emitted when a direct message is received.
+     */
+    public static final EventDefinition DirectMessageReceived = eventDefinition("Twitter_Direct_Message_Received");
+
+    /**
+     * The event emitted when a tweet mentions or replies to the account.
+     */
+    public static final EventDefinition MentionReceived = eventDefinition("Twitter_Mention_Received");
+
+    /**
+     * The event emitted when a user follows the account.
+     */
+    public static final EventDefinition FollowReceived = eventDefinition("Twitter_Follow_Received");
+
+    /**
+     * The platform data key containing the ID of the account receiving the event.
+     */
+    public static final String FOR_USER_ID_KEY = "forUserId";
+
+    /**
+     * The platform data key containing the ID of the received direct message or tweet.
+     */
+    public static final String ID_KEY = "id";
+
+    /**
+     * The platform data key containing the text of the received direct message or tweet.
+     */
+    public static final String TEXT_KEY = "text";
+
+    /**
+     * The platform data key containing the ID of the user who triggered the event.
+     */
+    public static final String USER_ID_KEY = "userId";
+
+    /**
+     * The platform data key containing the name of the user who triggered the event.
+     */
+    public static final String USER_NAME_KEY = "userName";
+
+    /**
+     * The platform data key containing the screen name of the user who triggered the event.
+     */
+    public static final String USER_SCREEN_NAME_KEY = "userScreenName";
+
+    /**
+     * The platform data key containing the received {@link DirectMessage} or {@link Status}.
+     */
+    public static final String ITEM_KEY = "item";
+
+    /**
+     * The platform data key containing the IDs of the keywords matched by the text of the received direct message
+     * or tweet.
+     *
+     * @see TwitterPlatform#getKeywordMatcher()
+     */
+    public static final String MATCHES_KEY = "matches";
+
+    /**
+     * The name of the header containing the signature of the payloads.
+     */
+    private static final String SIGNATURE_HEADER = "X-Twitter-Webhooks-Signature";
+
+    /**
+     * The maximum size of the accepted payloads, in bytes.
+     */
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+    /**
+     * The delay (in seconds) sent to Twitter when a payload is rejected because the workers cannot keep up.
+     */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * The consumer secret of the Twitter app, used to sign the CRC responses and check the payload signatures.
+     */
+    private String consumerSecret;
+
+    /**
+     * A flag telling whether the signature of the received payloads is checked.
+     */
+    private boolean checkSignature;
+
+    /**
+     * The embedded HTTP server receiving the webhook requests.
+     */
+    private HttpServer server;
+
+    /**
+     * The bounded pool of workers parsing the received payloads.
+     */
+    private ThreadPoolExecutor workers;
+
+    /**
+     * The number of payloads rejected because the queue of pending payloads was full.
+     */
+    private final AtomicLong rejectedPayloadCount = new AtomicLong();
+
+    /**
+     * Constructs a {@link TwitterWebhookEventProvider} with the provided {@code platform}.
+     *
+     * @param platform the {@link TwitterPlatform} containing this provider
+     */
+    public TwitterWebhookEventProvider(@NonNull TwitterPlatform platform) {
+        super(platform);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method starts the embedded HTTP server and the pool of workers parsing the received payloads.
+     *
+     * @throws NullPointerException if the consumer secret of the Twitter app is not set
+     * @throws XatkitException      if the HTTP server cannot be started
+     */
+    @Override
+    public void start(@NonNull Configuration configuration) {
+        super.start(configuration);
+        /*
+         * The webhook is registered with the app of the primary account.
+         */
+        this.consumerSecret = configuration.getString(TwitterUtils.TWITTER_CONSUMER_SECRET,
+                configuration.getString(TwitterUtils.TWITTER_ACCOUNTS_PREFIX + "0."
+                        + TwitterUtils.TWITTER_ACCOUNT_CONSUMER_SECRET_SUFFIX));
+        checkNotNull(consumerSecret, "Cannot start the %s, the configuration does not contain the consumer secret "
+                + "(%s)", this.getClass().getSimpleName(), TwitterUtils.TWITTER_CONSUMER_SECRET);
+        this.checkSignature = configuration.getBoolean(TwitterUtils.TWITTER_WEBHOOK_CHECK_SIGNATURE_KEY, true);
+        int port = configuration.getInt(TwitterUtils.TWITTER_WEBHOOK_PORT_KEY, TwitterUtils.DEFAULT_WEBHOOK_PORT);
+        String path = configuration.getString(TwitterUtils.TWITTER_WEBHOOK_PATH_KEY,
+                TwitterUtils.DEFAULT_WEBHOOK_PATH);
+        int workerCount = configuration.getInt(TwitterUtils.TWITTER_WEBHOOK_WORKERS_KEY,
+                TwitterUtils.DEFAULT_WEBHOOK_WORKERS);
+        int queueSize = configuration.getInt(TwitterUtils.TWITTER_WEBHOOK_QUEUE_SIZE_KEY,
+                TwitterUtils.DEFAULT_WEBHOOK_QUEUE_SIZE);
+        checkArgument(workerCount > 0 && queueSize > 0, "Cannot start the %s with the provided workers (%s) and "
+                + "queue size (%s), expected strictly positive integers", this.getClass().getSimpleName(),
+                workerCount, queueSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Webhook Worker " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            workers.shutdownNow();
+            throw new XatkitException("Cannot start the Twitter webhook endpoint on port " + port, e);
+        }
+        server.createContext(path, this::handle);
+        server.start();
+        Log.info("{0} Listening for Twitter account activity events on port {1}{2}", this.getClass().getSimpleName(),
+                String.valueOf(this.getPort()), path);
+    }
+
+    /**
+     * Does nothing, the embedded HTTP server and the workers run on their own threads.
+     */
+    @Override
+    public void run() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method stops the embedded HTTP server and lets the workers parse the pending payloads.
+     */
+    @Override
+    public void close() {
+        if (nonNull(server)) {
+            server.stop(0);
+        }
+        if (nonNull(workers)) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * Returns the port the embedded HTTP server is listening on.
+     * <p>
+     * This method is useful when the provider is configured with the port {@code 0} (i.e. any available port).
+     *
+     * @return the port the embedded HTTP server is listening on
+     * @throws IllegalStateException if the provider is not started
+     */
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of payloads rejected because the queue of pending payloads was full.
+     *
+     * @return the number of rejected payloads
+     */
+    public long getRejectedPayloadCount() {
+        return rejectedPayloadCount.get();
+    }
+
+    /**
+     * Handles a request sent to the webhook endpoint.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @throws IOException if an error occurred when reading the request or writing the response
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    this.handleChallenge(exchange);
+                    break;
+                case "POST":
+                    this.handlePayload(exchange);
+                    break;
+                default:
+                    exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers the CRC challenge contained in the provided {@code exchange}.
+     *
+     * @param exchange the {@link HttpExchange} containing the challenge
+     * @throws IOException if an error occurred when writing the response
+     */
+    private void handleChallenge(HttpExchange exchange) throws IOException {
+        String crcToken = getQueryParameter(exchange, "crc_token");
+        if (crcToken == null) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+        Map<String, String> response = new HashMap<>();
+        response.put("response_token", WebhookSignatures.sign(consumerSecret,
+                crcToken.getBytes(StandardCharsets.UTF_8)));
+        byte[] body = new JSONObject(response).toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Checks the payload contained in the provided {@code exchange} and submits it to the workers.
+     *
+     * @param exchange the {@link HttpExchange} containing the payload
+     * @throws IOException if an error occurred when reading the payload
+     */
+    private void handlePayload(HttpExchange exchange) throws IOException {
+        byte[] payload = readPayload(exchange.getRequestBody());
+        if (payload == null) {
+            exchange.sendResponseHeaders(413, -1);
+            return;
+        }
+        if (checkSignature && !WebhookSignatures.isValid(consumerSecret, payload,
+                exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER))) {
+            Log.warn("{0} Rejecting a webhook payload with an invalid signature", this.getClass().getSimpleName());
+            exchange.sendResponseHeaders(401, -1);
+            return;
+        }
+        try {
+            workers.execute(() -> this.dispatch(payload));
+        } catch (RejectedExecutionException e) {
+            rejectedPayloadCount.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+            exchange.sendResponseHeaders(503, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    /**
+     * Parses the provided {@code payload} and emits the corresponding events.
+     *
+     * @param payload the account activity payload to parse
+     */
+    private void dispatch(byte[] payload) {
+        try {
+            JSONObject json = new JSONObject(new String(payload, StandardCharsets.UTF_8));
+            long forUserId = json.optLong("for_user_id");
+            Map<Long, UserSummary> users = this.cacheUsers(json.optJSONObject("users"));
+            JSONArray directMessageEvents = json.optJSONArray("direct_message_events");
+            for (int i = 0; nonNull(directMessageEvents) && i < directMessageEvents.length(); i++) {
+                JSONObject event = directMessageEvents.getJSONObject(i);
+                if ("message_create".equals(event.optString("type"))) {
+                    this.onDirectMessage(forUserId, TwitterObjectFactory.createDirectMessage(event.toString()),
+                            users);
+                }
+            }
+            JSONArray tweetEvents = json.optJSONArray("tweet_create_events");
+            for (int i = 0; nonNull(tweetEvents) && i < tweetEvents.length(); i++) {
+                this.onTweet(forUserId, TwitterObjectFactory.createStatus(tweetEvents.getJSONObject(i).toString()));
+            }
+            JSONArray followEvents = json.optJSONArray("follow_events");
+            for (int i = 0; nonNull(followEvents) && i < followEvents.length(); i++) {
+                JSONObject event = followEvents.getJSONObject(i);
+                if ("follow".equals(event.optString("type"))
+                        && event.getJSONObject("target").optLong("id") == forUserId) {
+                    this.onFollow(forUserId, this.cacheUser(event.getJSONObject("source")));
+                }
+            }
+        } catch (JSONException | TwitterException e) {
+            Log.error(e, "{0} Cannot parse the received webhook payload", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Emits a {@link #DirectMessageReceived} event for the provided {@code directMessage}.
+     * <p>
+     * The messages sent by the account itself and the messages that have already been received (e.g. payloads sent
+     * again by Twitter, or received before a restart) are ignored.
+     *
+     * @param forUserId     the ID of the account receiving the event
+     * @param directMessage the received {@link DirectMessage}
+     * @param users         the users included in the payload
+     */
+    private void onDirectMessage(long forUserId, DirectMessage directMessage, Map<Long, UserSummary> users) {
+        if (directMessage.getSenderId() == forUserId || !this.runtimePlatform.getStateStore()
+                .markSeen(StateStore.DIRECT_MESSAGES_NAMESPACE, directMessage.getId())) {
+            return;
+        }
+        UserSummary sender = users.get(directMessage.getSenderId());
+        if (sender == null) {
+            try {
+                sender = this.runtimePlatform.getUserResolver().resolve(directMessage.getSenderId());
+            } catch (TwitterException e) {
+                Log.warn("{0} Cannot resolve the sender of the direct message {1}: {2}",
+                        this.getClass().getSimpleName(), String.valueOf(directMessage.getId()), e.getMessage());
+            }
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put(ID_KEY, directMessage.getId());
+        data.put(TEXT_KEY, directMessage.getText());
+        data.put(MATCHES_KEY, this.runtimePlatform.getKeywordMatcher().match(directMessage.getText()));
+        data.put(ITEM_KEY, directMessage);
+        this.emit(DirectMessageReceived, "twitter-dm-" + directMessage.getSenderId(), forUserId,
+                directMessage.getSenderId(), sender, data);
+    }
+
+    /**
+     * Emits a {@link #MentionReceived} event if the provided {@code tweet} mentions or replies to the account.
+     * <p>
+     * Tweets that have already been received are ignored.
+     *
+     * @param forUserId the ID of the account receiving the event
+     * @param tweet     the received {@link Status}
+     */
+    private void onTweet(long forUserId, Status tweet) {
+        UserSummary author = UserSummary.of(tweet.getUser());
+        this.runtimePlatform.getUserResolver().cache(author);
+        this.runtimePlatform.getConversationIndex().record(tweet);
+        if (author.getId() == forUserId || !isMention(forUserId, tweet) || !this.runtimePlatform.getStateStore()
+                .markSeen(StateStore.TWEETS_NAMESPACE, tweet.getId())) {
+            return;
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put(ID_KEY, tweet.getId());
+        data.put(TEXT_KEY, tweet.getText());
+        data.put(MATCHES_KEY, this.runtimePlatform.getKeywordMatcher().match(tweet.getText()));
+        data.put(ITEM_KEY, tweet);
+        this.emit(MentionReceived, "twitter-user-" + author.getId(), forUserId, author.getId(), author, data);
+    }
+
+    /**
+     * Emits a {@link #FollowReceived} event for the provided {@code follower}.
+     *
+     * @param forUserId the ID of the account receiving the event
+     * @param follower  the {@link UserSummary} of the new follower
+     */
+    private void onFollow(long forUserId, UserSummary follower) {
+        this.emit(FollowReceived, "twitter-user-" + follower.getId(), forUserId, follower.getId(), follower,
+                new HashMap<>());
+    }
+
+    /**
+     * Creates an instance of the provided {@code definition} and sends it to the {@link StateContext} with the
+     * provided {@code contextId}.
+     *
+     * @param definition the {@link EventDefinition} of the event to emit
+     * @param contextId  the ID of the {@link StateContext} receiving the event
+     * @param forUserId  the ID of the account receiving the event
+     * @param userId     the ID of the user who triggered the event
+     * @param user       the {@link UserSummary} of the user who triggered the event (may be {@code null})
+     * @param data       the other platform data of the event
+     */
+    private void emit(EventDefinition definition, String contextId, long forUserId, long userId, UserSummary user,
+                      Map<String, Object> data) {
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        eventInstance.setDefinition(definition);
+        eventInstance.getPlatformData().putAll(data);
+        eventInstance.getPlatformData().put(FOR_USER_ID_KEY, forUserId);
+        eventInstance.getPlatformData().put(USER_ID_KEY, userId);
+        if (nonNull(user)) {
+            eventInstance.getPlatformData().put(USER_NAME_KEY, user.getName());
+            eventInstance.getPlatformData().put(USER_SCREEN_NAME_KEY, user.getScreenName());
+        }
+        StateContext context = this.runtimePlatform.getXatkitBot().getOrCreateContext(contextId);
+        this.sendEventInstance(eventInstance, context);
+    }
+
+    /**
+     * Caches the users contained in the provided {@code users} JSON object.
+     *
+     * @param users the users included in a direct message payload, by ID (may be {@code null})
+     * @return the cached {@link UserSummary} instances, by ID
+     * @throws JSONException if a user cannot be parsed
+     */
+    private Map<Long, UserSummary> cacheUsers(JSONObject users) throws JSONException {
+        Map<Long, UserSummary> result = new HashMap<>();
+        if (nonNull(users)) {
+            Iterator<String> ids = users.keys();
+            while (ids.hasNext()) {
+                UserSummary user = this.cacheUser(users.getJSONObject(ids.next()));
+                result.put(user.getId(), user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Caches the user represented by the provided {@code user} JSON object.
+     *
+     * @param user the JSON representation of the user
+     * @return the cached {@link UserSummary}
+     * @throws JSONException if the user cannot be parsed
+     */
+    private UserSummary cacheUser(JSONObject user) throws JSONException {
+        UserSummary summary = new UserSummary(user.getLong("id"), user.optString("name"),
+                user.optString("screen_name"));
+        this.runtimePlatform.getUserResolver().cache(summary);
+        return summary;
+    }
+
+    /**
+     * Returns whether the provided {@code tweet} mentions or replies to the user with the provided {@code userId}.
+     *
+     * @param userId the ID of the user
+     * @param tweet  the {@link Status} to check
+     * @return {@code true} if the tweet mentions or replies to the user, {@code false} otherwise
+     */
+    private static boolean isMention(long userId, Status tweet) {
+        if (tweet.getInReplyToUserId() == userId) {
+            return true;
+        }
+        for (UserMentionEntity mention : tweet.getUserMentionEntities()) {
+            if (mention.getId() == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the provided {@code inputStream}, up to {@link #MAX_PAYLOAD_SIZE} bytes.
+     *
+     * @param inputStream the {@link InputStream} to read
+     * @return the read bytes, or {@code null} if the stream contains more than {@link #MAX_PAYLOAD_SIZE} bytes
+     * @throws IOException if an error occurred when reading the stream
+     */
+    private static byte[] readPayload(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            if (outputStream.size() + read > MAX_PAYLOAD_SIZE) {
+                return null;
+            }
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Returns the value of the query parameter {@code name} of the request contained in the provided
+     * {@code exchange}.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @param name     the name of the parameter
+     * @return the decoded value of the parameter, or {@code null} if the request does not contain it
+     * @throws UnsupportedEncodingException if the UTF-8 encoding is not supported
+     */
+    private static String getQueryParameter(HttpExchange exchange, String name) throws UnsupportedEncodingException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            String[] keyValue = parameter.split("=", 2);
+            if (keyValue.length == 2 && keyValue[0].equals(name)) {
+                return URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8.name());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates an {@link EventDefinition} with the provided {@code name}.
+     *
+     * @param name the name of the event
+     * @return the created {@link EventDefinition}
+     */
+    private static EventDefinition eventDefinition(String name) {
+        EventDefinition eventDefinition = IntentFactory.eINSTANCE.createEventDefinition();
+        eventDefinition.setName(name);
+        return eventDefinition;
+    }
+}
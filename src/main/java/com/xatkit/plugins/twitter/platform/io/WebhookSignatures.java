@@ -0,0 +1,73 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import lombok.NonNull;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Computes and checks the {@code HMAC-SHA256} signatures used by the Twitter account activity webhooks.
+ * <p>
+ * Twitter signs both the responses to the CRC challenges and the payloads it sends with the consumer secret of the
+ * Twitter app, and encodes the signatures as {@code sha256=<base64 digest>}.
+ */
+final class WebhookSignatures {
+
+    /**
+     * The prefix of the encoded signatures.
+     */
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    /**
+     * The name of the signature algorithm.
+     */
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    /**
+     * Disables the default constructor, this class only provides static methods.
+     */
+    private WebhookSignatures() {
+    }
+
+    /**
+     * Signs the provided {@code content} with the provided {@code consumerSecret}.
+     *
+     * @param consumerSecret the consumer secret of the Twitter app
+     * @param content        the content to sign
+     * @return the encoded signature
+     */
+    static String sign(@NonNull String consumerSecret, @NonNull byte[] content) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(consumerSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            return SIGNATURE_PREFIX + Base64.getEncoder().encodeToString(mac.doFinal(content));
+        } catch (GeneralSecurityException e) {
+            /*
+             * HmacSHA256 is available in every Java platform.
+             */
+            throw new IllegalStateException("Cannot compute the " + HMAC_SHA256 + " signature", e);
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code signature} is the signature of {@code content}.
+     * <p>
+     * The signatures are compared in constant time.
+     *
+     * @param consumerSecret the consumer secret of the Twitter app
+     * @param content        the signed content
+     * @param signature      the encoded signature to check (may be {@code null})
+     * @return {@code true} if the signature is valid, {@code false} otherwise
+     */
+    static boolean isValid(@NonNull String consumerSecret, @NonNull byte[] content, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(consumerSecret, content).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import lombok.NonNull;
+
+/**
+ * A snapshot of the hit and miss counts of one of the platform's caches.
+ *
+ * @see TwitterMetrics#getCacheStatistics()
+ */
+public final class CacheStatistics {
+
+    /**
+     * The name of the cache.
+     */
+    private final String name;
+
+    /**
+     * The number of lookups answered by the cache.
+     */
+    private final long hitCount;
+
+    /**
+     * The number of lookups that required a call to the Twitter API.
+     */
+    private final long missCount;
+
+    /**
+     * Constructs a {@link CacheStatistics} with the provided parameters.
+     *
+     * @param name      the name of the cache
+     * @param hitCount  the number of lookups answered by the cache
+     * @param missCount the number of lookups that required a call to the Twitter API
+     */
+    CacheStatistics(@NonNull String name, long hitCount, long missCount) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+    }
+
+    /**
+     * Returns the name of the cache.
+     *
+     * @return the name of the cache
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of lookups answered by the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that required a call to the Twitter API.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Returns the ratio of lookups answered by the cache.
+     *
+     * @return the ratio of cache hits, between {@code 0} and {@code 1}, or {@code 0} if the cache has not been used
+     */
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
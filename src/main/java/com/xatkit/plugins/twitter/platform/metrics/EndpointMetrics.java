@@ -0,0 +1,185 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the calls to a {@link TwitterEndpoint}.
+ * <p>
+ * This class records the latency of each call, the number of failed calls by HTTP status code, the number of
+ * calls rejected by the rate-limit scheduler or the circuit breaker before reaching the Twitter API, and the number
+ * of retried calls.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class EndpointMetrics {
+
+    /**
+     * The status code used for the errors that did not receive an HTTP response (e.g. network errors).
+     */
+    public static final int NO_RESPONSE_STATUS_CODE = -1;
+
+    /**
+     * The {@link TwitterEndpoint} the metrics are recorded for.
+     */
+    private final TwitterEndpoint endpoint;
+
+    /**
+     * The latencies of the calls to the endpoint, including the failed ones.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * The number of failed calls, by HTTP status code.
+     */
+    private final ConcurrentMap<Integer, LongAdder> errorCounts = new ConcurrentHashMap<>();
+
+    /**
+     * The number of calls rejected by the rate-limit scheduler.
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * The number of calls rejected by the circuit breaker.
+     */
+    private final LongAdder shortCircuitedCount = new LongAdder();
+
+    /**
+     * The number of retried calls.
+     */
+    private final LongAdder retryCount = new LongAdder();
+
+    /**
+     * Constructs an {@link EndpointMetrics} for the provided {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to record the metrics of
+     */
+    EndpointMetrics(@NonNull TwitterEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Records a call to the endpoint.
+     *
+     * @param latencyNanos the latency of the call, in nanoseconds
+     * @param error        the error thrown by the call, or {@code null} if the call succeeded
+     */
+    void recordCall(long latencyNanos, TwitterException error) {
+        latency.record(latencyNanos);
+        if (error != null) {
+            int statusCode = error.getStatusCode() > 0 ? error.getStatusCode() : NO_RESPONSE_STATUS_CODE;
+            errorCounts.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records a call rejected by the rate-limit scheduler.
+     */
+    void recordRejection() {
+        rejectedCount.increment();
+    }
+
+    /**
+     * Records a call rejected by the circuit breaker.
+     */
+    void recordShortCircuit() {
+        shortCircuitedCount.increment();
+    }
+
+    /**
+     * Records the retry of a failed call.
+     */
+    void recordRetry() {
+        retryCount.increment();
+    }
+
+    /**
+     * Returns the {@link TwitterEndpoint} the metrics are recorded for.
+     *
+     * @return the {@link TwitterEndpoint} the metrics are recorded for
+     */
+    public TwitterEndpoint getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Returns the {@link LatencyHistogram} of the calls to the endpoint.
+     *
+     * @return the {@link LatencyHistogram} of the calls to the endpoint
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Returns the number of calls to the endpoint, including the failed ones.
+     *
+     * @return the number of calls to the endpoint
+     */
+    public long getCallCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Returns the number of failed calls to the endpoint.
+     *
+     * @return the number of failed calls to the endpoint
+     */
+    public long getErrorCount() {
+        long count = 0;
+        for (LongAdder errorCount : errorCounts.values()) {
+            count += errorCount.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of failed calls to the endpoint, by HTTP status code.
+     * <p>
+     * Errors that did not receive an HTTP response are counted with the {@link #NO_RESPONSE_STATUS_CODE} status
+     * code.
+     *
+     * @return a snapshot of the number of failed calls, sorted by status code
+     */
+    public Map<Integer, Long> getErrorCounts() {
+        Map<Integer, Long> result = new TreeMap<>();
+        errorCounts.forEach((statusCode, count) -> result.put(statusCode, count.sum()));
+        return result;
+    }
+
+    /**
+     * Returns the number of calls rejected by the rate-limit scheduler.
+     *
+     * @return the number of calls rejected by the rate-limit scheduler
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Returns the number of calls rejected by the circuit breaker.
+     *
+     * @return the number of calls rejected by the circuit breaker
+     */
+    public long getShortCircuitedCount() {
+        return shortCircuitedCount.sum();
+    }
+
+    /**
+     * Returns the number of retried calls.
+     * <p>
+     * Each retry is also recorded as a call (see {@link #getCallCount()}).
+     *
+     * @return the number of retried calls
+     */
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+}
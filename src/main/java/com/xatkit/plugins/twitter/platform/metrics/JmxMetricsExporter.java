@@ -0,0 +1,228 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.plugins.twitter.platform.service.TwitterAccount;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MetricsExporter} registering the {@link TwitterMetrics} in the platform {@link MBeanServer}.
+ * <p>
+ * This exporter registers an MBean for each {@link TwitterEndpoint}
+ * ({@code com.xatkit.plugins.twitter:type=Endpoint,name=<endpoint>}) exposing its call, error, rejection, and
+ * retry counts, its latency quantiles, the state of its circuit breaker, and the rate-limit budget remaining across
+ * all the accounts, and an MBean for each cache ({@code com.xatkit.plugins.twitter:type=Cache,name=<cache>})
+ * exposing its hit and miss counts.
+ */
+public class JmxMetricsExporter implements MetricsExporter {
+
+    /**
+     * The domain of the registered MBeans.
+     */
+    public static final String DOMAIN = "com.xatkit.plugins.twitter";
+
+    /**
+     * The {@link MBeanServer} the MBeans are registered in.
+     */
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * The names of the registered MBeans.
+     */
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws XatkitException if an MBean cannot be registered
+     */
+    @Override
+    public void start(@NonNull TwitterMetrics metrics, @NonNull Configuration configuration) {
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            TwitterEndpoint endpoint = endpointMetrics.getEndpoint();
+            Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+            attributes.put("CallCount", endpointMetrics::getCallCount);
+            attributes.put("ErrorCount", endpointMetrics::getErrorCount);
+            attributes.put("RejectedCount", endpointMetrics::getRejectedCount);
+            attributes.put("ShortCircuitedCount", endpointMetrics::getShortCircuitedCount);
+            attributes.put("RetryCount", endpointMetrics::getRetryCount);
+            attributes.put("CircuitState", () -> metrics.getCircuitState(endpoint).name());
+            attributes.put("MeanLatencyMillis", () -> {
+                long count = endpointMetrics.getCallCount();
+                return count == 0 ? 0d : (double) endpointMetrics.getLatency().getSumNanos() / count
+                        / TimeUnit.MILLISECONDS.toNanos(1);
+            });
+            attributes.put("P50LatencyMillis", () -> endpointMetrics.getLatency().getQuantile(0.5) * 1000);
+            attributes.put("P95LatencyMillis", () -> endpointMetrics.getLatency().getQuantile(0.95) * 1000);
+            attributes.put("P99LatencyMillis", () -> endpointMetrics.getLatency().getQuantile(0.99) * 1000);
+            attributes.put("RateLimitRemaining", () -> {
+                long remaining = 0;
+                for (TwitterAccount account : metrics.getAccounts()) {
+                    remaining += account.getRateLimitScheduler().getRemaining(endpoint);
+                }
+                return remaining;
+            });
+            this.register("type=Endpoint,name=" + endpoint.getConfigurationName(), attributes);
+        }
+        for (CacheStatistics statistics : metrics.getCacheStatistics()) {
+            String cacheName = statistics.getName();
+            Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+            attributes.put("HitCount", () -> findCacheStatistics(metrics, cacheName).getHitCount());
+            attributes.put("MissCount", () -> findCacheStatistics(metrics, cacheName).getMissCount());
+            attributes.put("HitRatio", () -> findCacheStatistics(metrics, cacheName).getHitRatio());
+            this.register("type=Cache,name=" + cacheName, attributes);
+        }
+        Log.info("{0} Registered {1} MBeans in the {2} domain", this.getClass().getSimpleName(),
+                registeredNames.size(), DOMAIN);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method unregisters the MBeans registered by this exporter.
+     */
+    @Override
+    public void close() {
+        for (ObjectName name : registeredNames) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                Log.warn("{0} Cannot unregister the MBean {1}: {2}", this.getClass().getSimpleName(), name,
+                        e.getMessage());
+            }
+        }
+        registeredNames.clear();
+    }
+
+    /**
+     * Registers an MBean exposing the provided read-only {@code attributes}.
+     * <p>
+     * MBeans registered by another instance of the platform with the same name are replaced.
+     *
+     * @param properties the key properties of the MBean's {@link ObjectName}
+     * @param attributes the attributes of the MBean, and the suppliers computing their values
+     * @throws XatkitException if the MBean cannot be registered
+     */
+    private void register(String properties, Map<String, Supplier<Object>> attributes) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new SupplierMBean(attributes), name);
+            registeredNames.add(name);
+        } catch (JMException e) {
+            throw new XatkitException("Cannot register the Twitter metrics MBean " + properties, e);
+        }
+    }
+
+    /**
+     * Returns the current statistics of the cache with the provided {@code name}.
+     *
+     * @param metrics the {@link TwitterMetrics} containing the cache statistics
+     * @param name    the name of the cache
+     * @return the {@link CacheStatistics} of the cache, or empty statistics if the cache does not exist anymore
+     */
+    private static CacheStatistics findCacheStatistics(TwitterMetrics metrics, String name) {
+        for (CacheStatistics statistics : metrics.getCacheStatistics()) {
+            if (statistics.getName().equals(name)) {
+                return statistics;
+            }
+        }
+        return new CacheStatistics(name, 0, 0);
+    }
+
+    /**
+     * A {@link DynamicMBean} exposing read-only attributes computed by {@link Supplier}s.
+     */
+    private static class SupplierMBean implements DynamicMBean {
+
+        /**
+         * The attributes of the MBean, and the suppliers computing their values.
+         */
+        private final Map<String, Supplier<Object>> attributes;
+
+        /**
+         * The {@link MBeanInfo} describing the attributes of the MBean.
+         */
+        private final MBeanInfo info;
+
+        /**
+         * Constructs a {@link SupplierMBean} exposing the provided {@code attributes}.
+         *
+         * @param attributes the attributes of the MBean, and the suppliers computing their values
+         */
+        private SupplierMBean(Map<String, Supplier<Object>> attributes) {
+            this.attributes = attributes;
+            List<MBeanAttributeInfo> attributeInfos = new ArrayList<>();
+            for (Map.Entry<String, Supplier<Object>> attribute : attributes.entrySet()) {
+                attributeInfos.add(new MBeanAttributeInfo(attribute.getKey(),
+                        attribute.getValue().get().getClass().getName(), attribute.getKey(), true, false, false));
+            }
+            this.info = new MBeanInfo(this.getClass().getName(), "Twitter platform metrics",
+                    attributeInfos.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Supplier<Object> supplier = attributes.get(attribute);
+            if (supplier == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return supplier.get();
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("The attribute " + attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            AttributeList result = new AttributeList();
+            for (String name : names) {
+                Supplier<Object> supplier = attributes.get(name);
+                if (supplier != null) {
+                    result.add(new Attribute(name, supplier.get()));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributeList) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName), "The Twitter metrics MBeans do not "
+                    + "define any operation");
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            return info;
+        }
+    }
+}
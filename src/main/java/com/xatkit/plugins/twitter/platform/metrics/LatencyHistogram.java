@@ -0,0 +1,154 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A histogram of call latencies with fixed buckets.
+ * <p>
+ * The bucket bounds (from 5 milliseconds to 10 seconds) match the default buckets of the Prometheus client
+ * libraries, and cover the latencies of the Twitter API. Recording a latency only increments two counters, and does
+ * not allocate.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The upper bounds of the buckets, in seconds.
+     * <p>
+     * Latencies greater than the last bound are counted in an additional {@code +Inf} bucket.
+     */
+    private static final double[] BUCKET_BOUNDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    /**
+     * The upper bounds of the buckets, in nanoseconds.
+     */
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * The number of latencies recorded in each bucket (not cumulative), followed by the {@code +Inf} bucket.
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+    /**
+     * The sum of the recorded latencies, in nanoseconds.
+     */
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Constructs an empty {@link LatencyHistogram}.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the provided {@code latencyNanos}.
+     *
+     * @param latencyNanos the latency to record, in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && latencyNanos > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(latencyNanos);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded latencies, in nanoseconds.
+     *
+     * @return the sum of the recorded latencies, in nanoseconds
+     */
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Returns the upper bounds of the buckets, in seconds.
+     * <p>
+     * The returned array does not contain the bound of the {@code +Inf} bucket.
+     *
+     * @return a copy of the upper bounds of the buckets, in seconds
+     */
+    public static double[] getBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Returns the cumulative counts of the buckets.
+     * <p>
+     * The element {@code i} of the returned array contains the number of latencies lower than or equal to the bound
+     * {@code i} (see {@link #getBucketBounds()}), and the last element contains the total number of latencies (i.e.
+     * the {@code +Inf} bucket).
+     *
+     * @return the cumulative counts of the buckets
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            count += buckets[i].sum();
+            counts[i] = count;
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates the provided {@code quantile} of the recorded latencies.
+     * <p>
+     * The estimate is interpolated linearly within the bucket containing the {@code quantile}. Quantiles falling in
+     * the {@code +Inf} bucket are estimated with the highest bucket bound.
+     *
+     * @param quantile the quantile to estimate, between {@code 0} and {@code 1}
+     * @return the estimated quantile, in seconds, or {@code 0} if no latency has been recorded
+     * @throws IllegalArgumentException if {@code quantile} is not between {@code 0} and {@code 1}
+     */
+    public double getQuantile(double quantile) {
+        checkArgument(quantile >= 0 && quantile <= 1, "Cannot compute the quantile %s, expected a value between 0 "
+                + "and 1", quantile);
+        long[] counts = this.getCumulativeCounts();
+        long total = counts[counts.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        double rank = quantile * total;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (counts[i] >= rank) {
+                long previousCount = i == 0 ? 0 : counts[i - 1];
+                double lowerBound = i == 0 ? 0 : BUCKET_BOUNDS[i - 1];
+                long bucketCount = counts[i] - previousCount;
+                if (bucketCount == 0) {
+                    return lowerBound;
+                }
+                return lowerBound + (BUCKET_BOUNDS[i] - lowerBound) * (rank - previousCount) / bucketCount;
+            }
+        }
+        return BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1];
+    }
+}
@@ -0,0 +1,29 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import org.apache.commons.configuration2.Configuration;
+
+/**
+ * Exposes the {@link TwitterMetrics} of the platform to a monitoring system.
+ * <p>
+ * The exporters of the platform are defined with the {@code xatkit.twitter.metrics.exporters} property, containing
+ * the names of the built-in exporters ({@code jmx} and {@code prometheus}) or the fully qualified names of custom
+ * implementations of this interface. Custom exporters must define a public no-argument constructor.
+ *
+ * @see JmxMetricsExporter
+ * @see PrometheusMetricsExporter
+ */
+public interface MetricsExporter {
+
+    /**
+     * Starts exposing the provided {@code metrics}.
+     *
+     * @param metrics       the {@link TwitterMetrics} to expose
+     * @param configuration the platform's {@link Configuration}
+     */
+    void start(TwitterMetrics metrics, Configuration configuration);
+
+    /**
+     * Stops exposing the metrics and releases the resources of the exporter.
+     */
+    void close();
+}
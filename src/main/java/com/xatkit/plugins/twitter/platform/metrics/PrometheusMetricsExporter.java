@@ -0,0 +1,252 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xatkit.core.XatkitException;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.service.RateLimitScheduler;
+import com.xatkit.plugins.twitter.platform.service.TwitterAccount;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntBiFunction;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link MetricsExporter} exposing the {@link TwitterMetrics} on an HTTP endpoint using the Prometheus text format.
+ * <p>
+ * The endpoint is served by an embedded HTTP server listening on the port and path defined by the
+ * {@code xatkit.twitter.metrics.prometheus.port} and {@code xatkit.twitter.metrics.prometheus.path} properties. It
+ * exposes the following metrics:
+ * <ul>
+ * <li>{@code twitter_api_request_duration_seconds}: a histogram of the latency of the calls, by endpoint</li>
+ * <li>{@code twitter_api_errors_total}: the number of failed calls, by endpoint and HTTP status code ({@code -1}
+ * for the calls that did not receive a response)</li>
+ * <li>{@code twitter_api_rejected_total}: the number of calls rejected by the rate-limit scheduler, by endpoint</li>
+ * <li>{@code twitter_api_short_circuited_total}: the number of calls rejected by the circuit breaker, by
+ * endpoint</li>
+ * <li>{@code twitter_api_retries_total}: the number of retried calls, by endpoint</li>
+ * <li>{@code twitter_ratelimit_remaining}, {@code twitter_ratelimit_limit}, and
+ * {@code twitter_ratelimit_reset_seconds}: the rate-limit budget of each account, by endpoint</li>
+ * <li>{@code twitter_cache_hits_total} and {@code twitter_cache_misses_total}: the hit and miss counts of the
+ * platform's caches</li>
+ * </ul>
+ */
+public class PrometheusMetricsExporter implements MetricsExporter {
+
+    /**
+     * The content type of the Prometheus text format.
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * The exposed {@link TwitterMetrics}.
+     */
+    private TwitterMetrics metrics;
+
+    /**
+     * The embedded HTTP server exposing the metrics.
+     */
+    private HttpServer server;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method starts the embedded HTTP server.
+     *
+     * @throws XatkitException if the HTTP server cannot be started
+     */
+    @Override
+    public void start(@NonNull TwitterMetrics metrics, @NonNull Configuration configuration) {
+        this.metrics = metrics;
+        int port = configuration.getInt(TwitterUtils.TWITTER_METRICS_PROMETHEUS_PORT_KEY,
+                TwitterUtils.DEFAULT_METRICS_PROMETHEUS_PORT);
+        String path = configuration.getString(TwitterUtils.TWITTER_METRICS_PROMETHEUS_PATH_KEY,
+                TwitterUtils.DEFAULT_METRICS_PROMETHEUS_PATH);
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new XatkitException("Cannot start the Twitter metrics endpoint on port " + port, e);
+        }
+        server.createContext(path, this::handle);
+        server.start();
+        Log.info("{0} Exposing the Twitter metrics on port {1}{2}", this.getClass().getSimpleName(),
+                String.valueOf(this.getPort()), path);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method stops the embedded HTTP server.
+     */
+    @Override
+    public void close() {
+        if (nonNull(server)) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Returns the port the embedded HTTP server is listening on.
+     * <p>
+     * This method is useful when the exporter is configured with the port {@code 0} (i.e. any available port).
+     *
+     * @return the port the embedded HTTP server is listening on
+     * @throws IllegalStateException if the exporter is not started
+     */
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Writes the current metrics using the Prometheus text format.
+     *
+     * @return the current metrics, using the Prometheus text format
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder();
+        double[] bounds = LatencyHistogram.getBucketBounds();
+        header(builder, "twitter_api_request_duration_seconds", "histogram",
+                "Latency of the calls to the Twitter API");
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            String endpoint = escape(endpointMetrics.getEndpoint().getConfigurationName());
+            long[] counts = endpointMetrics.getLatency().getCumulativeCounts();
+            for (int i = 0; i < counts.length; i++) {
+                String bound = i < bounds.length ? Double.toString(bounds[i]) : "+Inf";
+                builder.append("twitter_api_request_duration_seconds_bucket{endpoint=\"").append(endpoint)
+                        .append("\",le=\"").append(bound).append("\"} ").append(counts[i]).append('\n');
+            }
+            builder.append("twitter_api_request_duration_seconds_sum{endpoint=\"").append(endpoint).append("\"} ")
+                    .append((double) endpointMetrics.getLatency().getSumNanos() / TimeUnit.SECONDS.toNanos(1))
+                    .append('\n');
+            builder.append("twitter_api_request_duration_seconds_count{endpoint=\"").append(endpoint)
+                    .append("\"} ").append(counts[counts.length - 1]).append('\n');
+        }
+        header(builder, "twitter_api_errors_total", "counter", "Failed calls to the Twitter API");
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            String endpoint = escape(endpointMetrics.getEndpoint().getConfigurationName());
+            for (Map.Entry<Integer, Long> errorCount : endpointMetrics.getErrorCounts().entrySet()) {
+                builder.append("twitter_api_errors_total{endpoint=\"").append(endpoint).append("\",status=\"")
+                        .append(errorCount.getKey()).append("\"} ").append(errorCount.getValue()).append('\n');
+            }
+        }
+        header(builder, "twitter_api_rejected_total", "counter",
+                "Calls rejected by the rate-limit scheduler before reaching the Twitter API");
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            builder.append("twitter_api_rejected_total{endpoint=\"")
+                    .append(escape(endpointMetrics.getEndpoint().getConfigurationName())).append("\"} ")
+                    .append(endpointMetrics.getRejectedCount()).append('\n');
+        }
+        header(builder, "twitter_api_short_circuited_total", "counter",
+                "Calls rejected by the circuit breaker before reaching the Twitter API");
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            builder.append("twitter_api_short_circuited_total{endpoint=\"")
+                    .append(escape(endpointMetrics.getEndpoint().getConfigurationName())).append("\"} ")
+                    .append(endpointMetrics.getShortCircuitedCount()).append('\n');
+        }
+        header(builder, "twitter_api_retries_total", "counter", "Failed calls to the Twitter API that were retried");
+        for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+            builder.append("twitter_api_retries_total{endpoint=\"")
+                    .append(escape(endpointMetrics.getEndpoint().getConfigurationName())).append("\"} ")
+                    .append(endpointMetrics.getRetryCount()).append('\n');
+        }
+        this.writeRateLimitGauge(builder, "twitter_ratelimit_remaining",
+                "Calls that can still be performed in the current rate-limit window", RateLimitScheduler::getRemaining);
+        this.writeRateLimitGauge(builder, "twitter_ratelimit_limit", "Calls allowed in a rate-limit window",
+                RateLimitScheduler::getLimit);
+        this.writeRateLimitGauge(builder, "twitter_ratelimit_reset_seconds",
+                "Seconds until the rate-limit window is reset", RateLimitScheduler::getSecondsUntilReset);
+        header(builder, "twitter_cache_hits_total", "counter", "Lookups answered by the platform's caches");
+        for (CacheStatistics statistics : metrics.getCacheStatistics()) {
+            builder.append("twitter_cache_hits_total{cache=\"").append(escape(statistics.getName())).append("\"} ")
+                    .append(statistics.getHitCount()).append('\n');
+        }
+        header(builder, "twitter_cache_misses_total", "counter",
+                "Lookups that required a call to the Twitter API");
+        for (CacheStatistics statistics : metrics.getCacheStatistics()) {
+            builder.append("twitter_cache_misses_total{cache=\"").append(escape(statistics.getName()))
+                    .append("\"} ").append(statistics.getMissCount()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the provided rate-limit gauge for each account and endpoint.
+     *
+     * @param builder the {@link StringBuilder} to write the metrics to
+     * @param name    the name of the gauge
+     * @param help    the description of the gauge
+     * @param value   the function computing the value of the gauge from the {@link RateLimitScheduler} of an account
+     */
+    private void writeRateLimitGauge(StringBuilder builder, String name, String help,
+                                     ToIntBiFunction<RateLimitScheduler, TwitterEndpoint> value) {
+        header(builder, name, "gauge", help);
+        for (TwitterAccount account : metrics.getAccounts()) {
+            for (EndpointMetrics endpointMetrics : metrics.getEndpointMetrics()) {
+                builder.append(name).append("{endpoint=\"")
+                        .append(escape(endpointMetrics.getEndpoint().getConfigurationName())).append("\",account=\"")
+                        .append(escape(account.getName())).append("\"} ")
+                        .append(value.applyAsInt(account.getRateLimitScheduler(), endpointMetrics.getEndpoint()))
+                        .append('\n');
+            }
+        }
+    }
+
+    /**
+     * Answers the provided {@code exchange} with the current metrics.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @throws IOException if an error occurred when writing the response
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = this.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Writes the {@code HELP} and {@code TYPE} lines of the provided metric.
+     *
+     * @param builder the {@link StringBuilder} to write the lines to
+     * @param name    the name of the metric
+     * @param type    the type of the metric
+     * @param help    the description of the metric
+     */
+    private static void header(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Escapes the provided label {@code value}.
+     *
+     * @param value the label value to escape
+     * @return the escaped value
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,19 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+/**
+ * A listener notified of the {@link TraceSpan}s created for the calls to the Twitter API.
+ * <p>
+ * Listeners are registered with {@link TwitterMetrics#addSpanListener(SpanListener)}, and are notified by the thread
+ * that performed the call: implementations should return quickly, and hand the spans over to another thread if
+ * they need to export them to a remote tracing system.
+ */
+@FunctionalInterface
+public interface SpanListener {
+
+    /**
+     * Handles the provided {@code span}.
+     *
+     * @param span the {@link TraceSpan} of the completed call
+     */
+    void onSpan(TraceSpan span);
+}
@@ -0,0 +1,131 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A trace span describing a call to the Twitter API.
+ * <p>
+ * Spans are created for each call when tracing is enabled, and are tagged with the ID of the
+ * {@link com.xatkit.execution.StateContext} of the action that performed the call (see
+ * {@link TwitterMetrics#openScope(String)}).
+ *
+ * @see SpanListener
+ */
+public final class TraceSpan {
+
+    /**
+     * The called {@link TwitterEndpoint}.
+     */
+    private final TwitterEndpoint endpoint;
+
+    /**
+     * The name of the account used to perform the call.
+     */
+    private final String accountName;
+
+    /**
+     * The ID of the context of the action that performed the call, or {@code null} if the call has not been
+     * performed by an action.
+     */
+    private final String contextId;
+
+    /**
+     * The start time of the call, in milliseconds since the epoch.
+     */
+    private final long startMillis;
+
+    /**
+     * The duration of the call, in nanoseconds.
+     */
+    private final long durationNanos;
+
+    /**
+     * The HTTP status code of the call.
+     */
+    private final int statusCode;
+
+    /**
+     * Constructs a {@link TraceSpan} with the provided parameters.
+     *
+     * @param endpoint      the called {@link TwitterEndpoint}
+     * @param accountName   the name of the account used to perform the call
+     * @param contextId     the ID of the context of the action that performed the call, or {@code null}
+     * @param startMillis   the start time of the call, in milliseconds since the epoch
+     * @param durationNanos the duration of the call, in nanoseconds
+     * @param statusCode    the HTTP status code of the call
+     */
+    TraceSpan(@NonNull TwitterEndpoint endpoint, @NonNull String accountName, String contextId, long startMillis,
+              long durationNanos, int statusCode) {
+        this.endpoint = endpoint;
+        this.accountName = accountName;
+        this.contextId = contextId;
+        this.startMillis = startMillis;
+        this.durationNanos = durationNanos;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the called {@link TwitterEndpoint}.
+     *
+     * @return the called {@link TwitterEndpoint}
+     */
+    public TwitterEndpoint getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Returns the name of the account used to perform the call.
+     *
+     * @return the name of the account used to perform the call
+     */
+    public String getAccountName() {
+        return this.accountName;
+    }
+
+    /**
+     * Returns the ID of the context of the action that performed the call.
+     *
+     * @return the ID of the context, or {@code null} if the call has not been performed by an action (e.g. calls
+     * performed by the outbound dispatcher or by background refreshes)
+     */
+    public String getContextId() {
+        return this.contextId;
+    }
+
+    /**
+     * Returns the start time of the call.
+     *
+     * @return the start time of the call, in milliseconds since the epoch
+     */
+    public long getStartMillis() {
+        return this.startMillis;
+    }
+
+    /**
+     * Returns the duration of the call.
+     *
+     * @return the duration of the call, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * Returns the HTTP status code of the call.
+     *
+     * @return {@code 200} if the call succeeded, the status code of the error response if it failed, or
+     * {@link EndpointMetrics#NO_RESPONSE_STATUS_CODE} if the call did not receive a response
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    @Override
+    public String toString() {
+        return "context=" + contextId + " endpoint=" + endpoint.getResource() + " account=" + accountName
+                + " status=" + statusCode + " duration=" + TimeUnit.NANOSECONDS.toMillis(durationNanos) + "ms";
+    }
+}
@@ -0,0 +1,343 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.service.CircuitState;
+import com.xatkit.plugins.twitter.platform.service.TwitterAccount;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The metrics of the calls performed by the platform to the Twitter API.
+ * <p>
+ * The platform records the latency and the result of each call (see
+ * {@link TwitterPlatform#execute(TwitterEndpoint, com.xatkit.plugins.twitter.platform.service.TwitterCall)}), and
+ * this class combines them with the remaining rate-limit budget of the accounts and the hit ratio of the platform's
+ * caches. The metrics are exposed to monitoring systems by the {@link MetricsExporter}s defined in the
+ * configuration.
+ * <p>
+ * When tracing is enabled each call also creates a {@link TraceSpan} tagged with the ID of the
+ * {@link com.xatkit.execution.StateContext} of the action that performed it, and notifies the registered
+ * {@link SpanListener}s.
+ */
+public class TwitterMetrics {
+
+    /**
+     * The {@link TwitterPlatform} the metrics are recorded for.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The metrics of each {@link TwitterEndpoint}.
+     */
+    private final Map<TwitterEndpoint, EndpointMetrics> endpointMetrics = new EnumMap<>(TwitterEndpoint.class);
+
+    /**
+     * The listeners notified of the {@link TraceSpan}s.
+     */
+    private final List<SpanListener> spanListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The ID of the context of the action executed by the current thread.
+     *
+     * @see #openScope(String)
+     */
+    private final ThreadLocal<String> currentContextId = new ThreadLocal<>();
+
+    /**
+     * The started {@link MetricsExporter}s.
+     */
+    private final List<MetricsExporter> exporters = new ArrayList<>();
+
+    /**
+     * Constructs a {@link TwitterMetrics} recording the metrics of the provided {@code platform}.
+     *
+     * @param platform the {@link TwitterPlatform} to record the metrics of
+     */
+    public TwitterMetrics(@NonNull TwitterPlatform platform) {
+        this.platform = platform;
+        for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+            endpointMetrics.put(endpoint, new EndpointMetrics(endpoint));
+        }
+    }
+
+    /**
+     * Starts the {@link MetricsExporter}s and the tracing defined in the provided {@code configuration}.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @throws XatkitException if an exporter cannot be created or started
+     * @see TwitterUtils#TWITTER_METRICS_EXPORTERS_KEY
+     * @see TwitterUtils#TWITTER_METRICS_TRACING_KEY
+     */
+    public void start(@NonNull Configuration configuration) {
+        for (String exporterName : configuration.getList(String.class, TwitterUtils.TWITTER_METRICS_EXPORTERS_KEY,
+                Collections.emptyList())) {
+            MetricsExporter exporter = createExporter(exporterName.trim());
+            exporter.start(this, configuration);
+            exporters.add(exporter);
+        }
+        if (configuration.getBoolean(TwitterUtils.TWITTER_METRICS_TRACING_KEY, false)) {
+            this.addSpanListener(span -> Log.info("{0} {1}", this.getClass().getSimpleName(), span));
+        }
+    }
+
+    /**
+     * Closes the started {@link MetricsExporter}s.
+     */
+    public void close() {
+        for (MetricsExporter exporter : exporters) {
+            try {
+                exporter.close();
+            } catch (RuntimeException e) {
+                Log.warn("{0} Cannot close the metrics exporter {1}: {2}", this.getClass().getSimpleName(),
+                        exporter.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        exporters.clear();
+    }
+
+    /**
+     * Records a call to the Twitter API.
+     *
+     * @param endpoint      the called {@link TwitterEndpoint}
+     * @param account       the {@link TwitterAccount} used to perform the call
+     * @param startMillis   the start time of the call, in milliseconds since the epoch
+     * @param durationNanos the duration of the call, in nanoseconds
+     * @param error         the error thrown by the call, or {@code null} if the call succeeded
+     */
+    public void recordCall(@NonNull TwitterEndpoint endpoint, @NonNull TwitterAccount account, long startMillis,
+                           long durationNanos, TwitterException error) {
+        endpointMetrics.get(endpoint).recordCall(durationNanos, error);
+        if (!spanListeners.isEmpty()) {
+            int statusCode = 200;
+            if (error != null) {
+                statusCode = error.getStatusCode() > 0 ? error.getStatusCode() :
+                        EndpointMetrics.NO_RESPONSE_STATUS_CODE;
+            }
+            TraceSpan span = new TraceSpan(endpoint, account.getName(), currentContextId.get(), startMillis,
+                    durationNanos, statusCode);
+            for (SpanListener listener : spanListeners) {
+                try {
+                    listener.onSpan(span);
+                } catch (RuntimeException e) {
+                    Log.warn("{0} The span listener {1} failed: {2}", this.getClass().getSimpleName(), listener,
+                            e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a call rejected by the rate-limit scheduler before reaching the Twitter API.
+     *
+     * @param endpoint the {@link TwitterEndpoint} of the rejected call
+     */
+    public void recordRejection(@NonNull TwitterEndpoint endpoint) {
+        endpointMetrics.get(endpoint).recordRejection();
+    }
+
+    /**
+     * Records a call rejected because the circuit breaker of its endpoint is open.
+     *
+     * @param endpoint the {@link TwitterEndpoint} of the rejected call
+     */
+    public void recordShortCircuit(@NonNull TwitterEndpoint endpoint) {
+        endpointMetrics.get(endpoint).recordShortCircuit();
+    }
+
+    /**
+     * Records the retry of a failed call.
+     *
+     * @param endpoint the {@link TwitterEndpoint} of the retried call
+     */
+    public void recordRetry(@NonNull TwitterEndpoint endpoint) {
+        endpointMetrics.get(endpoint).recordRetry();
+    }
+
+    /**
+     * Tags the calls performed by the current thread with the provided {@code contextId}.
+     * <p>
+     * The returned {@link TraceScope} must be closed once the action is executed, typically with a
+     * try-with-resources statement. Scopes can be nested: closing a scope restores the context ID of the enclosing
+     * one.
+     *
+     * @param contextId the ID of the {@link com.xatkit.execution.StateContext} of the executed action
+     * @return the opened {@link TraceScope}
+     */
+    public TraceScope openScope(String contextId) {
+        String previous = currentContextId.get();
+        currentContextId.set(contextId);
+        return new TraceScope(previous);
+    }
+
+    /**
+     * Registers the provided {@code listener}.
+     *
+     * @param listener the {@link SpanListener} to notify of the {@link TraceSpan}s
+     */
+    public void addSpanListener(@NonNull SpanListener listener) {
+        spanListeners.add(listener);
+    }
+
+    /**
+     * Unregisters the provided {@code listener}.
+     *
+     * @param listener the {@link SpanListener} to unregister
+     */
+    public void removeSpanListener(@NonNull SpanListener listener) {
+        spanListeners.remove(listener);
+    }
+
+    /**
+     * Returns the metrics of the provided {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the metrics of
+     * @return the {@link EndpointMetrics} of the {@code endpoint}
+     */
+    public EndpointMetrics getEndpointMetrics(@NonNull TwitterEndpoint endpoint) {
+        return endpointMetrics.get(endpoint);
+    }
+
+    /**
+     * Returns the metrics of all the {@link TwitterEndpoint}s.
+     *
+     * @return an unmodifiable collection containing the {@link EndpointMetrics} of all the endpoints
+     */
+    public Collection<EndpointMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableCollection(endpointMetrics.values());
+    }
+
+    /**
+     * Returns the accounts used by the platform.
+     * <p>
+     * The remaining rate-limit budget of each account can be retrieved from its
+     * {@link com.xatkit.plugins.twitter.platform.service.RateLimitScheduler}.
+     *
+     * @return the accounts used by the platform, or an empty list if the platform is not started
+     */
+    public List<TwitterAccount> getAccounts() {
+        if (platform.getAccountPool() == null) {
+            return Collections.emptyList();
+        }
+        return platform.getAccountPool().getAccounts();
+    }
+
+    /**
+     * Returns the state of the circuit breaker of the provided {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the circuit breaker state of
+     * @return the {@link CircuitState} of the {@code endpoint}, or {@link CircuitState#CLOSED} if the platform is
+     * not started
+     * @see TwitterPlatform#getResiliencePolicy()
+     */
+    public CircuitState getCircuitState(@NonNull TwitterEndpoint endpoint) {
+        if (platform.getResiliencePolicy() == null) {
+            return CircuitState.CLOSED;
+        }
+        return platform.getResiliencePolicy().getState(endpoint);
+    }
+
+    /**
+     * Returns the statistics of the platform's caches.
+     * <p>
+     * This method returns the statistics of the {@code users} cache (see
+     * {@link com.xatkit.plugins.twitter.platform.service.UserResolver}), of the {@code trends} cache (see
+     * {@link com.xatkit.plugins.twitter.platform.service.TrendService}), of the {@code conversations} index (see
+     * {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex#resolveThread(long, int)}), and of the
+     * {@code pages} prefetched by the {@link com.xatkit.plugins.twitter.platform.service.ResultPager}.
+     *
+     * @return a snapshot of the statistics of the platform's caches
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        List<CacheStatistics> result = new ArrayList<>(4);
+        if (platform.getUserResolver() != null) {
+            result.add(new CacheStatistics("users", platform.getUserResolver().getCacheHitCount(),
+                    platform.getUserResolver().getCacheMissCount()));
+        }
+        if (platform.getTrendService() != null) {
+            result.add(new CacheStatistics("trends", platform.getTrendService().getCacheHitCount(),
+                    platform.getTrendService().getCacheMissCount()));
+        }
+        if (platform.getConversationIndex() != null) {
+            result.add(new CacheStatistics("conversations", platform.getConversationIndex().getHitCount(),
+                    platform.getConversationIndex().getMissCount()));
+        }
+        if (platform.getResultPager() != null) {
+            result.add(new CacheStatistics("pages", platform.getResultPager().getHitCount(),
+                    platform.getResultPager().getMissCount()));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the {@link MetricsExporter} with the provided {@code name}.
+     *
+     * @param name the name of a built-in exporter, or the fully qualified name of a {@link MetricsExporter}
+     *             implementation
+     * @return the created {@link MetricsExporter}
+     * @throws XatkitException if the exporter cannot be created
+     */
+    private static MetricsExporter createExporter(String name) {
+        switch (name) {
+            case "jmx":
+                return new JmxMetricsExporter();
+            case "prometheus":
+                return new PrometheusMetricsExporter();
+            default:
+                try {
+                    return Class.forName(name).asSubclass(MetricsExporter.class).getConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new XatkitException("Cannot create the metrics exporter " + name + ", expected one of "
+                            + Arrays.asList("jmx", "prometheus") + " or the name of a " + MetricsExporter.class
+                            .getSimpleName() + " implementation", e);
+                }
+        }
+    }
+
+    /**
+     * A scope tagging the calls performed by the current thread with a context ID.
+     *
+     * @see #openScope(String)
+     */
+    public final class TraceScope implements AutoCloseable {
+
+        /**
+         * The context ID of the enclosing scope.
+         */
+        private final String previousContextId;
+
+        /**
+         * Constructs a {@link TraceScope} restoring the provided {@code previousContextId} when it is closed.
+         *
+         * @param previousContextId the context ID of the enclosing scope
+         */
+        private TraceScope(String previousContextId) {
+            this.previousContextId = previousContextId;
+        }
+
+        /**
+         * Restores the context ID of the enclosing scope.
+         */
+        @Override
+        public void close() {
+            if (previousContextId == null) {
+                currentContextId.remove();
+            } else {
+                currentContextId.set(previousContextId);
+            }
+        }
+    }
+}
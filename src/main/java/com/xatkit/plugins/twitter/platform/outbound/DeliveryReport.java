@@ -0,0 +1,117 @@
+package com.xatkit.plugins.twitter.platform.outbound;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * The result of the delivery of an {@link OutboundMessage}.
+ *
+ * @see OutboundDispatcher#submit(OutboundMessage)
+ */
+public final class DeliveryReport {
+
+    /**
+     * The delivered message.
+     */
+    private final OutboundMessage message;
+
+    /**
+     * The final status of the delivery.
+     */
+    private final DeliveryStatus status;
+
+    /**
+     * The number of attempts made to send the message.
+     */
+    private final int attempts;
+
+    /**
+     * The ID of the created tweet or direct message, or {@code -1} if the message has not been sent.
+     */
+    private final long id;
+
+    /**
+     * The error raised by the last attempt, or {@code null} if there is no error.
+     */
+    private final TwitterException error;
+
+    /**
+     * Constructs a {@link DeliveryReport} with the provided parameters.
+     *
+     * @param message  the delivered message
+     * @param status   the final status of the delivery
+     * @param attempts the number of attempts made to send the message
+     * @param id       the ID of the created tweet or direct message, or {@code -1} if the message has not been sent
+     * @param error    the error raised by the last attempt, or {@code null} if there is no error
+     */
+    DeliveryReport(@NonNull OutboundMessage message, @NonNull DeliveryStatus status, int attempts, long id,
+                   TwitterException error) {
+        this.message = message;
+        this.status = status;
+        this.attempts = attempts;
+        this.id = id;
+        this.error = error;
+    }
+
+    /**
+     * Returns the delivered message.
+     *
+     * @return the delivered message
+     */
+    public OutboundMessage getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Returns the final status of the delivery.
+     *
+     * @return the final status of the delivery
+     */
+    public DeliveryStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns whether the message has been sent.
+     *
+     * @return {@code true} if the message has been sent, {@code false} otherwise
+     */
+    public boolean isSent() {
+        return this.status == DeliveryStatus.SENT;
+    }
+
+    /**
+     * Returns the number of attempts made to send the message.
+     * <p>
+     * Attempts rejected by the rate-limit scheduler are not counted.
+     *
+     * @return the number of attempts made to send the message
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * Returns the ID of the created tweet or direct message.
+     *
+     * @return the ID of the created tweet or direct message, or {@code -1} if the message has not been sent
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the error raised by the last attempt.
+     *
+     * @return the error raised by the last attempt, or {@code null} if there is no error
+     */
+    public TwitterException getError() {
+        return this.error;
+    }
+
+    @Override
+    public String toString() {
+        return message + " " + status + " after " + attempts + " attempt(s)"
+                + (error == null ? "" : " (" + error.getMessage() + ")");
+    }
+}
@@ -0,0 +1,34 @@
+package com.xatkit.plugins.twitter.platform.outbound;
+
+/**
+ * The final status of a message submitted to the {@link OutboundDispatcher}.
+ */
+public enum DeliveryStatus {
+
+    /**
+     * The message has been sent.
+     */
+    SENT,
+
+    /**
+     * The message has not been sent because an identical message has been submitted within the deduplication window
+     * (or because Twitter rejected it as a duplicate).
+     */
+    DUPLICATE,
+
+    /**
+     * The message has not been sent because the queue of the dispatcher was full.
+     */
+    REJECTED,
+
+    /**
+     * The message has not been sent because of a non-recoverable error, or because all the attempts to send it
+     * failed.
+     */
+    FAILED,
+
+    /**
+     * The message has not been sent because the dispatcher has been closed.
+     */
+    CANCELLED
+}
@@ -0,0 +1,577 @@
+package com.xatkit.plugins.twitter.platform.outbound;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.cache.LongTtlCache;
+import com.xatkit.plugins.twitter.platform.service.CircuitOpenException;
+import com.xatkit.plugins.twitter.platform.service.RateLimitExceededException;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.Status;
+import twitter4j.StatusUpdate;
+import twitter4j.TwitterException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Queues, paces, and deduplicates the tweets and direct messages sent by the platform.
+ * <p>
+ * Each submitted message is assigned a send slot when it is queued: two consecutive sends are separated by at least
+ * the global interval ({@code xatkit.twitter.outbound.interval}), and two direct messages sent to the same
+ * recipient are separated by at least the recipient interval ({@code xatkit.twitter.outbound.recipientInterval}).
+ * Slots are reserved independently for each recipient, meaning that a recipient waiting for its interval does not
+ * delay the messages of the other recipients. The messages are sent by a single thread through
+ * {@link TwitterPlatform#execute(TwitterEndpoint, com.xatkit.plugins.twitter.platform.service.TwitterCall)}, and
+ * thus honor the rate-limit policy of their endpoint.
+ * <p>
+ * The dispatcher rejects the messages identical to a message submitted within the deduplication window
+ * ({@code xatkit.twitter.outbound.dedupeWindow}), and the messages submitted when its queue is full
+ * ({@code xatkit.twitter.outbound.queueSize}). Transient errors are retried with a jittered exponential backoff up
+ * to {@code xatkit.twitter.outbound.maxAttempts} attempts, and messages rejected by the rate-limit scheduler are
+ * rescheduled when the rate-limit window of their endpoint is reset. Tweets are retried after network and server
+ * errors (Twitter rejects a retried tweet that has already been posted as a duplicate), but direct messages are only
+ * retried when their request has not been processed by Twitter (connection failures, rate-limited and unavailable
+ * responses): a direct message whose request may have been accepted (e.g. read timeout) is reported as
+ * {@link DeliveryStatus#FAILED}, and the bot decides whether to send it again.
+ * <p>
+ * The delivery of each message is reported asynchronously by the {@link CompletableFuture} returned by
+ * {@link #submit(OutboundMessage)}.
+ */
+public class OutboundDispatcher {
+
+    /**
+     * The base delay (in milliseconds) of the exponential backoff applied to the retried messages.
+     */
+    private static final long BASE_RETRY_DELAY = 1000;
+
+    /**
+     * The maximum delay (in milliseconds) of the exponential backoff applied to the retried messages.
+     */
+    private static final long MAX_RETRY_DELAY = 60000;
+
+    /**
+     * The error code returned by Twitter when a tweet is a duplicate of a recent tweet of the user.
+     */
+    private static final int DUPLICATE_STATUS_ERROR_CODE = 187;
+
+    /**
+     * The maximum number of message hashes kept to deduplicate the submitted messages.
+     */
+    private static final int MAX_DEDUPE_ENTRIES = 1 << 20;
+
+    /**
+     * The HTTP status returned by Twitter when it cannot process a request.
+     */
+    private static final int SERVICE_UNAVAILABLE_STATUS = 503;
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The maximum number of messages waiting to be sent.
+     */
+    private final int queueSize;
+
+    /**
+     * The minimum delay between two sends, in nanoseconds.
+     */
+    private final long globalInterval;
+
+    /**
+     * The minimum delay between two direct messages sent to the same recipient, in nanoseconds.
+     */
+    private final long recipientInterval;
+
+    /**
+     * The maximum number of attempts made to send a message.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The hashes of the messages submitted within the deduplication window.
+     */
+    private final LongTtlCache<Boolean> recentMessages;
+
+    /**
+     * The next send slot of each recipient, in {@link System#nanoTime()} units.
+     * <p>
+     * This map is guarded by {@code this}.
+     */
+    private final Map<String, Long> recipientSlots = new HashMap<>();
+
+    /**
+     * The next global send slot, in {@link System#nanoTime()} units.
+     * <p>
+     * The slots before this one are reserved by the messages that did not wait for their recipient. This field is
+     * guarded by {@code this}.
+     */
+    private long nextGlobalSlot = System.nanoTime();
+
+    /**
+     * The reserved send slots that are after {@link #nextGlobalSlot}, in {@link System#nanoTime()} units.
+     * <p>
+     * These slots belong to the messages waiting for their recipient interval: the other messages are sent in the
+     * gaps between them, so that a recipient waiting for its interval does not delay the messages of the other
+     * recipients. This set is guarded by {@code this}.
+     */
+    private final TreeSet<Long> reservedSlots = new TreeSet<>();
+
+    /**
+     * The time of the last direct message sent to each recipient, in {@link System#nanoTime()} units.
+     * <p>
+     * This map is only accessed by the sender thread, and ensures that the recipient interval is honored even if a
+     * message is sent after its slot.
+     */
+    private final Map<String, Long> lastRecipientSends = new HashMap<>();
+
+    /**
+     * The deliveries that are not completed yet.
+     */
+    private final Set<Delivery> pendingDeliveries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of messages waiting to be sent.
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * The thread sending the messages.
+     */
+    private final ScheduledExecutorService sender;
+
+    /**
+     * A flag telling whether the dispatcher is closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs an {@link OutboundDispatcher} with the provided {@code platform} and {@code configuration}.
+     *
+     * @param platform      the {@link TwitterPlatform} used to access the Twitter API
+     * @param configuration the platform's {@link Configuration}
+     * @throws IllegalArgumentException if the configuration contains an invalid queue size, interval, window, or
+     *                                  number of attempts
+     */
+    public OutboundDispatcher(@NonNull TwitterPlatform platform, @NonNull Configuration configuration) {
+        this.platform = platform;
+        this.queueSize = configuration.getInt(TwitterUtils.TWITTER_OUTBOUND_QUEUE_SIZE_KEY,
+                TwitterUtils.DEFAULT_OUTBOUND_QUEUE_SIZE);
+        long globalIntervalMillis = configuration.getLong(TwitterUtils.TWITTER_OUTBOUND_INTERVAL_KEY,
+                TwitterUtils.DEFAULT_OUTBOUND_INTERVAL);
+        long recipientIntervalMillis = configuration.getLong(TwitterUtils.TWITTER_OUTBOUND_RECIPIENT_INTERVAL_KEY,
+                TwitterUtils.DEFAULT_OUTBOUND_RECIPIENT_INTERVAL);
+        long dedupeWindow = configuration.getLong(TwitterUtils.TWITTER_OUTBOUND_DEDUPE_WINDOW_KEY,
+                TwitterUtils.DEFAULT_OUTBOUND_DEDUPE_WINDOW);
+        this.maxAttempts = configuration.getInt(TwitterUtils.TWITTER_OUTBOUND_MAX_ATTEMPTS_KEY,
+                TwitterUtils.DEFAULT_OUTBOUND_MAX_ATTEMPTS);
+        checkArgument(queueSize > 0 && maxAttempts > 0, "Cannot create the %s with the provided queue size (%s) "
+                + "and max attempts (%s), expected strictly positive integers", this.getClass().getSimpleName(),
+                queueSize, maxAttempts);
+        checkArgument(globalIntervalMillis >= 0 && recipientIntervalMillis >= 0 && dedupeWindow > 0, "Cannot "
+                + "create the %s with the provided intervals (%s, %s) and deduplication window (%s), expected "
+                + "positive values", this.getClass().getSimpleName(), globalIntervalMillis, recipientIntervalMillis,
+                dedupeWindow);
+        this.globalInterval = TimeUnit.MILLISECONDS.toNanos(globalIntervalMillis);
+        this.recipientInterval = TimeUnit.MILLISECONDS.toNanos(recipientIntervalMillis);
+        this.recentMessages = new LongTtlCache<>(dedupeCacheSize(queueSize, globalIntervalMillis, dedupeWindow),
+                dedupeWindow, TimeUnit.SECONDS);
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Outbound Dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the provided {@code message}.
+     * <p>
+     * This method does not block: the message is queued and sent in its send slot. The returned
+     * {@link CompletableFuture} is completed with the {@link DeliveryReport} of the message once it is sent, or once
+     * the dispatcher gave up sending it. Duplicate messages and messages submitted when the queue is full are
+     * reported immediately.
+     *
+     * @param message the {@link OutboundMessage} to send
+     * @return a {@link CompletableFuture} completed with the {@link DeliveryReport} of the message
+     */
+    public CompletableFuture<DeliveryReport> submit(@NonNull OutboundMessage message) {
+        if (closed) {
+            return CompletableFuture.completedFuture(new DeliveryReport(message, DeliveryStatus.CANCELLED, 0, -1,
+                    null));
+        }
+        synchronized (recentMessages) {
+            if (recentMessages.contains(message.getContentHash())) {
+                return CompletableFuture.completedFuture(new DeliveryReport(message, DeliveryStatus.DUPLICATE, 0,
+                        -1, null));
+            }
+            if (pendingCount.incrementAndGet() > queueSize) {
+                pendingCount.decrementAndGet();
+                Log.warn("{0} Cannot queue the {1}, the queue is full", this.getClass().getSimpleName(), message);
+                return CompletableFuture.completedFuture(new DeliveryReport(message, DeliveryStatus.REJECTED, 0,
+                        -1, null));
+            }
+            recentMessages.put(message.getContentHash(), Boolean.TRUE);
+        }
+        Delivery delivery = new Delivery(message);
+        pendingDeliveries.add(delivery);
+        this.schedule(delivery, System.nanoTime());
+        return delivery.future;
+    }
+
+    /**
+     * Returns the number of messages waiting to be sent.
+     *
+     * @return the number of messages waiting to be sent
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Closes the dispatcher.
+     * <p>
+     * The messages that are not sent yet are reported as {@link DeliveryStatus#CANCELLED}.
+     */
+    public void close() {
+        this.closed = true;
+        sender.shutdownNow();
+        for (Delivery delivery : pendingDeliveries) {
+            this.complete(delivery, DeliveryStatus.CANCELLED, -1, null);
+        }
+    }
+
+    /**
+     * Schedules the next attempt of the provided {@code delivery} in the first send slot after {@code earliest}.
+     *
+     * @param delivery the {@link Delivery} to schedule
+     * @param earliest the earliest time of the attempt, in {@link System#nanoTime()} units
+     */
+    private void schedule(Delivery delivery, long earliest) {
+        long slot = this.reserveSlot(delivery.message, earliest);
+        try {
+            sender.schedule(() -> this.attempt(delivery), slot - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            this.complete(delivery, DeliveryStatus.CANCELLED, -1, null);
+        }
+    }
+
+    /**
+     * Reserves the first send slot of the provided {@code message} after {@code earliest}.
+     *
+     * @param message  the {@link OutboundMessage} to reserve a slot for
+     * @param earliest the earliest time of the slot, in {@link System#nanoTime()} units
+     * @return the reserved slot, in {@link System#nanoTime()} units
+     */
+    private synchronized long reserveSlot(OutboundMessage message, long earliest) {
+        long now = System.nanoTime();
+        long slot = Math.max(earliest, now);
+        String recipient = null;
+        if (message.getRecipient() != null) {
+            recipient = message.getRecipient().toLowerCase(Locale.ROOT);
+            Long recipientSlot = recipientSlots.get(recipient);
+            if (recipientSlot != null) {
+                slot = Math.max(slot, recipientSlot);
+            }
+        }
+        long globalSlot = Math.max(now, nextGlobalSlot);
+        boolean extendsGlobalSlots = slot - globalSlot <= 0;
+        slot = Math.max(slot, globalSlot);
+        reservedSlots.headSet(globalSlot - globalInterval, true).clear();
+        /*
+         * Move the slot after the reserved slots closer than the global interval.
+         */
+        Long conflict;
+        while ((conflict = reservedSlots.higher(slot - globalInterval)) != null && conflict - slot < globalInterval) {
+            slot = conflict + globalInterval;
+        }
+        if (extendsGlobalSlots) {
+            nextGlobalSlot = slot + globalInterval;
+        } else {
+            reservedSlots.add(slot);
+        }
+        if (recipient != null) {
+            recipientSlots.put(recipient, slot + recipientInterval);
+            if (recipientSlots.size() > queueSize) {
+                /*
+                 * Forget the recipients that can receive a message right now, they don't constrain the next slots.
+                 */
+                recipientSlots.values().removeIf(nextSlot -> nextSlot - now <= 0);
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Attempts to send the message of the provided {@code delivery}.
+     *
+     * @param delivery the {@link Delivery} to attempt
+     */
+    private void attempt(Delivery delivery) {
+        if (closed) {
+            return;
+        }
+        String recipient = delivery.message.getRecipient() == null ? null :
+                delivery.message.getRecipient().toLowerCase(Locale.ROOT);
+        if (recipient != null) {
+            Long lastSend = lastRecipientSends.get(recipient);
+            long wait = lastSend == null ? 0 : lastSend + recipientInterval - System.nanoTime();
+            if (wait > 0) {
+                /*
+                 * The previous message sent to the recipient was late, keep the interval between the two messages.
+                 */
+                sender.schedule(() -> this.attempt(delivery), wait, TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+        delivery.attempts++;
+        try {
+            long id = this.send(delivery.message);
+            if (recipient != null) {
+                this.recordSend(recipient);
+            }
+            this.complete(delivery, DeliveryStatus.SENT, id, null);
+        } catch (RateLimitExceededException e) {
+            delivery.attempts--;
+            Log.debug("{0} Rescheduling the {1} in {2} seconds (rate limit reached)",
+                    this.getClass().getSimpleName(), delivery.message, e.getSecondsUntilReset());
+            this.schedule(delivery, System.nanoTime() + TimeUnit.SECONDS.toNanos(e.getSecondsUntilReset()));
+        } catch (CircuitOpenException e) {
+            delivery.attempts--;
+            Log.debug("{0} Rescheduling the {1} in {2} ms (circuit breaker open)", this.getClass().getSimpleName(),
+                    delivery.message, e.getMillisUntilRetry());
+            this.schedule(delivery, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(e.getMillisUntilRetry()));
+        } catch (TwitterException e) {
+            if (e.getErrorCode() == DUPLICATE_STATUS_ERROR_CODE) {
+                this.complete(delivery, DeliveryStatus.DUPLICATE, -1, e);
+            } else if (isRetryable(delivery.message, e) && delivery.attempts < maxAttempts) {
+                long delay = retryDelay(delivery.attempts);
+                Log.debug("{0} Retrying the {1} in {2} ms: {3}", this.getClass().getSimpleName(),
+                        delivery.message, delay, e.getMessage());
+                this.schedule(delivery, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+            } else {
+                /*
+                 * Forget the failed message, the bot can submit it again.
+                 */
+                recentMessages.invalidate(delivery.message.getContentHash());
+                this.complete(delivery, DeliveryStatus.FAILED, -1, e);
+            }
+        }
+    }
+
+    /**
+     * Records that a direct message has been sent to the provided {@code recipient}.
+     *
+     * @param recipient the lower-cased screen name of the recipient
+     */
+    private void recordSend(String recipient) {
+        long now = System.nanoTime();
+        lastRecipientSends.put(recipient, now);
+        if (lastRecipientSends.size() > queueSize) {
+            lastRecipientSends.values().removeIf(lastSend -> now - lastSend >= recipientInterval);
+        }
+    }
+
+    /**
+     * Sends the provided {@code message}.
+     * <p>
+     * The posted tweets are recorded in the platform's
+     * {@link com.xatkit.plugins.twitter.platform.service.ConversationIndex}.
+     *
+     * @param message the {@link OutboundMessage} to send
+     * @return the ID of the created tweet or direct message
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    private long send(OutboundMessage message) throws TwitterException {
+        switch (message.getKind()) {
+            case TWEET:
+                Status status;
+                long[] mediaIds = message.getMediaIds();
+                if (mediaIds.length == 0 && !message.isReply()) {
+                    status = platform.execute(TwitterEndpoint.STATUSES_UPDATE,
+                            twitter -> twitter.updateStatus(message.getText()));
+                } else {
+                    StatusUpdate statusUpdate = new StatusUpdate(message.getText());
+                    if (mediaIds.length > 0) {
+                        statusUpdate.setMediaIds(mediaIds);
+                    }
+                    if (message.isReply()) {
+                        statusUpdate.setInReplyToStatusId(message.getInReplyToStatusId());
+                        statusUpdate.setAutoPopulateReplyMetadata(true);
+                    }
+                    status = platform.execute(TwitterEndpoint.STATUSES_UPDATE,
+                            twitter -> twitter.updateStatus(statusUpdate));
+                }
+                platform.getConversationIndex().record(status);
+                return status.getId();
+            case DIRECT_MESSAGE:
+                return platform.execute(TwitterEndpoint.DIRECT_MESSAGES_SEND,
+                        twitter -> twitter.sendDirectMessage(message.getRecipient(), message.getText())).getId();
+            default:
+                throw new IllegalStateException("Unsupported message kind " + message.getKind());
+        }
+    }
+
+    /**
+     * Completes the provided {@code delivery} with the provided parameters.
+     *
+     * @param delivery the {@link Delivery} to complete
+     * @param status   the final status of the delivery
+     * @param id       the ID of the created tweet or direct message, or {@code -1} if the message has not been sent
+     * @param error    the error raised by the last attempt, or {@code null} if there is no error
+     */
+    private void complete(Delivery delivery, DeliveryStatus status, long id, TwitterException error) {
+        if (pendingDeliveries.remove(delivery)) {
+            pendingCount.decrementAndGet();
+            DeliveryReport report = new DeliveryReport(delivery.message, status, delivery.attempts, id, error);
+            if (status != DeliveryStatus.SENT) {
+                Log.warn("{0} {1}", this.getClass().getSimpleName(), report);
+            }
+            delivery.future.complete(report);
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code message} can be sent again after the provided {@code error}.
+     * <p>
+     * Tweets are retried after any transient error: a tweet that has already been posted is rejected by Twitter
+     * with the {@link #DUPLICATE_STATUS_ERROR_CODE} error. Direct messages do not have such protection, and are only
+     * retried if the {@code error} shows that Twitter did not process their request (see
+     * {@link #isRejectedBeforeProcessing(TwitterException)}).
+     *
+     * @param message the {@link OutboundMessage} that failed
+     * @param error   the {@link TwitterException} raised when sending the {@code message}
+     * @return {@code true} if the {@code message} can be sent again, {@code false} otherwise
+     */
+    private static boolean isRetryable(OutboundMessage message, TwitterException error) {
+        if (message.getKind() == OutboundMessage.Kind.DIRECT_MESSAGE) {
+            return isRejectedBeforeProcessing(error);
+        }
+        return error.isCausedByNetworkIssue() || error.exceededRateLimitation() || error.getStatusCode() >= 500;
+    }
+
+    /**
+     * Returns whether the provided {@code error} shows that Twitter did not process the request.
+     * <p>
+     * This is the case of the rate-limited ({@code 420} and {@code 429}) and unavailable ({@code 503}) responses,
+     * and of the network errors raised before the request is sent (the connection cannot be established). Other
+     * errors (e.g. read timeouts and other server errors) may be raised after Twitter accepted the request.
+     *
+     * @param error the {@link TwitterException} to check
+     * @return {@code true} if Twitter did not process the request, {@code false} otherwise
+     */
+    private static boolean isRejectedBeforeProcessing(TwitterException error) {
+        if (error.exceededRateLimitation() || error.getStatusCode() == SERVICE_UNAVAILABLE_STATUS) {
+            return true;
+        }
+        Throwable cause = error.getCause();
+        if (cause instanceof ConnectException || cause instanceof UnknownHostException
+                || cause instanceof NoRouteToHostException) {
+            return true;
+        }
+        return cause instanceof SocketTimeoutException && cause.getMessage() != null
+                && cause.getMessage().toLowerCase(Locale.ROOT).startsWith("connect");
+    }
+
+    /**
+     * Computes the number of message hashes to keep to honor the provided deduplication window.
+     * <p>
+     * The cache contains the hashes of the queued messages and of the messages sent within the {@code dedupeWindow}:
+     * the number of sent messages is bounded by the global interval, or by the default rate limits of the send
+     * endpoints if the messages are not paced. The result is bounded by {@link #MAX_DEDUPE_ENTRIES}, a warning is
+     * logged if it does not cover the entire window.
+     *
+     * @param queueSize            the maximum number of messages waiting to be sent
+     * @param globalIntervalMillis the minimum delay between two sends, in milliseconds
+     * @param dedupeWindow         the duration of the deduplication window, in seconds
+     * @return the number of message hashes to keep
+     */
+    private static int dedupeCacheSize(int queueSize, long globalIntervalMillis, long dedupeWindow) {
+        long windowMillis = TimeUnit.SECONDS.toMillis(dedupeWindow);
+        long sentInWindow;
+        if (globalIntervalMillis > 0) {
+            sentInWindow = windowMillis / globalIntervalMillis + 1;
+        } else {
+            sentInWindow = 0;
+            for (TwitterEndpoint endpoint : new TwitterEndpoint[]{TwitterEndpoint.STATUSES_UPDATE,
+                    TwitterEndpoint.DIRECT_MESSAGES_SEND}) {
+                long windows = (windowMillis + endpoint.getWindow() - 1) / endpoint.getWindow();
+                sentInWindow += windows * endpoint.getDefaultLimit();
+            }
+        }
+        long size = queueSize + sentInWindow;
+        if (size > MAX_DEDUPE_ENTRIES) {
+            Log.warn("{0} The deduplication window ({1} seconds) requires {2} entries, only the last {3} messages "
+                    + "will be deduplicated", OutboundDispatcher.class.getSimpleName(), dedupeWindow, size,
+                    MAX_DEDUPE_ENTRIES);
+            return MAX_DEDUPE_ENTRIES;
+        }
+        return (int) size;
+    }
+
+    /**
+     * Returns the delay before retrying a message after the provided number of {@code attempts}.
+     * <p>
+     * The delay grows exponentially with the number of attempts (up to {@link #MAX_RETRY_DELAY}), and half of it is
+     * randomized to spread the retries of concurrent messages.
+     *
+     * @param attempts the number of attempts made to send the message
+     * @return the delay before retrying the message, in milliseconds
+     */
+    private static long retryDelay(int attempts) {
+        long delay = Math.min(MAX_RETRY_DELAY, BASE_RETRY_DELAY << Math.min(attempts - 1, 16));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * The delivery state of a submitted message.
+     */
+    private static final class Delivery {
+
+        /**
+         * The message to send.
+         */
+        private final OutboundMessage message;
+
+        /**
+         * The {@link CompletableFuture} completed with the {@link DeliveryReport} of the message.
+         */
+        private final CompletableFuture<DeliveryReport> future = new CompletableFuture<>();
+
+        /**
+         * The number of attempts made to send the message.
+         * <p>
+         * This field is only accessed by the sender thread.
+         */
+        private int attempts;
+
+        /**
+         * Constructs a {@link Delivery} for the provided {@code message}.
+         *
+         * @param message the message to send
+         */
+        private Delivery(OutboundMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.xatkit.plugins.twitter.platform.outbound;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * An immutable tweet or direct message sent through the {@link OutboundDispatcher}.
+ * <p>
+ * Each message is associated to a 64-bit hash of its kind, recipient, replied tweet, text, and media, used by the
+ * dispatcher to reject identical messages sent within its deduplication window. Note that direct messages with the
+ * same text sent to different recipients (and replies with the same text to different tweets) have different
+ * hashes.
+ */
+public final class OutboundMessage {
+
+    /**
+     * The kinds of messages handled by the {@link OutboundDispatcher}.
+     */
+    public enum Kind {
+
+        /**
+         * A tweet posted on behalf of the configured user.
+         */
+        TWEET,
+
+        /**
+         * A direct message sent to a recipient.
+         */
+        DIRECT_MESSAGE
+    }
+
+    /**
+     * The kind of the message.
+     */
+    private final Kind kind;
+
+    /**
+     * The screen name of the recipient of the message, or {@code null} for tweets.
+     */
+    private final String recipient;
+
+    /**
+     * The ID of the tweet the message replies to, or {@code -1} if the message is not a reply.
+     */
+    private final long inReplyToStatusId;
+
+    /**
+     * The text of the message.
+     */
+    private final String text;
+
+    /**
+     * The IDs of the media attached to the message.
+     */
+    private final long[] mediaIds;
+
+    /**
+     * The hash of the message's kind, recipient, replied tweet, text, and media.
+     */
+    private final long contentHash;
+
+    /**
+     * Constructs an {@link OutboundMessage} with the provided {@code kind}, {@code recipient},
+     * {@code inReplyToStatusId}, {@code text}, and {@code mediaIds}.
+     *
+     * @param kind              the kind of the message
+     * @param recipient         the screen name of the recipient of the message, or {@code null} for tweets
+     * @param inReplyToStatusId the ID of the tweet the message replies to, or {@code -1}
+     * @param text              the text of the message
+     * @param mediaIds          the IDs of the media attached to the message
+     */
+    private OutboundMessage(Kind kind, String recipient, long inReplyToStatusId, String text, long[] mediaIds) {
+        this.kind = kind;
+        this.recipient = recipient;
+        this.inReplyToStatusId = inReplyToStatusId;
+        this.text = text;
+        this.mediaIds = mediaIds;
+        this.contentHash = hash(kind, recipient, inReplyToStatusId, text, mediaIds);
+    }
+
+    /**
+     * Creates a tweet with the provided {@code text} and {@code mediaIds}.
+     *
+     * @param text     the text of the tweet
+     * @param mediaIds the IDs of the media attached to the tweet (see
+     *                 {@link com.xatkit.plugins.twitter.platform.service.MediaUploader})
+     * @return the created {@link OutboundMessage}
+     */
+    public static OutboundMessage tweet(@NonNull String text, @NonNull long... mediaIds) {
+        return new OutboundMessage(Kind.TWEET, null, -1, text, mediaIds.clone());
+    }
+
+    /**
+     * Creates a tweet replying to the tweet with the provided {@code inReplyToStatusId}.
+     * <p>
+     * The reply is posted with the {@code auto_populate_reply_metadata} option: Twitter adds the mentions of the
+     * replied conversation to the reply, and threads it under the replied tweet even if its {@code text} does not
+     * mention the author of this tweet.
+     *
+     * @param inReplyToStatusId the ID of the tweet to reply to
+     * @param text              the text of the reply
+     * @param mediaIds          the IDs of the media attached to the reply (see
+     *                          {@link com.xatkit.plugins.twitter.platform.service.MediaUploader})
+     * @return the created {@link OutboundMessage}
+     */
+    public static OutboundMessage reply(long inReplyToStatusId, @NonNull String text, @NonNull long... mediaIds) {
+        checkArgument(inReplyToStatusId > 0, "Cannot create a reply to the tweet %s, expected a strictly positive "
+                + "tweet ID", inReplyToStatusId);
+        return new OutboundMessage(Kind.TWEET, null, inReplyToStatusId, text, mediaIds.clone());
+    }
+
+    /**
+     * Creates a direct message sent to the provided {@code recipient}.
+     *
+     * @param recipient the screen name of the recipient
+     * @param text      the text of the direct message
+     * @return the created {@link OutboundMessage}
+     */
+    public static OutboundMessage directMessage(@NonNull String recipient, @NonNull String text) {
+        return new OutboundMessage(Kind.DIRECT_MESSAGE, recipient, -1, text, new long[0]);
+    }
+
+    /**
+     * Returns the kind of the message.
+     *
+     * @return the kind of the message
+     */
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Returns the screen name of the recipient of the message.
+     *
+     * @return the screen name of the recipient, or {@code null} if the message is a tweet
+     */
+    public String getRecipient() {
+        return this.recipient;
+    }
+
+    /**
+     * Returns the ID of the tweet the message replies to.
+     *
+     * @return the ID of the replied tweet, or {@code -1} if the message is not a reply
+     */
+    public long getInReplyToStatusId() {
+        return this.inReplyToStatusId;
+    }
+
+    /**
+     * Returns whether the message is a reply to a tweet.
+     *
+     * @return {@code true} if the message is a reply, {@code false} otherwise
+     * @see #getInReplyToStatusId()
+     */
+    public boolean isReply() {
+        return this.inReplyToStatusId > 0;
+    }
+
+    /**
+     * Returns the text of the message.
+     *
+     * @return the text of the message
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Returns the IDs of the media attached to the message.
+     *
+     * @return the IDs of the media attached to the message (empty if the message does not contain any media)
+     */
+    public long[] getMediaIds() {
+        return this.mediaIds.clone();
+    }
+
+    /**
+     * Returns the hash of the message's kind, recipient, replied tweet, text, and media.
+     * <p>
+     * Recipients are compared case-insensitively, like Twitter screen names.
+     *
+     * @return the hash of the message
+     */
+    public long getContentHash() {
+        return this.contentHash;
+    }
+
+    @Override
+    public String toString() {
+        if (kind == Kind.DIRECT_MESSAGE) {
+            return "direct message to @" + recipient;
+        }
+        return this.isReply() ? "reply to tweet " + inReplyToStatusId : "tweet";
+    }
+
+    /**
+     * Computes the hash of the provided message components.
+     * <p>
+     * The hash is made of the first 64 bits of the SHA-256 digest of the components, meaning that collisions can be
+     * ignored in practice.
+     *
+     * @param kind              the kind of the message
+     * @param recipient         the screen name of the recipient of the message, or {@code null} for tweets
+     * @param inReplyToStatusId the ID of the tweet the message replies to, or {@code -1}
+     * @param text              the text of the message
+     * @param mediaIds          the IDs of the media attached to the message
+     * @return the hash of the message
+     */
+    private static long hash(Kind kind, String recipient, long inReplyToStatusId, String text, long[] mediaIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(kind.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (recipient != null) {
+                digest.update(recipient.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            ByteBuffer longBuffer = ByteBuffer.allocate(Long.BYTES);
+            digest.update(longBuffer.putLong(inReplyToStatusId).array());
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            for (long mediaId : mediaIds) {
+                longBuffer.clear();
+                digest.update(longBuffer.putLong(mediaId).array());
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * SHA-256 is available in every Java platform.
+             */
+            throw new IllegalStateException("Cannot compute the hash of the message", e);
+        }
+    }
+}
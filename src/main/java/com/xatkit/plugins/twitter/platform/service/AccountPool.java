@@ -0,0 +1,234 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+import twitter4j.TwitterFactory;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkNotNull;
+
+/**
+ * The pool of {@link TwitterAccount}s used by the platform to access the Twitter API.
+ * <p>
+ * The first account of the pool is its <i>primary</i> account: it is the account the bot acts on behalf of, and it
+ * is used for all the calls depending on the authenticated user (e.g. posting tweets or reading direct messages).
+ * The calls to {@link TwitterEndpoint#isAccountNeutral() account-neutral} endpoints (e.g. search and trends) are
+ * load-balanced across all the accounts of the pool: each call uses the account with the highest remaining budget
+ * for the endpoint, meaning that the read throughput of the platform grows with the number of accounts.
+ * <p>
+ * Pools are typically created from the platform's configuration with {@link #create(Configuration)}: the
+ * credentials defined with the {@code xatkit.twitter.consumerKey} (and related) keys define the primary account,
+ * and additional accounts are defined with indexed keys (e.g. {@code xatkit.twitter.accounts.0.consumerKey}, see
+ * {@link TwitterUtils#TWITTER_ACCOUNTS_PREFIX}). The clients of the accounts access the REST API located at
+ * {@link TwitterUtils#TWITTER_REST_BASE_URL_KEY} if this key is defined (e.g. to use a local simulator).
+ * <p>
+ * The HTTP settings of the clients (timeouts, compression, and proxy) are defined with the
+ * {@code xatkit.twitter.http.*} keys. twitter4j creates a single HTTP client for each set of HTTP settings (see
+ * {@link twitter4j.HttpClientFactory}): the clients of a pool share it, as well as the keep-alive connections it
+ * reuses.
+ */
+public class AccountPool {
+
+    /**
+     * The accounts of the pool, starting with the primary account.
+     */
+    private final List<TwitterAccount> accounts;
+
+    /**
+     * The counter used to rotate the accounts that have the same remaining budget.
+     */
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    /**
+     * Constructs an {@link AccountPool} containing the provided {@code accounts}.
+     *
+     * @param accounts the accounts of the pool, starting with the primary account
+     * @throws IllegalArgumentException if the provided {@code accounts} list is empty
+     */
+    public AccountPool(@NonNull List<TwitterAccount> accounts) {
+        checkArgument(!accounts.isEmpty(), "Cannot create an %s without accounts", this.getClass().getSimpleName());
+        this.accounts = Collections.unmodifiableList(new ArrayList<>(accounts));
+    }
+
+    /**
+     * Creates an {@link AccountPool} from the credentials contained in the provided {@code configuration}.
+     * <p>
+     * Each account has its own {@link Twitter} client and its own {@link RateLimitScheduler} configured with the
+     * provided {@code configuration}.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @return the created {@link AccountPool}
+     * @throws NullPointerException     if an account misses some of its credentials
+     * @throws IllegalArgumentException if the {@code configuration} does not contain any account
+     */
+    public static AccountPool create(@NonNull Configuration configuration) {
+        List<TwitterAccount> accounts = new ArrayList<>();
+        if (configuration.containsKey(TwitterUtils.TWITTER_CONSUMER_KEY)) {
+            accounts.add(createAccount(configuration, "primary",
+                    configuration.getString(TwitterUtils.TWITTER_CONSUMER_KEY),
+                    configuration.getString(TwitterUtils.TWITTER_CONSUMER_SECRET),
+                    configuration.getString(TwitterUtils.TWITTER_ACCESS_TOKEN_KEY),
+                    configuration.getString(TwitterUtils.TWITTER_ACCESS_SECRET_TOKEN_KEY)));
+        }
+        for (int i = 0; configuration.containsKey(TwitterUtils.TWITTER_ACCOUNTS_PREFIX + i + "."
+                + TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX); i++) {
+            String prefix = TwitterUtils.TWITTER_ACCOUNTS_PREFIX + i + ".";
+            accounts.add(createAccount(configuration,
+                    configuration.getString(prefix + TwitterUtils.TWITTER_ACCOUNT_NAME_SUFFIX, "account" + i),
+                    configuration.getString(prefix + TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX),
+                    configuration.getString(prefix + TwitterUtils.TWITTER_ACCOUNT_CONSUMER_SECRET_SUFFIX),
+                    configuration.getString(prefix + TwitterUtils.TWITTER_ACCOUNT_ACCESS_TOKEN_SUFFIX),
+                    configuration.getString(prefix + TwitterUtils.TWITTER_ACCOUNT_ACCESS_SECRET_TOKEN_SUFFIX)));
+        }
+        checkArgument(!accounts.isEmpty(), "Cannot create the Twitter accounts, the configuration does not contain "
+                + "the %s or %s0.%s keys", TwitterUtils.TWITTER_CONSUMER_KEY, TwitterUtils.TWITTER_ACCOUNTS_PREFIX,
+                TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX);
+        return new AccountPool(accounts);
+    }
+
+    /**
+     * Seeds the {@link RateLimitScheduler} of each account with the rate-limit status of the account.
+     * <p>
+     * Accounts whose rate-limit status cannot be retrieved use the default rate limits of the endpoints.
+     */
+    public void seed() {
+        for (TwitterAccount account : accounts) {
+            try {
+                account.getRateLimitScheduler().seed(account.getTwitter().getRateLimitStatus());
+            } catch (TwitterException e) {
+                Log.warn("{0} Cannot retrieve the rate-limit status of the account {1}, using the default rate "
+                        + "limits: {2}", this.getClass().getSimpleName(), account.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the primary account of the pool.
+     *
+     * @return the primary account of the pool
+     */
+    public TwitterAccount getPrimary() {
+        return accounts.get(0);
+    }
+
+    /**
+     * Returns the accounts of the pool.
+     *
+     * @return an unmodifiable list containing the accounts of the pool, starting with the primary account
+     */
+    public List<TwitterAccount> getAccounts() {
+        return this.accounts;
+    }
+
+    /**
+     * Selects the account to use to call the provided {@code endpoint}.
+     * <p>
+     * This method returns the primary account if the {@code endpoint} is not
+     * {@link TwitterEndpoint#isAccountNeutral() account-neutral}. Otherwise, it returns the account with the highest
+     * remaining budget for the {@code endpoint} (accounts with the same budget are used in turn), or the account
+     * whose budget is reset first if all the budgets are exhausted.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to call
+     * @return the selected {@link TwitterAccount}
+     */
+    public TwitterAccount select(@NonNull TwitterEndpoint endpoint) {
+        if (!endpoint.isAccountNeutral() || accounts.size() == 1) {
+            return this.getPrimary();
+        }
+        int start = Math.floorMod(rotation.getAndIncrement(), accounts.size());
+        TwitterAccount selected = null;
+        int selectedRemaining = 0;
+        TwitterAccount firstReset = null;
+        int firstResetSeconds = Integer.MAX_VALUE;
+        for (int i = 0; i < accounts.size(); i++) {
+            TwitterAccount account = accounts.get((start + i) % accounts.size());
+            RateLimitScheduler scheduler = account.getRateLimitScheduler();
+            int remaining = scheduler.getRemaining(endpoint);
+            if (remaining > selectedRemaining) {
+                selected = account;
+                selectedRemaining = remaining;
+            }
+            int secondsUntilReset = scheduler.getSecondsUntilReset(endpoint);
+            if (secondsUntilReset < firstResetSeconds) {
+                firstReset = account;
+                firstResetSeconds = secondsUntilReset;
+            }
+        }
+        return selected != null ? selected : firstReset;
+    }
+
+    /**
+     * Creates a {@link TwitterAccount} with the provided credentials.
+     *
+     * @param configuration     the platform's {@link Configuration}
+     * @param name              the name of the account
+     * @param consumerKey       the consumer key of the account's Twitter app
+     * @param consumerSecret    the consumer secret of the account's Twitter app
+     * @param accessToken       the access token of the account
+     * @param accessTokenSecret the access token secret of the account
+     * @return the created {@link TwitterAccount}
+     * @throws NullPointerException if one of the credentials is {@code null}
+     */
+    private static TwitterAccount createAccount(Configuration configuration, String name, String consumerKey,
+                                                String consumerSecret, String accessToken, String accessTokenSecret) {
+        checkNotNull(consumerSecret, "Cannot create the Twitter account %s, the consumer secret is missing", name);
+        checkNotNull(accessToken, "Cannot create the Twitter account %s, the access token is missing", name);
+        checkNotNull(accessTokenSecret, "Cannot create the Twitter account %s, the access token secret is missing",
+                name);
+        ConfigurationBuilder builder = createConfigurationBuilder(configuration)
+                .setOAuthConsumerKey(consumerKey)
+                .setOAuthConsumerSecret(consumerSecret)
+                .setOAuthAccessToken(accessToken)
+                .setOAuthAccessTokenSecret(accessTokenSecret);
+        Twitter twitter = new TwitterFactory(builder.build()).getInstance();
+        return new TwitterAccount(name, twitter, new RateLimitScheduler(configuration));
+    }
+
+    /**
+     * Creates a {@link ConfigurationBuilder} containing the REST and upload API URLs and the HTTP settings defined in
+     * the provided {@code configuration}.
+     * <p>
+     * The HTTP retries of twitter4j are disabled: failed calls are retried by the platform (see
+     * {@link ResiliencePolicy}).
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @return the created {@link ConfigurationBuilder}
+     */
+    private static ConfigurationBuilder createConfigurationBuilder(Configuration configuration) {
+        ConfigurationBuilder builder = new ConfigurationBuilder()
+                .setHttpConnectionTimeout(configuration.getInt(TwitterUtils.TWITTER_HTTP_CONNECT_TIMEOUT_KEY,
+                        TwitterUtils.DEFAULT_HTTP_CONNECT_TIMEOUT))
+                .setHttpReadTimeout(configuration.getInt(TwitterUtils.TWITTER_HTTP_READ_TIMEOUT_KEY,
+                        TwitterUtils.DEFAULT_HTTP_READ_TIMEOUT))
+                .setGZIPEnabled(configuration.getBoolean(TwitterUtils.TWITTER_HTTP_GZIP_KEY,
+                        TwitterUtils.DEFAULT_HTTP_GZIP))
+                .setHttpRetryCount(0);
+        String proxyHost = configuration.getString(TwitterUtils.TWITTER_HTTP_PROXY_HOST_KEY);
+        if (proxyHost != null) {
+            builder.setHttpProxyHost(proxyHost)
+                    .setHttpProxyPort(configuration.getInt(TwitterUtils.TWITTER_HTTP_PROXY_PORT_KEY,
+                            TwitterUtils.DEFAULT_HTTP_PROXY_PORT))
+                    .setHttpProxyUser(configuration.getString(TwitterUtils.TWITTER_HTTP_PROXY_USER_KEY))
+                    .setHttpProxyPassword(configuration.getString(TwitterUtils.TWITTER_HTTP_PROXY_PASSWORD_KEY));
+        }
+        String restBaseUrl = configuration.getString(TwitterUtils.TWITTER_REST_BASE_URL_KEY);
+        if (restBaseUrl != null) {
+            builder.setRestBaseURL(restBaseUrl.endsWith("/") ? restBaseUrl : restBaseUrl + "/");
+        }
+        String uploadBaseUrl = configuration.getString(TwitterUtils.TWITTER_UPLOAD_BASE_URL_KEY, restBaseUrl);
+        if (uploadBaseUrl != null) {
+            builder.setUploadBaseURL(uploadBaseUrl.endsWith("/") ? uploadBaseUrl : uploadBaseUrl + "/");
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,198 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.format.TrendRecord;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The trending topics of multiple locations, merged into a single ranked view.
+ * <p>
+ * The trends of the locations are deduplicated by name (ignoring case and accents, see
+ * {@link TextFolding#fold(CharSequence)}): each merged {@link TrendRecord} holds the total tweet volume of the trend
+ * across its locations and the WOEIDs of these locations. The merged trends are ranked by total tweet volume, then
+ * by number of locations, then by their best rank in a single location.
+ * <p>
+ * The view may be partial: the locations whose trends could not be retrieved before the deadline of the request (or
+ * whose request failed) are listed in {@link #getMissingWoeids()}.
+ *
+ * @see TrendService#getTrends(java.util.Collection, long, java.util.concurrent.TimeUnit)
+ */
+public final class AggregatedTrends {
+
+    /**
+     * The merged trends, ordered by rank.
+     */
+    private final List<TrendRecord> trends;
+
+    /**
+     * The WOEIDs of the locations whose trends have been merged.
+     */
+    private final List<Integer> woeids;
+
+    /**
+     * The WOEIDs of the locations whose trends could not be retrieved.
+     */
+    private final List<Integer> missingWoeids;
+
+    /**
+     * Constructs an {@link AggregatedTrends} with the provided {@code trends}, {@code woeids}, and
+     * {@code missingWoeids}.
+     *
+     * @param trends        the merged trends, ordered by rank
+     * @param woeids        the WOEIDs of the locations whose trends have been merged
+     * @param missingWoeids the WOEIDs of the locations whose trends could not be retrieved
+     */
+    private AggregatedTrends(List<TrendRecord> trends, List<Integer> woeids, List<Integer> missingWoeids) {
+        this.trends = Collections.unmodifiableList(trends);
+        this.woeids = Collections.unmodifiableList(woeids);
+        this.missingWoeids = Collections.unmodifiableList(missingWoeids);
+    }
+
+    /**
+     * Merges the provided {@code locationTrends} into an {@link AggregatedTrends}.
+     *
+     * @param locationTrends the {@link CachedTrends} of the locations to merge
+     * @param missingWoeids  the WOEIDs of the locations whose trends could not be retrieved
+     * @return the created {@link AggregatedTrends}
+     */
+    public static AggregatedTrends merge(@NonNull List<CachedTrends> locationTrends,
+                                         @NonNull List<Integer> missingWoeids) {
+        Map<String, MergedTrend> merged = new LinkedHashMap<>();
+        List<Integer> woeids = new ArrayList<>(locationTrends.size());
+        for (CachedTrends cachedTrends : locationTrends) {
+            woeids.add(cachedTrends.getWoeid());
+            for (TrendRecord trend : cachedTrends.getRecords()) {
+                merged.computeIfAbsent(TextFolding.fold(trend.getName()), key -> new MergedTrend(trend)).add(trend);
+            }
+        }
+        List<MergedTrend> ranked = new ArrayList<>(merged.values());
+        ranked.sort(Comparator.comparingLong((MergedTrend trend) -> trend.tweetVolume).reversed()
+                .thenComparing(Comparator.comparingInt((MergedTrend trend) -> trend.woeids.size()).reversed())
+                .thenComparingInt(trend -> trend.bestRank));
+        List<TrendRecord> records = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            records.add(ranked.get(i).toRecord(i + 1));
+        }
+        return new AggregatedTrends(records, woeids, new ArrayList<>(missingWoeids));
+    }
+
+    /**
+     * Returns the merged trends, ordered by rank.
+     * <p>
+     * The {@link TrendRecord#getTweetVolume()} of a merged trend is the sum of its known volumes in its locations
+     * (or {@code -1} if Twitter does not provide it for any location), and {@link TrendRecord#getWoeids()} contains
+     * the WOEIDs of its locations.
+     *
+     * @return an unmodifiable list containing the merged trends
+     */
+    public List<TrendRecord> getTrends() {
+        return this.trends;
+    }
+
+    /**
+     * Returns the WOEIDs of the locations whose trends have been merged.
+     *
+     * @return an unmodifiable list containing the WOEIDs of the merged locations
+     */
+    public List<Integer> getWoeids() {
+        return this.woeids;
+    }
+
+    /**
+     * Returns the WOEIDs of the locations whose trends could not be retrieved.
+     * <p>
+     * These locations have not been retrieved before the deadline of the request, or their request failed.
+     *
+     * @return an unmodifiable list containing the WOEIDs of the missing locations
+     */
+    public List<Integer> getMissingWoeids() {
+        return this.missingWoeids;
+    }
+
+    /**
+     * Returns whether the trends of all the requested locations have been merged.
+     *
+     * @return {@code true} if no location is missing, {@code false} otherwise
+     */
+    public boolean isComplete() {
+        return this.missingWoeids.isEmpty();
+    }
+
+    /**
+     * Returns whether this view does not contain any trend.
+     *
+     * @return {@code true} if this view does not contain any trend, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.trends.isEmpty();
+    }
+
+    /**
+     * A trend merged over multiple locations.
+     */
+    private static final class MergedTrend {
+
+        /**
+         * The trend used to render the merged trend (i.e. the first one that has been merged).
+         */
+        private final TrendRecord first;
+
+        /**
+         * The WOEIDs of the locations of the merged trend.
+         */
+        private final List<Integer> woeids = new ArrayList<>();
+
+        /**
+         * The total tweet volume of the merged trend, or {@code -1} if it is unknown.
+         */
+        private long tweetVolume = -1;
+
+        /**
+         * The best rank of the merged trend in a single location.
+         */
+        private int bestRank = Integer.MAX_VALUE;
+
+        /**
+         * Constructs a {@link MergedTrend} rendered with the provided {@code first} trend.
+         *
+         * @param first the trend used to render the merged trend
+         */
+        private MergedTrend(TrendRecord first) {
+            this.first = first;
+        }
+
+        /**
+         * Merges the provided {@code trend} into this trend.
+         *
+         * @param trend the {@link TrendRecord} of a location to merge
+         */
+        private void add(TrendRecord trend) {
+            for (Integer woeid : trend.getWoeids()) {
+                if (!woeids.contains(woeid)) {
+                    woeids.add(woeid);
+                }
+            }
+            if (trend.getTweetVolume() > 0) {
+                tweetVolume = Math.max(tweetVolume, 0) + trend.getTweetVolume();
+            }
+            bestRank = Math.min(bestRank, trend.getRank());
+        }
+
+        /**
+         * Creates the {@link TrendRecord} of the merged trend.
+         *
+         * @param rank the rank of the merged trend
+         * @return the created {@link TrendRecord}
+         */
+        private TrendRecord toRecord(int rank) {
+            return new TrendRecord(rank, first.getName(), first.getUrl(), first.getQuery(),
+                    (int) Math.min(tweetVolume, Integer.MAX_VALUE), woeids);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.format.ResultFormatter;
+import com.xatkit.plugins.twitter.platform.format.TrendRecord;
+import lombok.NonNull;
+import twitter4j.Trend;
+import twitter4j.Trends;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link Trends} of a location cached by the {@link TrendService}.
+ * <p>
+ * This class also caches the {@link TrendRecord}s of the trends and their formatted rendering (see
+ * {@link #getFormatted(ResultFormatter)}), meaning that the trends are formatted at most once per refresh regardless
+ * of the number of actions returning them.
+ */
+public final class CachedTrends {
+
+    /**
+     * The WOEID of the location of the cached {@link Trends}.
+     */
+    private final int woeid;
+
+    /**
+     * The cached {@link Trends}.
+     */
+    private final Trends trends;
+
+    /**
+     * The time (in milliseconds since the epoch) until which the cached {@link Trends} are fresh.
+     */
+    private final long freshUntil;
+
+    /**
+     * The {@link TrendRecord}s of the cached trends.
+     * <p>
+     * This field is lazily initialized by {@link #getRecords()}.
+     */
+    private volatile List<TrendRecord> records;
+
+    /**
+     * The last formatted rendering of the cached trends.
+     * <p>
+     * This field is lazily initialized by {@link #getFormatted(ResultFormatter)}.
+     */
+    private volatile Rendering<?> rendering;
+
+    /**
+     * Constructs a {@link CachedTrends} with the provided {@code woeid}, {@code trends}, and {@code freshUntil} time.
+     *
+     * @param woeid      the WOEID of the location of the {@code trends}
+     * @param trends     the {@link Trends} to cache
+     * @param freshUntil the time (in milliseconds since the epoch) until which {@code trends} are fresh
+     */
+    public CachedTrends(int woeid, @NonNull Trends trends, long freshUntil) {
+        this.woeid = woeid;
+        this.trends = trends;
+        this.freshUntil = freshUntil;
+    }
+
+    /**
+     * Returns the WOEID of the location of the cached {@link Trends}.
+     *
+     * @return the WOEID of the location of the cached {@link Trends}
+     */
+    public int getWoeid() {
+        return this.woeid;
+    }
+
+    /**
+     * Returns the cached {@link Trends}.
+     *
+     * @return the cached {@link Trends}
+     */
+    public Trends getTrends() {
+        return this.trends;
+    }
+
+    /**
+     * Returns whether the cached {@link Trends} are empty.
+     *
+     * @return {@code true} if the cached {@link Trends} do not contain any trend, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.trends.getTrends().length == 0;
+    }
+
+    /**
+     * Returns whether the cached {@link Trends} are still fresh at the provided time.
+     *
+     * @param now the current time, in milliseconds since the epoch
+     * @return {@code true} if the cached {@link Trends} are fresh, {@code false} otherwise
+     */
+    public boolean isFresh(long now) {
+        return now < this.freshUntil;
+    }
+
+    /**
+     * Returns the {@link TrendRecord}s of the cached trends, ordered by rank.
+     * <p>
+     * The records are created the first time this method is called, and the returned list is shared by all the
+     * callers (it cannot be modified).
+     *
+     * @return an unmodifiable list containing the {@link TrendRecord}s of the cached trends
+     */
+    public List<TrendRecord> getRecords() {
+        List<TrendRecord> result = this.records;
+        if (result == null) {
+            Trend[] trendArray = trends.getTrends();
+            List<TrendRecord> built = new ArrayList<>(trendArray.length);
+            for (int i = 0; i < trendArray.length; i++) {
+                built.add(TrendRecord.of(trendArray[i], i + 1, woeid));
+            }
+            result = Collections.unmodifiableList(built);
+            this.records = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached trends formatted with the provided {@code formatter}.
+     * <p>
+     * The returned {@link FormattedResults} is shared by the callers using the same {@code formatter}, meaning that
+     * each trend is formatted at most once per refresh.
+     *
+     * @param formatter the {@link ResultFormatter} used to format the trends
+     * @param <T>       the type of the formatted trends
+     * @return the {@link FormattedResults} rendering the cached trends
+     */
+    @SuppressWarnings("unchecked")
+    public <T> FormattedResults<TrendRecord, T> getFormatted(@NonNull ResultFormatter<T> formatter) {
+        Rendering<?> current = this.rendering;
+        if (current == null || current.formatter != formatter) {
+            current = new Rendering<>(formatter, FormattedResults.ofTrends(this.getRecords(), formatter));
+            this.rendering = current;
+        }
+        return (FormattedResults<TrendRecord, T>) current.results;
+    }
+
+    /**
+     * The cached trends formatted with a {@link ResultFormatter}.
+     *
+     * @param <T> the type of the formatted trends
+     */
+    private static final class Rendering<T> {
+
+        /**
+         * The {@link ResultFormatter} used to format the trends.
+         */
+        private final ResultFormatter<T> formatter;
+
+        /**
+         * The formatted trends.
+         */
+        private final FormattedResults<TrendRecord, T> results;
+
+        /**
+         * Constructs a {@link Rendering} with the provided {@code formatter} and {@code results}.
+         *
+         * @param formatter the {@link ResultFormatter} used to format the trends
+         * @param results   the formatted trends
+         */
+        private Rendering(ResultFormatter<T> formatter, FormattedResults<TrendRecord, T> results) {
+            this.formatter = formatter;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * Thrown by the {@link ResiliencePolicy} when a call is rejected because the circuit breaker of its endpoint is open.
+ * <p>
+ * This exception is thrown before accessing the Twitter API, meaning that the rejected call did not consume any
+ * budget.
+ */
+public class CircuitOpenException extends TwitterException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The endpoint the rejected call targeted.
+     */
+    private final TwitterEndpoint endpoint;
+
+    /**
+     * The number of milliseconds until the circuit breaker of the endpoint lets a probe call through.
+     */
+    private final long millisUntilRetry;
+
+    /**
+     * Constructs a {@link CircuitOpenException} for the provided {@code endpoint}.
+     *
+     * @param endpoint         the endpoint the rejected call targeted
+     * @param millisUntilRetry the number of milliseconds until the circuit breaker of {@code endpoint} lets a probe
+     *                         call through
+     */
+    public CircuitOpenException(@NonNull TwitterEndpoint endpoint, long millisUntilRetry) {
+        super("The circuit breaker of " + endpoint.getResource() + " is open, the endpoint will be probed in "
+                + millisUntilRetry + " ms");
+        this.endpoint = endpoint;
+        this.millisUntilRetry = millisUntilRetry;
+    }
+
+    /**
+     * Returns the endpoint the rejected call targeted.
+     *
+     * @return the endpoint the rejected call targeted
+     */
+    public TwitterEndpoint getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Returns the number of milliseconds until the circuit breaker of the endpoint lets a probe call through.
+     *
+     * @return the number of milliseconds until the circuit breaker of the endpoint lets a probe call through
+     */
+    public long getMillisUntilRetry() {
+        return this.millisUntilRetry;
+    }
+}
@@ -0,0 +1,23 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+/**
+ * The states of the circuit breaker of an endpoint (see {@link ResiliencePolicy}).
+ */
+public enum CircuitState {
+
+    /**
+     * The calls to the endpoint are performed normally.
+     */
+    CLOSED,
+
+    /**
+     * The endpoint failed too many times in a row, and its calls are rejected without accessing the Twitter API.
+     */
+    OPEN,
+
+    /**
+     * The circuit breaker has been open for the configured duration, and a single probe call is let through to check
+     * whether the endpoint has recovered.
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,448 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.TweetRecord;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A bounded in-memory index of the reply graph of the tweets seen and posted by the platform.
+ * <p>
+ * This class records each tweet with the ID of the tweet it replies to (its parent) and the ID of the root of its
+ * conversation, and answers thread queries (see {@link #getThread(long)}) without accessing the Twitter API. The
+ * tweets are stored in an open-addressing table keyed by their primitive {@code long} IDs, and the index never holds
+ * more than {@code maxSize} tweets: when it is full the oldest recorded tweet is evicted. The memory footprint of the
+ * table is allocated once when the index is created.
+ * <p>
+ * The tweets returned by the searches, the mentions, the webhook and stream event providers, and the tweets posted
+ * by the {@link com.xatkit.plugins.twitter.platform.outbound.OutboundDispatcher} are recorded by the platform. The
+ * ancestors that have not been recorded can be retrieved with {@link #resolveThread(long, int)}, which fetches them
+ * with {@link twitter4j.Twitter#showStatus(long)} and records them for the following queries.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see TwitterPlatform#getConversationIndex()
+ */
+public class ConversationIndex {
+
+    /**
+     * The parent ID of the tweets that do not reply to another tweet.
+     * <p>
+     * This is the value returned by {@link Status#getInReplyToStatusId()} for these tweets.
+     */
+    public static final long NO_PARENT = -1L;
+
+    /**
+     * The error code returned by Twitter when a tweet does not exist (or has been deleted).
+     */
+    private static final int NO_STATUS_FOUND_ERROR_CODE = 144;
+
+    /**
+     * The error code returned by Twitter when a tweet belongs to a protected account.
+     */
+    private static final int NOT_AUTHORIZED_ERROR_CODE = 179;
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The maximum number of tweets stored in this index.
+     */
+    private final int maxSize;
+
+    /**
+     * The mask used to compute the slot of a tweet ID in the table ({@code capacity - 1}).
+     */
+    private final int mask;
+
+    /**
+     * The tweet IDs of the table.
+     */
+    private final long[] ids;
+
+    /**
+     * The parent IDs of the table, or {@link #NO_PARENT}.
+     */
+    private final long[] parents;
+
+    /**
+     * The conversation root IDs of the table.
+     * <p>
+     * The root of a tweet is the oldest ancestor known when it was recorded, and is refined by
+     * {@link #getRootId(long)} when older ancestors are recorded later.
+     */
+    private final long[] roots;
+
+    /**
+     * The records of the table.
+     * <p>
+     * A {@code null} record marks an empty slot.
+     */
+    private final TweetRecord[] records;
+
+    /**
+     * The tweet IDs in insertion order, used as a circular buffer to evict the oldest tweets.
+     */
+    private final long[] insertionOrder;
+
+    /**
+     * The index of the oldest tweet ID in {@link #insertionOrder}.
+     */
+    private int insertionHead;
+
+    /**
+     * The number of tweets stored in the index.
+     */
+    private int size;
+
+    /**
+     * The number of tweets of the threads built by {@link #resolveThread(long, int)} that were found in the index.
+     */
+    private long hitCount;
+
+    /**
+     * The number of tweets of the threads built by {@link #resolveThread(long, int)} that were retrieved from the
+     * Twitter API.
+     */
+    private long missCount;
+
+    /**
+     * Constructs a {@link ConversationIndex} with the provided {@code platform} and {@code maxSize}.
+     *
+     * @param platform the {@link TwitterPlatform} used to access the Twitter API
+     * @param maxSize  the maximum number of tweets to store in the index
+     * @throws IllegalArgumentException if {@code maxSize} is lower than {@code 1}
+     */
+    public ConversationIndex(@NonNull TwitterPlatform platform, int maxSize) {
+        checkArgument(maxSize > 0, "Cannot create a %s with the provided maxSize %s, expected a strictly positive "
+                + "integer", this.getClass().getSimpleName(), maxSize);
+        this.platform = platform;
+        this.maxSize = maxSize;
+        /*
+         * Keep the load factor under 0.5 to bound the probe sequences.
+         */
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.ids = new long[capacity];
+        this.parents = new long[capacity];
+        this.roots = new long[capacity];
+        this.records = new TweetRecord[capacity];
+        this.insertionOrder = new long[maxSize];
+    }
+
+    /**
+     * Records the provided {@code status} and the tweet it retweets, if any.
+     *
+     * @param status the {@link Status} to record
+     */
+    public void record(@NonNull Status status) {
+        if (status.getRetweetedStatus() != null) {
+            this.record(status.getRetweetedStatus());
+        }
+        this.record(TweetRecord.of(status), status.getInReplyToStatusId());
+    }
+
+    /**
+     * Records the provided {@code tweet} as a reply to the tweet with the provided {@code parentId}.
+     * <p>
+     * Recording a tweet that is already in the index updates its record without changing its position in the
+     * eviction order.
+     *
+     * @param tweet    the {@link TweetRecord} to record
+     * @param parentId the ID of the tweet {@code tweet} replies to, or {@link #NO_PARENT}
+     */
+    public synchronized void record(@NonNull TweetRecord tweet, long parentId) {
+        long id = tweet.getId();
+        long root;
+        if (parentId == NO_PARENT) {
+            root = id;
+        } else {
+            int parentSlot = findSlot(parentId);
+            root = parentSlot >= 0 ? roots[parentSlot] : parentId;
+        }
+        int slot = findSlot(id);
+        if (slot < 0) {
+            if (size == maxSize) {
+                this.remove(insertionOrder[insertionHead]);
+                insertionHead = (insertionHead + 1) % maxSize;
+            }
+            slot = index(id);
+            while (records[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            insertionOrder[(insertionHead + size) % maxSize] = id;
+            size++;
+        }
+        ids[slot] = id;
+        parents[slot] = parentId;
+        roots[slot] = root;
+        records[slot] = tweet;
+    }
+
+    /**
+     * Returns whether the index contains the tweet with the provided {@code id}.
+     *
+     * @param id the ID of the tweet to check
+     * @return {@code true} if the index contains the tweet, {@code false} otherwise
+     */
+    public synchronized boolean contains(long id) {
+        return findSlot(id) >= 0;
+    }
+
+    /**
+     * Returns the recorded tweet with the provided {@code id}.
+     *
+     * @param id the ID of the tweet to retrieve
+     * @return the {@link TweetRecord} of the tweet, or {@code null} if the index does not contain it
+     */
+    public synchronized TweetRecord get(long id) {
+        int slot = findSlot(id);
+        return slot < 0 ? null : records[slot];
+    }
+
+    /**
+     * Returns the ID of the tweet the tweet with the provided {@code id} replies to.
+     *
+     * @param id the ID of the tweet to retrieve the parent of
+     * @return the ID of the parent tweet, or {@link #NO_PARENT} if the tweet is not a reply or if the index does not
+     * contain it
+     */
+    public synchronized long getParentId(long id) {
+        int slot = findSlot(id);
+        return slot < 0 ? NO_PARENT : parents[slot];
+    }
+
+    /**
+     * Returns the ID of the root of the conversation containing the tweet with the provided {@code id}.
+     * <p>
+     * The root is the oldest known ancestor of the tweet: it may not be recorded in the index (e.g. if the tweet
+     * replies to a tweet the platform has not seen), and may not be the actual root of the conversation if older
+     * ancestors have not been seen yet.
+     *
+     * @param id the ID of the tweet to retrieve the conversation root of
+     * @return the ID of the root of the conversation, or {@code id} if the index does not contain the tweet
+     */
+    public synchronized long getRootId(long id) {
+        int slot = findSlot(id);
+        if (slot < 0) {
+            return id;
+        }
+        long root = roots[slot];
+        /*
+         * Follow the roots of the recorded ancestors (bounded by the size of the index in case of a corrupted
+         * cycle), and store the result to shorten the following lookups.
+         */
+        for (int hops = 0; hops < size; hops++) {
+            int rootSlot = findSlot(root);
+            if (rootSlot < 0 || roots[rootSlot] == root) {
+                break;
+            }
+            root = roots[rootSlot];
+        }
+        roots[slot] = root;
+        return root;
+    }
+
+    /**
+     * Returns the recorded thread of the tweet with the provided {@code id}.
+     * <p>
+     * The thread contains the recorded ancestors of the tweet followed by the tweet itself, from the oldest to the
+     * newest. It stops at the first ancestor that is not recorded in the index, see {@link #resolveThread(long, int)}
+     * to retrieve the missing ancestors from the Twitter API.
+     *
+     * @param id the ID of the tweet to retrieve the thread of
+     * @return an unmodifiable list containing the tweets of the thread (empty if the index does not contain the
+     * tweet)
+     */
+    public synchronized List<TweetRecord> getThread(long id) {
+        List<TweetRecord> thread = new ArrayList<>();
+        long current = id;
+        while (current != NO_PARENT && thread.size() < size) {
+            int slot = findSlot(current);
+            if (slot < 0) {
+                break;
+            }
+            thread.add(records[slot]);
+            current = parents[slot];
+        }
+        Collections.reverse(thread);
+        return Collections.unmodifiableList(thread);
+    }
+
+    /**
+     * Returns the thread of the tweet with the provided {@code id}, retrieving its missing ancestors from the
+     * Twitter API.
+     * <p>
+     * This method walks the ancestors of the tweet in the index, and only calls
+     * {@link twitter4j.Twitter#showStatus(long)} for the tweets that have not been recorded (up to
+     * {@code maxLookups} calls). The retrieved tweets are recorded, meaning that the following queries on the same
+     * conversation are answered locally. The thread stops at the first ancestor that does not exist anymore or that
+     * belongs to a protected account, or when {@code maxLookups} is reached.
+     *
+     * @param id         the ID of the tweet to retrieve the thread of
+     * @param maxLookups the maximum number of tweets to retrieve from the Twitter API
+     * @return an unmodifiable list containing the tweets of the thread, from the oldest to the newest (empty if the
+     * tweet itself cannot be retrieved)
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public List<TweetRecord> resolveThread(long id, int maxLookups) throws TwitterException {
+        List<TweetRecord> thread = new ArrayList<>();
+        int lookups = 0;
+        long current = id;
+        while (current != NO_PARENT && thread.size() <= maxSize) {
+            TweetRecord tweet;
+            long parentId;
+            synchronized (this) {
+                int slot = findSlot(current);
+                tweet = slot < 0 ? null : records[slot];
+                parentId = slot < 0 ? NO_PARENT : parents[slot];
+                if (tweet != null) {
+                    hitCount++;
+                } else if (lookups < maxLookups) {
+                    missCount++;
+                }
+            }
+            if (tweet == null) {
+                if (lookups == maxLookups) {
+                    break;
+                }
+                lookups++;
+                long statusId = current;
+                Status status;
+                try {
+                    status = platform.execute(TwitterEndpoint.STATUSES_SHOW, twitter -> twitter.showStatus(statusId));
+                } catch (TwitterException e) {
+                    if (e.getErrorCode() == NO_STATUS_FOUND_ERROR_CODE
+                            || e.getErrorCode() == NOT_AUTHORIZED_ERROR_CODE) {
+                        Log.debug("{0} Cannot retrieve the tweet {1} of the thread of {2}: {3}",
+                                this.getClass().getSimpleName(), String.valueOf(statusId), String.valueOf(id),
+                                e.getErrorMessage());
+                        break;
+                    }
+                    throw e;
+                }
+                this.record(status);
+                tweet = TweetRecord.of(status);
+                parentId = status.getInReplyToStatusId();
+            }
+            thread.add(tweet);
+            current = parentId;
+        }
+        Collections.reverse(thread);
+        return Collections.unmodifiableList(thread);
+    }
+
+    /**
+     * Returns the number of tweets stored in the index.
+     *
+     * @return the number of tweets stored in the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of tweets stored in the index.
+     *
+     * @return the maximum number of tweets stored in the index
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of tweets of the threads built by {@link #resolveThread(long, int)} that were found in the
+     * index.
+     *
+     * @return the number of index hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of tweets of the threads built by {@link #resolveThread(long, int)} that were retrieved from
+     * the Twitter API.
+     *
+     * @return the number of index misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Removes all the tweets of the index.
+     */
+    public synchronized void clear() {
+        Arrays.fill(records, null);
+        insertionHead = 0;
+        size = 0;
+    }
+
+    /**
+     * Removes the tweet with the provided {@code id} from the table.
+     * <p>
+     * This method does not update {@link #insertionOrder}, callers are responsible of removing the tweet from it.
+     *
+     * @param id the ID of the tweet to remove
+     */
+    private void remove(long id) {
+        int hole = findSlot(id);
+        int current = hole;
+        while (true) {
+            current = (current + 1) & mask;
+            if (records[current] == null) {
+                break;
+            }
+            int ideal = index(ids[current]);
+            if (((current - ideal) & mask) >= ((current - hole) & mask)) {
+                ids[hole] = ids[current];
+                parents[hole] = parents[current];
+                roots[hole] = roots[current];
+                records[hole] = records[current];
+                hole = current;
+            }
+        }
+        records[hole] = null;
+        size--;
+    }
+
+    /**
+     * Returns the slot containing the tweet with the provided {@code id}.
+     *
+     * @param id the ID of the tweet to search
+     * @return the slot containing the tweet, or {@code -1} if the table does not contain it
+     */
+    private int findSlot(long id) {
+        int slot = index(id);
+        while (records[slot] != null) {
+            if (ids[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the initial slot of the provided tweet {@code id}.
+     *
+     * @param id the ID of the tweet to compute the slot of
+     * @return the initial slot of the tweet
+     */
+    private int index(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,287 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.DirectMessage;
+import twitter4j.DirectMessageList;
+import twitter4j.Paging;
+import twitter4j.ResponseList;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Retrieves the direct messages and mentions received since the last poll.
+ * <p>
+ * This class keeps a high-water mark (the highest ID already returned) per account and per kind of item, and only
+ * returns the items above it. When a mark is set, the following result pages are fetched until the mark is reached
+ * (up to a configurable number of pages). If the pages run out before the mark is reached, the mark is not moved and
+ * the position of the last fetched page is kept: the next poll resumes from this position until the mark is reached,
+ * and only then moves the mark to the highest returned ID. This means that a backlog accumulated between two polls is
+ * drained incrementally, without skipping items. The first poll of an account only returns the first page and
+ * initializes the mark.
+ * <p>
+ * The marks are identified by {@code <kind>/<accountId>} keys (e.g. {@code dm/12345}), and can be exported and
+ * restored with {@link #getHighWaterMarks()} and {@link #restoreHighWaterMarks(Map)}. Updated marks are recorded in
+ * the platform's {@link com.xatkit.plugins.twitter.platform.state.StateStore}, meaning that the items returned before
+ * a restart are not returned again once the marks are restored. The position of a backlog that is not drained yet is
+ * not persisted: after a restart the backlog is fetched again from the newest items, and the items of the backlog
+ * returned before the restart can be returned again.
+ *
+ * @see TwitterPlatform#getIncrementalReceiver()
+ */
+public class IncrementalReceiver {
+
+    /**
+     * The prefix of the high-water mark keys of direct messages.
+     */
+    private static final String DIRECT_MESSAGES_MARK_PREFIX = "dm/";
+
+    /**
+     * The prefix of the high-water mark keys of mentions.
+     */
+    private static final String MENTIONS_MARK_PREFIX = "mentions/";
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The maximum number of pages fetched by a single poll.
+     */
+    private final int maxPages;
+
+    /**
+     * The high-water marks of the polled accounts.
+     */
+    private final ConcurrentMap<String, Long> highWaterMarks = new ConcurrentHashMap<>();
+
+    /**
+     * The backlogs that are not drained yet, by high-water mark key.
+     * <p>
+     * This map is guarded by {@code this}.
+     */
+    private final Map<String, Backlog> backlogs = new HashMap<>();
+
+    /**
+     * Constructs an {@link IncrementalReceiver} with the provided {@code platform}.
+     *
+     * @param platform the {@link TwitterPlatform} used to access the Twitter API
+     * @param maxPages the maximum number of pages fetched by a single poll
+     * @throws IllegalArgumentException if {@code maxPages} is lower than {@code 1}
+     */
+    public IncrementalReceiver(@NonNull TwitterPlatform platform, int maxPages) {
+        checkArgument(maxPages > 0, "Cannot create a %s with the provided maxPages %s, expected a strictly positive "
+                + "integer", this.getClass().getSimpleName(), maxPages);
+        this.platform = platform;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Returns the maximum number of pages fetched by a single poll.
+     *
+     * @return the maximum number of pages fetched by a single poll
+     * @see com.xatkit.plugins.twitter.TwitterUtils#TWITTER_POLLING_MAX_PAGES_KEY
+     */
+    public int getMaxPages() {
+        return this.maxPages;
+    }
+
+    /**
+     * Returns the direct messages received by the authenticated user since the last poll.
+     * <p>
+     * The messages sent by the authenticated user are not returned, but still move the high-water mark. If the
+     * previous poll did not reach the high-water mark, this method resumes from its last page and only returns the
+     * older messages of the backlog, the newer ones are returned by the next poll.
+     *
+     * @param messagesPerPage the number of messages to retrieve per page
+     * @return the new messages, from the newest to the oldest
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public synchronized List<DirectMessage> receiveNewDirectMessages(int messagesPerPage) throws TwitterException {
+        long selfId = platform.getSelf().getId();
+        String markKey = DIRECT_MESSAGES_MARK_PREFIX + selfId;
+        long mark = highWaterMarks.getOrDefault(markKey, 0L);
+        Backlog backlog = backlogs.remove(markKey);
+        List<DirectMessage> result = new ArrayList<>();
+        long highestId = backlog == null ? mark : backlog.highestId;
+        String cursor = backlog == null ? null : backlog.cursor;
+        int pages = 0;
+        boolean reachedMark = mark == 0;
+        do {
+            String pageCursor = cursor;
+            DirectMessageList page = platform.execute(TwitterEndpoint.DIRECT_MESSAGES_LIST,
+                    twitter -> pageCursor == null ? twitter.getDirectMessages(messagesPerPage) :
+                            twitter.getDirectMessages(messagesPerPage, pageCursor));
+            for (DirectMessage dm : page) {
+                if (dm.getId() <= mark) {
+                    reachedMark = true;
+                } else {
+                    highestId = Math.max(highestId, dm.getId());
+                    if (dm.getSenderId() != selfId) {
+                        result.add(dm);
+                    }
+                }
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (!reachedMark && cursor != null && pages < maxPages);
+        if (reachedMark || cursor == null) {
+            this.updateHighWaterMark(markKey, highestId);
+        } else {
+            this.suspend(markKey, new Backlog(highestId, cursor, 0), result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tweets mentioning the authenticated user since the last poll.
+     * <p>
+     * This method uses the high-water mark as the {@code sinceId} of the request, meaning that Twitter only returns
+     * the new mentions. The received mentions are recorded in the platform's {@link ConversationIndex}. If the previous
+     * poll did not reach the high-water mark, this method resumes below its last page and only returns the older
+     * mentions of the backlog, the newer ones are returned by the next poll.
+     *
+     * @param mentionsPerPage the number of mentions to retrieve per page (up to 200)
+     * @return the new mentions, from the newest to the oldest
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public synchronized List<Status> receiveNewMentions(int mentionsPerPage) throws TwitterException {
+        String markKey = MENTIONS_MARK_PREFIX + platform.getSelf().getId();
+        long mark = highWaterMarks.getOrDefault(markKey, 0L);
+        Backlog backlog = backlogs.remove(markKey);
+        List<Status> result = new ArrayList<>();
+        long highestId = backlog == null ? mark : backlog.highestId;
+        long maxId = backlog == null ? -1 : backlog.maxId;
+        int pages = 0;
+        boolean hasMorePages;
+        do {
+            Paging paging = new Paging().count(mentionsPerPage);
+            if (mark > 0) {
+                paging.setSinceId(mark);
+            }
+            if (maxId > 0) {
+                paging.setMaxId(maxId);
+            }
+            ResponseList<Status> page = platform.execute(TwitterEndpoint.MENTIONS_TIMELINE,
+                    twitter -> twitter.getMentionsTimeline(paging));
+            long lowestId = Long.MAX_VALUE;
+            for (Status mention : page) {
+                platform.getConversationIndex().record(mention);
+                result.add(mention);
+                highestId = Math.max(highestId, mention.getId());
+                lowestId = Math.min(lowestId, mention.getId());
+            }
+            maxId = lowestId - 1;
+            pages++;
+            /*
+             * A full page means there may be other mentions between the mark and the lowest returned ID.
+             */
+            hasMorePages = mark > 0 && page.size() >= mentionsPerPage;
+        } while (hasMorePages && pages < maxPages);
+        if (hasMorePages) {
+            this.suspend(markKey, new Backlog(highestId, null, maxId), result.size());
+        } else {
+            this.updateHighWaterMark(markKey, highestId);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the high-water marks.
+     *
+     * @return an unmodifiable copy of the high-water marks, by key
+     */
+    public Map<String, Long> getHighWaterMarks() {
+        return Collections.unmodifiableMap(new ConcurrentHashMap<>(highWaterMarks));
+    }
+
+    /**
+     * Restores the provided {@code marks}.
+     * <p>
+     * Restored marks never move an existing mark backward.
+     *
+     * @param marks the high-water marks to restore, by key
+     */
+    public void restoreHighWaterMarks(@NonNull Map<String, Long> marks) {
+        marks.forEach((key, value) -> highWaterMarks.merge(key, value, Math::max));
+    }
+
+    /**
+     * Records the provided {@code backlog} of the high-water mark with the given {@code key}.
+     * <p>
+     * The mark is not moved: the next poll resumes from the position of the {@code backlog}.
+     *
+     * @param key      the key of the mark that has not been reached
+     * @param backlog  the {@link Backlog} to resume from
+     * @param returned the number of items returned by the poll
+     */
+    private void suspend(String key, Backlog backlog, int returned) {
+        backlogs.put(key, backlog);
+        Log.info("{0} Returned {1} items of {2} without reaching the high-water mark in {3} pages, the next poll will "
+                + "resume from the last fetched page", this.getClass().getSimpleName(), returned, key, maxPages);
+    }
+
+    /**
+     * Moves the high-water mark with the provided {@code key} to {@code value} and records it in the platform's
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore}.
+     * <p>
+     * This method does not move the mark backward.
+     *
+     * @param key   the key of the mark to update
+     * @param value the new value of the mark
+     */
+    private void updateHighWaterMark(String key, long value) {
+        if (value > 0) {
+            highWaterMarks.merge(key, value, Math::max);
+            platform.getStateStore().putHighWaterMark(key, value);
+        }
+    }
+
+    /**
+     * The position of a poll that did not reach its high-water mark.
+     */
+    private static final class Backlog {
+
+        /**
+         * The highest ID returned since the high-water mark has been reached for the last time.
+         * <p>
+         * The mark is moved to this ID once the backlog is drained.
+         */
+        private final long highestId;
+
+        /**
+         * The cursor of the next page of direct messages, or {@code null} for a backlog of mentions.
+         */
+        private final String cursor;
+
+        /**
+         * The {@code maxId} of the next page of mentions, or {@code 0} for a backlog of direct messages.
+         */
+        private final long maxId;
+
+        /**
+         * Constructs a {@link Backlog} with the provided {@code highestId} and position.
+         *
+         * @param highestId the highest ID returned since the high-water mark has been reached for the last time
+         * @param cursor    the cursor of the next page of direct messages
+         * @param maxId     the {@code maxId} of the next page of mentions
+         */
+        private Backlog(long highestId, String cursor, long maxId) {
+            this.highestId = highestId;
+            this.cursor = cursor;
+            this.maxId = maxId;
+        }
+    }
+}
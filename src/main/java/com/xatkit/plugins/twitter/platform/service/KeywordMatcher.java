@@ -0,0 +1,504 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Matches a text against a set of keywords (words, phrases, hashtags, handles, ...) in a single pass.
+ * <p>
+ * The keywords are grouped by ID (e.g. the intent or the route of the bot handling the texts containing them), and
+ * compiled once into an Aho-Corasick automaton. A text is folded (see {@link TextFolding#foldChar(char)}) while it
+ * is scanned, and {@link #match(CharSequence)} returns the IDs of the keywords it contains: the cost of a match is
+ * linear in the length of the text, and does not depend on the number of keywords.
+ * <p>
+ * The keywords are case- and accent-insensitive, and their whitespaces match any sequence of whitespaces of the text.
+ * When the matcher is created with {@code wholeWords} a keyword starting (respectively ending) with a letter, a
+ * digit, or an underscore only matches at the start (respectively end) of a word: {@code bot} matches
+ * {@code "Bot!"} and {@code "#bot"} but not {@code "robot"}, and {@code #bot} does not match {@code "bot"}.
+ * <p>
+ * Instances of this class are immutable and can be shared between threads.
+ *
+ * @see com.xatkit.plugins.twitter.platform.TwitterPlatform#getKeywordMatcher()
+ */
+public final class KeywordMatcher {
+
+    /**
+     * The IDs of the keyword groups, in declaration order.
+     */
+    private final String[] ids;
+
+    /**
+     * The number of keywords of the matcher.
+     */
+    private final int keywordCount;
+
+    /**
+     * The index in {@link #ids} of the group of each keyword.
+     */
+    private final int[] keywordIds;
+
+    /**
+     * The length of each folded keyword.
+     */
+    private final int[] keywordLengths;
+
+    /**
+     * The flags telling whether each keyword must start at the start of a word.
+     */
+    private final boolean[] keywordWordStarts;
+
+    /**
+     * The flags telling whether each keyword must end at the end of a word.
+     */
+    private final boolean[] keywordWordEnds;
+
+    /**
+     * The length of the longest folded keyword.
+     */
+    private final int maxKeywordLength;
+
+    /**
+     * The index in {@link #edgeChars} and {@link #edgeTargets} of the first transition of each state (the
+     * transitions of the state {@code s} are stored between {@code edgeStarts[s]} and {@code edgeStarts[s + 1]},
+     * sorted by character).
+     */
+    private final int[] edgeStarts;
+
+    /**
+     * The characters of the transitions of the states.
+     */
+    private final char[] edgeChars;
+
+    /**
+     * The target states of the transitions of the states.
+     */
+    private final int[] edgeTargets;
+
+    /**
+     * The target states of the transitions of the root state for the ASCII characters ({@code -1} if there is no
+     * transition).
+     */
+    private final int[] rootAsciiTargets;
+
+    /**
+     * The failure link of each state (the state of the longest proper suffix of its path that is also a prefix of a
+     * keyword).
+     */
+    private final int[] failures;
+
+    /**
+     * The index in {@link #outputs} of the first keyword ending at each state (the keywords of the state {@code s}
+     * are stored between {@code outputStarts[s]} and {@code outputStarts[s + 1]}).
+     */
+    private final int[] outputStarts;
+
+    /**
+     * The keywords ending at the states.
+     */
+    private final int[] outputs;
+
+    /**
+     * The next state in the failure chain of each state that has keywords ending at it ({@code -1} if there is
+     * none).
+     */
+    private final int[] outputLinks;
+
+    /**
+     * Constructs a {@link KeywordMatcher} matching the provided {@code keywords}.
+     * <p>
+     * Blank keywords are ignored.
+     *
+     * @param keywords   the keywords to match, grouped by ID
+     * @param wholeWords whether the keywords only match whole words
+     */
+    public KeywordMatcher(@NonNull Map<String, ? extends Collection<String>> keywords, boolean wholeWords) {
+        Map<String, Set<String>> foldedKeywords = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : keywords.entrySet()) {
+            for (String keyword : entry.getValue()) {
+                String folded = foldKeyword(keyword);
+                if (!folded.isEmpty()) {
+                    foldedKeywords.computeIfAbsent(entry.getKey(), id -> new LinkedHashSet<>()).add(folded);
+                }
+            }
+        }
+        this.ids = foldedKeywords.keySet().toArray(new String[0]);
+        int count = 0;
+        for (Set<String> group : foldedKeywords.values()) {
+            count += group.size();
+        }
+        this.keywordCount = count;
+        this.keywordIds = new int[count];
+        this.keywordLengths = new int[count];
+        this.keywordWordStarts = new boolean[count];
+        this.keywordWordEnds = new boolean[count];
+        /*
+         * Build the trie with mutable structures, then flatten it into arrays.
+         */
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        stateOutputs.add(new ArrayList<>());
+        int keyword = 0;
+        int maxLength = 0;
+        for (int id = 0; id < ids.length; id++) {
+            for (String folded : foldedKeywords.get(ids[id])) {
+                int state = 0;
+                for (int i = 0; i < folded.length(); i++) {
+                    Integer next = children.get(state).get(folded.charAt(i));
+                    if (next == null) {
+                        next = children.size();
+                        children.get(state).put(folded.charAt(i), next);
+                        children.add(new TreeMap<>());
+                        stateOutputs.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                stateOutputs.get(state).add(keyword);
+                keywordIds[keyword] = id;
+                keywordLengths[keyword] = folded.length();
+                keywordWordStarts[keyword] = wholeWords && isWordChar(folded.charAt(0));
+                keywordWordEnds[keyword] = wholeWords && isWordChar(folded.charAt(folded.length() - 1));
+                maxLength = Math.max(maxLength, folded.length());
+                keyword++;
+            }
+        }
+        this.maxKeywordLength = maxLength;
+        int stateCount = children.size();
+        this.edgeStarts = new int[stateCount + 1];
+        this.edgeChars = new char[stateCount - 1];
+        this.edgeTargets = new int[stateCount - 1];
+        this.outputStarts = new int[stateCount + 1];
+        this.outputs = new int[count];
+        int edge = 0;
+        int output = 0;
+        for (int state = 0; state < stateCount; state++) {
+            edgeStarts[state] = edge;
+            for (Map.Entry<Character, Integer> child : children.get(state).entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue();
+                edge++;
+            }
+            outputStarts[state] = output;
+            for (Integer stateOutput : stateOutputs.get(state)) {
+                outputs[output++] = stateOutput;
+            }
+        }
+        edgeStarts[stateCount] = edge;
+        outputStarts[stateCount] = output;
+        this.rootAsciiTargets = new int[0x80];
+        Arrays.fill(rootAsciiTargets, -1);
+        for (int i = edgeStarts[0]; i < edgeStarts[1] && edgeChars[i] < 0x80; i++) {
+            rootAsciiTargets[edgeChars[i]] = edgeTargets[i];
+        }
+        /*
+         * Compute the failure and output links in breadth-first order, so that the links of a state are computed
+         * after the ones of the shorter states.
+         */
+        this.failures = new int[stateCount];
+        this.outputLinks = new int[stateCount];
+        outputLinks[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = edgeStarts[0]; i < edgeStarts[1]; i++) {
+            failures[edgeTargets[i]] = 0;
+            outputLinks[edgeTargets[i]] = -1;
+            queue.add(edgeTargets[i]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = edgeStarts[state]; i < edgeStarts[state + 1]; i++) {
+                int target = edgeTargets[i];
+                int failure = this.next(failures[state], edgeChars[i]);
+                failures[target] = failure;
+                outputLinks[target] = outputStarts[failure] < outputStarts[failure + 1] ? failure :
+                        outputLinks[failure];
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * Creates a {@link KeywordMatcher} from the keywords contained in the provided {@code configuration}.
+     * <p>
+     * The keywords are defined with the {@link TwitterUtils#TWITTER_MATCHER_KEYWORDS_PREFIX} keys (e.g.
+     * {@code xatkit.twitter.matcher.keywords.support = help, #support, @xatkit_support}), and only match whole words
+     * unless {@link TwitterUtils#TWITTER_MATCHER_WHOLE_WORDS_KEY} is {@code false}.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @return the created {@link KeywordMatcher} (that does not match anything if the {@code configuration} does not
+     * define any keyword)
+     */
+    public static KeywordMatcher create(@NonNull Configuration configuration) {
+        String prefix = TwitterUtils.TWITTER_MATCHER_KEYWORDS_PREFIX;
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        Iterator<String> keys = configuration.getKeys(prefix.substring(0, prefix.length() - 1));
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.length() > prefix.length()) {
+                keywords.put(key.substring(prefix.length()), configuration.getList(String.class, key));
+            }
+        }
+        return new KeywordMatcher(keywords, configuration.getBoolean(TwitterUtils.TWITTER_MATCHER_WHOLE_WORDS_KEY,
+                TwitterUtils.DEFAULT_MATCHER_WHOLE_WORDS));
+    }
+
+    /**
+     * Returns the IDs of the keywords contained in the provided {@code text}.
+     *
+     * @param text the text to match (may be {@code null})
+     * @return an unmodifiable list containing the IDs of the matched keywords, in declaration order
+     */
+    public List<String> match(CharSequence text) {
+        if (keywordCount == 0 || text == null || text.length() == 0) {
+            return Collections.emptyList();
+        }
+        Scan scan = new Scan();
+        boolean previousSpace = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (TextFolding.isWhitespace(c)) {
+                if (!previousSpace) {
+                    scan.accept(' ');
+                    previousSpace = true;
+                }
+            } else {
+                String folded = TextFolding.foldChar(c);
+                for (int j = 0; j < folded.length(); j++) {
+                    scan.accept(folded.charAt(j));
+                    previousSpace = false;
+                }
+            }
+        }
+        return scan.finish();
+    }
+
+    /**
+     * Returns the IDs of the keyword groups of this matcher.
+     *
+     * @return an unmodifiable list containing the IDs of the keyword groups, in declaration order
+     */
+    public List<String> getIds() {
+        return Collections.unmodifiableList(Arrays.asList(ids));
+    }
+
+    /**
+     * Returns the number of keywords of this matcher.
+     *
+     * @return the number of keywords of this matcher
+     */
+    public int getKeywordCount() {
+        return this.keywordCount;
+    }
+
+    /**
+     * Returns whether this matcher does not contain any keyword.
+     *
+     * @return {@code true} if this matcher does not contain any keyword, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.keywordCount == 0;
+    }
+
+    /**
+     * Returns the state reached from the provided {@code state} with the character {@code c}, following the
+     * failure links when {@code state} does not have a transition for {@code c}.
+     *
+     * @param state the current state
+     * @param c     the folded character
+     * @return the next state
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int target = this.transition(state, c);
+            if (target >= 0) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+
+    /**
+     * Returns the target of the transition of the provided {@code state} for the character {@code c}.
+     *
+     * @param state the state
+     * @param c     the folded character
+     * @return the target state, or {@code -1} if {@code state} does not have a transition for {@code c}
+     */
+    private int transition(int state, char c) {
+        if (state == 0 && c < 0x80) {
+            return rootAsciiTargets[c];
+        }
+        int low = edgeStarts[state];
+        int high = edgeStarts[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleChar = edgeChars[middle];
+            if (middleChar < c) {
+                low = middle + 1;
+            } else if (middleChar > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Folds the provided {@code keyword} like the scanned texts.
+     *
+     * @param keyword the keyword to fold
+     * @return the folded keyword, without leading and trailing whitespaces
+     */
+    private static String foldKeyword(String keyword) {
+        StringBuilder folded = new StringBuilder(keyword.length());
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (TextFolding.isWhitespace(c)) {
+                if (folded.length() > 0 && folded.charAt(folded.length() - 1) != ' ') {
+                    folded.append(' ');
+                }
+            } else {
+                folded.append(TextFolding.foldChar(c));
+            }
+        }
+        int length = folded.length();
+        return length > 0 && folded.charAt(length - 1) == ' ' ? folded.substring(0, length - 1) :
+                folded.toString();
+    }
+
+    /**
+     * Returns whether the provided folded character is part of a word.
+     *
+     * @param c the folded character
+     * @return {@code true} if {@code c} is a letter, a digit, or an underscore, {@code false} otherwise
+     */
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * The state of the scan of a text.
+     */
+    private final class Scan {
+
+        /**
+         * The IDs matched so far, by index in {@link #ids}.
+         */
+        private final BitSet matchedIds = new BitSet(ids.length);
+
+        /**
+         * The flags telling whether the last {@code maxKeywordLength + 1} scanned characters are part of a word,
+         * indexed by position modulo the length of the array.
+         */
+        private final boolean[] wordChars = new boolean[maxKeywordLength + 1];
+
+        /**
+         * The keywords ending at the previous character, that are matched if the current character is not part of
+         * a word.
+         */
+        private int[] pendingKeywords = new int[4];
+
+        /**
+         * The number of keywords in {@link #pendingKeywords}.
+         */
+        private int pendingCount;
+
+        /**
+         * The current state of the automaton.
+         */
+        private int state;
+
+        /**
+         * The position of the current character in the folded text.
+         */
+        private int position;
+
+        /**
+         * Scans the provided folded character.
+         *
+         * @param c the folded character to scan
+         */
+        private void accept(char c) {
+            boolean wordChar = isWordChar(c);
+            if (pendingCount > 0) {
+                if (!wordChar) {
+                    for (int i = 0; i < pendingCount; i++) {
+                        matchedIds.set(keywordIds[pendingKeywords[i]]);
+                    }
+                }
+                pendingCount = 0;
+            }
+            wordChars[position % wordChars.length] = wordChar;
+            state = next(state, c);
+            int outputState = outputStarts[state] < outputStarts[state + 1] ? state : outputLinks[state];
+            while (outputState >= 0) {
+                for (int i = outputStarts[outputState]; i < outputStarts[outputState + 1]; i++) {
+                    this.onKeyword(outputs[i]);
+                }
+                outputState = outputLinks[outputState];
+            }
+            position++;
+        }
+
+        /**
+         * Handles the provided {@code keyword} ending at the current character.
+         *
+         * @param keyword the keyword ending at the current character
+         */
+        private void onKeyword(int keyword) {
+            if (matchedIds.get(keywordIds[keyword])) {
+                return;
+            }
+            int before = position - keywordLengths[keyword];
+            if (keywordWordStarts[keyword] && before >= 0 && wordChars[before % wordChars.length]) {
+                return;
+            }
+            if (keywordWordEnds[keyword]) {
+                if (pendingCount == pendingKeywords.length) {
+                    pendingKeywords = Arrays.copyOf(pendingKeywords, pendingCount * 2);
+                }
+                pendingKeywords[pendingCount++] = keyword;
+            } else {
+                matchedIds.set(keywordIds[keyword]);
+            }
+        }
+
+        /**
+         * Completes the scan and returns the matched IDs.
+         *
+         * @return an unmodifiable list containing the matched IDs, in declaration order
+         */
+        private List<String> finish() {
+            for (int i = 0; i < pendingCount; i++) {
+                matchedIds.set(keywordIds[pendingKeywords[i]]);
+            }
+            if (matchedIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<String> matched = new ArrayList<>(matchedIds.cardinality());
+            for (int id = matchedIds.nextSetBit(0); id >= 0; id = matchedIds.nextSetBit(id + 1)) {
+                matched.add(ids[id]);
+            }
+            return Collections.unmodifiableList(matched);
+        }
+    }
+}
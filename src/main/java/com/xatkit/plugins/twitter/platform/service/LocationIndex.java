@@ -0,0 +1,242 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.Location;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An index of the locations Twitter has trending topic information for.
+ * <p>
+ * This index is loaded lazily with {@link Twitter#getAvailableTrends()} the first time a location is looked up, and
+ * is then refreshed in the background once its time-to-live has expired (lookups performed during a refresh are
+ * served from the previous index). Location names are indexed by their {@link TextFolding#fold(CharSequence) folded}
+ * form, meaning that lookups are case- and accent-insensitive. Countries are also indexed by their country code, and
+ * additional aliases can be provided with {@link #addAlias(String, String)}.
+ * <p>
+ * The loaded locations are recorded in the platform's {@link com.xatkit.plugins.twitter.platform.state.StateStore},
+ * and restored when the platform restarts (see {@link #restore(Map, long)}).
+ *
+ * @see TwitterPlatform#getLocationIndex()
+ */
+public class LocationIndex {
+
+    /**
+     * The value returned by {@link #findWoeid(String)} when there is no location matching the provided name.
+     */
+    public static final int UNKNOWN_WOEID = -1;
+
+    /**
+     * The {@link Location#getPlaceName()} value of country locations.
+     */
+    private static final String COUNTRY_PLACE_NAME = "Country";
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The {@link Executor} used to refresh the index in the background.
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * The time-to-live of the index, in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The aliases of the index, mapping folded aliases to folded location names.
+     */
+    private final Map<String, String> aliases = new HashMap<>();
+
+    /**
+     * A flag telling whether a background refresh is running.
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    /**
+     * The current content of the index.
+     * <p>
+     * This field is {@code null} until the index is loaded for the first time.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs a {@link LocationIndex} with the provided {@code platform}, {@code refreshExecutor}, and
+     * time-to-live.
+     *
+     * @param platform        the {@link TwitterPlatform} used to access the Twitter API
+     * @param refreshExecutor the {@link Executor} used to refresh the index in the background
+     * @param ttl             the time-to-live of the index
+     * @param unit            the {@link TimeUnit} of {@code ttl}
+     */
+    public LocationIndex(@NonNull TwitterPlatform platform, @NonNull Executor refreshExecutor, long ttl,
+                         @NonNull TimeUnit unit) {
+        this.platform = platform;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Registers an {@code alias} for the provided {@code locationName}.
+     * <p>
+     * Aliases are resolved before looking up the index, e.g. {@code addAlias("NYC", "New York")} allows to retrieve
+     * the WOEID of New York with {@code findWoeid("nyc")}.
+     *
+     * @param alias        the alias to register
+     * @param locationName the name of the location the alias refers to
+     */
+    public synchronized void addAlias(@NonNull String alias, @NonNull String locationName) {
+        this.aliases.put(TextFolding.fold(alias), TextFolding.fold(locationName));
+    }
+
+    /**
+     * Restores the provided {@code locations} loaded at the given time.
+     * <p>
+     * This method is used to restore the locations persisted by the platform's
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore}, and does nothing if the index is already loaded.
+     * Restored locations are refreshed in the background once their time-to-live has expired.
+     *
+     * @param locations the WOEIDs of the locations, by {@link TextFolding#fold(CharSequence) folded} name
+     * @param loadedAt  the time (in milliseconds since the epoch) the locations have been loaded at
+     */
+    public synchronized void restore(@NonNull Map<String, Integer> locations, long loadedAt) {
+        if (this.snapshot == null && !locations.isEmpty()) {
+            long age = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - loadedAt));
+            this.snapshot = new Snapshot(locations, new TreeMap<>(locations), System.nanoTime() - age);
+        }
+    }
+
+    /**
+     * Returns the WOEID of the location matching the provided {@code locationName}.
+     * <p>
+     * This method first looks for a location with the exact (folded) {@code locationName} (or the location
+     * {@code locationName} is an alias of), and then for the first location (in alphabetical order) whose name starts
+     * with {@code locationName}.
+     *
+     * @param locationName the name of the location to retrieve the WOEID of
+     * @return the WOEID of the location, or {@link #UNKNOWN_WOEID} if there is no location matching
+     * {@code locationName} or if the index cannot be loaded
+     */
+    public int findWoeid(@NonNull String locationName) {
+        Snapshot current;
+        try {
+            current = this.getSnapshot();
+        } catch (TwitterException e) {
+            Log.error(e, "{0} Cannot load the available trend locations", this.getClass().getSimpleName());
+            return UNKNOWN_WOEID;
+        }
+        String key = TextFolding.fold(locationName);
+        synchronized (this) {
+            key = aliases.getOrDefault(key, key);
+        }
+        Integer woeid = current.locationsByName.get(key);
+        if (woeid == null && !key.isEmpty()) {
+            Map.Entry<String, Integer> candidate = current.sortedLocationsByName.ceilingEntry(key);
+            if (candidate != null && candidate.getKey().startsWith(key)) {
+                woeid = candidate.getValue();
+            }
+        }
+        return woeid == null ? UNKNOWN_WOEID : woeid;
+    }
+
+    /**
+     * Returns the current {@link Snapshot} of the index.
+     * <p>
+     * This method loads the index if it has never been loaded, and schedules a background refresh if it has expired.
+     *
+     * @return the current {@link Snapshot} of the index
+     * @throws TwitterException if an error occurred when loading the index for the first time
+     */
+    private Snapshot getSnapshot() throws TwitterException {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = this.snapshot;
+                if (current == null) {
+                    current = this.load();
+                    this.snapshot = current;
+                }
+            }
+        } else if (System.nanoTime() - current.loadedAt > ttlNanos && refreshing.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                try {
+                    this.snapshot = this.load();
+                } catch (TwitterException e) {
+                    Log.warn("{0} Cannot refresh the available trend locations, keeping the previous ones: {1}",
+                            this.getClass().getSimpleName(), e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    /**
+     * Loads the available trend locations from the Twitter API.
+     *
+     * @return the loaded {@link Snapshot}
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    private Snapshot load() throws TwitterException {
+        Map<String, Integer> locationsByName = new HashMap<>();
+        for (Location location : platform.execute(TwitterEndpoint.TRENDS_AVAILABLE,
+                Twitter::getAvailableTrends)) {
+            locationsByName.putIfAbsent(TextFolding.fold(location.getName()), location.getWoeid());
+            if (COUNTRY_PLACE_NAME.equals(location.getPlaceName()) && location.getCountryCode() != null) {
+                locationsByName.putIfAbsent(TextFolding.fold(location.getCountryCode()), location.getWoeid());
+            }
+        }
+        Log.debug("{0} Loaded {1} trend locations", this.getClass().getSimpleName(), locationsByName.size());
+        platform.getStateStore().putLocations(locationsByName, System.currentTimeMillis());
+        return new Snapshot(locationsByName, new TreeMap<>(locationsByName), System.nanoTime());
+    }
+
+    /**
+     * An immutable state of the index.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The WOEIDs of the indexed locations, by folded name.
+         */
+        private final Map<String, Integer> locationsByName;
+
+        /**
+         * The WOEIDs of the indexed locations, sorted by folded name to support prefix lookups.
+         */
+        private final NavigableMap<String, Integer> sortedLocationsByName;
+
+        /**
+         * The time the snapshot has been loaded at, in {@link System#nanoTime()} units.
+         */
+        private final long loadedAt;
+
+        /**
+         * Constructs a {@link Snapshot} with the provided location maps and {@code loadedAt} time.
+         *
+         * @param locationsByName       the WOEIDs of the indexed locations, by folded name
+         * @param sortedLocationsByName the WOEIDs of the indexed locations, sorted by folded name
+         * @param loadedAt              the time the snapshot has been loaded at
+         */
+        private Snapshot(Map<String, Integer> locationsByName, NavigableMap<String, Integer> sortedLocationsByName,
+                         long loadedAt) {
+            this.locationsByName = locationsByName;
+            this.sortedLocationsByName = sortedLocationsByName;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+
+import java.util.BitSet;
+
+/**
+ * The state of a chunked media upload performed by the {@link MediaUploader}.
+ * <p>
+ * An upload is split in fixed-size segments that are acknowledged by the Twitter API once they have been received.
+ * The acknowledged segments are recorded in this class, allowing to resume a failed upload from its last
+ * acknowledged segment (see {@link MediaUploader#resume(MediaUpload, java.nio.file.Path)}) as long as its media ID
+ * has not expired.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class MediaUpload {
+
+    /**
+     * The states of a {@link MediaUpload}.
+     */
+    public enum State {
+
+        /**
+         * The segments of the media are being uploaded, or the upload failed before being finalized and can be
+         * resumed.
+         */
+        UPLOADING,
+
+        /**
+         * The upload has been finalized and the media is being processed by Twitter.
+         */
+        PROCESSING,
+
+        /**
+         * The media has been processed and can be attached to a tweet.
+         */
+        SUCCEEDED,
+
+        /**
+         * The media has been rejected by Twitter.
+         */
+        FAILED
+    }
+
+    /**
+     * The MIME type of the media.
+     */
+    private final String mediaType;
+
+    /**
+     * The Twitter category of the media (e.g. {@code tweet_image}).
+     */
+    private final String mediaCategory;
+
+    /**
+     * The size of the media, in bytes.
+     */
+    private final long totalBytes;
+
+    /**
+     * The size of the segments of the media, in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * The number of segments of the media.
+     */
+    private final int segmentCount;
+
+    /**
+     * The segments acknowledged by the Twitter API.
+     */
+    private final BitSet acknowledged;
+
+    /**
+     * The ID of the media, or {@code -1} if the upload has not been initialized.
+     */
+    private long mediaId = -1;
+
+    /**
+     * The time (in milliseconds since the epoch) at which the media ID expires.
+     */
+    private long expiresAt;
+
+    /**
+     * The state of the upload.
+     */
+    private State state = State.UPLOADING;
+
+    /**
+     * The processing progress of the media, in percent.
+     */
+    private int progress;
+
+    /**
+     * The processing error returned by the Twitter API, or {@code null}.
+     */
+    private String error;
+
+    /**
+     * Constructs a {@link MediaUpload} with the provided parameters.
+     *
+     * @param mediaType     the MIME type of the media
+     * @param mediaCategory the Twitter category of the media
+     * @param totalBytes    the size of the media, in bytes
+     * @param segmentSize   the size of the segments of the media, in bytes
+     */
+    MediaUpload(@NonNull String mediaType, @NonNull String mediaCategory, long totalBytes, int segmentSize) {
+        this.mediaType = mediaType;
+        this.mediaCategory = mediaCategory;
+        this.totalBytes = totalBytes;
+        this.segmentSize = segmentSize;
+        this.segmentCount = (int) ((totalBytes + segmentSize - 1) / segmentSize);
+        this.acknowledged = new BitSet(segmentCount);
+    }
+
+    /**
+     * Returns the ID of the media.
+     * <p>
+     * This ID can be attached to a tweet once the upload is {@link State#SUCCEEDED}.
+     *
+     * @return the ID of the media, or {@code -1} if the upload has not been initialized
+     */
+    public synchronized long getMediaId() {
+        return this.mediaId;
+    }
+
+    /**
+     * Returns the MIME type of the media.
+     *
+     * @return the MIME type of the media
+     */
+    public String getMediaType() {
+        return this.mediaType;
+    }
+
+    /**
+     * Returns the Twitter category of the media.
+     *
+     * @return the Twitter category of the media (e.g. {@code tweet_image}, {@code tweet_gif}, or
+     * {@code tweet_video})
+     */
+    public String getMediaCategory() {
+        return this.mediaCategory;
+    }
+
+    /**
+     * Returns the size of the media.
+     *
+     * @return the size of the media, in bytes
+     */
+    public long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    /**
+     * Returns the size of the segments of the media.
+     *
+     * @return the size of the segments of the media, in bytes
+     */
+    public int getSegmentSize() {
+        return this.segmentSize;
+    }
+
+    /**
+     * Returns the number of segments of the media.
+     *
+     * @return the number of segments of the media
+     */
+    public int getSegmentCount() {
+        return this.segmentCount;
+    }
+
+    /**
+     * Returns the size of the provided {@code segment}.
+     *
+     * @param segment the index of the segment
+     * @return the size of the {@code segment}, in bytes
+     */
+    public int getSegmentLength(int segment) {
+        return (int) Math.min(segmentSize, totalBytes - (long) segment * segmentSize);
+    }
+
+    /**
+     * Returns whether the provided {@code segment} has been acknowledged by the Twitter API.
+     *
+     * @param segment the index of the segment
+     * @return {@code true} if the {@code segment} has been acknowledged, {@code false} otherwise
+     */
+    public synchronized boolean isAcknowledged(int segment) {
+        return acknowledged.get(segment);
+    }
+
+    /**
+     * Returns the number of segments acknowledged by the Twitter API.
+     *
+     * @return the number of acknowledged segments
+     */
+    public synchronized int getAcknowledgedSegmentCount() {
+        return acknowledged.cardinality();
+    }
+
+    /**
+     * Returns the index of the first segment that has not been acknowledged by the Twitter API.
+     * <p>
+     * A resumed upload skips the bytes preceding this segment without reading them (the following segments that
+     * have already been acknowledged are read but not uploaded again).
+     *
+     * @return the index of the first segment that has not been acknowledged, or {@link #getSegmentCount()} if all
+     * the segments have been acknowledged
+     */
+    public synchronized int getFirstPendingSegment() {
+        return Math.min(acknowledged.nextClearBit(0), segmentCount);
+    }
+
+    /**
+     * Returns whether the media ID has expired.
+     * <p>
+     * An upload whose media ID has expired cannot be resumed, and is restarted from its first segment.
+     *
+     * @return {@code true} if the upload has not been initialized or if its media ID has expired, {@code false}
+     * otherwise
+     */
+    public synchronized boolean isExpired() {
+        return mediaId < 0 || System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * Returns the state of the upload.
+     *
+     * @return the {@link State} of the upload
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Returns the processing progress of the media.
+     *
+     * @return the processing progress of the media, in percent
+     */
+    public synchronized int getProgress() {
+        return this.progress;
+    }
+
+    /**
+     * Returns the processing error returned by the Twitter API.
+     *
+     * @return the processing error, or {@code null} if the upload is not {@link State#FAILED}
+     */
+    public synchronized String getError() {
+        return this.error;
+    }
+
+    /**
+     * Starts the upload with the provided {@code mediaId}.
+     * <p>
+     * This method clears the acknowledged segments, that were associated to a previous media ID.
+     *
+     * @param mediaId          the ID of the media returned by the Twitter API
+     * @param expiresAfterSecs the number of seconds during which the media ID is valid
+     */
+    synchronized void initialize(long mediaId, long expiresAfterSecs) {
+        this.mediaId = mediaId;
+        this.expiresAt = System.currentTimeMillis() + expiresAfterSecs * 1000;
+        this.acknowledged.clear();
+        this.state = State.UPLOADING;
+        this.progress = 0;
+        this.error = null;
+    }
+
+    /**
+     * Records that the provided {@code segment} has been acknowledged by the Twitter API.
+     *
+     * @param segment the index of the acknowledged segment
+     */
+    synchronized void acknowledge(int segment) {
+        acknowledged.set(segment);
+    }
+
+    /**
+     * Updates the state of the upload.
+     *
+     * @param state    the new {@link State} of the upload
+     * @param progress the processing progress of the media, in percent
+     * @param error    the processing error returned by the Twitter API, or {@code null}
+     */
+    synchronized void update(@NonNull State state, int progress, String error) {
+        this.state = state;
+        this.progress = progress;
+        this.error = error;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "media " + mediaId + " (" + mediaType + ", " + totalBytes + " bytes, " + acknowledged.cardinality()
+                + "/" + segmentCount + " segments, " + state + ")";
+    }
+}
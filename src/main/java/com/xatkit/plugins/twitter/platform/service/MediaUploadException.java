@@ -0,0 +1,41 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * Thrown by the {@link MediaUploader} when a media cannot be uploaded or processed.
+ * <p>
+ * The {@link MediaUpload} attached to this exception records the segments acknowledged before the failure, and can
+ * be passed to {@link MediaUploader#resume(MediaUpload, java.nio.file.Path)} to upload the remaining segments.
+ */
+public class MediaUploadException extends TwitterException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The failed upload.
+     */
+    private final transient MediaUpload upload;
+
+    /**
+     * Constructs a {@link MediaUploadException} for the provided {@code upload}.
+     *
+     * @param message the detail message
+     * @param upload  the failed {@link MediaUpload}
+     * @param cause   the cause of the failure, or {@code null}
+     */
+    public MediaUploadException(String message, @NonNull MediaUpload upload, Throwable cause) {
+        super(message, cause);
+        this.upload = upload;
+    }
+
+    /**
+     * Returns the failed upload.
+     *
+     * @return the failed {@link MediaUpload}
+     */
+    public MediaUpload getUpload() {
+        return this.upload;
+    }
+}
@@ -0,0 +1,708 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.HttpClient;
+import twitter4j.HttpClientFactory;
+import twitter4j.HttpParameter;
+import twitter4j.HttpResponse;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+import twitter4j.RequestMethod;
+import twitter4j.TwitterException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Uploads media to Twitter with the chunked upload flow ({@code INIT}, {@code APPEND}, and {@code FINALIZE}).
+ * <p>
+ * Media are read from their file or {@link InputStream} one segment at a time, and are never buffered entirely: an
+ * upload holds at most {@code xatkit.twitter.media.parallelism} segments of {@code xatkit.twitter.media.chunkSize}
+ * bytes in memory, whatever the size of the media. These segments are uploaded in parallel, and the segments
+ * failing with a transient error are retried up to {@code xatkit.twitter.media.maxAttempts} times. Uploads failing
+ * after these attempts complete with a {@link MediaUploadException} holding their {@link MediaUpload}, that can be
+ * resumed from its last acknowledged segment with {@link #resume(MediaUpload, Path)}.
+ * <p>
+ * Once all the segments have been acknowledged the upload is finalized. The processing status of the media
+ * processed asynchronously by Twitter (e.g. videos and animated GIFs) is then polled with the {@code STATUS} command
+ * at the interval requested by the Twitter API, without blocking any thread between two polls. The futures returned
+ * by this class are completed once the media can be attached to a tweet.
+ * <p>
+ * The calls to the upload API are performed with the primary account of the platform through
+ * {@link TwitterPlatform#execute(TwitterEndpoint, TwitterCall)}, and share the rate-limit budget and the circuit
+ * breaker of {@link TwitterEndpoint#MEDIA_UPLOAD}.
+ */
+public class MediaUploader {
+
+    /**
+     * The maximum number of segments of an upload accepted by the Twitter API.
+     */
+    public static final int MAX_SEGMENT_COUNT = 1000;
+
+    /**
+     * The maximum size of a segment accepted by the Twitter API, in bytes.
+     */
+    public static final int MAX_SEGMENT_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * The path of the upload endpoint, relative to the base URL of the upload API.
+     */
+    private static final String UPLOAD_PATH = "media/upload.json";
+
+    /**
+     * The validity (in seconds) of the media IDs that are not returned with an expiration delay.
+     */
+    private static final long DEFAULT_EXPIRES_AFTER_SECS = TimeUnit.DAYS.toSeconds(1);
+
+    /**
+     * The delay (in milliseconds) before retrying a failed call for the first time.
+     * <p>
+     * This delay is doubled after each attempt, up to {@link #MAX_RETRY_DELAY}.
+     */
+    private static final long RETRY_DELAY = 500;
+
+    /**
+     * The maximum delay (in milliseconds) before retrying a failed call.
+     */
+    private static final long MAX_RETRY_DELAY = 16000;
+
+    /**
+     * The MIME types of the supported media, indexed by their file extension.
+     */
+    private static final Map<String, String> MEDIA_TYPES = new HashMap<>();
+
+    static {
+        MEDIA_TYPES.put("jpg", "image/jpeg");
+        MEDIA_TYPES.put("jpeg", "image/jpeg");
+        MEDIA_TYPES.put("png", "image/png");
+        MEDIA_TYPES.put("webp", "image/webp");
+        MEDIA_TYPES.put("gif", "image/gif");
+        MEDIA_TYPES.put("mp4", "video/mp4");
+        MEDIA_TYPES.put("mov", "video/quicktime");
+    }
+
+    /**
+     * The {@link TwitterPlatform} performing the uploads.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The {@link ScheduledExecutorService} scheduling the processing status checks.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The threads reading the media and uploading their segments.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The size of the segments of the uploaded media, in bytes.
+     */
+    private final int chunkSize;
+
+    /**
+     * The maximum number of segments of a media uploaded in parallel.
+     */
+    private final int parallelism;
+
+    /**
+     * The maximum number of attempts made to upload a segment or to retrieve a processing status.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Constructs a {@link MediaUploader} with the provided {@code platform} and {@code configuration}.
+     *
+     * @param platform      the {@link TwitterPlatform} performing the uploads
+     * @param configuration the platform's {@link Configuration}
+     * @param scheduler     the {@link ScheduledExecutorService} scheduling the processing status checks
+     * @throws IllegalArgumentException if the chunk size is not between {@code 1} and {@link #MAX_SEGMENT_SIZE}, or
+     *                                  if the parallelism or the maximum number of attempts is lower than {@code 1}
+     * @see TwitterUtils#TWITTER_MEDIA_CHUNK_SIZE_KEY
+     * @see TwitterUtils#TWITTER_MEDIA_PARALLELISM_KEY
+     * @see TwitterUtils#TWITTER_MEDIA_MAX_ATTEMPTS_KEY
+     */
+    public MediaUploader(@NonNull TwitterPlatform platform, @NonNull Configuration configuration,
+                         @NonNull ScheduledExecutorService scheduler) {
+        this.platform = platform;
+        this.scheduler = scheduler;
+        this.chunkSize = configuration.getInt(TwitterUtils.TWITTER_MEDIA_CHUNK_SIZE_KEY,
+                TwitterUtils.DEFAULT_MEDIA_CHUNK_SIZE);
+        this.parallelism = configuration.getInt(TwitterUtils.TWITTER_MEDIA_PARALLELISM_KEY,
+                TwitterUtils.DEFAULT_MEDIA_PARALLELISM);
+        this.maxAttempts = configuration.getInt(TwitterUtils.TWITTER_MEDIA_MAX_ATTEMPTS_KEY,
+                TwitterUtils.DEFAULT_MEDIA_MAX_ATTEMPTS);
+        checkArgument(chunkSize > 0 && chunkSize <= MAX_SEGMENT_SIZE, "Cannot create the %s with the provided chunk "
+                + "size (%s), expected a value between 1 and %s", this.getClass().getSimpleName(), chunkSize,
+                MAX_SEGMENT_SIZE);
+        checkArgument(parallelism > 0 && maxAttempts > 0, "Cannot create the %s with the provided parallelism (%s) "
+                + "and maximum number of attempts (%s), expected strictly positive values",
+                this.getClass().getSimpleName(), parallelism, maxAttempts);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Media Upload " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Uploads the provided media {@code file}.
+     * <p>
+     * The MIME type of the media is computed from the extension of the {@code file}. The {@code file} is read by
+     * the uploader's threads, meaning that this method does not block the calling thread.
+     *
+     * @param file the {@link Path} of the media file to upload
+     * @return a {@link CompletableFuture} completed with the {@link MediaUpload} once the media can be attached to a
+     * tweet, or completed exceptionally with a {@link MediaUploadException} if the upload failed
+     * @throws IOException              if the size of the {@code file} cannot be read
+     * @throws IllegalArgumentException if the type of the {@code file} is not supported, or if the {@code file} is
+     *                                  empty or too large
+     */
+    public CompletableFuture<MediaUpload> upload(@NonNull Path file) throws IOException {
+        return this.resume(this.createUpload(Files.size(file), getMediaType(file)), file);
+    }
+
+    /**
+     * Uploads the media read from the provided {@code inputStream}.
+     * <p>
+     * The {@code inputStream} is read by the uploader's threads, and is not closed once the upload is completed.
+     *
+     * @param inputStream the {@link InputStream} to read the media from
+     * @param totalBytes  the size of the media, in bytes
+     * @param mediaType   the MIME type of the media (e.g. {@code image/png} or {@code video/mp4})
+     * @return a {@link CompletableFuture} completed with the {@link MediaUpload} once the media can be attached to a
+     * tweet, or completed exceptionally with a {@link MediaUploadException} if the upload failed
+     * @throws IllegalArgumentException if the media is empty or too large
+     */
+    public CompletableFuture<MediaUpload> upload(@NonNull InputStream inputStream, long totalBytes,
+                                                 @NonNull String mediaType) {
+        return this.resume(this.createUpload(totalBytes, mediaType), inputStream);
+    }
+
+    /**
+     * Resumes the provided {@code upload} with the media read from the provided {@code file}.
+     * <p>
+     * The segments preceding the first segment that has not been acknowledged are skipped without being read, and
+     * the following segments that have already been acknowledged are not uploaded again. The upload is restarted
+     * from its first segment if its media ID has expired.
+     *
+     * @param upload the {@link MediaUpload} to resume
+     * @param file   the {@link Path} of the media file
+     * @return a {@link CompletableFuture} completed with the {@link MediaUpload} once the media can be attached to a
+     * tweet, or completed exceptionally with a {@link MediaUploadException} if the upload failed
+     * @see MediaUploadException#getUpload()
+     */
+    public CompletableFuture<MediaUpload> resume(@NonNull MediaUpload upload, @NonNull Path file) {
+        CompletableFuture<MediaUpload> future = new CompletableFuture<>();
+        this.dispatch(upload, future, () -> {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                this.transfer(upload, inputStream, future);
+            } catch (IOException e) {
+                future.completeExceptionally(new MediaUploadException("Cannot read the " + upload + " from "
+                        + file, upload, e));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Resumes the provided {@code upload} with the media read from the provided {@code inputStream}.
+     * <p>
+     * The {@code inputStream} must be positioned at the beginning of the media. The segments preceding the first
+     * segment that has not been acknowledged are skipped, and the following segments that have already been
+     * acknowledged are not uploaded again. The upload is restarted from its first segment if its media ID has
+     * expired. The {@code inputStream} is not closed once the upload is completed.
+     *
+     * @param upload      the {@link MediaUpload} to resume
+     * @param inputStream the {@link InputStream} to read the media from
+     * @return a {@link CompletableFuture} completed with the {@link MediaUpload} once the media can be attached to a
+     * tweet, or completed exceptionally with a {@link MediaUploadException} if the upload failed
+     * @see MediaUploadException#getUpload()
+     */
+    public CompletableFuture<MediaUpload> resume(@NonNull MediaUpload upload, @NonNull InputStream inputStream) {
+        CompletableFuture<MediaUpload> future = new CompletableFuture<>();
+        this.dispatch(upload, future, () -> this.transfer(upload, inputStream, future));
+        return future;
+    }
+
+    /**
+     * Stops the uploader's threads.
+     * <p>
+     * The pending uploads are interrupted.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a {@link MediaUpload} with the provided parameters.
+     * <p>
+     * The segment size is increased for the media that would be split in more than {@link #MAX_SEGMENT_COUNT}
+     * segments.
+     *
+     * @param totalBytes the size of the media, in bytes
+     * @param mediaType  the MIME type of the media
+     * @return the created {@link MediaUpload}
+     * @throws IllegalArgumentException if the media is empty or too large
+     */
+    private MediaUpload createUpload(long totalBytes, String mediaType) {
+        checkArgument(totalBytes > 0, "Cannot upload the media, expected a strictly positive size, found %s",
+                totalBytes);
+        long segmentSize = Math.max(chunkSize, (totalBytes + MAX_SEGMENT_COUNT - 1) / MAX_SEGMENT_COUNT);
+        checkArgument(segmentSize <= MAX_SEGMENT_SIZE, "Cannot upload the media, its size (%s bytes) exceeds the "
+                + "maximum size of a chunked upload (%s bytes)", totalBytes,
+                (long) MAX_SEGMENT_SIZE * MAX_SEGMENT_COUNT);
+        return new MediaUpload(mediaType, getMediaCategory(mediaType), totalBytes, (int) segmentSize);
+    }
+
+    /**
+     * Transfers the media read from the provided {@code inputStream}, and completes the provided {@code future} once
+     * it has been processed.
+     *
+     * @param upload      the {@link MediaUpload} to transfer
+     * @param inputStream the {@link InputStream} to read the media from
+     * @param future      the {@link CompletableFuture} to complete
+     */
+    private void transfer(MediaUpload upload, InputStream inputStream, CompletableFuture<MediaUpload> future) {
+        try {
+            if (upload.getState() == MediaUpload.State.SUCCEEDED) {
+                future.complete(upload);
+                return;
+            }
+            if (upload.getState() == MediaUpload.State.PROCESSING && !upload.isExpired()) {
+                this.checkStatus(upload, future, 1);
+                return;
+            }
+            if (upload.isExpired() || upload.getState() == MediaUpload.State.FAILED) {
+                this.initialize(upload);
+            }
+            this.appendSegments(upload, inputStream);
+            JSONObject response = this.callWithRetries(new HttpParameter("command", "FINALIZE"),
+                    new HttpParameter("media_id", upload.getMediaId())).asJSONObject();
+            this.onProcessingInfo(upload, response, future);
+        } catch (MediaUploadException e) {
+            future.completeExceptionally(e);
+        } catch (TwitterException | IOException | RuntimeException e) {
+            future.completeExceptionally(new MediaUploadException("Cannot upload the " + upload, upload, e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(new MediaUploadException("The upload of the " + upload
+                    + " has been interrupted", upload, e));
+        }
+    }
+
+    /**
+     * Initializes the provided {@code upload} with a new media ID.
+     *
+     * @param upload the {@link MediaUpload} to initialize
+     * @throws TwitterException    if an error occurred when accessing the Twitter API
+     * @throws InterruptedException if the thread has been interrupted while waiting for a retry
+     */
+    private void initialize(MediaUpload upload) throws TwitterException, InterruptedException {
+        JSONObject response = this.callWithRetries(new HttpParameter("command", "INIT"),
+                new HttpParameter("total_bytes", upload.getTotalBytes()),
+                new HttpParameter("media_type", upload.getMediaType()),
+                new HttpParameter("media_category", upload.getMediaCategory())).asJSONObject();
+        try {
+            upload.initialize(response.getLong("media_id"),
+                    response.optLong("expires_after_secs", DEFAULT_EXPIRES_AFTER_SECS));
+        } catch (JSONException e) {
+            throw new TwitterException("Cannot read the media ID of the INIT response: " + response, e);
+        }
+        Log.debug("{0} Uploading {1}", this.getClass().getSimpleName(), upload);
+    }
+
+    /**
+     * Uploads the segments of the provided {@code upload} that have not been acknowledged yet.
+     * <p>
+     * The segments are read sequentially from the {@code inputStream} in a pool of {@link #parallelism} buffers,
+     * and each buffer is uploaded by the uploader's threads before being reused. The reading is stopped as soon as a
+     * segment cannot be uploaded, and this method returns once the segments being uploaded are completed.
+     *
+     * @param upload      the {@link MediaUpload} to upload the segments of
+     * @param inputStream the {@link InputStream} to read the media from, positioned at the beginning of the media
+     * @throws MediaUploadException if a segment cannot be uploaded
+     * @throws IOException          if an error occurred when reading the media
+     * @throws InterruptedException if the thread has been interrupted while waiting for a buffer
+     */
+    private void appendSegments(MediaUpload upload, InputStream inputStream) throws IOException,
+            InterruptedException, MediaUploadException {
+        int firstSegment = upload.getFirstPendingSegment();
+        skipFully(inputStream, (long) firstSegment * upload.getSegmentSize());
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(parallelism);
+        int allocatedBuffers = 0;
+        List<CompletableFuture<Void>> appends = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (int segment = firstSegment; segment < upload.getSegmentCount() && failure.get() == null;
+                 segment++) {
+                int length = upload.getSegmentLength(segment);
+                if (upload.isAcknowledged(segment)) {
+                    skipFully(inputStream, length);
+                    continue;
+                }
+                byte[] buffer = buffers.poll();
+                if (buffer == null && allocatedBuffers < parallelism) {
+                    buffer = new byte[(int) Math.min(upload.getSegmentSize(), upload.getTotalBytes())];
+                    allocatedBuffers++;
+                } else if (buffer == null) {
+                    buffer = buffers.take();
+                }
+                if (failure.get() != null) {
+                    break;
+                }
+                readFully(inputStream, buffer, length);
+                int index = segment;
+                byte[] data = buffer;
+                appends.add(CompletableFuture.runAsync(() -> this.append(upload, index, data, length), executor)
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                failure.compareAndSet(null, throwable);
+                            }
+                            buffers.add(data);
+                        }));
+            }
+        } finally {
+            CompletableFuture.allOf(appends.toArray(new CompletableFuture<?>[0])).handle((result, throwable) -> null)
+                    .join();
+        }
+        Throwable cause = failure.get();
+        if (cause != null) {
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof UncheckedTwitterException) {
+                cause = cause.getCause();
+            }
+            throw new MediaUploadException("Cannot upload the " + upload + ": " + cause.getMessage(), upload, cause);
+        }
+    }
+
+    /**
+     * Uploads the provided segment.
+     *
+     * @param upload  the {@link MediaUpload} containing the segment
+     * @param segment the index of the segment
+     * @param data    the buffer containing the segment
+     * @param length  the size of the segment, in bytes
+     * @throws UncheckedTwitterException if the segment cannot be uploaded
+     */
+    private void append(MediaUpload upload, int segment, byte[] data, int length) {
+        try {
+            /*
+             * The segment is streamed from a new stream for each attempt, the buffer is not modified until the
+             * segment is completed.
+             */
+            this.callWithRetries(() -> new HttpParameter[]{new HttpParameter("command", "APPEND"),
+                    new HttpParameter("media_id", upload.getMediaId()),
+                    new HttpParameter("segment_index", segment),
+                    new HttpParameter("media", "segment-" + segment, new ByteArrayInputStream(data, 0, length))})
+                    .asString();
+            upload.acknowledge(segment);
+        } catch (TwitterException e) {
+            throw new UncheckedTwitterException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedTwitterException(new TwitterException("Interrupted while uploading the segment "
+                    + segment + " of the " + upload, e));
+        }
+    }
+
+    /**
+     * Retrieves the processing status of the provided {@code upload}.
+     * <p>
+     * Status checks failing with a transient error are retried up to {@link #maxAttempts} times.
+     *
+     * @param upload  the {@link MediaUpload} to retrieve the processing status of
+     * @param future  the {@link CompletableFuture} to complete once the media is processed
+     * @param attempt the number of the attempt, starting at {@code 1}
+     */
+    private void checkStatus(MediaUpload upload, CompletableFuture<MediaUpload> future, int attempt) {
+        try {
+            JSONObject response = this.call(RequestMethod.GET, new HttpParameter("command", "STATUS"),
+                    new HttpParameter("media_id", upload.getMediaId())).asJSONObject();
+            this.onProcessingInfo(upload, response, future);
+        } catch (TwitterException e) {
+            if (attempt < maxAttempts && isTransient(e)) {
+                this.scheduleStatusCheck(upload, future, getRetryDelay(attempt), attempt + 1);
+            } else {
+                future.completeExceptionally(new MediaUploadException("Cannot retrieve the processing status of the "
+                        + upload, upload, e));
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(new MediaUploadException("Cannot retrieve the processing status of the "
+                    + upload, upload, e));
+        }
+    }
+
+    /**
+     * Handles the processing information contained in the provided {@code FINALIZE} or {@code STATUS}
+     * {@code response}.
+     * <p>
+     * The {@code future} is completed if the media has been processed (or does not need to be processed), and a new
+     * status check is scheduled otherwise.
+     *
+     * @param upload   the processed {@link MediaUpload}
+     * @param response the JSON response returned by the Twitter API
+     * @param future   the {@link CompletableFuture} to complete once the media is processed
+     */
+    private void onProcessingInfo(MediaUpload upload, JSONObject response, CompletableFuture<MediaUpload> future) {
+        JSONObject processingInfo = response.optJSONObject("processing_info");
+        String state = processingInfo == null ? "succeeded" : processingInfo.optString("state");
+        switch (state) {
+            case "succeeded":
+                upload.update(MediaUpload.State.SUCCEEDED, 100, null);
+                Log.debug("{0} Uploaded {1}", this.getClass().getSimpleName(), upload);
+                future.complete(upload);
+                break;
+            case "failed":
+                JSONObject error = processingInfo.optJSONObject("error");
+                String message = error == null ? "unknown error" : error.optString("message",
+                        error.optString("name", "unknown error"));
+                upload.update(MediaUpload.State.FAILED, processingInfo.optInt("progress_percent", 0), message);
+                future.completeExceptionally(new MediaUploadException("Twitter cannot process the " + upload + ": "
+                        + message, upload, null));
+                break;
+            default:
+                upload.update(MediaUpload.State.PROCESSING, processingInfo.optInt("progress_percent", 0), null);
+                long checkAfterSecs = Math.max(1, processingInfo.optLong("check_after_secs", 1));
+                this.scheduleStatusCheck(upload, future, TimeUnit.SECONDS.toMillis(checkAfterSecs), 1);
+        }
+    }
+
+    /**
+     * Schedules a status check of the provided {@code upload}.
+     * <p>
+     * No thread is blocked until the status check is performed.
+     *
+     * @param upload  the {@link MediaUpload} to retrieve the processing status of
+     * @param future  the {@link CompletableFuture} to complete once the media is processed
+     * @param delay   the delay (in milliseconds) before checking the status
+     * @param attempt the number of the attempt, starting at {@code 1}
+     */
+    private void scheduleStatusCheck(MediaUpload upload, CompletableFuture<MediaUpload> future, long delay,
+                                     int attempt) {
+        try {
+            scheduler.schedule(() -> this.dispatch(upload, future, () -> this.checkStatus(upload, future, attempt)),
+                    delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new MediaUploadException("Cannot check the processing status of the "
+                    + upload + ", the platform is stopped", upload, e));
+        }
+    }
+
+    /**
+     * Executes the provided {@code task} with the uploader's threads.
+     *
+     * @param upload the {@link MediaUpload} handled by the {@code task}
+     * @param future the {@link CompletableFuture} completed exceptionally if the {@code task} is rejected
+     * @param task   the task to execute
+     */
+    private void dispatch(MediaUpload upload, CompletableFuture<MediaUpload> future, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new MediaUploadException("Cannot upload the " + upload + ", the "
+                    + this.getClass().getSimpleName() + " is closed", upload, e));
+        }
+    }
+
+    /**
+     * Performs a {@code POST} call to the upload endpoint with the provided {@code parameters}.
+     * <p>
+     * Calls failing with a transient error are retried up to {@link #maxAttempts} times.
+     *
+     * @param parameters the parameters of the call
+     * @return the {@link HttpResponse} of the call
+     * @throws TwitterException     if an error occurred when accessing the Twitter API, or if the call has been
+     *                              rejected by the platform
+     * @throws InterruptedException if the thread has been interrupted while waiting for a retry
+     */
+    private HttpResponse callWithRetries(HttpParameter... parameters) throws TwitterException, InterruptedException {
+        return this.callWithRetries(() -> parameters);
+    }
+
+    /**
+     * Performs a {@code POST} call to the upload endpoint with the parameters created by the provided
+     * {@code parameters} supplier.
+     * <p>
+     * The parameters are created for each attempt, allowing to provide a new stream to read the uploaded data from.
+     * Calls failing with a transient error are retried up to {@link #maxAttempts} times.
+     *
+     * @param parameters the supplier creating the parameters of the call
+     * @return the {@link HttpResponse} of the call
+     * @throws TwitterException     if an error occurred when accessing the Twitter API, or if the call has been
+     *                              rejected by the platform
+     * @throws InterruptedException if the thread has been interrupted while waiting for a retry
+     */
+    private HttpResponse callWithRetries(Supplier<HttpParameter[]> parameters) throws TwitterException,
+            InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            HttpParameter[] attemptParameters = parameters.get();
+            try {
+                return this.call(RequestMethod.POST, attemptParameters);
+            } catch (TwitterException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                long delay = getRetryDelay(attempt);
+                Log.debug("{0} Retrying the {1} command in {2} ms (attempt {3}): {4}",
+                        this.getClass().getSimpleName(), attemptParameters[0].getValue(), delay, attempt,
+                        e.getMessage());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Performs a call to the upload endpoint with the provided {@code parameters}.
+     * <p>
+     * The call is signed with the credentials of the platform's primary account, and performed with its HTTP
+     * client.
+     *
+     * @param method     the HTTP method of the call
+     * @param parameters the parameters of the call
+     * @return the {@link HttpResponse} of the call
+     * @throws TwitterException if an error occurred when accessing the Twitter API, or if the call has been rejected
+     *                          by the platform
+     */
+    private HttpResponse call(RequestMethod method, HttpParameter... parameters) throws TwitterException {
+        return platform.execute(TwitterEndpoint.MEDIA_UPLOAD, twitter -> {
+            HttpClient httpClient = HttpClientFactory.getInstance(twitter.getConfiguration()
+                    .getHttpClientConfiguration());
+            String url = twitter.getConfiguration().getUploadBaseURL() + UPLOAD_PATH;
+            return method == RequestMethod.GET ? httpClient.get(url, parameters, twitter.getAuthorization(), null)
+                    : httpClient.post(url, parameters, twitter.getAuthorization(), null);
+        });
+    }
+
+    /**
+     * Returns whether the provided {@code error} is transient, i.e. whether the failed call can be retried.
+     *
+     * @param error the {@link TwitterException} thrown by the call
+     * @return {@code true} if the {@code error} is a network or a server error, {@code false} otherwise
+     */
+    private static boolean isTransient(TwitterException error) {
+        if (error instanceof RateLimitExceededException || error instanceof CircuitOpenException) {
+            return false;
+        }
+        return error.isCausedByNetworkIssue() || error.getStatusCode() >= 500;
+    }
+
+    /**
+     * Returns the delay before retrying a call that failed for the provided {@code attempt}.
+     *
+     * @param attempt the number of the failed attempt, starting at {@code 1}
+     * @return the delay before retrying the call, in milliseconds
+     */
+    private static long getRetryDelay(int attempt) {
+        return Math.min(MAX_RETRY_DELAY, RETRY_DELAY << Math.min(attempt - 1, 30));
+    }
+
+    /**
+     * Returns the MIME type of the provided media {@code file}.
+     *
+     * @param file the {@link Path} of the media file
+     * @return the MIME type of the {@code file}
+     * @throws IOException              if an error occurred when probing the type of the {@code file}
+     * @throws IllegalArgumentException if the type of the {@code file} is not supported
+     */
+    private static String getMediaType(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String mediaType = MEDIA_TYPES.get(fileName.substring(fileName.lastIndexOf('.') + 1)
+                .toLowerCase(Locale.ROOT));
+        if (mediaType == null) {
+            mediaType = Files.probeContentType(file);
+        }
+        checkArgument(mediaType != null && (mediaType.startsWith("image/") || mediaType.startsWith("video/")),
+                "Cannot upload the media %s, its type (%s) is not supported", file, mediaType);
+        return mediaType;
+    }
+
+    /**
+     * Returns the Twitter category of the provided {@code mediaType}.
+     *
+     * @param mediaType the MIME type of a media
+     * @return the Twitter category of the {@code mediaType}
+     */
+    private static String getMediaCategory(String mediaType) {
+        if (mediaType.equals("image/gif")) {
+            return "tweet_gif";
+        } else if (mediaType.startsWith("video/")) {
+            return "tweet_video";
+        } else {
+            return "tweet_image";
+        }
+    }
+
+    /**
+     * Reads exactly {@code length} bytes from the provided {@code inputStream}.
+     *
+     * @param inputStream the {@link InputStream} to read
+     * @param buffer      the buffer to store the read bytes in
+     * @param length      the number of bytes to read
+     * @throws EOFException if the {@code inputStream} contains less than {@code length} bytes
+     * @throws IOException  if an error occurred when reading the {@code inputStream}
+     */
+    private static void readFully(InputStream inputStream, byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = inputStream.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("The media is shorter than its declared size");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Skips exactly {@code length} bytes of the provided {@code inputStream}.
+     *
+     * @param inputStream the {@link InputStream} to skip the bytes of
+     * @param length      the number of bytes to skip
+     * @throws EOFException if the {@code inputStream} contains less than {@code length} bytes
+     * @throws IOException  if an error occurred when reading the {@code inputStream}
+     */
+    private static void skipFully(InputStream inputStream, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = inputStream.skip(remaining);
+            if (skipped <= 0) {
+                if (inputStream.read() < 0) {
+                    throw new EOFException("The media is shorter than its declared size");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
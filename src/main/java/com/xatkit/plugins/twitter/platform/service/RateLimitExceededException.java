@@ -0,0 +1,56 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * Thrown by the {@link RateLimitScheduler} when a call is rejected to preserve the rate-limit budget of its endpoint.
+ * <p>
+ * This exception is thrown before accessing the Twitter API, meaning that the rejected call did not consume any
+ * budget.
+ */
+public class RateLimitExceededException extends TwitterException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The endpoint the rejected call targeted.
+     */
+    private final TwitterEndpoint endpoint;
+
+    /**
+     * The number of seconds until the rate-limit budget of the endpoint is reset.
+     */
+    private final int secondsUntilReset;
+
+    /**
+     * Constructs a {@link RateLimitExceededException} for the provided {@code endpoint}.
+     *
+     * @param endpoint          the endpoint the rejected call targeted
+     * @param secondsUntilReset the number of seconds until the rate-limit budget of {@code endpoint} is reset
+     */
+    public RateLimitExceededException(@NonNull TwitterEndpoint endpoint, int secondsUntilReset) {
+        super("Rate limit exceeded for " + endpoint.getResource() + ", the budget will be reset in "
+                + secondsUntilReset + " seconds");
+        this.endpoint = endpoint;
+        this.secondsUntilReset = secondsUntilReset;
+    }
+
+    /**
+     * Returns the endpoint the rejected call targeted.
+     *
+     * @return the endpoint the rejected call targeted
+     */
+    public TwitterEndpoint getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Returns the number of seconds until the rate-limit budget of the endpoint is reset.
+     *
+     * @return the number of seconds until the rate-limit budget of the endpoint is reset
+     */
+    public int getSecondsUntilReset() {
+        return this.secondsUntilReset;
+    }
+}
@@ -0,0 +1,24 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+/**
+ * The policies applied by the {@link RateLimitScheduler} to the calls of an endpoint.
+ */
+public enum RateLimitPolicy {
+
+    /**
+     * Rejects the calls as soon as the rate-limit budget of the endpoint is exhausted.
+     */
+    REJECT,
+
+    /**
+     * Consumes the rate-limit budget of the endpoint as fast as requested, and then queues the calls until the next
+     * rate-limit window (up to the configured maximum wait time and queue size).
+     */
+    QUEUE,
+
+    /**
+     * Spreads the remaining rate-limit budget of the endpoint evenly over the rest of the rate-limit window, delaying
+     * the calls that would consume it too fast (up to the configured maximum wait time).
+     */
+    DELAY
+}
@@ -0,0 +1,376 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.RateLimitStatus;
+import twitter4j.TwitterException;
+import twitter4j.TwitterResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Schedules the calls to the Twitter API according to the rate-limit budget of their endpoint.
+ * <p>
+ * This class holds a token bucket for each {@link TwitterEndpoint}, seeded with {@link #seed(Map)} (typically with
+ * the result of {@link twitter4j.Twitter#getRateLimitStatus()}) and updated with the rate-limit headers of each
+ * response. Calls are checked with {@link #acquire(TwitterEndpoint)} before accessing the API, and are rejected,
+ * queued, or delayed according to the {@link RateLimitPolicy} of their endpoint when its budget is (or is about to
+ * be) exhausted.
+ * <p>
+ * The policy of each endpoint can be configured with the following keys (the endpoint-specific keys take
+ * precedence over the global ones):
+ * <ul>
+ * <li>{@code xatkit.twitter.ratelimit.policy} / {@code xatkit.twitter.ratelimit.<endpoint>.policy}: the
+ * {@link RateLimitPolicy} of the endpoint (default {@link RateLimitPolicy#QUEUE})</li>
+ * <li>{@code xatkit.twitter.ratelimit.maxWait} / {@code xatkit.twitter.ratelimit.<endpoint>.maxWait}: the maximum
+ * time (in milliseconds) a call can wait for budget before being rejected</li>
+ * <li>{@code xatkit.twitter.ratelimit.maxQueue} / {@code xatkit.twitter.ratelimit.<endpoint>.maxQueue}: the maximum
+ * number of calls waiting for budget at the same time</li>
+ * </ul>
+ * where {@code <endpoint>} is the {@link TwitterEndpoint#getConfigurationName()} of the endpoint.
+ * <p>
+ * This class is thread-safe.
+ */
+public class RateLimitScheduler {
+
+    /**
+     * The token buckets of the endpoints.
+     */
+    private final Map<TwitterEndpoint, TokenBucket> buckets = new EnumMap<>(TwitterEndpoint.class);
+
+    /**
+     * Constructs a {@link RateLimitScheduler} configured with the provided {@code configuration}.
+     *
+     * @param configuration the {@link Configuration} containing the rate-limit policies
+     */
+    public RateLimitScheduler(@NonNull Configuration configuration) {
+        RateLimitPolicy defaultPolicy = RateLimitPolicy.valueOf(configuration.getString(
+                TwitterUtils.TWITTER_RATE_LIMIT_PREFIX + TwitterUtils.TWITTER_RATE_LIMIT_POLICY_SUFFIX,
+                TwitterUtils.DEFAULT_RATE_LIMIT_POLICY).toUpperCase());
+        long defaultMaxWait = configuration.getLong(
+                TwitterUtils.TWITTER_RATE_LIMIT_PREFIX + TwitterUtils.TWITTER_RATE_LIMIT_MAX_WAIT_SUFFIX,
+                TwitterUtils.DEFAULT_RATE_LIMIT_MAX_WAIT);
+        int defaultMaxQueue = configuration.getInt(
+                TwitterUtils.TWITTER_RATE_LIMIT_PREFIX + TwitterUtils.TWITTER_RATE_LIMIT_MAX_QUEUE_SUFFIX,
+                TwitterUtils.DEFAULT_RATE_LIMIT_MAX_QUEUE);
+        for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+            String prefix = TwitterUtils.TWITTER_RATE_LIMIT_PREFIX + endpoint.getConfigurationName() + ".";
+            String policy = configuration.getString(prefix + TwitterUtils.TWITTER_RATE_LIMIT_POLICY_SUFFIX);
+            buckets.put(endpoint, new TokenBucket(endpoint,
+                    policy == null ? defaultPolicy : RateLimitPolicy.valueOf(policy.toUpperCase()),
+                    configuration.getLong(prefix + TwitterUtils.TWITTER_RATE_LIMIT_MAX_WAIT_SUFFIX, defaultMaxWait),
+                    configuration.getInt(prefix + TwitterUtils.TWITTER_RATE_LIMIT_MAX_QUEUE_SUFFIX,
+                            defaultMaxQueue)));
+        }
+    }
+
+    /**
+     * Seeds the token buckets with the provided {@code rateLimitStatuses}.
+     * <p>
+     * The provided map is typically the result of {@link twitter4j.Twitter#getRateLimitStatus()}, its keys are the
+     * rate-limit resources of the endpoints (see {@link TwitterEndpoint#getResource()}). Resources that are not used
+     * by the platform are ignored.
+     *
+     * @param rateLimitStatuses the {@link RateLimitStatus} of the rate-limit resources
+     */
+    public void seed(@NonNull Map<String, RateLimitStatus> rateLimitStatuses) {
+        for (Map.Entry<String, RateLimitStatus> entry : rateLimitStatuses.entrySet()) {
+            TwitterEndpoint endpoint = TwitterEndpoint.fromResource(entry.getKey());
+            if (endpoint != null && entry.getValue() != null) {
+                buckets.get(endpoint).update(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Acquires a token to call the provided {@code endpoint}.
+     * <p>
+     * This method returns immediately if the budget of the {@code endpoint} allows the call, and may block if the
+     * {@link RateLimitPolicy} of the {@code endpoint} is {@link RateLimitPolicy#QUEUE} or
+     * {@link RateLimitPolicy#DELAY}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to acquire a token for
+     * @throws RateLimitExceededException if the call is rejected to preserve the budget of the {@code endpoint}
+     * @throws TwitterException           if the current thread has been interrupted while waiting for a token
+     */
+    public void acquire(@NonNull TwitterEndpoint endpoint) throws TwitterException {
+        buckets.get(endpoint).acquire();
+    }
+
+    /**
+     * Updates the budget of the provided {@code endpoint} with the rate-limit headers of the provided
+     * {@code response}.
+     * <p>
+     * This method does nothing if the {@code response} is not a {@link TwitterResponse} or if it does not contain
+     * rate-limit headers.
+     *
+     * @param endpoint the {@link TwitterEndpoint} that returned the {@code response}
+     * @param response the response returned by the {@code endpoint}
+     */
+    public void onResponse(@NonNull TwitterEndpoint endpoint, Object response) {
+        if (response instanceof TwitterResponse) {
+            RateLimitStatus status = ((TwitterResponse) response).getRateLimitStatus();
+            if (status != null) {
+                buckets.get(endpoint).update(status);
+            }
+        }
+    }
+
+    /**
+     * Updates the budget of the provided {@code endpoint} after an error.
+     * <p>
+     * If the {@code error} has been caused by an exceeded rate limit the budget of the {@code endpoint} is exhausted
+     * until the reset time returned by the Twitter API.
+     *
+     * @param endpoint the {@link TwitterEndpoint} that returned the {@code error}
+     * @param error    the {@link TwitterException} returned by the {@code endpoint}
+     */
+    public void onError(@NonNull TwitterEndpoint endpoint, @NonNull TwitterException error) {
+        if (error instanceof RateLimitExceededException) {
+            return;
+        }
+        RateLimitStatus status = error.getRateLimitStatus();
+        if (error.exceededRateLimitation()) {
+            int secondsUntilReset = status == null ? error.getRetryAfter() : status.getSecondsUntilReset();
+            Log.warn("{0} Rate limit exceeded for {1}, the endpoint is blocked for {2} seconds",
+                    this.getClass().getSimpleName(), endpoint.getResource(), secondsUntilReset);
+            buckets.get(endpoint).exhaust(secondsUntilReset);
+        } else if (status != null) {
+            buckets.get(endpoint).update(status);
+        }
+    }
+
+    /**
+     * Returns the remaining budget of the provided {@code endpoint} in the current rate-limit window.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the budget of
+     * @return the number of calls that can still be performed in the current rate-limit window
+     */
+    public int getRemaining(@NonNull TwitterEndpoint endpoint) {
+        return buckets.get(endpoint).getRemaining();
+    }
+
+    /**
+     * Returns the number of calls allowed by the provided {@code endpoint} in a rate-limit window.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the limit of
+     * @return the number of calls allowed in a rate-limit window
+     */
+    public int getLimit(@NonNull TwitterEndpoint endpoint) {
+        return buckets.get(endpoint).getLimit();
+    }
+
+    /**
+     * Returns the number of seconds until the budget of the provided {@code endpoint} is reset.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the reset time of
+     * @return the number of seconds until the budget of the {@code endpoint} is reset
+     */
+    public int getSecondsUntilReset(@NonNull TwitterEndpoint endpoint) {
+        return buckets.get(endpoint).getSecondsUntilReset();
+    }
+
+    /**
+     * Returns the {@link RateLimitPolicy} of the provided {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the policy of
+     * @return the {@link RateLimitPolicy} of the {@code endpoint}
+     */
+    public RateLimitPolicy getPolicy(@NonNull TwitterEndpoint endpoint) {
+        return buckets.get(endpoint).policy;
+    }
+
+    /**
+     * The token bucket of a {@link TwitterEndpoint}.
+     * <p>
+     * The bucket contains the remaining number of calls in the current rate-limit window, and is refilled when the
+     * window is reset.
+     */
+    private static final class TokenBucket {
+
+        /**
+         * The endpoint this bucket holds the budget of.
+         */
+        private final TwitterEndpoint endpoint;
+
+        /**
+         * The {@link RateLimitPolicy} applied when the budget is (or is about to be) exhausted.
+         */
+        private final RateLimitPolicy policy;
+
+        /**
+         * The maximum time (in milliseconds) a call can wait for a token.
+         */
+        private final long maxWait;
+
+        /**
+         * The maximum number of calls waiting for a token at the same time.
+         */
+        private final int maxQueue;
+
+        /**
+         * The number of calls allowed in a rate-limit window.
+         */
+        private int limit;
+
+        /**
+         * The number of calls that can still be performed in the current rate-limit window.
+         */
+        private int remaining;
+
+        /**
+         * The time (in milliseconds since the epoch) the current rate-limit window ends at.
+         */
+        private long resetAt;
+
+        /**
+         * The time (in milliseconds since the epoch) the last token has been granted at.
+         */
+        private long lastGrant;
+
+        /**
+         * The number of calls currently waiting for a token.
+         */
+        private int waiting;
+
+        /**
+         * Constructs a {@link TokenBucket} for the provided {@code endpoint}.
+         *
+         * @param endpoint the endpoint the bucket holds the budget of
+         * @param policy   the {@link RateLimitPolicy} applied when the budget is exhausted
+         * @param maxWait  the maximum time (in milliseconds) a call can wait for a token
+         * @param maxQueue the maximum number of calls waiting for a token at the same time
+         */
+        private TokenBucket(TwitterEndpoint endpoint, RateLimitPolicy policy, long maxWait, int maxQueue) {
+            this.endpoint = endpoint;
+            this.policy = policy;
+            this.maxWait = maxWait;
+            this.maxQueue = maxQueue;
+            this.limit = endpoint.getDefaultLimit();
+            this.remaining = this.limit;
+            this.resetAt = System.currentTimeMillis() + endpoint.getWindow();
+        }
+
+        /**
+         * Acquires a token, waiting for it if allowed by the {@link #policy}.
+         *
+         * @throws RateLimitExceededException if there is no token available in the allowed wait time
+         * @throws TwitterException           if the current thread has been interrupted while waiting for a token
+         */
+        private synchronized void acquire() throws TwitterException {
+            long deadline = System.currentTimeMillis() + maxWait;
+            while (true) {
+                long now = System.currentTimeMillis();
+                this.refill(now);
+                long wait;
+                if (remaining > 0) {
+                    wait = policy == RateLimitPolicy.DELAY ? lastGrant + (resetAt - now) / remaining - now : 0;
+                    if (wait <= 0) {
+                        remaining--;
+                        lastGrant = now;
+                        return;
+                    }
+                } else if (policy == RateLimitPolicy.REJECT) {
+                    throw new RateLimitExceededException(endpoint, this.getSecondsUntilReset());
+                } else {
+                    wait = resetAt - now;
+                }
+                if (now + wait > deadline || waiting >= maxQueue) {
+                    throw new RateLimitExceededException(endpoint, this.getSecondsUntilReset());
+                }
+                waiting++;
+                try {
+                    this.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TwitterException("Interrupted while waiting for the rate limit of "
+                            + endpoint.getResource(), e);
+                } finally {
+                    waiting--;
+                }
+            }
+        }
+
+        /**
+         * Updates the budget with the provided {@code status}.
+         * <p>
+         * The remaining budget of the current window is never increased: calls granted locally may not be reflected
+         * in the {@code status} yet.
+         *
+         * @param status the {@link RateLimitStatus} returned by the Twitter API
+         */
+        private synchronized void update(RateLimitStatus status) {
+            long statusResetAt = status.getResetTimeInSeconds() * 1000L;
+            this.limit = status.getLimit();
+            if (Math.abs(statusResetAt - resetAt) > 1000) {
+                /*
+                 * The status belongs to another window than the local one (either a new one, or the local window is
+                 * an estimate that does not match the actual one).
+                 */
+                this.remaining = status.getRemaining();
+                this.resetAt = statusResetAt;
+            } else {
+                this.remaining = Math.min(remaining, status.getRemaining());
+            }
+            this.notifyAll();
+        }
+
+        /**
+         * Exhausts the budget for the provided number of seconds.
+         *
+         * @param secondsUntilReset the number of seconds until the budget is reset
+         */
+        private synchronized void exhaust(int secondsUntilReset) {
+            this.remaining = 0;
+            if (secondsUntilReset > 0) {
+                this.resetAt = System.currentTimeMillis() + secondsUntilReset * 1000L;
+            }
+        }
+
+        /**
+         * Refills the bucket if the current rate-limit window has ended.
+         * <p>
+         * The new window is estimated from the endpoint's window duration, and will be updated with the actual
+         * values returned by the Twitter API.
+         *
+         * @param now the current time, in milliseconds since the epoch
+         */
+        private void refill(long now) {
+            if (now >= resetAt) {
+                this.remaining = limit;
+                this.resetAt = now + endpoint.getWindow();
+            }
+        }
+
+        /**
+         * Returns the number of calls that can still be performed in the current rate-limit window.
+         *
+         * @return the number of calls that can still be performed in the current rate-limit window
+         */
+        private synchronized int getRemaining() {
+            this.refill(System.currentTimeMillis());
+            return remaining;
+        }
+
+        /**
+         * Returns the number of calls allowed in a rate-limit window.
+         *
+         * @return the number of calls allowed in a rate-limit window
+         */
+        private synchronized int getLimit() {
+            return limit;
+        }
+
+        /**
+         * Returns the number of seconds until the budget is reset.
+         *
+         * @return the number of seconds until the budget is reset
+         */
+        private synchronized int getSecondsUntilReset() {
+            return (int) Math.max(0, (resetAt - System.currentTimeMillis() + 999) / 1000);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.TwitterException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Decides how the platform reacts to the failed calls to the Twitter API.
+ * <p>
+ * This class holds a circuit breaker for each {@link TwitterEndpoint}. The circuit breaker of an endpoint opens
+ * after a configured number of consecutive transient failures (network errors and {@code 5xx} responses, see
+ * {@link #isTransient(TwitterException)}), and rejects the calls to the endpoint with a {@link CircuitOpenException}
+ * without accessing the Twitter API. Once the configured open duration has elapsed the circuit breaker is
+ * {@link CircuitState#HALF_OPEN}: a single probe call is let through, and closes the circuit breaker if it reaches
+ * the Twitter API, or opens it again if it fails.
+ * <p>
+ * This class also computes the delay before retrying a failed call (see
+ * {@link #getRetryDelay(TwitterEndpoint, TwitterException, int)}). Only the calls to idempotent endpoints (see
+ * {@link TwitterEndpoint#isIdempotent()}) that failed with a transient error are retried, using an exponential
+ * backoff with jitter that honors the {@code Retry-After} header of the response.
+ * <p>
+ * The policy of each endpoint can be configured with the following keys (the endpoint-specific keys take
+ * precedence over the global ones):
+ * <ul>
+ * <li>{@code xatkit.twitter.resilience.maxRetries} / {@code xatkit.twitter.resilience.<endpoint>.maxRetries}: the
+ * maximum number of times a failed call is retried</li>
+ * <li>{@code xatkit.twitter.resilience.baseDelay} / {@code xatkit.twitter.resilience.<endpoint>.baseDelay}: the
+ * delay (in milliseconds) before the first retry, doubled after each retry</li>
+ * <li>{@code xatkit.twitter.resilience.maxDelay} / {@code xatkit.twitter.resilience.<endpoint>.maxDelay}: the
+ * maximum delay (in milliseconds) before a retry</li>
+ * <li>{@code xatkit.twitter.resilience.failureThreshold} /
+ * {@code xatkit.twitter.resilience.<endpoint>.failureThreshold}: the number of consecutive failures opening the
+ * circuit breaker ({@code 0} disables the circuit breaker)</li>
+ * <li>{@code xatkit.twitter.resilience.openDuration} / {@code xatkit.twitter.resilience.<endpoint>.openDuration}:
+ * the time (in milliseconds) the circuit breaker stays open before letting a probe call through</li>
+ * </ul>
+ * where {@code <endpoint>} is the {@link TwitterEndpoint#getConfigurationName()} of the endpoint.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ResiliencePolicy {
+
+    /**
+     * The circuit breakers of the endpoints.
+     */
+    private final Map<TwitterEndpoint, CircuitBreaker> breakers = new EnumMap<>(TwitterEndpoint.class);
+
+    /**
+     * A flag telling whether stale cached results are served when an endpoint cannot be accessed.
+     */
+    private final boolean serveStale;
+
+    /**
+     * Constructs a {@link ResiliencePolicy} configured with the provided {@code configuration}.
+     *
+     * @param configuration the {@link Configuration} containing the retry and circuit breaker settings
+     * @throws IllegalArgumentException if a setting is negative
+     */
+    public ResiliencePolicy(@NonNull Configuration configuration) {
+        int defaultMaxRetries = configuration.getInt(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, TwitterUtils.DEFAULT_RESILIENCE_MAX_RETRIES);
+        long defaultBaseDelay = configuration.getLong(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_BASE_DELAY_SUFFIX, TwitterUtils.DEFAULT_RESILIENCE_BASE_DELAY);
+        long defaultMaxDelay = configuration.getLong(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_DELAY_SUFFIX, TwitterUtils.DEFAULT_RESILIENCE_MAX_DELAY);
+        int defaultFailureThreshold = configuration.getInt(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                        + TwitterUtils.TWITTER_RESILIENCE_FAILURE_THRESHOLD_SUFFIX,
+                TwitterUtils.DEFAULT_RESILIENCE_FAILURE_THRESHOLD);
+        long defaultOpenDuration = configuration.getLong(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_OPEN_DURATION_SUFFIX, TwitterUtils.DEFAULT_RESILIENCE_OPEN_DURATION);
+        for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+            String prefix = TwitterUtils.TWITTER_RESILIENCE_PREFIX + endpoint.getConfigurationName() + ".";
+            breakers.put(endpoint, new CircuitBreaker(endpoint,
+                    configuration.getInt(prefix + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX,
+                            defaultMaxRetries),
+                    configuration.getLong(prefix + TwitterUtils.TWITTER_RESILIENCE_BASE_DELAY_SUFFIX,
+                            defaultBaseDelay),
+                    configuration.getLong(prefix + TwitterUtils.TWITTER_RESILIENCE_MAX_DELAY_SUFFIX,
+                            defaultMaxDelay),
+                    configuration.getInt(prefix + TwitterUtils.TWITTER_RESILIENCE_FAILURE_THRESHOLD_SUFFIX,
+                            defaultFailureThreshold),
+                    configuration.getLong(prefix + TwitterUtils.TWITTER_RESILIENCE_OPEN_DURATION_SUFFIX,
+                            defaultOpenDuration)));
+        }
+        this.serveStale = configuration.getBoolean(TwitterUtils.TWITTER_RESILIENCE_SERVE_STALE_KEY,
+                TwitterUtils.DEFAULT_RESILIENCE_SERVE_STALE);
+    }
+
+    /**
+     * Checks that a call to the provided {@code endpoint} can be performed.
+     * <p>
+     * Calls that pass this check must be completed with {@link #onSuccess(TwitterEndpoint)},
+     * {@link #onFailure(TwitterEndpoint, TwitterException)}, or {@link #release(TwitterEndpoint)} if they are
+     * aborted before accessing the Twitter API.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to call
+     * @throws CircuitOpenException if the circuit breaker of the {@code endpoint} is open, or if it is half-open and
+     *                              its probe call is in progress
+     */
+    public void beforeCall(@NonNull TwitterEndpoint endpoint) throws CircuitOpenException {
+        breakers.get(endpoint).acquire(System.currentTimeMillis());
+    }
+
+    /**
+     * Records a call to the provided {@code endpoint} that reached the Twitter API.
+     * <p>
+     * This method closes the circuit breaker of the {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} that has been called
+     */
+    public void onSuccess(@NonNull TwitterEndpoint endpoint) {
+        breakers.get(endpoint).onSuccess();
+    }
+
+    /**
+     * Records a failed call to the provided {@code endpoint}.
+     * <p>
+     * Transient errors (see {@link #isTransient(TwitterException)}) count towards the opening of the circuit breaker
+     * of the {@code endpoint}. Other errors mean that the Twitter API answered the call, and are handled as
+     * {@link #onSuccess(TwitterEndpoint)}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} that has been called
+     * @param error    the error thrown by the call
+     */
+    public void onFailure(@NonNull TwitterEndpoint endpoint, @NonNull TwitterException error) {
+        if (isTransient(error)) {
+            breakers.get(endpoint).onFailure(System.currentTimeMillis());
+        } else {
+            breakers.get(endpoint).onSuccess();
+        }
+    }
+
+    /**
+     * Releases a call to the provided {@code endpoint} that has been aborted before accessing the Twitter API.
+     * <p>
+     * This method lets another call probe the {@code endpoint} if the aborted call was the probe of a half-open
+     * circuit breaker.
+     *
+     * @param endpoint the {@link TwitterEndpoint} the aborted call targeted
+     */
+    public void release(@NonNull TwitterEndpoint endpoint) {
+        breakers.get(endpoint).release();
+    }
+
+    /**
+     * Returns the delay before retrying a failed call to the provided {@code endpoint}.
+     * <p>
+     * Calls are not retried if the {@code endpoint} is not idempotent, if they exceeded the configured maximum number
+     * of retries, if they have been rejected by the platform without accessing the Twitter API (see
+     * {@link RateLimitExceededException} and {@link CircuitOpenException}), or if they failed with an error that is
+     * not transient. Calls to account-neutral endpoints that exceeded the rate limit of their account are retried
+     * immediately, letting the {@link AccountPool} select another account.
+     * <p>
+     * The delay grows exponentially with the {@code attempt}, and is randomized to spread the retries of concurrent
+     * calls. It is extended to the delay requested by the Twitter API (the {@code Retry-After} header of the
+     * response), and the call is not retried if this delay exceeds the configured maximum delay.
+     *
+     * @param endpoint the {@link TwitterEndpoint} that has been called
+     * @param error    the error thrown by the call
+     * @param attempt  the number of the retry to perform, starting at {@code 1}
+     * @return the delay (in milliseconds) before retrying the call, or {@code -1} if the call should not be retried
+     */
+    public long getRetryDelay(@NonNull TwitterEndpoint endpoint, @NonNull TwitterException error, int attempt) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (!endpoint.isIdempotent() || attempt > breaker.maxRetries || error instanceof RateLimitExceededException
+                || error instanceof CircuitOpenException) {
+            return -1;
+        }
+        if (error.exceededRateLimitation()) {
+            return endpoint.isAccountNeutral() ? 0 : -1;
+        }
+        if (!isTransient(error)) {
+            return -1;
+        }
+        long delay = Math.min(breaker.maxDelay, breaker.baseDelay << Math.min(attempt - 1, 30));
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        long retryAfter = getRetryAfterMillis(error);
+        if (retryAfter > breaker.maxDelay) {
+            return -1;
+        }
+        return Math.max(delay, retryAfter);
+    }
+
+    /**
+     * Returns the state of the circuit breaker of the provided {@code endpoint}.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the circuit breaker state of
+     * @return the {@link CircuitState} of the {@code endpoint}
+     */
+    public CircuitState getState(@NonNull TwitterEndpoint endpoint) {
+        return breakers.get(endpoint).getState(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns whether stale cached results are served when an endpoint cannot be accessed.
+     *
+     * @return {@code true} if stale cached results are served, {@code false} otherwise
+     */
+    public boolean isServeStale() {
+        return this.serveStale;
+    }
+
+    /**
+     * Returns whether the provided {@code error} is transient.
+     * <p>
+     * Transient errors are the network errors and the {@code 5xx} responses of the Twitter API: the same call may
+     * succeed later.
+     *
+     * @param error the error to check
+     * @return {@code true} if the {@code error} is transient, {@code false} otherwise
+     */
+    public static boolean isTransient(@NonNull TwitterException error) {
+        return !(error instanceof RateLimitExceededException) && !(error instanceof CircuitOpenException)
+                && (error.isCausedByNetworkIssue() || error.getStatusCode() >= 500);
+    }
+
+    /**
+     * Returns the delay requested by the Twitter API before retrying the call that threw the provided
+     * {@code error}.
+     *
+     * @param error the error thrown by the call
+     * @return the delay (in milliseconds) requested by the Twitter API, or {@code 0} if the response does not
+     * define it
+     */
+    private static long getRetryAfterMillis(TwitterException error) {
+        String header;
+        try {
+            header = error.getResponseHeader("Retry-After");
+        } catch (NullPointerException e) {
+            /*
+             * TwitterException#getResponseHeader throws a NullPointerException when the response does not contain
+             * the requested header.
+             */
+            header = null;
+        }
+        if (header != null) {
+            try {
+                return Math.max(0, Long.parseLong(header.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                /*
+                 * HTTP-date values are not used by the Twitter API, fall back to the backoff delay.
+                 */
+                return 0;
+            }
+        }
+        return Math.max(0, error.getRetryAfter()) * 1000L;
+    }
+
+    /**
+     * The circuit breaker and the retry settings of an endpoint.
+     */
+    private static class CircuitBreaker {
+
+        /**
+         * The {@link TwitterEndpoint} protected by the circuit breaker.
+         */
+        private final TwitterEndpoint endpoint;
+
+        /**
+         * The maximum number of times a failed call is retried.
+         */
+        private final int maxRetries;
+
+        /**
+         * The delay (in milliseconds) before the first retry.
+         */
+        private final long baseDelay;
+
+        /**
+         * The maximum delay (in milliseconds) before a retry.
+         */
+        private final long maxDelay;
+
+        /**
+         * The number of consecutive failures opening the circuit breaker.
+         */
+        private final int failureThreshold;
+
+        /**
+         * The time (in milliseconds) the circuit breaker stays open.
+         */
+        private final long openDuration;
+
+        /**
+         * The current state of the circuit breaker.
+         */
+        private CircuitState state = CircuitState.CLOSED;
+
+        /**
+         * The number of consecutive transient failures.
+         */
+        private int consecutiveFailures;
+
+        /**
+         * The time (in milliseconds since epoch) the circuit breaker has been opened.
+         */
+        private long openedAt;
+
+        /**
+         * A flag telling whether the probe call of the half-open circuit breaker is in progress.
+         */
+        private boolean probing;
+
+        /**
+         * Constructs a {@link CircuitBreaker} with the provided settings.
+         *
+         * @param endpoint         the {@link TwitterEndpoint} protected by the circuit breaker
+         * @param maxRetries       the maximum number of times a failed call is retried
+         * @param baseDelay        the delay (in milliseconds) before the first retry
+         * @param maxDelay         the maximum delay (in milliseconds) before a retry
+         * @param failureThreshold the number of consecutive failures opening the circuit breaker
+         * @param openDuration     the time (in milliseconds) the circuit breaker stays open
+         * @throws IllegalArgumentException if a setting is negative
+         */
+        private CircuitBreaker(TwitterEndpoint endpoint, int maxRetries, long baseDelay, long maxDelay,
+                               int failureThreshold, long openDuration) {
+            checkArgument(maxRetries >= 0, "Invalid maximum number of retries for %s: expected a positive value, "
+                    + "found %s", endpoint.getConfigurationName(), maxRetries);
+            checkArgument(baseDelay >= 0 && maxDelay >= 0, "Invalid retry delays for %s: expected positive values, "
+                    + "found %s and %s", endpoint.getConfigurationName(), baseDelay, maxDelay);
+            checkArgument(failureThreshold >= 0 && openDuration >= 0, "Invalid circuit breaker settings for %s: "
+                            + "expected positive values, found a threshold of %s and an open duration of %s",
+                    endpoint.getConfigurationName(), failureThreshold, openDuration);
+            this.endpoint = endpoint;
+            this.maxRetries = maxRetries;
+            this.baseDelay = baseDelay;
+            this.maxDelay = maxDelay;
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+        }
+
+        /**
+         * Checks that a call can be performed at the provided time.
+         *
+         * @param now the current time (in milliseconds since epoch)
+         * @throws CircuitOpenException if the circuit breaker is open, or if it is half-open and its probe call is
+         *                              in progress
+         */
+        private synchronized void acquire(long now) throws CircuitOpenException {
+            CircuitState currentState = this.getState(now);
+            if (currentState == CircuitState.OPEN) {
+                throw new CircuitOpenException(endpoint, openedAt + openDuration - now);
+            }
+            if (currentState == CircuitState.HALF_OPEN) {
+                if (probing) {
+                    throw new CircuitOpenException(endpoint, Math.max(1, baseDelay));
+                }
+                probing = true;
+            }
+        }
+
+        /**
+         * Records a call that reached the Twitter API, and closes the circuit breaker.
+         */
+        private synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            probing = false;
+            if (state != CircuitState.CLOSED) {
+                state = CircuitState.CLOSED;
+                Log.info("{0} Closed the circuit breaker of {1}", ResiliencePolicy.class.getSimpleName(),
+                        endpoint.getResource());
+            }
+        }
+
+        /**
+         * Records a transient failure, and opens the circuit breaker if the failure threshold is reached or if the
+         * failed call was the probe of the half-open circuit breaker.
+         *
+         * @param now the current time (in milliseconds since epoch)
+         */
+        private synchronized void onFailure(long now) {
+            if (failureThreshold == 0) {
+                return;
+            }
+            consecutiveFailures++;
+            boolean probeFailed = this.getState(now) == CircuitState.HALF_OPEN;
+            if (probeFailed || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+                state = CircuitState.OPEN;
+                openedAt = now;
+                probing = false;
+                Log.warn("{0} Opened the circuit breaker of {1} after {2} consecutive failures, the endpoint will be "
+                                + "probed in {3} ms", ResiliencePolicy.class.getSimpleName(), endpoint.getResource(),
+                        consecutiveFailures, openDuration);
+            }
+        }
+
+        /**
+         * Releases the probe call of the half-open circuit breaker if it has been aborted.
+         */
+        private synchronized void release() {
+            probing = false;
+        }
+
+        /**
+         * Returns the state of the circuit breaker at the provided time.
+         * <p>
+         * This method moves an open circuit breaker to the {@link CircuitState#HALF_OPEN} state once its open
+         * duration has elapsed.
+         *
+         * @param now the current time (in milliseconds since epoch)
+         * @return the {@link CircuitState} of the circuit breaker
+         */
+        private synchronized CircuitState getState(long now) {
+            if (state == CircuitState.OPEN && now - openedAt >= openDuration) {
+                state = CircuitState.HALF_OPEN;
+                probing = false;
+            }
+            return state;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import twitter4j.TwitterException;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Keeps the cursor of the last search of each {@link StateContext} to serve the following pages of its results.
+ * <p>
+ * The actions returning paged results (e.g. {@code LookForTweets} and {@code ReceiveDM}) open a cursor for their
+ * {@link StateContext} with {@link #open(StateContext, int, PageSource, Function)}, and the following pages are
+ * returned by {@link #nextPage(StateContext)} (see the {@code ShowMore} action). Each cursor only holds its
+ * {@link PageSource} (i.e. the position of the search) and, if prefetching is enabled, the next page of results:
+ * once a page has been returned by {@link #nextPage(StateContext)} the following one is fetched in the background,
+ * meaning that it is usually available in memory when the user asks for it. Cursors are never prefetched when they
+ * are opened: the searches whose results are not paged through do not cost any additional call.
+ * <p>
+ * The pager keeps at most one cursor per context, and at most {@code maxContexts} cursors: when this limit is reached
+ * the least recently used cursor is evicted. Cursors that have not been used for {@code idleTimeout} are evicted by
+ * a periodic sweep, and so are the cursors of the contexts that have been released by the bot (the pager only holds
+ * a weak reference to the {@link StateContext}, so that the end of the session releases its cursor). A cursor can
+ * also be explicitly evicted with {@link #evict(StateContext)}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see TwitterPlatform#getResultPager()
+ */
+public class ResultPager implements AutoCloseable {
+
+    /**
+     * The {@link ExecutorService} prefetching the pages.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The ticker returning the current time, in {@link System#nanoTime()} units.
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * The maximum number of results of a page.
+     */
+    private final int maxPageSize;
+
+    /**
+     * The delay after which an unused cursor is evicted, in nanoseconds.
+     */
+    private final long idleTimeoutNanos;
+
+    /**
+     * A flag telling whether the next page of each cursor is prefetched in the background.
+     */
+    private final boolean prefetch;
+
+    /**
+     * The cursors of the contexts, from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, Cursor<?>> cursors;
+
+    /**
+     * The periodic task evicting the idle cursors.
+     */
+    private final ScheduledFuture<?> sweep;
+
+    /**
+     * The number of pages that were already prefetched when they were requested.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The number of pages that had to be fetched (or waited for) when they were requested.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a {@link ResultPager} with the provided {@code configuration}.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @param executor      the {@link ExecutorService} prefetching the pages
+     * @param scheduler     the {@link ScheduledExecutorService} scheduling the eviction of the idle cursors
+     * @throws IllegalArgumentException if the maximum number of contexts, the idle timeout, or the maximum page size
+     *                                  is lower than {@code 1}
+     * @see TwitterUtils#TWITTER_PAGING_MAX_CONTEXTS_KEY
+     * @see TwitterUtils#TWITTER_PAGING_IDLE_TIMEOUT_KEY
+     * @see TwitterUtils#TWITTER_PAGING_MAX_PAGE_SIZE_KEY
+     * @see TwitterUtils#TWITTER_PAGING_PREFETCH_KEY
+     */
+    public ResultPager(@NonNull Configuration configuration, @NonNull ExecutorService executor,
+                       @NonNull ScheduledExecutorService scheduler) {
+        this(configuration, executor, scheduler, System::nanoTime);
+    }
+
+    /**
+     * Constructs a {@link ResultPager} with the provided {@code configuration} and {@code ticker}.
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @param executor      the {@link ExecutorService} prefetching the pages
+     * @param scheduler     the {@link ScheduledExecutorService} scheduling the eviction of the idle cursors
+     * @param ticker        the ticker returning the current time in nanoseconds, with the semantics of
+     *                      {@link System#nanoTime()}
+     * @throws IllegalArgumentException if the maximum number of contexts, the idle timeout, or the maximum page size
+     *                                  is lower than {@code 1}
+     * @see TwitterUtils#TWITTER_PAGING_MAX_CONTEXTS_KEY
+     * @see TwitterUtils#TWITTER_PAGING_IDLE_TIMEOUT_KEY
+     * @see TwitterUtils#TWITTER_PAGING_MAX_PAGE_SIZE_KEY
+     * @see TwitterUtils#TWITTER_PAGING_PREFETCH_KEY
+     */
+    public ResultPager(@NonNull Configuration configuration, @NonNull ExecutorService executor,
+                       @NonNull ScheduledExecutorService scheduler, @NonNull LongSupplier ticker) {
+        int maxContexts = configuration.getInt(TwitterUtils.TWITTER_PAGING_MAX_CONTEXTS_KEY,
+                TwitterUtils.DEFAULT_PAGING_MAX_CONTEXTS);
+        long idleTimeout = configuration.getLong(TwitterUtils.TWITTER_PAGING_IDLE_TIMEOUT_KEY,
+                TwitterUtils.DEFAULT_PAGING_IDLE_TIMEOUT);
+        this.maxPageSize = configuration.getInt(TwitterUtils.TWITTER_PAGING_MAX_PAGE_SIZE_KEY,
+                TwitterUtils.DEFAULT_PAGING_MAX_PAGE_SIZE);
+        this.prefetch = configuration.getBoolean(TwitterUtils.TWITTER_PAGING_PREFETCH_KEY,
+                TwitterUtils.DEFAULT_PAGING_PREFETCH);
+        checkArgument(maxContexts > 0 && idleTimeout > 0 && maxPageSize > 0, "Cannot create the %s with the provided "
+                        + "maximum number of contexts (%s), idle timeout (%s), and maximum page size (%s), expected "
+                        + "strictly positive values", this.getClass().getSimpleName(), maxContexts, idleTimeout,
+                maxPageSize);
+        this.executor = executor;
+        this.ticker = ticker;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeout);
+        this.cursors = new LinkedHashMap<String, Cursor<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cursor<?>> eldest) {
+                if (size() > maxContexts) {
+                    eldest.getValue().release();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.sweep = scheduler.scheduleWithFixedDelay(this::evictIdleCursors, idleTimeout, idleTimeout,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a cursor for the provided {@code context}, replacing its previous one if any.
+     * <p>
+     * The pages returned by {@link #nextPage(StateContext)} are fetched from the provided {@code source} and
+     * rendered with the provided {@code renderer}. The first page is fetched when it is requested, the following
+     * ones are prefetched if prefetching is enabled.
+     * <p>
+     * <b>Note</b>: the {@code source} and the {@code renderer} are held by the pager until the cursor is evicted, and
+     * must not reference the {@code context} (directly or through the action that opened the cursor), otherwise the
+     * cursor will not be released at the end of the session.
+     *
+     * @param context  the {@link StateContext} to open a cursor for
+     * @param pageSize the number of results of a page (up to the configured maximum page size)
+     * @param source   the {@link PageSource} fetching the following pages of results
+     * @param renderer the {@link Function} rendering the returned pages
+     * @param <R>      the type of the results
+     * @throws IllegalArgumentException if {@code pageSize} is lower than {@code 1}
+     * @see TwitterUtils#TWITTER_PAGING_MAX_PAGE_SIZE_KEY
+     */
+    public <R> void open(@NonNull StateContext context, int pageSize, @NonNull PageSource<R> source,
+                         @NonNull Function<List<R>, Object> renderer) {
+        checkArgument(pageSize > 0, "Cannot open a cursor with the provided page size %s, expected a strictly "
+                + "positive integer", pageSize);
+        Cursor<R> cursor = new Cursor<>(context, Math.min(pageSize, maxPageSize), source, renderer);
+        Cursor<?> previous;
+        synchronized (this) {
+            previous = cursors.put(context.getContextId(), cursor);
+        }
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /**
+     * Returns the next page of results of the provided {@code context}'s cursor.
+     * <p>
+     * The page is returned from memory if it has been prefetched, otherwise this method waits for the page to be
+     * fetched. The cursor is evicted once all the results have been returned, and kept if its {@link PageSource}
+     * returned an empty page but is not exhausted (see {@link PageSource#isExhausted()}). If the page cannot be
+     * fetched the cursor is kept, and the next call to this method tries to fetch the page again if its
+     * {@link PageSource} supports it (e.g. the searches of the {@code LookForTweets} action are resumed after a
+     * temporary error, see {@link TweetSearchIterator}). Sources that cannot be resumed return an empty page.
+     *
+     * @param context the {@link StateContext} to return the next page of
+     * @return the rendered page, or {@code null} if the {@code context} does not have an open cursor, if all its
+     * results have been returned, or if the fetched page is empty
+     * @throws TwitterException if an error occurred when fetching the page
+     */
+    public Object nextPage(@NonNull StateContext context) throws TwitterException {
+        Cursor<?> cursor;
+        synchronized (this) {
+            cursor = cursors.get(context.getContextId());
+            if (cursor == null) {
+                return null;
+            }
+            if (cursor.isIdle(ticker.getAsLong())) {
+                cursors.remove(context.getContextId());
+                cursor.release();
+                return null;
+            }
+            if (cursor.context.get() != context) {
+                /*
+                 * The bot may provide a new StateContext instance for the same context ID.
+                 */
+                cursor.context = new WeakReference<>(context);
+            }
+        }
+        Object page = cursor.next();
+        if (page == null && cursor.exhausted) {
+            synchronized (this) {
+                cursors.remove(context.getContextId(), cursor);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns whether the provided {@code context} has an open cursor.
+     *
+     * @param context the {@link StateContext} to check
+     * @return {@code true} if the {@code context} has an open cursor, {@code false} otherwise
+     */
+    public synchronized boolean hasCursor(@NonNull StateContext context) {
+        return cursors.containsKey(context.getContextId());
+    }
+
+    /**
+     * Evicts the cursor of the provided {@code context}.
+     * <p>
+     * This method can be called by the bot when a session ends, or when the results of its last search are not
+     * relevant anymore. Note that the pending prefetch of the cursor (if any) is not interrupted, but its result is
+     * discarded.
+     *
+     * @param context the {@link StateContext} to evict the cursor of
+     */
+    public void evict(@NonNull StateContext context) {
+        Cursor<?> cursor;
+        synchronized (this) {
+            cursor = cursors.remove(context.getContextId());
+        }
+        if (cursor != null) {
+            cursor.release();
+        }
+    }
+
+    /**
+     * Returns the number of open cursors.
+     *
+     * @return the number of open cursors
+     */
+    public synchronized int size() {
+        return cursors.size();
+    }
+
+    /**
+     * Returns the maximum number of results of a page.
+     *
+     * @return the maximum number of results of a page
+     */
+    public int getMaxPageSize() {
+        return this.maxPageSize;
+    }
+
+    /**
+     * Returns the number of pages that had already been prefetched when they were requested.
+     *
+     * @return the number of pages that had already been prefetched when they were requested
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of pages that had to be fetched (or waited for) when they were requested.
+     *
+     * @return the number of pages that had to be fetched when they were requested
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Stops the eviction of the idle cursors and evicts all the cursors.
+     */
+    @Override
+    public void close() {
+        sweep.cancel(false);
+        List<Cursor<?>> released;
+        synchronized (this) {
+            released = new ArrayList<>(cursors.values());
+            cursors.clear();
+        }
+        released.forEach(Cursor::release);
+    }
+
+    /**
+     * Evicts the cursors that have not been used for {@code idleTimeout}, and the ones of the released contexts.
+     */
+    private void evictIdleCursors() {
+        long now = ticker.getAsLong();
+        List<Cursor<?>> released = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Cursor<?>> it = cursors.values().iterator();
+            while (it.hasNext()) {
+                Cursor<?> cursor = it.next();
+                if (cursor.context.get() == null || cursor.isIdle(now)) {
+                    released.add(cursor);
+                    it.remove();
+                }
+            }
+        }
+        released.forEach(Cursor::release);
+    }
+
+    /**
+     * Fetches the following pages of a cursor.
+     * <p>
+     * The pages are fetched sequentially: a {@link PageSource} is never called concurrently, but can be called by
+     * different threads.
+     *
+     * @param <R> the type of the results
+     */
+    @FunctionalInterface
+    public interface PageSource<R> {
+
+        /**
+         * Fetches the next page of results.
+         *
+         * @param count the maximum number of results to return
+         * @return the results of the page, or an empty {@link List} if all the results have been returned
+         * @throws TwitterException if an error occurred when accessing the Twitter API
+         * @see #isExhausted()
+         */
+        List<R> fetch(int count) throws TwitterException;
+
+        /**
+         * Returns whether all the results have been returned.
+         * <p>
+         * This method is called when {@link #fetch(int)} returns an empty page. Sources that can return an empty page
+         * before their last one (e.g. when they bound the number of requests performed by a single fetch) override
+         * this method, so that their cursor is kept. The default implementation returns {@code true}.
+         *
+         * @return {@code true} if all the results have been returned, {@code false} otherwise
+         */
+        default boolean isExhausted() {
+            return true;
+        }
+    }
+
+    /**
+     * The cursor of a {@link StateContext}.
+     *
+     * @param <R> the type of the results
+     */
+    private final class Cursor<R> {
+
+        /**
+         * The {@link StateContext} owning this cursor.
+         */
+        private volatile WeakReference<StateContext> context;
+
+        /**
+         * The number of results of a page.
+         */
+        private final int pageSize;
+
+        /**
+         * The {@link PageSource} fetching the pages.
+         */
+        private final PageSource<R> source;
+
+        /**
+         * The {@link Function} rendering the returned pages.
+         */
+        private final Function<List<R>, Object> renderer;
+
+        /**
+         * The next page of results, if it is being (or has been) prefetched.
+         */
+        private volatile CompletableFuture<List<R>> pending;
+
+        /**
+         * A flag telling whether this cursor has been evicted.
+         */
+        private volatile boolean released;
+
+        /**
+         * A flag telling whether all the results of this cursor have been returned.
+         */
+        private volatile boolean exhausted;
+
+        /**
+         * The last time this cursor has been used, in nanoseconds.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Constructs a {@link Cursor} with the provided parameters.
+         *
+         * @param context  the {@link StateContext} owning this cursor
+         * @param pageSize the number of results of a page
+         * @param source   the {@link PageSource} fetching the pages
+         * @param renderer the {@link Function} rendering the returned pages
+         */
+        private Cursor(StateContext context, int pageSize, PageSource<R> source, Function<List<R>, Object> renderer) {
+            this.context = new WeakReference<>(context);
+            this.pageSize = pageSize;
+            this.source = source;
+            this.renderer = renderer;
+            this.lastAccess = ticker.getAsLong();
+        }
+
+        /**
+         * Returns whether this cursor has not been used for {@code idleTimeout}.
+         *
+         * @param now the current time, in nanoseconds
+         * @return {@code true} if this cursor is idle, {@code false} otherwise
+         */
+        private boolean isIdle(long now) {
+            return now - lastAccess > idleTimeoutNanos;
+        }
+
+        /**
+         * Returns the next rendered page of results.
+         *
+         * @return the rendered page, or {@code null} if the fetched page is empty
+         * @throws TwitterException if an error occurred when fetching the page
+         */
+        private synchronized Object next() throws TwitterException {
+            this.lastAccess = ticker.getAsLong();
+            List<R> page;
+            if (pending != null) {
+                if (pending.isDone()) {
+                    hitCount.increment();
+                } else {
+                    missCount.increment();
+                }
+                try {
+                    page = pending.join();
+                } catch (CancellationException e) {
+                    /*
+                     * The cursor has been evicted while waiting for the page.
+                     */
+                    return null;
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof UncheckedTwitterException) {
+                        throw ((UncheckedTwitterException) e.getCause()).getCause();
+                    }
+                    throw e;
+                } finally {
+                    this.pending = null;
+                }
+            } else {
+                missCount.increment();
+                page = source.fetch(pageSize);
+            }
+            if (page.isEmpty()) {
+                this.exhausted = source.isExhausted();
+                return null;
+            }
+            if (prefetch) {
+                this.prefetch();
+            }
+            return renderer.apply(page);
+        }
+
+        /**
+         * Fetches the next page of results in the background.
+         * <p>
+         * The page is not prefetched if this cursor has been evicted or if the prefetch executor has been shut down.
+         */
+        private synchronized void prefetch() {
+            if (released) {
+                return;
+            }
+            try {
+                this.pending = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return source.fetch(pageSize);
+                    } catch (TwitterException e) {
+                        throw new UncheckedTwitterException(e);
+                    }
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                this.pending = null;
+            }
+        }
+
+        /**
+         * Discards the pending prefetch of this cursor, if any.
+         * <p>
+         * This method does not wait for the page being returned by {@link #next()} (if any).
+         */
+        private void release() {
+            this.released = true;
+            CompletableFuture<List<R>> page = this.pending;
+            if (page != null) {
+                page.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.cache.LongWindowSet;
+import lombok.NonNull;
+import twitter4j.Query;
+import twitter4j.Status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Tracks the tweets returned for each search query, and only returns the new ones when the query is repeated.
+ * <p>
+ * This class keeps a cursor (the highest tweet ID known to be returned) for each query string, and uses it as the
+ * {@code sinceId} of the search, meaning that Twitter only returns the tweets posted since the cursor. The cursor
+ * only moves once all the tweets above it have been returned: when a poll stops before (because of its result limit
+ * or an error) the cursor is kept, and the tweets already returned are filtered out with a bounded set of the last
+ * returned IDs. A backlog larger than the result limit is then drained over the following polls without returning
+ * the same tweet twice. Each poll fetches at most {@code maxPages} pages: if the cursor cannot be reached within
+ * these pages (i.e. tweets are posted faster than they are polled) the cursor is moved to the newest returned tweet,
+ * and the older tweets of the backlog are skipped. The first poll of a query only returns the newest results and
+ * initializes its cursor.
+ * <p>
+ * Most of the deduplication is performed by Twitter with the cursor: the set of returned IDs of a query only holds
+ * the tweets above its cursor, and its size is fixed. The tracker remembers a bounded number of queries (the least
+ * recently used one is forgotten), so its memory footprint does not depend on the number of returned tweets. The
+ * cursors are also recorded in the platform's {@link com.xatkit.plugins.twitter.platform.state.StateStore}, and are
+ * restored after a restart.
+ *
+ * @see TwitterPlatform#getSearchTracker()
+ */
+public class SearchTracker {
+
+    /**
+     * The prefix of the high-water mark keys of the search cursors.
+     */
+    private static final String SEARCH_MARK_PREFIX = "search/";
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The number of returned tweet IDs remembered for each query.
+     */
+    private final int seenIdsPerQuery;
+
+    /**
+     * The maximum number of pages fetched by a single poll.
+     */
+    private final int maxPages;
+
+    /**
+     * The tracked queries, from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, TrackedQuery> queries;
+
+    /**
+     * Constructs a {@link SearchTracker} with the provided {@code platform}.
+     *
+     * @param platform        the {@link TwitterPlatform} used to access the Twitter API
+     * @param maxQueries      the maximum number of tracked queries
+     * @param seenIdsPerQuery the number of returned tweet IDs remembered for each query
+     * @param maxPages        the maximum number of pages fetched by a single poll
+     * @throws IllegalArgumentException if {@code maxQueries}, {@code seenIdsPerQuery}, or {@code maxPages} is lower
+     *                                  than {@code 1}
+     */
+    public SearchTracker(@NonNull TwitterPlatform platform, int maxQueries, int seenIdsPerQuery, int maxPages) {
+        checkArgument(maxQueries > 0 && seenIdsPerQuery > 0 && maxPages > 0, "Cannot create a %s with the provided "
+                        + "maxQueries (%s), seenIds (%s), and maxPages (%s), expected strictly positive integers",
+                this.getClass().getSimpleName(), maxQueries, seenIdsPerQuery, maxPages);
+        this.platform = platform;
+        this.seenIdsPerQuery = seenIdsPerQuery;
+        this.maxPages = maxPages;
+        this.queries = new LinkedHashMap<String, TrackedQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TrackedQuery> eldest) {
+                return size() > maxQueries;
+            }
+        };
+    }
+
+    /**
+     * Returns a lazy {@link Stream} of the tweets matching the provided {@code query} that have not been returned by
+     * a previous search of the same query.
+     * <p>
+     * The query is identified by its {@link Query#getQuery()} string. The returned {@link Stream} fetches the result
+     * pages when they are consumed (see {@link TwitterPlatform#searchTweets(Query, int)}), and updates the cursor
+     * of the query when it is closed: callers must close it (e.g. with a try-with-resources block).
+     *
+     * @param query the {@link Query} to search tweets with
+     * @param limit the maximum number of tweets to return
+     * @return a lazy {@link Stream} of the new tweets matching the provided {@code query}
+     * @throws IllegalArgumentException if {@code limit} is lower than {@code 1}
+     */
+    public Stream<Status> searchNewTweets(@NonNull Query query, int limit) {
+        checkArgument(limit > 0, "Cannot search tweets with the provided limit %s, expected a strictly positive "
+                + "integer", limit);
+        TrackedQuery trackedQuery = this.getTrackedQuery(query.getQuery());
+        long cursor = trackedQuery.getCursor();
+        if (cursor > 0 && query.getSinceId() < cursor) {
+            query.setSinceId(cursor);
+        }
+        /*
+         * The first poll only returns the newest tweets: do not fetch the older pages. The following polls are
+         * bounded by the cursor, and fetch pages until limit new tweets are found (up to maxPages pages).
+         */
+        int pageSize = query.getCount() > 0 ? Math.min(query.getCount(), TweetSearchIterator.MAX_RESULTS_PER_PAGE) :
+                TweetSearchIterator.MAX_RESULTS_PER_PAGE;
+        int fetchLimit = cursor > 0 ? maxPages * pageSize : limit;
+        TweetSearchIterator iterator = new TweetSearchIterator(platform, query, fetchLimit);
+        long[] highestId = {cursor};
+        int[] fetchedCount = {0};
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .filter(tweet -> {
+                    fetchedCount[0]++;
+                    highestId[0] = Math.max(highestId[0], tweet.getId());
+                    return trackedQuery.getSeenIds().add(tweet.getId());
+                })
+                .limit(limit)
+                .onClose(() -> {
+                    if (cursor == 0 || iterator.isExhausted() || fetchedCount[0] >= fetchLimit) {
+                        this.advance(query.getQuery(), trackedQuery, highestId[0]);
+                    }
+                    iterator.close();
+                });
+    }
+
+    /**
+     * Returns the cursor of the provided {@code query}.
+     *
+     * @param query the query string to retrieve the cursor of
+     * @return the highest tweet ID known to be returned for the {@code query}, or {@code 0} if the query has not
+     * been searched yet
+     */
+    public long getCursor(@NonNull String query) {
+        return this.getTrackedQuery(query).getCursor();
+    }
+
+    /**
+     * Returns the {@link TrackedQuery} of the provided {@code query}.
+     * <p>
+     * This method restores the cursor stored in the platform's
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore} if the {@code query} is not tracked yet.
+     *
+     * @param query the query string to retrieve the {@link TrackedQuery} of
+     * @return the {@link TrackedQuery} of the {@code query}
+     */
+    private TrackedQuery getTrackedQuery(String query) {
+        synchronized (queries) {
+            return queries.computeIfAbsent(query, key -> new TrackedQuery(
+                    platform.getStateStore().getHighWaterMark(SEARCH_MARK_PREFIX + key), seenIdsPerQuery));
+        }
+    }
+
+    /**
+     * Moves the cursor of the provided {@code trackedQuery} to {@code highestId} and records it in the platform's
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore}.
+     *
+     * @param query        the query string
+     * @param trackedQuery the {@link TrackedQuery} to update
+     * @param highestId    the highest tweet ID returned for the query
+     */
+    private void advance(String query, TrackedQuery trackedQuery, long highestId) {
+        if (trackedQuery.advance(highestId)) {
+            platform.getStateStore().putHighWaterMark(SEARCH_MARK_PREFIX + query, highestId);
+        }
+    }
+
+    /**
+     * The state of a tracked query.
+     */
+    private static final class TrackedQuery {
+
+        /**
+         * The IDs of the last tweets returned for the query.
+         */
+        private final LongWindowSet seenIds;
+
+        /**
+         * The highest tweet ID known to be returned for the query.
+         */
+        private long cursor;
+
+        /**
+         * Constructs a {@link TrackedQuery} with the provided {@code cursor}.
+         *
+         * @param cursor     the highest tweet ID known to be returned for the query
+         * @param maxSeenIds the number of returned tweet IDs to remember
+         */
+        private TrackedQuery(long cursor, int maxSeenIds) {
+            this.cursor = cursor;
+            this.seenIds = new LongWindowSet(maxSeenIds);
+        }
+
+        /**
+         * Returns the IDs of the last tweets returned for the query.
+         *
+         * @return the IDs of the last tweets returned for the query
+         */
+        private LongWindowSet getSeenIds() {
+            return this.seenIds;
+        }
+
+        /**
+         * Returns the highest tweet ID known to be returned for the query.
+         *
+         * @return the highest tweet ID known to be returned for the query
+         */
+        private synchronized long getCursor() {
+            return this.cursor;
+        }
+
+        /**
+         * Moves the cursor to {@code highestId} if it is greater than the current cursor.
+         *
+         * @param highestId the highest tweet ID returned for the query
+         * @return {@code true} if the cursor has been moved, {@code false} otherwise
+         */
+        private synchronized boolean advance(long highestId) {
+            if (highestId > cursor) {
+                cursor = highestId;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility methods to normalize user-provided text before comparing it.
+ */
+public final class TextFolding {
+
+    /**
+     * The {@link Pattern} matching the combining marks (accents, diacritics) of a decomposed text.
+     */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * The {@link Pattern} matching sequences of whitespace characters.
+     */
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    /**
+     * The folded forms of the characters lower than {@link #FOLDED_CHARS_LIMIT}, computed once.
+     *
+     * @see #foldChar(char)
+     */
+    private static final String[] FOLDED_CHARS;
+
+    /**
+     * The limit of the characters whose folded form is cached (ASCII, Latin, IPA, Greek, and Cyrillic).
+     */
+    private static final char FOLDED_CHARS_LIMIT = '\u0530';
+
+    static {
+        FOLDED_CHARS = new String[FOLDED_CHARS_LIMIT];
+        for (char c = 0; c < FOLDED_CHARS_LIMIT; c++) {
+            FOLDED_CHARS[c] = computeFoldedChar(c);
+        }
+    }
+
+    /**
+     * Disables the default constructor, this class only provides static methods.
+     */
+    private TextFolding() {
+    }
+
+    /**
+     * Folds the provided {@code text} into a case- and accent-insensitive form.
+     * <p>
+     * The returned {@link String} is lower-cased, does not contain any combining mark, and its whitespaces are
+     * trimmed and collapsed (e.g. {@code " New  YORK"} is folded into {@code "new york"}).
+     *
+     * @param text the text to fold
+     * @return the folded text
+     */
+    public static String fold(@NonNull CharSequence text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutMarks = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACES.matcher(withoutMarks.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds the provided character into a case- and accent-insensitive form.
+     * <p>
+     * This method folds text one character at a time (e.g. when scanning it), and is consistent with
+     * {@link #fold(CharSequence)} except for the whitespaces, that are left to the caller (see
+     * {@link #isWhitespace(char)}): the returned {@link String} contains the lower-cased characters of the canonical
+     * decomposition of {@code c}, without their combining marks, and is empty if {@code c} is a combining mark.
+     *
+     * @param c the character to fold
+     * @return the folded character(s)
+     */
+    public static String foldChar(char c) {
+        return c < FOLDED_CHARS_LIMIT ? FOLDED_CHARS[c] : computeFoldedChar(c);
+    }
+
+    /**
+     * Returns whether the provided character is one of the whitespaces collapsed by {@link #fold(CharSequence)}.
+     *
+     * @param c the character to check
+     * @return {@code true} if {@code c} is a whitespace, {@code false} otherwise
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Computes the folded form of the provided character.
+     *
+     * @param c the character to fold
+     * @return the folded character(s)
+     * @see #foldChar(char)
+     */
+    private static String computeFoldedChar(char c) {
+        if (c < 0x80) {
+            return String.valueOf(Character.toLowerCase(c));
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char decomposedChar = decomposed.charAt(i);
+            int type = Character.getType(decomposedChar);
+            if (type != Character.NON_SPACING_MARK && type != Character.ENCLOSING_MARK
+                    && type != Character.COMBINING_SPACING_MARK) {
+                folded.append(Character.toLowerCase(decomposedChar));
+            }
+        }
+        return folded.toString();
+    }
+}
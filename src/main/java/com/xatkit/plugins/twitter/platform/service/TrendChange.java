@@ -0,0 +1,171 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+
+/**
+ * A change of a trending topic between two refreshes of the trends of a location.
+ * <p>
+ * The ranks start at {@code 1}, and are {@code 0} when the trend is not part of the corresponding trends (i.e. the
+ * previous rank of a {@link Type#NEW} trend and the rank of a {@link Type#DROPPED} trend). The tweet volumes are
+ * {@code -1} when they are not provided by Twitter.
+ *
+ * @see TrendDelta
+ */
+public final class TrendChange {
+
+    /**
+     * The types of {@link TrendChange}s.
+     */
+    public enum Type {
+
+        /**
+         * The trend was not part of the previous trends of the location.
+         */
+        NEW,
+
+        /**
+         * The trend is not part of the trends of the location anymore.
+         */
+        DROPPED,
+
+        /**
+         * The rank of the trend changed.
+         */
+        MOVED,
+
+        /**
+         * The rank of the trend did not change, but its tweet volume changed significantly.
+         */
+        VOLUME_CHANGED
+    }
+
+    /**
+     * The type of the change.
+     */
+    private final Type type;
+
+    /**
+     * The name of the trend.
+     */
+    private final String name;
+
+    /**
+     * The current rank of the trend, or {@code 0} if it has been dropped.
+     */
+    private final int rank;
+
+    /**
+     * The previous rank of the trend, or {@code 0} if it is new.
+     */
+    private final int previousRank;
+
+    /**
+     * The current tweet volume of the trend, or {@code -1} if it is unknown.
+     */
+    private final int tweetVolume;
+
+    /**
+     * The previous tweet volume of the trend, or {@code -1} if it is unknown.
+     */
+    private final int previousTweetVolume;
+
+    /**
+     * Constructs a {@link TrendChange} with the provided values.
+     *
+     * @param type                the type of the change
+     * @param name                the name of the trend
+     * @param rank                the current rank of the trend, or {@code 0} if it has been dropped
+     * @param previousRank        the previous rank of the trend, or {@code 0} if it is new
+     * @param tweetVolume         the current tweet volume of the trend, or {@code -1} if it is unknown
+     * @param previousTweetVolume the previous tweet volume of the trend, or {@code -1} if it is unknown
+     */
+    public TrendChange(@NonNull Type type, @NonNull String name, int rank, int previousRank, int tweetVolume,
+                       int previousTweetVolume) {
+        this.type = type;
+        this.name = name;
+        this.rank = rank;
+        this.previousRank = previousRank;
+        this.tweetVolume = tweetVolume;
+        this.previousTweetVolume = previousTweetVolume;
+    }
+
+    /**
+     * Returns the type of the change.
+     *
+     * @return the type of the change
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the name of the trend.
+     *
+     * @return the name of the trend
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the current rank of the trend.
+     *
+     * @return the current rank of the trend, or {@code 0} if it has been dropped
+     */
+    public int getRank() {
+        return this.rank;
+    }
+
+    /**
+     * Returns the previous rank of the trend.
+     *
+     * @return the previous rank of the trend, or {@code 0} if it is new
+     */
+    public int getPreviousRank() {
+        return this.previousRank;
+    }
+
+    /**
+     * Returns the current tweet volume of the trend.
+     *
+     * @return the current tweet volume of the trend, or {@code -1} if it is unknown
+     */
+    public int getTweetVolume() {
+        return this.tweetVolume;
+    }
+
+    /**
+     * Returns the previous tweet volume of the trend.
+     *
+     * @return the previous tweet volume of the trend, or {@code -1} if it is unknown
+     */
+    public int getPreviousTweetVolume() {
+        return this.previousTweetVolume;
+    }
+
+    /**
+     * Returns whether the trend entered the top {@code n} trends of the location with this change.
+     *
+     * @param n the number of top trends
+     * @return {@code true} if the trend is in the top {@code n} trends and was not before, {@code false} otherwise
+     */
+    public boolean hasEnteredTop(int n) {
+        return rank > 0 && rank <= n && (previousRank == 0 || previousRank > n);
+    }
+
+    /**
+     * Returns whether the trend left the top {@code n} trends of the location with this change.
+     *
+     * @param n the number of top trends
+     * @return {@code true} if the trend was in the top {@code n} trends and is not anymore, {@code false} otherwise
+     */
+    public boolean hasLeftTop(int n) {
+        return previousRank > 0 && previousRank <= n && (rank == 0 || rank > n);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name + " (rank " + previousRank + " -> " + rank + ", volume " + previousTweetVolume
+                + " -> " + tweetVolume + ")";
+    }
+}
@@ -0,0 +1,19 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+/**
+ * A listener notified of the changes of the trends of the locations.
+ * <p>
+ * Listeners are registered with {@link TrendService#addChangeListener(TrendChangeListener)}, and are notified by the
+ * thread that refreshed the trends: implementations should return quickly, and hand the changes over to another
+ * thread if they need to perform long-running tasks.
+ */
+@FunctionalInterface
+public interface TrendChangeListener {
+
+    /**
+     * Handles the provided {@code delta}.
+     *
+     * @param delta the {@link TrendDelta} between the previous and the current trends of a location
+     */
+    void onTrendChanges(TrendDelta delta);
+}
@@ -0,0 +1,139 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes of the trends of a location between two refreshes.
+ * <p>
+ * Deltas are computed by the {@link TrendService} each time it retrieves new trends for a location, and contain
+ * the {@link TrendChange}s ordered by current rank (the dropped trends come last). Consumers only need to process
+ * the changes instead of comparing the complete trend lists, e.g. to react when a trend enters the top 10 (see
+ * {@link #getEnteredTop(int)}).
+ *
+ * @see TrendService#addChangeListener(TrendChangeListener)
+ * @see TrendService#getLastDelta(int)
+ */
+public final class TrendDelta {
+
+    /**
+     * The WOEID of the location.
+     */
+    private final int woeid;
+
+    /**
+     * The time (in milliseconds since the epoch) the previous trends have been computed by Twitter.
+     */
+    private final long previousAsOf;
+
+    /**
+     * The time (in milliseconds since the epoch) the current trends have been computed by Twitter.
+     */
+    private final long asOf;
+
+    /**
+     * The changes of the trends.
+     */
+    private final List<TrendChange> changes;
+
+    /**
+     * Constructs a {@link TrendDelta} with the provided values.
+     *
+     * @param woeid        the WOEID of the location
+     * @param previousAsOf the time (in milliseconds since the epoch) the previous trends have been computed
+     * @param asOf         the time (in milliseconds since the epoch) the current trends have been computed
+     * @param changes      the changes of the trends
+     */
+    public TrendDelta(int woeid, long previousAsOf, long asOf, @NonNull List<TrendChange> changes) {
+        this.woeid = woeid;
+        this.previousAsOf = previousAsOf;
+        this.asOf = asOf;
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+
+    /**
+     * Returns the WOEID of the location.
+     *
+     * @return the WOEID of the location
+     */
+    public int getWoeid() {
+        return this.woeid;
+    }
+
+    /**
+     * Returns the time the previous trends have been computed by Twitter.
+     *
+     * @return the time (in milliseconds since the epoch) the previous trends have been computed
+     */
+    public long getPreviousAsOf() {
+        return this.previousAsOf;
+    }
+
+    /**
+     * Returns the time the current trends have been computed by Twitter.
+     *
+     * @return the time (in milliseconds since the epoch) the current trends have been computed
+     */
+    public long getAsOf() {
+        return this.asOf;
+    }
+
+    /**
+     * Returns the changes of the trends.
+     *
+     * @return an unmodifiable list containing the {@link TrendChange}s
+     */
+    public List<TrendChange> getChanges() {
+        return this.changes;
+    }
+
+    /**
+     * Returns the changes of the provided {@code type}.
+     *
+     * @param type the type of the changes to return
+     * @return the {@link TrendChange}s of the provided {@code type}
+     */
+    public List<TrendChange> getChanges(@NonNull TrendChange.Type type) {
+        List<TrendChange> result = new ArrayList<>();
+        for (TrendChange change : changes) {
+            if (change.getType() == type) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the changes of the trends that entered the top {@code n} trends of the location.
+     *
+     * @param n the number of top trends
+     * @return the {@link TrendChange}s of the trends that entered the top {@code n} trends
+     * @see TrendChange#hasEnteredTop(int)
+     */
+    public List<TrendChange> getEnteredTop(int n) {
+        List<TrendChange> result = new ArrayList<>();
+        for (TrendChange change : changes) {
+            if (change.hasEnteredTop(n)) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the trends did not change.
+     *
+     * @return {@code true} if the delta does not contain any change, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TrendDelta{woeid=" + woeid + ", changes=" + changes + "}";
+    }
+}
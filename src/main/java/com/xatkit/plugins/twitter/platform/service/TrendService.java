@@ -0,0 +1,409 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.cache.SingleFlight;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import twitter4j.Trends;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Retrieves and caches the trending topics of the Twitter locations.
+ * <p>
+ * Twitter computes the trends of a location every 5 minutes, and requesting them more frequently does not return any
+ * new data. This service caches the {@link Trends} of each WOEID until 5 minutes after their {@link Trends#getAsOf()}
+ * date, and coalesces concurrent requests for the same WOEID into a single {@link Twitter#getPlaceTrends(int)} call.
+ * <p>
+ * The trends of multiple locations can be retrieved at once with {@link #getTrends(Collection, long, TimeUnit)}: the
+ * locations that are not cached are retrieved concurrently by a bounded pool of threads, and the calls are subject to
+ * the rate-limit budget of the trends endpoint like any other call.
+ * <p>
+ * This service also keeps a compact snapshot of the last trends of each location, and computes the
+ * {@link TrendDelta} between the previous and the new trends each time it retrieves new trends. The deltas are
+ * delivered to the registered {@link TrendChangeListener}s, and the last delta of each location is available with
+ * {@link #getLastDelta(int)}.
+ *
+ * @see TwitterPlatform#getTrendService()
+ */
+public class TrendService {
+
+    /**
+     * The duration (in milliseconds) Twitter caches the trends of a location for.
+     */
+    private static final long TRENDS_TTL = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The minimum duration (in milliseconds) retrieved trends are cached for.
+     * <p>
+     * This duration is used when the {@link Trends#getAsOf()} date is too old (e.g. because of a clock skew between
+     * Twitter and the bot) to avoid requesting the same trends in a loop.
+     */
+    private static final long MIN_TRENDS_TTL = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The cached trends, by WOEID.
+     */
+    private final ConcurrentMap<Integer, CachedTrends> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link SingleFlight} coalescing the concurrent requests for the same WOEID.
+     */
+    private final SingleFlight<Integer, CachedTrends> singleFlight = new SingleFlight<>();
+
+    /**
+     * The snapshots of the last retrieved trends, by WOEID.
+     */
+    private final ConcurrentMap<Integer, TrendSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * The last {@link TrendDelta} of each location, by WOEID.
+     */
+    private final ConcurrentMap<Integer, TrendDelta> lastDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link TrendChangeListener}s notified of the {@link TrendDelta}s.
+     */
+    private final List<TrendChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The minimum relative change of the tweet volume of a trend reported in the {@link TrendDelta}s.
+     */
+    private final double volumeChangeRatio;
+
+    /**
+     * The executor retrieving the trends of multiple locations concurrently.
+     */
+    private final ThreadPoolExecutor fanOutExecutor;
+
+    /**
+     * The default deadline (in milliseconds) of the requests for the trends of multiple locations.
+     */
+    private final long deadline;
+
+    /**
+     * The number of {@link #getTrends(int)} calls answered with fresh cached trends.
+     */
+    private final LongAdder cacheHitCount = new LongAdder();
+
+    /**
+     * The number of {@link #getTrends(int)} calls that did not find fresh cached trends.
+     */
+    private final LongAdder cacheMissCount = new LongAdder();
+
+    /**
+     * Constructs a {@link TrendService} with the provided {@code platform}.
+     *
+     * @param platform          the {@link TwitterPlatform} used to access the Twitter API
+     * @param parallelism       the maximum number of locations retrieved concurrently
+     * @param deadline          the default deadline of the requests for the trends of multiple locations
+     * @param unit              the {@link TimeUnit} of {@code deadline}
+     * @param volumeChangeRatio the minimum relative change of the tweet volume of a trend reported in the
+     *                          {@link TrendDelta}s
+     * @throws IllegalArgumentException if {@code parallelism} or {@code deadline} is lower than {@code 1}, or if
+     *                                  {@code volumeChangeRatio} is negative
+     */
+    public TrendService(@NonNull TwitterPlatform platform, int parallelism, long deadline, @NonNull TimeUnit unit,
+                        double volumeChangeRatio) {
+        checkArgument(parallelism > 0 && deadline > 0, "Cannot create a %s with the provided parallelism (%s) and "
+                + "deadline (%s), expected strictly positive values", this.getClass().getSimpleName(), parallelism,
+                deadline);
+        checkArgument(volumeChangeRatio >= 0, "Cannot create a %s with the provided volumeChangeRatio %s, expected a "
+                + "positive value", this.getClass().getSimpleName(), volumeChangeRatio);
+        this.platform = platform;
+        this.volumeChangeRatio = volumeChangeRatio;
+        this.deadline = unit.toMillis(deadline);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOutExecutor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Twitter Platform Trends " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fanOutExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the trends of the location identified by the provided {@code woeid}.
+     * <p>
+     * This method only accesses the Twitter API if the cached trends of {@code woeid} are not fresh anymore. If
+     * multiple threads request the trends of the same {@code woeid} at the same time only one of them accesses the
+     * Twitter API, and the others wait for its result.
+     * <p>
+     * When new trends are retrieved their {@link TrendDelta} with the previous trends of the location is computed and
+     * delivered to the registered {@link TrendChangeListener}s by the calling thread.
+     * <p>
+     * The cached trends of {@code woeid} are returned even if they are not fresh anymore when the Twitter API cannot
+     * be accessed (the circuit breaker of the endpoint is open, its rate-limit budget is exhausted, or the call failed
+     * with a transient error), unless stale results are disabled in the platform's {@link ResiliencePolicy}.
+     *
+     * @param woeid the WOEID of the location to retrieve the trends of
+     * @return the {@link CachedTrends} of the location
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public CachedTrends getTrends(int woeid) throws TwitterException {
+        CachedTrends cached = cache.get(woeid);
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            cacheHitCount.increment();
+            return cached;
+        }
+        cacheMissCount.increment();
+        return singleFlight.execute(woeid, () -> {
+            /*
+             * Check the cache again: another thread may have refreshed it between our first check and the start of
+             * this load.
+             */
+            CachedTrends current = cache.get(woeid);
+            if (current != null && current.isFresh(System.currentTimeMillis())) {
+                return current;
+            }
+            Trends trends;
+            try {
+                trends = platform.execute(TwitterEndpoint.TRENDS_PLACE, twitter -> twitter.getPlaceTrends(woeid));
+            } catch (TwitterException e) {
+                if (current != null && platform.getResiliencePolicy().isServeStale() && isUnavailable(e)) {
+                    Log.warn("{0} Cannot refresh the trends of {1}, serving the trends cached as of {2}: {3}",
+                            this.getClass().getSimpleName(), woeid, current.getTrends().getAsOf(), e.getMessage());
+                    return current;
+                }
+                throw e;
+            }
+            CachedTrends refreshed = new CachedTrends(woeid, trends, computeFreshUntil(trends));
+            cache.put(woeid, refreshed);
+            this.detectChanges(woeid, trends);
+            return refreshed;
+        });
+    }
+
+    /**
+     * Returns the trends of the locations identified by the provided {@code woeids}, merged into a single view.
+     * <p>
+     * This method behaves as {@link #getTrends(Collection, long, TimeUnit)} with the default deadline of the service.
+     *
+     * @param woeids the WOEIDs of the locations to retrieve the trends of
+     * @return the {@link AggregatedTrends} of the locations
+     * @see com.xatkit.plugins.twitter.TwitterUtils#TWITTER_TRENDS_DEADLINE_KEY
+     */
+    public AggregatedTrends getTrends(@NonNull Collection<Integer> woeids) {
+        return this.getTrends(woeids, deadline, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the trends of the locations identified by the provided {@code woeids}, merged into a single view.
+     * <p>
+     * The locations whose cached trends are fresh are answered from the cache, and the other ones are retrieved
+     * concurrently (see {@link #getTrends(int)}), meaning that refreshing the trends of multiple locations takes
+     * about the time of a single call when the rate-limit budget of the trends endpoint allows it. The calls rejected
+     * by the rate-limit scheduler are handled according to its policy.
+     * <p>
+     * This method returns when all the locations have been retrieved, or when the {@code timeout} expires. In the
+     * latter case the returned view only contains the locations retrieved so far, and the pending calls keep running
+     * in the background to refresh the cache for the next request. The locations that have not been retrieved (or
+     * whose call failed) are listed in {@link AggregatedTrends#getMissingWoeids()}.
+     *
+     * @param woeids  the WOEIDs of the locations to retrieve the trends of
+     * @param timeout the maximum time to wait for the trends
+     * @param unit    the {@link TimeUnit} of {@code timeout}
+     * @return the {@link AggregatedTrends} of the locations
+     */
+    public AggregatedTrends getTrends(@NonNull Collection<Integer> woeids, long timeout, @NonNull TimeUnit unit) {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        Map<Integer, CompletableFuture<CachedTrends>> requests = new LinkedHashMap<>();
+        for (Integer woeid : new LinkedHashSet<>(woeids)) {
+            CachedTrends cached = cache.get(woeid);
+            if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+                cacheHitCount.increment();
+                requests.put(woeid, CompletableFuture.completedFuture(cached));
+            } else {
+                requests.put(woeid, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return this.getTrends(woeid);
+                    } catch (TwitterException e) {
+                        throw new UncheckedTwitterException(e);
+                    }
+                }, fanOutExecutor));
+            }
+        }
+        try {
+            CompletableFuture.allOf(requests.values().toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            /*
+             * The failed and pending locations are reported as missing below.
+             */
+        }
+        List<CachedTrends> resolved = new ArrayList<>(requests.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Map.Entry<Integer, CompletableFuture<CachedTrends>> request : requests.entrySet()) {
+            CompletableFuture<CachedTrends> future = request.getValue();
+            if (!future.isDone()) {
+                missing.add(request.getKey());
+                continue;
+            }
+            try {
+                resolved.add(future.join());
+            } catch (CompletionException e) {
+                missing.add(request.getKey());
+                Log.warn("{0} Cannot retrieve the trends of {1}: {2}", this.getClass().getSimpleName(),
+                        request.getKey(), e.getCause().getMessage());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Log.warn("{0} Returning partial trends, the trends of {1} could not be retrieved",
+                    this.getClass().getSimpleName(), missing);
+        }
+        return AggregatedTrends.merge(resolved, missing);
+    }
+
+    /**
+     * Returns the last {@link TrendDelta} of the location identified by the provided {@code woeid}.
+     *
+     * @param woeid the WOEID of the location
+     * @return the {@link TrendDelta} between the last two retrieved trends of the location, or {@code null} if its
+     * trends have not been retrieved twice yet
+     */
+    public TrendDelta getLastDelta(int woeid) {
+        return lastDeltas.get(woeid);
+    }
+
+    /**
+     * Registers the provided {@code listener}.
+     *
+     * @param listener the {@link TrendChangeListener} to notify of the {@link TrendDelta}s
+     */
+    public void addChangeListener(@NonNull TrendChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters the provided {@code listener}.
+     *
+     * @param listener the {@link TrendChangeListener} to unregister
+     */
+    public void removeChangeListener(@NonNull TrendChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of trend requests answered with fresh cached trends.
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * Returns the number of trend requests that did not find fresh cached trends.
+     * <p>
+     * Concurrent misses for the same location are coalesced into a single call to the Twitter API.
+     *
+     * @return the number of cache misses
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    /**
+     * Removes all the cached trends.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Stops the threads retrieving the trends of multiple locations.
+     * <p>
+     * The pending requests are not interrupted, but the service does not accept new requests for the trends of
+     * multiple locations after this call.
+     */
+    public void close() {
+        fanOutExecutor.shutdown();
+    }
+
+    /**
+     * Computes the {@link TrendDelta} between the previous trends of the provided {@code woeid} and the new
+     * {@code trends}, and notifies the registered {@link TrendChangeListener}s.
+     * <p>
+     * The first trends retrieved for a location are only recorded, and the trends computed by Twitter at the same
+     * time as the previous ones are ignored.
+     *
+     * @param woeid  the WOEID of the location
+     * @param trends the new {@link Trends} of the location
+     */
+    private void detectChanges(int woeid, Trends trends) {
+        TrendSnapshot snapshot = new TrendSnapshot(trends);
+        TrendSnapshot previous = snapshots.get(woeid);
+        if (previous != null && previous.getAsOf() == snapshot.getAsOf() && snapshot.getAsOf() != 0) {
+            return;
+        }
+        snapshots.put(woeid, snapshot);
+        if (previous == null) {
+            return;
+        }
+        TrendDelta delta = new TrendDelta(woeid, previous.getAsOf(), snapshot.getAsOf(),
+                snapshot.diff(previous, volumeChangeRatio));
+        lastDeltas.put(woeid, delta);
+        for (TrendChangeListener listener : changeListeners) {
+            try {
+                listener.onTrendChanges(delta);
+            } catch (RuntimeException e) {
+                Log.warn("{0} The trend change listener {1} failed: {2}", this.getClass().getSimpleName(), listener,
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code error} means that the Twitter API cannot be accessed for now.
+     *
+     * @param error the error thrown when refreshing the trends
+     * @return {@code true} if the trends can be refreshed later, {@code false} otherwise
+     */
+    private static boolean isUnavailable(TwitterException error) {
+        return error instanceof CircuitOpenException || error instanceof RateLimitExceededException
+                || ResiliencePolicy.isTransient(error);
+    }
+
+    /**
+     * Computes the time until which the provided {@code trends} are fresh.
+     *
+     * @param trends the {@link Trends} to compute the freshness of
+     * @return the time (in milliseconds since the epoch) until which {@code trends} are fresh
+     */
+    private static long computeFreshUntil(Trends trends) {
+        long now = System.currentTimeMillis();
+        Date asOf = trends.getAsOf();
+        long freshUntil = (asOf == null ? now : asOf.getTime()) + TRENDS_TTL;
+        return Math.min(now + TRENDS_TTL, Math.max(now + MIN_TRENDS_TTL, freshUntil));
+    }
+}
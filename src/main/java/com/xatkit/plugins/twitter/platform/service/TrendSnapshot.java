@@ -0,0 +1,149 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.Trend;
+import twitter4j.Trends;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A compact snapshot of the trends of a location, used to detect the changes between two refreshes.
+ * <p>
+ * This class only stores the names and tweet volumes of the trends in arrays ordered by rank, and an index of the
+ * names sorted alphabetically to find the rank of a trend with a binary search. Its footprint does not depend on the
+ * number of actions returning the trends, and it does not retain the {@link Trends} it has been created from.
+ *
+ * @see TrendService#addChangeListener(TrendChangeListener)
+ */
+final class TrendSnapshot {
+
+    /**
+     * The time (in milliseconds since the epoch) the trends have been computed by Twitter.
+     */
+    private final long asOf;
+
+    /**
+     * The names of the trends, ordered by rank.
+     */
+    private final String[] names;
+
+    /**
+     * The tweet volumes of the trends (or {@code -1} if they are unknown), ordered by rank.
+     */
+    private final int[] volumes;
+
+    /**
+     * The indices of the trends in {@link #names}, ordered by name.
+     */
+    private final int[] sortedIndices;
+
+    /**
+     * Constructs a {@link TrendSnapshot} of the provided {@code trends}.
+     *
+     * @param trends the {@link Trends} to create a snapshot of
+     */
+    TrendSnapshot(@NonNull Trends trends) {
+        this.asOf = trends.getAsOf() == null ? 0 : trends.getAsOf().getTime();
+        Trend[] trendArray = trends.getTrends();
+        this.names = new String[trendArray.length];
+        this.volumes = new int[trendArray.length];
+        for (int i = 0; i < trendArray.length; i++) {
+            names[i] = trendArray[i].getName();
+            volumes[i] = trendArray[i].getTweetVolume() > 0 ? trendArray[i].getTweetVolume() : -1;
+        }
+        Integer[] indices = new Integer[names.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, Comparator.comparing(i -> names[i]));
+        this.sortedIndices = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            sortedIndices[i] = indices[i];
+        }
+    }
+
+    /**
+     * Returns the time the trends have been computed by Twitter.
+     *
+     * @return the time (in milliseconds since the epoch) the trends have been computed by Twitter, or {@code 0} if
+     * it is unknown
+     */
+    long getAsOf() {
+        return this.asOf;
+    }
+
+    /**
+     * Computes the changes between the provided {@code previous} snapshot and this one.
+     * <p>
+     * A trend whose rank did not change is only reported if the relative change of its tweet volume is greater than
+     * or equal to {@code volumeChangeRatio}.
+     *
+     * @param previous          the previous {@link TrendSnapshot} of the location
+     * @param volumeChangeRatio the minimum relative change of the tweet volume to report
+     * @return the {@link TrendChange}s, ordered by current rank (the dropped trends come last, ordered by previous
+     * rank)
+     */
+    List<TrendChange> diff(@NonNull TrendSnapshot previous, double volumeChangeRatio) {
+        List<TrendChange> changes = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            int previousIndex = previous.indexOf(names[i]);
+            if (previousIndex < 0) {
+                changes.add(new TrendChange(TrendChange.Type.NEW, names[i], i + 1, 0, volumes[i], -1));
+            } else if (previousIndex != i) {
+                changes.add(new TrendChange(TrendChange.Type.MOVED, names[i], i + 1, previousIndex + 1, volumes[i],
+                        previous.volumes[previousIndex]));
+            } else if (isSignificant(previous.volumes[previousIndex], volumes[i], volumeChangeRatio)) {
+                changes.add(new TrendChange(TrendChange.Type.VOLUME_CHANGED, names[i], i + 1, i + 1, volumes[i],
+                        previous.volumes[previousIndex]));
+            }
+        }
+        for (int i = 0; i < previous.names.length; i++) {
+            if (this.indexOf(previous.names[i]) < 0) {
+                changes.add(new TrendChange(TrendChange.Type.DROPPED, previous.names[i], 0, i + 1, -1,
+                        previous.volumes[i]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the index of the trend with the provided {@code name}.
+     *
+     * @param name the name of the trend to search
+     * @return the index of the trend (i.e. its rank minus {@code 1}), or {@code -1} if the snapshot does not
+     * contain it
+     */
+    private int indexOf(String name) {
+        int low = 0;
+        int high = sortedIndices.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = names[sortedIndices[middle]].compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return sortedIndices[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the change from {@code previousVolume} to {@code volume} is significant.
+     *
+     * @param previousVolume the previous tweet volume, or {@code -1} if it is unknown
+     * @param volume         the current tweet volume, or {@code -1} if it is unknown
+     * @param ratio          the minimum relative change to report
+     * @return {@code true} if both volumes are known and their relative change is greater than or equal to
+     * {@code ratio}, {@code false} otherwise
+     */
+    private static boolean isSignificant(int previousVolume, int volume, double ratio) {
+        return previousVolume > 0 && volume > 0 && previousVolume != volume
+                && Math.abs(volume - previousVolume) >= ratio * previousVolume;
+    }
+}
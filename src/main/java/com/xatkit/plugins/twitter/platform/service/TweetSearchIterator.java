@@ -0,0 +1,203 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import lombok.NonNull;
+import twitter4j.Query;
+import twitter4j.QueryResult;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * An {@link Iterator} over the results of a tweet search that fetches the result pages lazily.
+ * <p>
+ * This iterator only holds the current page of results: the next page is fetched when the consumer pulls an element
+ * after the end of the current page. Pages are requested from the newest to the oldest tweets by setting the
+ * {@code maxId} of the {@link Query} to the lowest ID of the previous page (the {@code sinceId} of the
+ * {@link Query}, if any, is preserved), and the iteration stops when Twitter does not report a next page, when the
+ * configured result limit is reached, or when the iterator is {@link #close() closed}. The fetched tweets are
+ * recorded in the platform's {@link ConversationIndex}.
+ * <p>
+ * Errors raised when fetching a page are wrapped in an {@link UncheckedTwitterException}. If the error is temporary
+ * (the rate limit or the circuit breaker of the endpoint rejected the call, or a transient error occurred, see
+ * {@link ResiliencePolicy#isTransient(TwitterException)}) the iteration can be resumed: the next call to
+ * {@link #hasNext()} fetches the same page again. Other errors end the iteration.
+ *
+ * @see TwitterPlatform#searchTweets(Query, int)
+ */
+public class TweetSearchIterator implements Iterator<Status>, AutoCloseable {
+
+    /**
+     * The maximum number of tweets Twitter can return per page.
+     */
+    public static final int MAX_RESULTS_PER_PAGE = 100;
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The {@link Query} used to fetch the pages.
+     * <p>
+     * The {@code maxId} and {@code count} of this query are updated before fetching each page.
+     */
+    private final Query query;
+
+    /**
+     * The number of results to request per page.
+     */
+    private final int pageSize;
+
+    /**
+     * The number of results that can still be returned by this iterator.
+     */
+    private int remaining;
+
+    /**
+     * The iterator over the current page of results.
+     */
+    private Iterator<Status> currentPage = Collections.emptyIterator();
+
+    /**
+     * A flag telling whether there are more pages to fetch.
+     */
+    private boolean hasMorePages = true;
+
+    /**
+     * A flag telling whether the last page of results has been fetched.
+     */
+    private boolean lastPageFetched;
+
+    /**
+     * Constructs a {@link TweetSearchIterator} for the provided {@code query}.
+     * <p>
+     * The provided {@code query} is updated by the iterator and should not be reused. Its {@code count} is used as
+     * the page size (up to {@link #MAX_RESULTS_PER_PAGE}), or {@link #MAX_RESULTS_PER_PAGE} if it is not set.
+     *
+     * @param platform the {@link TwitterPlatform} used to access the Twitter API
+     * @param query    the {@link Query} to search tweets with
+     * @param limit    the maximum number of tweets to return
+     * @throws IllegalArgumentException if {@code limit} is lower than {@code 1}
+     */
+    public TweetSearchIterator(@NonNull TwitterPlatform platform, @NonNull Query query, int limit) {
+        checkArgument(limit > 0, "Cannot create a %s with the provided limit %s, expected a strictly positive integer",
+                this.getClass().getSimpleName(), limit);
+        this.platform = platform;
+        this.query = query;
+        this.pageSize = query.getCount() > 0 ? Math.min(query.getCount(), MAX_RESULTS_PER_PAGE) :
+                MAX_RESULTS_PER_PAGE;
+        this.remaining = limit;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method fetches the next page of results if the current one has been consumed.
+     *
+     * @throws UncheckedTwitterException if an error occurred when fetching the next page
+     */
+    @Override
+    public boolean hasNext() {
+        if (remaining <= 0) {
+            return false;
+        }
+        while (!currentPage.hasNext() && hasMorePages) {
+            this.fetchNextPage();
+        }
+        return currentPage.hasNext();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedTwitterException if an error occurred when fetching the next page
+     */
+    @Override
+    public Status next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("The search " + query.getQuery() + " does not have any more result");
+        }
+        remaining--;
+        return currentPage.next();
+    }
+
+    /**
+     * Returns whether all the results of the search have been returned.
+     * <p>
+     * This method returns {@code false} if the iteration stopped before the last page (because of the result limit,
+     * an error, or a call to {@link #close()}).
+     *
+     * @return {@code true} if the last page has been fetched and all its results have been returned, {@code false}
+     * otherwise
+     */
+    public boolean isExhausted() {
+        return lastPageFetched && !currentPage.hasNext();
+    }
+
+    /**
+     * Stops the iteration.
+     * <p>
+     * The current page is released and no other page will be fetched.
+     */
+    @Override
+    public void close() {
+        this.remaining = 0;
+        this.hasMorePages = false;
+        this.lastPageFetched = this.isExhausted();
+        this.currentPage = Collections.emptyIterator();
+    }
+
+    /**
+     * Fetches the next page of results.
+     * <p>
+     * The position of the iterator is not changed if the page cannot be fetched, and the iteration is ended if the
+     * error is not temporary (see {@link #isTemporary(TwitterException)}).
+     *
+     * @throws UncheckedTwitterException if an error occurred when accessing the Twitter API
+     */
+    private void fetchNextPage() {
+        query.setCount(Math.min(pageSize, remaining));
+        QueryResult result;
+        try {
+            result = platform.execute(TwitterEndpoint.SEARCH, twitter -> twitter.search(query));
+        } catch (TwitterException e) {
+            if (!isTemporary(e)) {
+                this.hasMorePages = false;
+            }
+            throw new UncheckedTwitterException(e);
+        }
+        List<Status> tweets = result.getTweets();
+        for (Status tweet : tweets) {
+            platform.getConversationIndex().record(tweet);
+        }
+        if (tweets.isEmpty() || !result.hasNext()) {
+            this.hasMorePages = false;
+            this.lastPageFetched = true;
+        } else {
+            long lowestId = Long.MAX_VALUE;
+            for (Status tweet : tweets) {
+                lowestId = Math.min(lowestId, tweet.getId());
+            }
+            query.setMaxId(lowestId - 1);
+        }
+        this.currentPage = tweets.iterator();
+    }
+
+    /**
+     * Returns whether the provided {@code error} means that the page can be fetched later.
+     *
+     * @param error the error thrown when fetching a page
+     * @return {@code true} if the page can be fetched later, {@code false} otherwise
+     */
+    private static boolean isTemporary(TwitterException error) {
+        return error instanceof RateLimitExceededException || error instanceof CircuitOpenException
+                || error.exceededRateLimitation() || ResiliencePolicy.isTransient(error);
+    }
+}
@@ -0,0 +1,76 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.Twitter;
+
+/**
+ * A Twitter account used by the platform to access the Twitter API.
+ * <p>
+ * Each account has its own {@link Twitter} client (with its own OAuth credentials) and its own
+ * {@link RateLimitScheduler}, meaning that the rate-limit budget of an account is not shared with the other ones.
+ *
+ * @see AccountPool
+ */
+public final class TwitterAccount {
+
+    /**
+     * The name of the account, used in the logs.
+     */
+    private final String name;
+
+    /**
+     * The {@link Twitter} client authenticated with the credentials of the account.
+     */
+    private final Twitter twitter;
+
+    /**
+     * The {@link RateLimitScheduler} holding the rate-limit budget of the account.
+     */
+    private final RateLimitScheduler rateLimitScheduler;
+
+    /**
+     * Constructs a {@link TwitterAccount} with the provided parameters.
+     *
+     * @param name               the name of the account
+     * @param twitter            the {@link Twitter} client authenticated with the credentials of the account
+     * @param rateLimitScheduler the {@link RateLimitScheduler} holding the rate-limit budget of the account
+     */
+    public TwitterAccount(@NonNull String name, @NonNull Twitter twitter,
+                          @NonNull RateLimitScheduler rateLimitScheduler) {
+        this.name = name;
+        this.twitter = twitter;
+        this.rateLimitScheduler = rateLimitScheduler;
+    }
+
+    /**
+     * Returns the name of the account.
+     *
+     * @return the name of the account
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the {@link Twitter} client authenticated with the credentials of the account.
+     *
+     * @return the {@link Twitter} client of the account
+     */
+    public Twitter getTwitter() {
+        return this.twitter;
+    }
+
+    /**
+     * Returns the {@link RateLimitScheduler} holding the rate-limit budget of the account.
+     *
+     * @return the {@link RateLimitScheduler} of the account
+     */
+    public RateLimitScheduler getRateLimitScheduler() {
+        return this.rateLimitScheduler;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
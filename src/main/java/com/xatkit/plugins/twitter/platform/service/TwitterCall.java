@@ -0,0 +1,25 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+
+/**
+ * A call to the Twitter API.
+ * <p>
+ * Calls are executed with {@link com.xatkit.plugins.twitter.platform.TwitterPlatform#execute(TwitterEndpoint,
+ * TwitterCall)}, that takes care of the platform-level policies (rate limits, etc) before invoking them.
+ *
+ * @param <T> the type of the call's result
+ */
+@FunctionalInterface
+public interface TwitterCall<T> {
+
+    /**
+     * Calls the Twitter API with the provided {@code twitter} service.
+     *
+     * @param twitter the {@link Twitter} service to use to access the Twitter API
+     * @return the result of the call
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    T call(Twitter twitter) throws TwitterException;
+}
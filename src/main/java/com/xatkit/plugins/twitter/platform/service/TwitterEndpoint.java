@@ -0,0 +1,207 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Twitter API endpoints accessed by the Twitter platform.
+ * <p>
+ * Each endpoint is associated to its rate-limit resource (as returned by
+ * {@link twitter4j.Twitter#getRateLimitStatus()}) and to its default rate limit, used until the actual limit is
+ * retrieved from the Twitter API. Endpoints are also associated to a configuration name used to customize their
+ * behavior (e.g. {@code xatkit.twitter.ratelimit.search.policy}).
+ * <p>
+ * Endpoints returning the same results whatever the authenticated account (e.g. search and trends) are
+ * <i>account-neutral</i>, and can be called with any account of the platform's {@link AccountPool}. Endpoints that
+ * do not modify any data are <i>idempotent</i>, and their failed calls can be retried (see {@link ResiliencePolicy}).
+ */
+public enum TwitterEndpoint {
+
+    /**
+     * The {@code GET search/tweets} endpoint.
+     */
+    SEARCH("search", "/search/tweets", 180, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code GET trends/place} endpoint.
+     */
+    TRENDS_PLACE("trends.place", "/trends/place", 75, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code GET trends/available} endpoint.
+     */
+    TRENDS_AVAILABLE("trends.available", "/trends/available", 75, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code GET users/lookup} endpoint.
+     */
+    USERS_LOOKUP("users.lookup", "/users/lookup", 900, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code GET users/show} endpoint.
+     */
+    USERS_SHOW("users.show", "/users/show/:id", 900, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code GET account/verify_credentials} endpoint.
+     */
+    VERIFY_CREDENTIALS("account.verify", "/account/verify_credentials", 75, 15, TimeUnit.MINUTES, false, true),
+
+    /**
+     * The {@code GET direct_messages/events/list} endpoint.
+     */
+    DIRECT_MESSAGES_LIST("dm.list", "/direct_messages/events/list", 15, 15, TimeUnit.MINUTES, false, true),
+
+    /**
+     * The {@code POST direct_messages/events/new} endpoint.
+     */
+    DIRECT_MESSAGES_SEND("dm.send", "/direct_messages/events/new", 1000, 24, TimeUnit.HOURS, false, false),
+
+    /**
+     * The {@code GET statuses/mentions_timeline} endpoint.
+     */
+    MENTIONS_TIMELINE("statuses.mentions", "/statuses/mentions_timeline", 75, 15, TimeUnit.MINUTES, false, true),
+
+    /**
+     * The {@code GET statuses/show/:id} endpoint.
+     */
+    STATUSES_SHOW("statuses.show", "/statuses/show/:id", 900, 15, TimeUnit.MINUTES, true, true),
+
+    /**
+     * The {@code POST statuses/update} endpoint.
+     */
+    STATUSES_UPDATE("statuses.update", "/statuses/update", 300, 3, TimeUnit.HOURS, false, false),
+
+    /**
+     * The {@code POST media/upload} endpoint (and its {@code GET} {@code STATUS} command).
+     */
+    MEDIA_UPLOAD("media.upload", "/media/upload", 2000, 15, TimeUnit.MINUTES, false, false);
+
+    /**
+     * The name used to configure the endpoint.
+     */
+    private final String configurationName;
+
+    /**
+     * The rate-limit resource of the endpoint.
+     */
+    private final String resource;
+
+    /**
+     * The default number of requests allowed in a rate-limit window.
+     */
+    private final int defaultLimit;
+
+    /**
+     * The duration of a rate-limit window, in milliseconds.
+     */
+    private final long window;
+
+    /**
+     * A flag telling whether the endpoint returns the same results whatever the authenticated account.
+     */
+    private final boolean accountNeutral;
+
+    /**
+     * A flag telling whether the endpoint can be called multiple times without side effects.
+     */
+    private final boolean idempotent;
+
+    /**
+     * Constructs a {@link TwitterEndpoint} with the provided parameters.
+     *
+     * @param configurationName the name used to configure the endpoint
+     * @param resource          the rate-limit resource of the endpoint
+     * @param defaultLimit      the default number of requests allowed in a rate-limit window
+     * @param window            the duration of a rate-limit window
+     * @param unit              the {@link TimeUnit} of {@code window}
+     * @param accountNeutral    whether the endpoint returns the same results whatever the authenticated account
+     * @param idempotent        whether the endpoint can be called multiple times without side effects
+     */
+    TwitterEndpoint(@NonNull String configurationName, @NonNull String resource, int defaultLimit, long window,
+                    @NonNull TimeUnit unit, boolean accountNeutral, boolean idempotent) {
+        this.configurationName = configurationName;
+        this.resource = resource;
+        this.defaultLimit = defaultLimit;
+        this.window = unit.toMillis(window);
+        this.accountNeutral = accountNeutral;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Returns the name used to configure the endpoint.
+     *
+     * @return the name used to configure the endpoint
+     */
+    public String getConfigurationName() {
+        return this.configurationName;
+    }
+
+    /**
+     * Returns the rate-limit resource of the endpoint.
+     *
+     * @return the rate-limit resource of the endpoint
+     */
+    public String getResource() {
+        return this.resource;
+    }
+
+    /**
+     * Returns the default number of requests allowed in a rate-limit window.
+     *
+     * @return the default number of requests allowed in a rate-limit window
+     */
+    public int getDefaultLimit() {
+        return this.defaultLimit;
+    }
+
+    /**
+     * Returns the duration of a rate-limit window, in milliseconds.
+     *
+     * @return the duration of a rate-limit window, in milliseconds
+     */
+    public long getWindow() {
+        return this.window;
+    }
+
+    /**
+     * Returns whether the endpoint returns the same results whatever the authenticated account.
+     * <p>
+     * Calls to account-neutral endpoints are load-balanced across the accounts of the platform's
+     * {@link AccountPool}, the other ones always use its primary account.
+     *
+     * @return {@code true} if the endpoint is account-neutral, {@code false} otherwise
+     */
+    public boolean isAccountNeutral() {
+        return this.accountNeutral;
+    }
+
+    /**
+     * Returns whether the endpoint can be called multiple times without side effects.
+     * <p>
+     * The failed calls to idempotent endpoints can be retried by the platform, the other ones are reported to the
+     * caller.
+     *
+     * @return {@code true} if the endpoint is idempotent, {@code false} otherwise
+     */
+    public boolean isIdempotent() {
+        return this.idempotent;
+    }
+
+    /**
+     * Returns the {@link TwitterEndpoint} associated to the provided rate-limit {@code resource}.
+     *
+     * @param resource the rate-limit resource to retrieve the endpoint of
+     * @return the {@link TwitterEndpoint}, or {@code null} if the platform does not use the provided
+     * {@code resource}
+     */
+    public static TwitterEndpoint fromResource(@NonNull String resource) {
+        for (TwitterEndpoint endpoint : values()) {
+            if (endpoint.resource.equals(resource)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.TwitterException;
+
+/**
+ * Wraps a {@link TwitterException} thrown in a context that does not allow checked exceptions (e.g. when pulling the
+ * next element of an {@link java.util.Iterator}).
+ */
+public class UncheckedTwitterException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an {@link UncheckedTwitterException} wrapping the provided {@code cause}.
+     *
+     * @param cause the {@link TwitterException} to wrap
+     */
+    public UncheckedTwitterException(@NonNull TwitterException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    /**
+     * Returns the wrapped {@link TwitterException}.
+     *
+     * @return the wrapped {@link TwitterException}
+     */
+    @Override
+    public synchronized TwitterException getCause() {
+        return (TwitterException) super.getCause();
+    }
+}
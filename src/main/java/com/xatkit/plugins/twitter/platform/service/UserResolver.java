@@ -0,0 +1,176 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.cache.LongTtlCache;
+import lombok.NonNull;
+import twitter4j.DirectMessage;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+import twitter4j.User;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves Twitter user IDs into {@link UserSummary} instances.
+ * <p>
+ * This class caches the resolved users in a bounded {@link LongTtlCache}, and resolves the missing ones in bulk with
+ * {@link Twitter#lookupUsers(long...)} (up to {@link #MAX_USERS_PER_LOOKUP} users per request). Actions processing a
+ * page of results should first call {@link #prefetch(long...)} (or {@link #prefetchSenders(Collection)}) with all the
+ * IDs of the page, and then use {@link #resolve(long)} for each individual item.
+ * <p>
+ * The resolved users are also recorded in the platform's
+ * {@link com.xatkit.plugins.twitter.platform.state.StateStore}, and restored when the platform restarts (see
+ * {@link #restore(UserSummary, long)}).
+ *
+ * @see TwitterPlatform#getUserResolver()
+ */
+public class UserResolver {
+
+    /**
+     * The maximum number of users that can be retrieved with a single {@link Twitter#lookupUsers(long...)} request.
+     */
+    private static final int MAX_USERS_PER_LOOKUP = 100;
+
+    /**
+     * The {@link TwitterPlatform} used to access the Twitter API.
+     */
+    private final TwitterPlatform platform;
+
+    /**
+     * The cache containing the resolved users.
+     */
+    private final LongTtlCache<UserSummary> cache;
+
+    /**
+     * The time-to-live of the cached users, in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Constructs a {@link UserResolver} with the provided {@code platform} and cache settings.
+     *
+     * @param platform  the {@link TwitterPlatform} used to access the Twitter API
+     * @param cacheSize the maximum number of users to cache
+     * @param ttl       the time-to-live of the cached users
+     * @param unit      the {@link TimeUnit} of {@code ttl}
+     */
+    public UserResolver(@NonNull TwitterPlatform platform, int cacheSize, long ttl, @NonNull TimeUnit unit) {
+        this.platform = platform;
+        this.cache = new LongTtlCache<>(cacheSize, ttl, unit);
+        this.ttlMillis = unit.toMillis(ttl);
+    }
+
+    /**
+     * Resolves the distinct senders of the provided {@code messages} that are not already cached.
+     *
+     * @param messages the {@link DirectMessage}s to resolve the senders of
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     * @see #prefetch(long...)
+     */
+    public void prefetchSenders(@NonNull Collection<DirectMessage> messages) throws TwitterException {
+        prefetch(messages.stream().mapToLong(DirectMessage::getSenderId).toArray());
+    }
+
+    /**
+     * Resolves the provided user {@code ids} that are not already cached.
+     * <p>
+     * This method performs a single {@link Twitter#lookupUsers(long...)} request for each
+     * {@link #MAX_USERS_PER_LOOKUP} distinct missing users. Resolved users are then available through
+     * {@link #resolve(long)} without accessing the Twitter API.
+     *
+     * @param ids the IDs of the users to resolve
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public void prefetch(@NonNull long... ids) throws TwitterException {
+        long[] missing = Arrays.stream(ids).distinct().filter(id -> !cache.contains(id)).toArray();
+        for (int from = 0; from < missing.length; from += MAX_USERS_PER_LOOKUP) {
+            long[] batch = Arrays.copyOfRange(missing, from, Math.min(missing.length, from + MAX_USERS_PER_LOOKUP));
+            for (User user : platform.execute(TwitterEndpoint.USERS_LOOKUP,
+                    twitter -> twitter.lookupUsers(batch))) {
+                this.cache(UserSummary.of(user));
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link UserSummary} of the user with the provided {@code id}.
+     * <p>
+     * This method only accesses the Twitter API if the user is not cached (see {@link #prefetch(long...)} to resolve
+     * multiple users at once).
+     *
+     * @param id the ID of the user to resolve
+     * @return the {@link UserSummary} of the user
+     * @throws TwitterException if an error occurred when accessing the Twitter API
+     */
+    public UserSummary resolve(long id) throws TwitterException {
+        UserSummary user = cache.get(id);
+        if (user == null) {
+            user = UserSummary.of(platform.execute(TwitterEndpoint.USERS_SHOW, twitter -> twitter.showUser(id)));
+            this.cache(user);
+        }
+        return user;
+    }
+
+    /**
+     * Caches the provided {@code user}.
+     * <p>
+     * This method can be used to cache users retrieved by other API calls (e.g. the authors of a search result). The
+     * user is also recorded in the platform's {@link com.xatkit.plugins.twitter.platform.state.StateStore}, which only
+     * journals it if it is new, if it changed, or if its stored copy is getting old (see
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore#putUser(UserSummary)}).
+     *
+     * @param user the {@link UserSummary} to cache
+     */
+    public void cache(@NonNull UserSummary user) {
+        this.cache.put(user.getId(), user);
+        platform.getStateStore().putUser(user);
+    }
+
+    /**
+     * Caches the provided {@code user} resolved at the given time.
+     * <p>
+     * This method is used to restore the users persisted by the platform's
+     * {@link com.xatkit.plugins.twitter.platform.state.StateStore}: the restored users expire when they would have
+     * expired without the restart.
+     *
+     * @param user       the {@link UserSummary} to cache
+     * @param resolvedAt the time (in milliseconds since the epoch) the user has been resolved at
+     */
+    public void restore(@NonNull UserSummary user, long resolvedAt) {
+        long remainingTtl = ttlMillis - (System.currentTimeMillis() - resolvedAt);
+        if (remainingTtl > 0) {
+            this.cache.put(user.getId(), user, remainingTtl, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the number of user resolutions answered by the cache.
+     *
+     * @return the number of cache hits
+     * @see #resolve(long)
+     */
+    public long getCacheHitCount() {
+        return this.cache.getHitCount();
+    }
+
+    /**
+     * Returns the number of user resolutions that required a call to the Twitter API.
+     *
+     * @return the number of cache misses
+     * @see #resolve(long)
+     */
+    public long getCacheMissCount() {
+        return this.cache.getMissCount();
+    }
+
+    /**
+     * Removes all the cached users.
+     * <p>
+     * The users removed from the cache are resolved again with the Twitter API the next time they are requested.
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+}
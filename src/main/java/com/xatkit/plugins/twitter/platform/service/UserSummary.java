@@ -0,0 +1,87 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import lombok.NonNull;
+import twitter4j.User;
+
+/**
+ * A compact, immutable view of a Twitter {@link User}.
+ * <p>
+ * This class only holds the information the Twitter actions need to render a user, and is used instead of the
+ * complete {@link User} objects to keep the {@link UserResolver} cache small.
+ */
+public final class UserSummary {
+
+    /**
+     * The unique identifier of the user.
+     */
+    private final long id;
+
+    /**
+     * The display name of the user.
+     */
+    private final String name;
+
+    /**
+     * The screen name (handle) of the user, without the leading {@code @}.
+     */
+    private final String screenName;
+
+    /**
+     * Constructs a {@link UserSummary} with the provided {@code id}, {@code name}, and {@code screenName}.
+     *
+     * @param id         the unique identifier of the user
+     * @param name       the display name of the user
+     * @param screenName the screen name of the user
+     */
+    public UserSummary(long id, @NonNull String name, @NonNull String screenName) {
+        this.id = id;
+        this.name = name;
+        this.screenName = screenName;
+    }
+
+    /**
+     * Creates a {@link UserSummary} from the provided Twitter {@code user}.
+     *
+     * @param user the Twitter {@link User} to create a summary of
+     * @return the created {@link UserSummary}
+     */
+    public static UserSummary of(@NonNull User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getScreenName());
+    }
+
+    /**
+     * Returns the unique identifier of the user.
+     *
+     * @return the unique identifier of the user
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the display name of the user.
+     *
+     * @return the display name of the user
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the screen name of the user, without the leading {@code @}.
+     *
+     * @return the screen name of the user
+     */
+    public String getScreenName() {
+        return this.screenName;
+    }
+
+    /**
+     * Returns the formatted name of the user ({@code "Name @screenName"}).
+     *
+     * @return the formatted name of the user
+     */
+    public String getDisplayName() {
+        return this.name + " @" + this.screenName;
+    }
+}
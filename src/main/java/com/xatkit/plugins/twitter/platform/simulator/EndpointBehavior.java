@@ -0,0 +1,374 @@
+package com.xatkit.plugins.twitter.platform.simulator;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * The scripted behavior of an endpoint of the {@link TwitterApiSimulator}.
+ * <p>
+ * A behavior defines the latency of the endpoint, the errors it injects, and its rate limit. Behaviors are
+ * initialized from the simulator's configuration, and can be updated while the simulator is running, e.g. to
+ * reproduce an outage in the middle of a soak test:
+ * <pre>
+ * {@code
+ * EndpointBehavior search = simulator.getBehavior(TwitterEndpoint.SEARCH);
+ * search.setLatency(50, 200);
+ * search.failNext(3, 503);
+ * }
+ * </pre>
+ * The rate limit of the endpoint is enforced for each account (i.e. each access token) using fixed windows of
+ * {@link TwitterEndpoint#getWindow()} milliseconds, like the Twitter API does.
+ */
+public class EndpointBehavior {
+
+    /**
+     * The simulated {@link TwitterEndpoint}.
+     */
+    private final TwitterEndpoint endpoint;
+
+    /**
+     * The minimum latency of the endpoint, in milliseconds.
+     */
+    private volatile long minLatency;
+
+    /**
+     * The maximum latency of the endpoint, in milliseconds.
+     */
+    private volatile long maxLatency;
+
+    /**
+     * The ratio of the requests failing with an injected error.
+     */
+    private volatile double errorRate;
+
+    /**
+     * The HTTP status of the errors injected according to the {@link #errorRate}.
+     */
+    private volatile int errorStatus;
+
+    /**
+     * The number of requests allowed per account in a rate-limit window.
+     */
+    private volatile int rateLimit;
+
+    /**
+     * The number of upcoming requests that fail with the {@link #pendingFailureStatus}.
+     *
+     * @see #failNext(int, int)
+     */
+    private final AtomicInteger pendingFailures = new AtomicInteger();
+
+    /**
+     * The HTTP status of the errors injected with {@link #failNext(int, int)}.
+     */
+    private volatile int pendingFailureStatus;
+
+    /**
+     * The current rate-limit window of each account, indexed by access token.
+     */
+    private final Map<String, RateLimitWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an {@link EndpointBehavior} for the provided {@code endpoint}.
+     * <p>
+     * The behavior is initialized with the endpoint-specific keys of the provided {@code configuration} (e.g.
+     * {@code xatkit.twitter.simulator.search.latency.max}), falling back to the global ones (e.g.
+     * {@code xatkit.twitter.simulator.latency.max}).
+     *
+     * @param endpoint      the simulated {@link TwitterEndpoint}
+     * @param configuration the simulator's {@link Configuration}
+     */
+    EndpointBehavior(@NonNull TwitterEndpoint endpoint, @NonNull Configuration configuration) {
+        this.endpoint = endpoint;
+        String prefix = TwitterUtils.TWITTER_SIMULATOR_PREFIX + endpoint.getConfigurationName() + ".";
+        long defaultMinLatency = configuration.getLong(TwitterUtils.TWITTER_SIMULATOR_PREFIX
+                + TwitterUtils.TWITTER_SIMULATOR_MIN_LATENCY_SUFFIX, 0);
+        long defaultMaxLatency = configuration.getLong(TwitterUtils.TWITTER_SIMULATOR_PREFIX
+                + TwitterUtils.TWITTER_SIMULATOR_MAX_LATENCY_SUFFIX, defaultMinLatency);
+        long endpointMinLatency = configuration.getLong(prefix + TwitterUtils.TWITTER_SIMULATOR_MIN_LATENCY_SUFFIX,
+                defaultMinLatency);
+        this.setLatency(endpointMinLatency, configuration.getLong(prefix
+                + TwitterUtils.TWITTER_SIMULATOR_MAX_LATENCY_SUFFIX, Math.max(endpointMinLatency, defaultMaxLatency)));
+        this.setErrorRate(configuration.getDouble(prefix + TwitterUtils.TWITTER_SIMULATOR_ERROR_RATE_SUFFIX,
+                configuration.getDouble(TwitterUtils.TWITTER_SIMULATOR_PREFIX
+                        + TwitterUtils.TWITTER_SIMULATOR_ERROR_RATE_SUFFIX, 0)),
+                configuration.getInt(prefix + TwitterUtils.TWITTER_SIMULATOR_ERROR_STATUS_SUFFIX,
+                        configuration.getInt(TwitterUtils.TWITTER_SIMULATOR_PREFIX
+                                + TwitterUtils.TWITTER_SIMULATOR_ERROR_STATUS_SUFFIX,
+                                TwitterUtils.DEFAULT_SIMULATOR_ERROR_STATUS)));
+        this.setRateLimit(configuration.getInt(prefix + TwitterUtils.TWITTER_SIMULATOR_RATE_LIMIT_SUFFIX,
+                endpoint.getDefaultLimit()));
+    }
+
+    /**
+     * Returns the simulated {@link TwitterEndpoint}.
+     *
+     * @return the simulated {@link TwitterEndpoint}
+     */
+    public TwitterEndpoint getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Sets the latency of the endpoint.
+     * <p>
+     * The latency of each request is drawn uniformly between {@code minLatency} and {@code maxLatency}.
+     *
+     * @param minLatency the minimum latency of the endpoint, in milliseconds
+     * @param maxLatency the maximum latency of the endpoint, in milliseconds
+     * @throws IllegalArgumentException if {@code minLatency} is negative or greater than {@code maxLatency}
+     */
+    public void setLatency(long minLatency, long maxLatency) {
+        checkArgument(minLatency >= 0 && minLatency <= maxLatency, "Cannot set the latency of the %s endpoint, "
+                + "expected 0 <= minLatency <= maxLatency, found minLatency = %s and maxLatency = %s",
+                endpoint.getConfigurationName(), minLatency, maxLatency);
+        this.minLatency = minLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     * Returns the minimum latency of the endpoint.
+     *
+     * @return the minimum latency of the endpoint, in milliseconds
+     */
+    public long getMinLatency() {
+        return this.minLatency;
+    }
+
+    /**
+     * Returns the maximum latency of the endpoint.
+     *
+     * @return the maximum latency of the endpoint, in milliseconds
+     */
+    public long getMaxLatency() {
+        return this.maxLatency;
+    }
+
+    /**
+     * Sets the ratio of the requests failing with an injected error.
+     *
+     * @param errorRate   the ratio of the requests failing with an injected error, between {@code 0} and {@code 1}
+     * @param errorStatus the HTTP status of the injected errors (e.g. {@code 500} or {@code 503})
+     * @throws IllegalArgumentException if {@code errorRate} is not between {@code 0} and {@code 1}, or if
+     *                                  {@code errorStatus} is not an error status
+     */
+    public void setErrorRate(double errorRate, int errorStatus) {
+        checkArgument(errorRate >= 0 && errorRate <= 1, "Cannot set the error rate of the %s endpoint, expected a "
+                + "value between 0 and 1, found %s", endpoint.getConfigurationName(), errorRate);
+        checkArgument(errorStatus >= 400 && errorStatus < 600, "Cannot set the error status of the %s endpoint, "
+                + "expected a 4xx or 5xx status, found %s", endpoint.getConfigurationName(), errorStatus);
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Returns the ratio of the requests failing with an injected error.
+     *
+     * @return the ratio of the requests failing with an injected error
+     */
+    public double getErrorRate() {
+        return this.errorRate;
+    }
+
+    /**
+     * Returns the HTTP status of the injected errors.
+     *
+     * @return the HTTP status of the injected errors
+     */
+    public int getErrorStatus() {
+        return this.errorStatus;
+    }
+
+    /**
+     * Makes the next {@code count} requests to the endpoint fail with the provided {@code status}.
+     * <p>
+     * Unlike {@link #setErrorRate(double, int)}, this method injects errors deterministically, and can be used to
+     * reproduce a given sequence of failures.
+     *
+     * @param count  the number of requests to fail
+     * @param status the HTTP status of the injected errors
+     * @throws IllegalArgumentException if {@code count} is negative or if {@code status} is not an error status
+     */
+    public void failNext(int count, int status) {
+        checkArgument(count >= 0, "Cannot fail the next %s requests of the %s endpoint, expected a positive count",
+                count, endpoint.getConfigurationName());
+        checkArgument(status >= 400 && status < 600, "Cannot fail the next requests of the %s endpoint, expected a "
+                + "4xx or 5xx status, found %s", endpoint.getConfigurationName(), status);
+        this.pendingFailureStatus = status;
+        this.pendingFailures.set(count);
+    }
+
+    /**
+     * Sets the number of requests allowed per account in a rate-limit window.
+     * <p>
+     * The new limit applies to the rate-limit windows opened after this call.
+     *
+     * @param rateLimit the number of requests allowed per account in a rate-limit window
+     * @throws IllegalArgumentException if {@code rateLimit} is negative
+     */
+    public void setRateLimit(int rateLimit) {
+        checkArgument(rateLimit >= 0, "Cannot set the rate limit of the %s endpoint, expected a positive value, "
+                + "found %s", endpoint.getConfigurationName(), rateLimit);
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Returns the number of requests allowed per account in a rate-limit window.
+     *
+     * @return the number of requests allowed per account in a rate-limit window
+     */
+    public int getRateLimit() {
+        return this.rateLimit;
+    }
+
+    /**
+     * Resets the rate-limit windows of all the accounts.
+     */
+    public void resetRateLimits() {
+        windows.clear();
+    }
+
+    /**
+     * Draws the latency of a request.
+     *
+     * @param random the {@link Random} used to draw the latency
+     * @return the latency of the request, in milliseconds
+     */
+    long nextLatency(Random random) {
+        long min = this.minLatency;
+        long max = this.maxLatency;
+        return max <= min ? min : min + (long) (random.nextDouble() * (max - min + 1));
+    }
+
+    /**
+     * Draws the injected error of a request.
+     *
+     * @param random the {@link Random} used to draw the error
+     * @return the HTTP status of the injected error, or {@code 0} if the request does not fail
+     */
+    int nextErrorStatus(Random random) {
+        if (pendingFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            return pendingFailureStatus;
+        }
+        double rate = this.errorRate;
+        return rate > 0 && random.nextDouble() < rate ? errorStatus : 0;
+    }
+
+    /**
+     * Consumes a request from the rate-limit budget of the provided {@code account}.
+     *
+     * @param account the access token of the account performing the request
+     * @param now     the current time, in milliseconds since the epoch
+     * @return the state of the account's budget after the request
+     */
+    RateLimitState consume(String account, long now) {
+        return windows.computeIfAbsent(account, key -> new RateLimitWindow()).update(now, true);
+    }
+
+    /**
+     * Returns the rate-limit budget of the provided {@code account} without consuming it.
+     *
+     * @param account the access token of the account
+     * @param now     the current time, in milliseconds since the epoch
+     * @return the state of the account's budget
+     */
+    RateLimitState peek(String account, long now) {
+        return windows.computeIfAbsent(account, key -> new RateLimitWindow()).update(now, false);
+    }
+
+    /**
+     * The state of the rate-limit budget of an account.
+     */
+    static final class RateLimitState {
+
+        /**
+         * The number of requests allowed in the window.
+         */
+        final int limit;
+
+        /**
+         * The number of requests that can still be performed in the window.
+         */
+        final int remaining;
+
+        /**
+         * The end of the window, in seconds since the epoch (rounded up).
+         */
+        final long reset;
+
+        /**
+         * Whether the request that produced this state exceeded the limit.
+         */
+        final boolean exceeded;
+
+        /**
+         * Constructs a {@link RateLimitState} with the provided parameters.
+         *
+         * @param limit     the number of requests allowed in the window
+         * @param remaining the number of requests that can still be performed in the window
+         * @param reset     the end of the window, in seconds since the epoch
+         * @param exceeded  whether the request that produced this state exceeded the limit
+         */
+        private RateLimitState(int limit, int remaining, long reset, boolean exceeded) {
+            this.limit = limit;
+            this.remaining = remaining;
+            this.reset = reset;
+            this.exceeded = exceeded;
+        }
+    }
+
+    /**
+     * The rate-limit window of an account.
+     */
+    private final class RateLimitWindow {
+
+        /**
+         * The end of the window, in milliseconds since the epoch.
+         */
+        private long end;
+
+        /**
+         * The number of requests allowed in the window.
+         */
+        private int limit;
+
+        /**
+         * The number of requests performed in the window.
+         */
+        private int used;
+
+        /**
+         * Opens a new window if the current one is over, and consumes a request if {@code consume} is {@code true}.
+         *
+         * @param now     the current time, in milliseconds since the epoch
+         * @param consume whether to consume a request
+         * @return the state of the window after the update
+         */
+        private synchronized RateLimitState update(long now, boolean consume) {
+            if (now >= end) {
+                this.end = now + endpoint.getWindow();
+                this.limit = rateLimit;
+                this.used = 0;
+            }
+            boolean exceeded = false;
+            if (consume) {
+                if (used < limit) {
+                    used++;
+                } else {
+                    exceeded = true;
+                }
+            }
+            return new RateLimitState(limit, limit - used, TimeUnit.MILLISECONDS.toSeconds(end + 999), exceeded);
+        }
+    }
+}
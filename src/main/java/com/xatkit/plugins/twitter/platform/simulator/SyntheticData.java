@@ -0,0 +1,641 @@
+package com.xatkit.plugins.twitter.platform.simulator;
+
+import lombok.NonNull;
+import twitter4j.JSONArray;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the data returned by the {@link TwitterApiSimulator}.
+ * <p>
+ * The data is generated on demand from the simulator's seed: the same seed always produces the same users, tweets,
+ * direct messages, and trends. The simulated timelines grow with time: new tweets, mentions, and direct messages
+ * are generated at a configurable rate, so that incremental polling receives new messages. The simulated accounts
+ * (i.e. the access tokens used to call the simulator) are created the first time they are used.
+ * <p>
+ * The JSON payloads follow the format of the Twitter API, so that they can be parsed by the Twitter4J client used by
+ * the platform.
+ */
+class SyntheticData {
+
+    /**
+     * The number of tweets available when the simulator starts.
+     */
+    private static final long INITIAL_TWEETS = 10000;
+
+    /**
+     * The number of mentions and direct messages received by each account when the simulator starts.
+     */
+    private static final long INITIAL_MESSAGES = 100;
+
+    /**
+     * The first ID of the mentions, which share the ID space of the tweets.
+     */
+    private static final long MENTION_ID_BASE = 500_000_000_000L;
+
+    /**
+     * The first ID of the tweets posted with {@code statuses/update}.
+     */
+    private static final long POSTED_ID_BASE = 1_000_000_000_000L;
+
+    /**
+     * The first ID of the sent direct messages.
+     */
+    private static final long SENT_MESSAGE_ID_BASE = 1_000_000_000_000L;
+
+    /**
+     * The number of trends returned for each location.
+     */
+    private static final int TRENDS_PER_LOCATION = 50;
+
+    /**
+     * The period of the trend refreshes, in milliseconds.
+     */
+    private static final long TRENDS_PERIOD = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The format of the {@code created_at} fields of the users and tweets.
+     */
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern(
+            "EEE MMM dd HH:mm:ss Z yyyy", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * The format of the {@code as_of} and {@code created_at} fields of the trends.
+     */
+    private static final DateTimeFormatter TRENDS_DATE_FORMAT = DateTimeFormatter.ofPattern(
+            "yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * The words used to generate the texts.
+     */
+    private static final String[] WORDS = {"bot", "chat", "model", "xatkit", "twitter", "java", "platform", "cloud",
+            "data", "event", "intent", "state", "flow", "open", "source", "release", "deploy", "test", "load", "soak",
+            "latency", "cache", "stream", "reply", "trend", "news", "music", "sport", "match", "goal", "coffee",
+            "weekend", "morning", "city", "travel", "today", "great", "new", "first", "last"};
+
+    /**
+     * The first names used to generate the names of the users.
+     */
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Charlie", "Jordan", "Robin", "Camille", "Dominique",
+            "Andrea", "Noa", "Kim", "Eden", "Sasha"};
+
+    /**
+     * The last names used to generate the names of the users.
+     */
+    private static final String[] LAST_NAMES = {"Martin", "Garcia", "Smith", "Rossi", "Dubois", "Silva", "Novak",
+            "Jensen", "Tanaka", "Moreau", "Cabot", "Lopez"};
+
+    /**
+     * The available trend locations: name, WOEID, country code, place type code, and place type name.
+     */
+    private static final Object[][] LOCATIONS = {
+            {"Worldwide", 1, null, 19, "Supername"},
+            {"United States", 23424977, "US", 12, "Country"},
+            {"United Kingdom", 23424975, "GB", 12, "Country"},
+            {"France", 23424819, "FR", 12, "Country"},
+            {"Spain", 23424950, "ES", 12, "Country"},
+            {"Germany", 23424829, "DE", 12, "Country"},
+            {"Japan", 23424856, "JP", 12, "Country"},
+            {"Brazil", 23424768, "BR", 12, "Country"},
+            {"New York", 2459115, "US", 7, "Town"},
+            {"London", 44418, "GB", 7, "Town"},
+            {"Paris", 615702, "FR", 7, "Town"},
+            {"Barcelona", 753692, "ES", 7, "Town"}
+    };
+
+    /**
+     * The seed of the generated data.
+     */
+    private final long seed;
+
+    /**
+     * The number of generated users.
+     */
+    private final int userCount;
+
+    /**
+     * The number of tweets, mentions, and direct messages generated per second.
+     */
+    private final double messageRate;
+
+    /**
+     * The time the simulator started, in milliseconds since the epoch.
+     */
+    private final long startMillis;
+
+    /**
+     * The IDs of the simulated accounts, indexed by access token.
+     */
+    private final Map<String, Long> accountIds = new ConcurrentHashMap<>();
+
+    /**
+     * The number of simulated accounts.
+     */
+    private final AtomicLong accountCount = new AtomicLong();
+
+    /**
+     * The sequence generating the IDs of the posted tweets.
+     */
+    private final AtomicLong postedIds = new AtomicLong(POSTED_ID_BASE);
+
+    /**
+     * The sequence generating the IDs of the sent direct messages.
+     */
+    private final AtomicLong sentMessageIds = new AtomicLong(SENT_MESSAGE_ID_BASE);
+
+    /**
+     * Constructs a {@link SyntheticData} with the provided parameters.
+     *
+     * @param seed        the seed of the generated data
+     * @param userCount   the number of generated users
+     * @param messageRate the number of tweets, mentions, and direct messages generated per second
+     * @param startMillis the time the simulator started, in milliseconds since the epoch
+     */
+    SyntheticData(long seed, int userCount, double messageRate, long startMillis) {
+        this.seed = seed;
+        this.userCount = userCount;
+        this.messageRate = messageRate;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Returns the ID of the simulated account using the provided {@code accessToken}.
+     * <p>
+     * The IDs of the simulated accounts follow the IDs of the generated users.
+     *
+     * @param accessToken the access token of the account
+     * @return the ID of the account
+     */
+    long getAccountId(@NonNull String accessToken) {
+        return accountIds.computeIfAbsent(accessToken, key -> userCount + accountCount.incrementAndGet());
+    }
+
+    /**
+     * Returns whether a user with the provided {@code id} exists.
+     *
+     * @param id the ID of the user
+     * @return {@code true} if the user exists, {@code false} otherwise
+     */
+    boolean isUser(long id) {
+        return id > 0 && id <= userCount + accountCount.get();
+    }
+
+    /**
+     * Returns the ID of the user with the provided {@code screenName}.
+     *
+     * @param screenName the screen name of the user
+     * @return the ID of the user, or {@code -1} if the user does not exist
+     */
+    long getUserId(@NonNull String screenName) {
+        String name = screenName.startsWith("@") ? screenName.substring(1) : screenName;
+        String prefix = name.startsWith("user") ? "user" : name.startsWith("account") ? "account" : null;
+        if (prefix == null) {
+            return -1;
+        }
+        try {
+            long id = Long.parseLong(name.substring(prefix.length()));
+            if (prefix.equals("account")) {
+                id += userCount;
+            }
+            return this.isUser(id) ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Creates the JSON payload of the user with the provided {@code id}.
+     *
+     * @param id the ID of the user
+     * @return the JSON payload of the user
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject user(long id) throws JSONException {
+        Random random = this.random(id, 1);
+        String screenName = id > userCount ? "account" + (id - userCount) : "user" + id;
+        return new JSONObject()
+                .put("id", id)
+                .put("id_str", Long.toString(id))
+                .put("name", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                .put("screen_name", screenName)
+                .put("description", this.text(random, null, 80))
+                .put("followers_count", random.nextInt(100_000))
+                .put("friends_count", random.nextInt(2_000))
+                .put("statuses_count", random.nextInt(50_000))
+                .put("lang", "en")
+                .put("created_at", CREATED_AT_FORMAT.format(Instant.ofEpochMilli(startMillis
+                        - TimeUnit.DAYS.toMillis(1 + random.nextInt(3000)))));
+    }
+
+    /**
+     * Creates the JSON payload of a {@code search/tweets} response.
+     *
+     * @param query   the search query, included in the text of the returned tweets
+     * @param count   the maximum number of returned tweets
+     * @param maxId   the maximum ID of the returned tweets, or {@code -1}
+     * @param sinceId the returned tweets have an ID greater than this one, or {@code -1}
+     * @param now     the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject search(@NonNull String query, int count, long maxId, long sinceId, long now) throws JSONException {
+        long latest = this.available(INITIAL_TWEETS, now);
+        long first = maxId > 0 ? Math.min(maxId, latest) : latest;
+        long last = Math.max(first - count + 1, Math.max(sinceId + 1, 1));
+        JSONArray statuses = new JSONArray();
+        for (long id = first; id >= last; id--) {
+            Random random = this.random(id, 2);
+            statuses.put(this.status(id, 1 + random.nextInt(userCount), this.text(random, query, 140),
+                    this.createdAt(id, INITIAL_TWEETS, now)));
+        }
+        String encodedQuery = encode(query);
+        JSONObject metadata = new JSONObject()
+                .put("completed_in", 0.01)
+                .put("count", count)
+                .put("max_id", first)
+                .put("since_id", Math.max(sinceId, 0))
+                .put("query", encodedQuery)
+                .put("refresh_url", "?since_id=" + first + "&q=" + encodedQuery);
+        if (last > Math.max(sinceId + 1, 1)) {
+            metadata.put("next_results", "?max_id=" + (last - 1) + "&q=" + encodedQuery + "&count=" + count);
+        }
+        return new JSONObject().put("statuses", statuses).put("search_metadata", metadata);
+    }
+
+    /**
+     * Creates the JSON payload of a {@code statuses/mentions_timeline} response.
+     *
+     * @param accountId the ID of the mentioned account
+     * @param count     the maximum number of returned tweets
+     * @param maxId     the maximum ID of the returned tweets, or {@code -1}
+     * @param sinceId   the returned tweets have an ID greater than this one, or {@code -1}
+     * @param now       the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONArray mentions(long accountId, int count, long maxId, long sinceId, long now) throws JSONException {
+        long latest = MENTION_ID_BASE + this.available(INITIAL_MESSAGES, now);
+        long first = maxId > 0 ? Math.min(maxId, latest) : latest;
+        long last = Math.max(first - count + 1, Math.max(sinceId + 1, MENTION_ID_BASE + 1));
+        JSONArray result = new JSONArray();
+        for (long id = first; id >= last; id--) {
+            result.put(this.mention(accountId, id, now));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the JSON payload of a {@code statuses/show} response.
+     * <p>
+     * Only the mentions of the requesting account can be retrieved: the other generated tweets depend on the query
+     * that returned them, and the posted tweets are not stored.
+     *
+     * @param accountId the ID of the account performing the request
+     * @param id        the ID of the tweet to retrieve
+     * @param now       the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response, or {@code null} if the tweet does not exist
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject showStatus(long accountId, long id, long now) throws JSONException {
+        if (id <= MENTION_ID_BASE || id > MENTION_ID_BASE + this.available(INITIAL_MESSAGES, now)) {
+            return null;
+        }
+        return this.mention(accountId, id, now);
+    }
+
+    /**
+     * Creates the JSON payload of a {@code direct_messages/events/list} response.
+     * <p>
+     * The cursors of the returned pages are the IDs of the first message of the next page.
+     *
+     * @param accountId the ID of the account receiving the messages
+     * @param count     the maximum number of returned messages
+     * @param cursor    the cursor of the page to return, or {@code null} to return the first page
+     * @param now       the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject directMessages(long accountId, int count, String cursor, long now) throws JSONException {
+        long latest = this.available(INITIAL_MESSAGES, now);
+        long first = latest;
+        if (cursor != null) {
+            try {
+                first = Math.min(Long.parseLong(cursor), latest);
+            } catch (NumberFormatException e) {
+                throw new JSONException("Invalid cursor " + cursor);
+            }
+        }
+        long last = Math.max(first - count + 1, 1);
+        JSONArray events = new JSONArray();
+        for (long id = first; id >= last; id--) {
+            Random random = this.random(id, -accountId);
+            events.put(this.directMessage(id, 1 + random.nextInt(userCount), accountId, this.text(random, null, 140),
+                    this.createdAt(id, INITIAL_MESSAGES, now).toEpochMilli()));
+        }
+        JSONObject result = new JSONObject().put("events", events);
+        if (last > 1) {
+            result.put("next_cursor", Long.toString(last - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the JSON payload of a {@code statuses/update} response.
+     *
+     * @param accountId         the ID of the account posting the tweet
+     * @param text              the text of the tweet
+     * @param inReplyToStatusId the ID of the tweet the posted tweet replies to, or {@code -1}
+     * @param now               the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject postStatus(long accountId, @NonNull String text, long inReplyToStatusId, long now)
+            throws JSONException {
+        JSONObject status = this.status(postedIds.incrementAndGet(), accountId, text, Instant.ofEpochMilli(now));
+        if (inReplyToStatusId > 0) {
+            status.put("in_reply_to_status_id", inReplyToStatusId)
+                    .put("in_reply_to_status_id_str", Long.toString(inReplyToStatusId));
+        }
+        return status;
+    }
+
+    /**
+     * Creates the JSON payload of a {@code direct_messages/events/new} response.
+     *
+     * @param accountId   the ID of the account sending the message
+     * @param recipientId the ID of the recipient of the message
+     * @param text        the text of the message
+     * @param now         the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONObject sendDirectMessage(long accountId, long recipientId, @NonNull String text, long now)
+            throws JSONException {
+        return new JSONObject().put("event", this.directMessage(sentMessageIds.incrementAndGet(), accountId,
+                recipientId, text, now));
+    }
+
+    /**
+     * Creates the JSON payload of a {@code trends/available} response.
+     *
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONArray availableTrends() throws JSONException {
+        JSONArray result = new JSONArray();
+        for (Object[] location : LOCATIONS) {
+            String countryCode = (String) location[2];
+            result.put(new JSONObject()
+                    .put("name", location[0])
+                    .put("woeid", location[1])
+                    .put("country", countryCode == null ? "" : this.getCountry(countryCode))
+                    .put("countryCode", countryCode == null ? JSONObject.NULL : countryCode)
+                    .put("parentid", countryCode == null ? 0 : 1)
+                    .put("placeType", new JSONObject().put("code", location[3]).put("name", location[4]))
+                    .put("url", "http://where.yahooapis.com/v1/place/" + location[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the JSON payload of a {@code trends/place} response.
+     * <p>
+     * The trends of each location change every 5 minutes.
+     *
+     * @param woeid the WOEID of the location
+     * @param now   the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response, or {@code null} if the location does not exist
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    JSONArray trends(int woeid, long now) throws JSONException {
+        Object[] location = null;
+        for (Object[] candidate : LOCATIONS) {
+            if (candidate[1].equals(woeid)) {
+                location = candidate;
+            }
+        }
+        if (location == null) {
+            return null;
+        }
+        long period = now / TRENDS_PERIOD;
+        Random random = this.random(period, woeid);
+        JSONArray trends = new JSONArray();
+        for (int i = 0; i < TRENDS_PER_LOCATION; i++) {
+            String name = "#" + WORDS[random.nextInt(WORDS.length)] + WORDS[random.nextInt(WORDS.length)] + i;
+            trends.put(new JSONObject()
+                    .put("name", name)
+                    .put("url", "http://twitter.com/search?q=%23" + name.substring(1))
+                    .put("query", "%23" + name.substring(1))
+                    .put("tweet_volume", random.nextBoolean() ? (Object) (10_000 + random.nextInt(500_000)) :
+                            JSONObject.NULL));
+        }
+        String asOf = TRENDS_DATE_FORMAT.format(Instant.ofEpochMilli(period * TRENDS_PERIOD));
+        return new JSONArray().put(new JSONObject()
+                .put("trends", trends)
+                .put("as_of", asOf)
+                .put("created_at", asOf)
+                .put("locations", new JSONArray().put(new JSONObject().put("name", location[0])
+                        .put("woeid", woeid))));
+    }
+
+    /**
+     * Creates the JSON payload of the mention of the provided account with the given {@code id}.
+     * <p>
+     * A quarter of the mentions reply to one of the three previous mentions, forming reply chains that can be
+     * retrieved with {@link #showStatus(long, long, long)}.
+     *
+     * @param accountId the ID of the mentioned account
+     * @param id        the ID of the mention
+     * @param now       the current time, in milliseconds since the epoch
+     * @return the JSON payload of the mention
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    private JSONObject mention(long accountId, long id, long now) throws JSONException {
+        JSONObject account = this.user(accountId);
+        String mention = "@" + account.getString("screen_name");
+        Random random = this.random(id, accountId);
+        JSONObject status = this.status(id, 1 + random.nextInt(userCount), this.text(random, mention, 140),
+                this.createdAt(id - MENTION_ID_BASE, INITIAL_MESSAGES, now));
+        status.getJSONObject("entities").put("user_mentions", new JSONArray().put(new JSONObject()
+                .put("id", accountId)
+                .put("id_str", Long.toString(accountId))
+                .put("screen_name", account.getString("screen_name"))
+                .put("name", account.getString("name"))
+                .put("indices", new JSONArray().put(0).put(mention.length()))));
+        long previousMentions = id - MENTION_ID_BASE - 1;
+        if (previousMentions > 0 && random.nextInt(4) == 0) {
+            long parentId = id - 1 - random.nextInt((int) Math.min(3, previousMentions));
+            status.put("in_reply_to_status_id", parentId)
+                    .put("in_reply_to_status_id_str", Long.toString(parentId));
+        }
+        return status;
+    }
+
+    /**
+     * Creates the JSON payload of a tweet.
+     *
+     * @param id        the ID of the tweet
+     * @param authorId  the ID of the author of the tweet
+     * @param text      the text of the tweet
+     * @param createdAt the creation date of the tweet
+     * @return the JSON payload of the tweet
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    private JSONObject status(long id, long authorId, String text, Instant createdAt) throws JSONException {
+        Random random = this.random(id, 3);
+        return new JSONObject()
+                .put("id", id)
+                .put("id_str", Long.toString(id))
+                .put("text", text)
+                .put("created_at", CREATED_AT_FORMAT.format(createdAt))
+                .put("lang", "en")
+                .put("source", "<a href=\"https://xatkit.com\" rel=\"nofollow\">Xatkit simulator</a>")
+                .put("retweet_count", random.nextInt(100))
+                .put("favorite_count", random.nextInt(500))
+                .put("entities", new JSONObject()
+                        .put("hashtags", new JSONArray())
+                        .put("symbols", new JSONArray())
+                        .put("urls", new JSONArray())
+                        .put("user_mentions", new JSONArray()))
+                .put("user", this.user(authorId));
+    }
+
+    /**
+     * Creates the JSON payload of a direct message event.
+     *
+     * @param id          the ID of the message
+     * @param senderId    the ID of the sender of the message
+     * @param recipientId the ID of the recipient of the message
+     * @param text        the text of the message
+     * @param timestamp   the creation date of the message, in milliseconds since the epoch
+     * @return the JSON payload of the direct message event
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    private JSONObject directMessage(long id, long senderId, long recipientId, String text, long timestamp)
+            throws JSONException {
+        return new JSONObject()
+                .put("type", "message_create")
+                .put("id", Long.toString(id))
+                .put("created_timestamp", Long.toString(timestamp))
+                .put("message_create", new JSONObject()
+                        .put("target", new JSONObject().put("recipient_id", Long.toString(recipientId)))
+                        .put("sender_id", Long.toString(senderId))
+                        .put("message_data", new JSONObject()
+                                .put("text", text)
+                                .put("entities", new JSONObject()
+                                        .put("hashtags", new JSONArray())
+                                        .put("symbols", new JSONArray())
+                                        .put("urls", new JSONArray())
+                                        .put("user_mentions", new JSONArray()))));
+    }
+
+    /**
+     * Returns the number of items of a simulated timeline available at the provided time.
+     *
+     * @param initial the number of items available when the simulator started
+     * @param now     the current time, in milliseconds since the epoch
+     * @return the number of available items
+     */
+    private long available(long initial, long now) {
+        return initial + (long) (Math.max(0, now - startMillis) * messageRate / 1000);
+    }
+
+    /**
+     * Returns the creation date of the item of a simulated timeline with the provided {@code index}.
+     * <p>
+     * The items available when the simulator started are spread over the previous hour, and the following ones are
+     * spread according to the message rate.
+     *
+     * @param index   the index of the item in its timeline
+     * @param initial the number of items of the timeline available when the simulator started
+     * @param now     the current time, in milliseconds since the epoch
+     * @return the creation date of the item
+     */
+    private Instant createdAt(long index, long initial, long now) {
+        long millis;
+        if (index <= initial || messageRate <= 0) {
+            millis = startMillis - (initial - Math.min(index, initial)) * TimeUnit.HOURS.toMillis(1) / initial;
+        } else {
+            millis = startMillis + (long) ((index - initial) * 1000 / messageRate);
+        }
+        return Instant.ofEpochMilli(Math.min(millis, now));
+    }
+
+    /**
+     * Generates a text.
+     *
+     * @param random    the {@link Random} used to pick the words of the text
+     * @param prefix    the prefix of the text, or {@code null}
+     * @param maxLength the maximum length of the text
+     * @return the generated text
+     */
+    private String text(Random random, String prefix, int maxLength) {
+        StringBuilder builder = new StringBuilder(maxLength);
+        if (prefix != null) {
+            builder.append(prefix);
+        }
+        int targetLength = maxLength / 4 + random.nextInt(maxLength - maxLength / 4);
+        while (builder.length() < targetLength) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (builder.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+            builder.append(builder.length() == 0 ? "" : " ").append(word);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * URL-encodes the provided {@code value}.
+     *
+     * @param value the value to encode
+     * @return the encoded value
+     */
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the name of the country with the provided {@code countryCode}.
+     *
+     * @param countryCode the code of the country
+     * @return the name of the country
+     */
+    private String getCountry(String countryCode) {
+        for (Object[] location : LOCATIONS) {
+            if (countryCode.equals(location[2]) && ((Integer) location[3]) == 12) {
+                return (String) location[0];
+            }
+        }
+        return countryCode;
+    }
+
+    /**
+     * Creates a {@link Random} generating the data of the provided item.
+     *
+     * @param id   the ID of the item
+     * @param salt a value distinguishing the kinds of items sharing the same IDs
+     * @return the created {@link Random}
+     */
+    private Random random(long id, long salt) {
+        return new Random(seed * 0x9E3779B97F4A7C15L + id * 31 + salt);
+    }
+}
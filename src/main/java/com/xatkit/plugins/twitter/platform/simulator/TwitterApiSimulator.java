@@ -0,0 +1,1045 @@
+package com.xatkit.plugins.twitter.platform.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xatkit.core.XatkitException;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.service.MediaUploader;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import twitter4j.JSONArray;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * A local stand-in for the Twitter REST API, used to load and soak test the platform without accessing Twitter.
+ * <p>
+ * The simulator is an embedded HTTP server implementing the endpoints used by the platform (see
+ * {@link TwitterEndpoint}) with the request and response formats of the Twitter API. It returns synthetic data
+ * generated from a seed (users, tweets, mentions, direct messages, and trends), enforces the rate limit of each
+ * endpoint per account, and can inject latency and errors. The platform is pointed to the simulator with the
+ * {@link TwitterUtils#TWITTER_REST_BASE_URL_KEY} property:
+ * <pre>
+ * {@code
+ * TwitterApiSimulator simulator = new TwitterApiSimulator(simulatorConfiguration);
+ * simulator.start();
+ * configuration.addProperty(TwitterUtils.TWITTER_REST_BASE_URL_KEY, simulator.getRestBaseUrl());
+ * }
+ * </pre>
+ * The simulator also serves the chunked media upload endpoint, and is used as upload API when the
+ * {@link TwitterUtils#TWITTER_UPLOAD_BASE_URL_KEY} property is not set. Uploaded media are not stored: the simulator
+ * only checks the size of their segments, and simulates the asynchronous processing of videos and animated GIFs.
+ * <p>
+ * The simulator accepts any credentials: each access token defines a simulated account with its own rate-limit
+ * budgets, direct messages, mentions, and uploaded media. It can be configured with the following keys:
+ * <ul>
+ * <li>{@code xatkit.twitter.simulator.port}: the port of the simulator (default {@code 8090}, {@code 0} selects an
+ * available port)</li>
+ * <li>{@code xatkit.twitter.simulator.seed}: the seed of the generated data and of the injected errors (default
+ * {@code 0})</li>
+ * <li>{@code xatkit.twitter.simulator.users}: the number of generated users (default {@code 1000})</li>
+ * <li>{@code xatkit.twitter.simulator.messageRate}: the number of tweets, mentions, and direct messages generated
+ * per second (default {@code 1})</li>
+ * <li>{@code xatkit.twitter.simulator.latency.min} and {@code xatkit.twitter.simulator.latency.max}: the latency of
+ * the endpoints, in milliseconds (default {@code 0})</li>
+ * <li>{@code xatkit.twitter.simulator.errorRate} and {@code xatkit.twitter.simulator.errorStatus}: the ratio of the
+ * requests failing with an injected error, and the HTTP status of these errors (default {@code 0} and
+ * {@code 503})</li>
+ * <li>{@code xatkit.twitter.simulator.<endpoint>.latency.min}, {@code xatkit.twitter.simulator.<endpoint>.latency.max},
+ * {@code xatkit.twitter.simulator.<endpoint>.errorRate}, {@code xatkit.twitter.simulator.<endpoint>.errorStatus},
+ * and {@code xatkit.twitter.simulator.<endpoint>.rateLimit}: the endpoint-specific settings, where
+ * {@code <endpoint>} is the {@link TwitterEndpoint#getConfigurationName()} of the endpoint</li>
+ * </ul>
+ * The behavior of the endpoints can also be scripted while the simulator is running with
+ * {@link #getBehavior(TwitterEndpoint)}.
+ * <p>
+ * The simulator can be started as a standalone process with {@link #main(String[])}, taking the path of a
+ * properties file containing the keys above as its optional argument.
+ */
+public class TwitterApiSimulator implements AutoCloseable {
+
+    /**
+     * The path of the REST API served by the simulator.
+     */
+    public static final String REST_PATH = "/1.1/";
+
+    /**
+     * The path of the {@code application/rate_limit_status} endpoint, relative to {@link #REST_PATH}.
+     */
+    private static final String RATE_LIMIT_STATUS_PATH = "application/rate_limit_status.json";
+
+    /**
+     * The path prefix of the {@code statuses/show/:id} endpoint, relative to {@link #REST_PATH}.
+     */
+    private static final String STATUSES_SHOW_PATH = "statuses/show/";
+
+    /**
+     * The simulated endpoints, indexed by their path relative to {@link #REST_PATH}.
+     */
+    private static final Map<String, TwitterEndpoint> ROUTES = new HashMap<>();
+
+    static {
+        ROUTES.put("search/tweets.json", TwitterEndpoint.SEARCH);
+        ROUTES.put("trends/place.json", TwitterEndpoint.TRENDS_PLACE);
+        ROUTES.put("trends/available.json", TwitterEndpoint.TRENDS_AVAILABLE);
+        ROUTES.put("users/lookup.json", TwitterEndpoint.USERS_LOOKUP);
+        ROUTES.put("users/show.json", TwitterEndpoint.USERS_SHOW);
+        ROUTES.put("account/verify_credentials.json", TwitterEndpoint.VERIFY_CREDENTIALS);
+        ROUTES.put("direct_messages/events/list.json", TwitterEndpoint.DIRECT_MESSAGES_LIST);
+        ROUTES.put("direct_messages/events/new.json", TwitterEndpoint.DIRECT_MESSAGES_SEND);
+        ROUTES.put("statuses/mentions_timeline.json", TwitterEndpoint.MENTIONS_TIMELINE);
+        ROUTES.put("statuses/update.json", TwitterEndpoint.STATUSES_UPDATE);
+        ROUTES.put("media/upload.json", TwitterEndpoint.MEDIA_UPLOAD);
+    }
+
+    /**
+     * The pattern matching the access token in the OAuth {@code Authorization} header of the requests.
+     */
+    private static final Pattern ACCESS_TOKEN_PATTERN = Pattern.compile("oauth_token=\"([^\"]*)\"");
+
+    /**
+     * The pattern matching the name of a part in the headers of a {@code multipart/form-data} body.
+     */
+    private static final Pattern MULTIPART_NAME_PATTERN = Pattern.compile(" name=\"([^\"]*)\"");
+
+    /**
+     * The maximum number of users that can be retrieved with a single {@code users/lookup} request.
+     */
+    private static final int MAX_USERS_PER_LOOKUP = 100;
+
+    /**
+     * The maximum size of the request bodies, in bytes.
+     */
+    private static final int MAX_BODY_SIZE = 64 * 1024;
+
+    /**
+     * The maximum size of the media upload request bodies, in bytes.
+     */
+    private static final int MAX_MEDIA_BODY_SIZE = MediaUploader.MAX_SEGMENT_SIZE + 64 * 1024;
+
+    /**
+     * The duration of the simulated processing of videos and animated GIFs, in milliseconds.
+     */
+    private static final long MEDIA_PROCESSING_TIME = 1500;
+
+    /**
+     * The validity of the media IDs, in seconds.
+     */
+    private static final long MEDIA_EXPIRES_AFTER_SECS = TimeUnit.DAYS.toSeconds(1);
+
+    /**
+     * The port of the simulator, as defined in the configuration.
+     */
+    private final int configuredPort;
+
+    /**
+     * The generator of the returned data.
+     */
+    private final SyntheticData data;
+
+    /**
+     * The {@link Random} used to draw the latencies and the injected errors.
+     */
+    private final Random random;
+
+    /**
+     * The behavior of each simulated endpoint.
+     */
+    private final Map<TwitterEndpoint, EndpointBehavior> behaviors = new EnumMap<>(TwitterEndpoint.class);
+
+    /**
+     * The number of requests received by each simulated endpoint.
+     */
+    private final Map<TwitterEndpoint, LongAdder> requestCounts = new EnumMap<>(TwitterEndpoint.class);
+
+    /**
+     * The uploaded media, indexed by their ID.
+     */
+    private final Map<Long, SimulatedMedia> media = new ConcurrentHashMap<>();
+
+    /**
+     * The last generated media ID.
+     */
+    private final AtomicLong lastMediaId = new AtomicLong(1000000);
+
+    /**
+     * The embedded HTTP server.
+     */
+    private HttpServer server;
+
+    /**
+     * The threads handling the requests.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Constructs a {@link TwitterApiSimulator} with the default configuration.
+     *
+     * @see #TwitterApiSimulator(Configuration)
+     */
+    public TwitterApiSimulator() {
+        this(new BaseConfiguration());
+    }
+
+    /**
+     * Constructs a {@link TwitterApiSimulator} with the provided {@code configuration}.
+     * <p>
+     * The simulator is not started by this constructor, see {@link #start()}.
+     *
+     * @param configuration the {@link Configuration} of the simulator
+     * @throws IllegalArgumentException if the configuration contains an invalid value
+     */
+    public TwitterApiSimulator(@NonNull Configuration configuration) {
+        this.configuredPort = configuration.getInt(TwitterUtils.TWITTER_SIMULATOR_PORT_KEY,
+                TwitterUtils.DEFAULT_SIMULATOR_PORT);
+        long seed = configuration.getLong(TwitterUtils.TWITTER_SIMULATOR_SEED_KEY, 0);
+        int userCount = configuration.getInt(TwitterUtils.TWITTER_SIMULATOR_USERS_KEY,
+                TwitterUtils.DEFAULT_SIMULATOR_USERS);
+        double messageRate = configuration.getDouble(TwitterUtils.TWITTER_SIMULATOR_MESSAGE_RATE_KEY,
+                TwitterUtils.DEFAULT_SIMULATOR_MESSAGE_RATE);
+        checkArgument(userCount > 0, "Cannot create the %s, expected a strictly positive number of users, found %s",
+                this.getClass().getSimpleName(), userCount);
+        checkArgument(messageRate >= 0, "Cannot create the %s, expected a positive message rate, found %s",
+                this.getClass().getSimpleName(), messageRate);
+        this.data = new SyntheticData(seed, userCount, messageRate, System.currentTimeMillis());
+        this.random = new Random(seed);
+        for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+            behaviors.put(endpoint, new EndpointBehavior(endpoint, configuration));
+            requestCounts.put(endpoint, new LongAdder());
+        }
+    }
+
+    /**
+     * Starts the embedded HTTP server.
+     *
+     * @throws XatkitException if the HTTP server cannot be started
+     * @throws IllegalStateException if the simulator is already started
+     */
+    public synchronized void start() {
+        if (nonNull(server)) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is already started");
+        }
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(configuredPort), 0);
+        } catch (IOException e) {
+            throw new XatkitException("Cannot start the Twitter API simulator on port " + configuredPort, e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Twitter API Simulator " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(REST_PATH, this::handle);
+        server.start();
+        Log.info("{0} Simulating the Twitter API at {1}", this.getClass().getSimpleName(), this.getRestBaseUrl());
+    }
+
+    /**
+     * Stops the embedded HTTP server.
+     */
+    @Override
+    public synchronized void close() {
+        if (nonNull(server)) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Returns the port the embedded HTTP server is listening on.
+     * <p>
+     * This method is useful when the simulator is configured with the port {@code 0} (i.e. any available port).
+     *
+     * @return the port the embedded HTTP server is listening on
+     * @throws IllegalStateException if the simulator is not started
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The " + this.getClass().getSimpleName() + " is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the base URL of the REST API served by the simulator.
+     * <p>
+     * This URL is the value of the {@link TwitterUtils#TWITTER_REST_BASE_URL_KEY} property of a platform using the
+     * simulator.
+     *
+     * @return the base URL of the REST API served by the simulator
+     * @throws IllegalStateException if the simulator is not started
+     */
+    public String getRestBaseUrl() {
+        return "http://localhost:" + this.getPort() + REST_PATH;
+    }
+
+    /**
+     * Returns the behavior of the provided {@code endpoint}.
+     * <p>
+     * The returned {@link EndpointBehavior} can be updated to change the latency, the injected errors, and the rate
+     * limit of the endpoint while the simulator is running.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the behavior of
+     * @return the {@link EndpointBehavior} of the {@code endpoint}
+     */
+    public EndpointBehavior getBehavior(@NonNull TwitterEndpoint endpoint) {
+        return behaviors.get(endpoint);
+    }
+
+    /**
+     * Returns the number of requests received by the provided {@code endpoint}.
+     * <p>
+     * This count includes the requests rejected because of the rate limit and the ones failing with an injected
+     * error.
+     *
+     * @param endpoint the {@link TwitterEndpoint} to retrieve the request count of
+     * @return the number of requests received by the {@code endpoint}
+     */
+    public long getRequestCount(@NonNull TwitterEndpoint endpoint) {
+        return requestCounts.get(endpoint).sum();
+    }
+
+    /**
+     * Handles the provided {@code exchange}.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @throws IOException if an error occurred when reading the request or writing the response
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(REST_PATH.length());
+            String accessToken = getAccessToken(exchange);
+            if (accessToken == null) {
+                sendError(exchange, 400, 215, "Bad Authentication data.");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (path.equals(RATE_LIMIT_STATUS_PATH)) {
+                send(exchange, 200, this.rateLimitStatus(accessToken, now).toString());
+                return;
+            }
+            TwitterEndpoint endpoint = ROUTES.get(path);
+            String pathId = null;
+            if (endpoint == null && path.startsWith(STATUSES_SHOW_PATH) && path.endsWith(".json")) {
+                endpoint = TwitterEndpoint.STATUSES_SHOW;
+                pathId = path.substring(STATUSES_SHOW_PATH.length(), path.length() - ".json".length());
+            }
+            if (endpoint == null) {
+                sendError(exchange, 404, 34, "Sorry, that page does not exist.");
+                return;
+            }
+            requestCounts.get(endpoint).increment();
+            EndpointBehavior behavior = behaviors.get(endpoint);
+            long latency = behavior.nextLatency(random);
+            if (latency > 0) {
+                Thread.sleep(latency);
+                now = System.currentTimeMillis();
+            }
+            EndpointBehavior.RateLimitState rateLimit = behavior.consume(accessToken, now);
+            exchange.getResponseHeaders().set("x-rate-limit-limit", Integer.toString(rateLimit.limit));
+            exchange.getResponseHeaders().set("x-rate-limit-remaining", Integer.toString(rateLimit.remaining));
+            exchange.getResponseHeaders().set("x-rate-limit-reset", Long.toString(rateLimit.reset));
+            if (rateLimit.exceeded) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(Math.max(1,
+                        rateLimit.reset - TimeUnit.MILLISECONDS.toSeconds(now))));
+                sendError(exchange, 429, 88, "Rate limit exceeded");
+                return;
+            }
+            int errorStatus = behavior.nextErrorStatus(random);
+            if (errorStatus != 0) {
+                sendInjectedError(exchange, errorStatus);
+                return;
+            }
+            Map<String, String> parameters = getParameters(exchange,
+                    endpoint == TwitterEndpoint.MEDIA_UPLOAD ? MAX_MEDIA_BODY_SIZE : MAX_BODY_SIZE);
+            if (pathId != null) {
+                parameters.put("id", pathId);
+            }
+            Object response = this.respond(endpoint, data.getAccountId(accessToken), parameters, now);
+            if (response == null) {
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                send(exchange, 200, response.toString());
+            }
+        } catch (SimulatedError e) {
+            sendError(exchange, e.status, e.code, e.getMessage());
+        } catch (JSONException | NumberFormatException e) {
+            sendError(exchange, 400, 44, "Invalid request: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, 130, "Over capacity");
+        } catch (RuntimeException e) {
+            Log.error(e, "{0} Cannot handle the request {1}", this.getClass().getSimpleName(),
+                    exchange.getRequestURI());
+            sendError(exchange, 500, 131, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Computes the response of the provided {@code endpoint}.
+     *
+     * @param endpoint   the requested {@link TwitterEndpoint}
+     * @param accountId  the ID of the account performing the request
+     * @param parameters the parameters of the request
+     * @param now        the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response, or {@code null} if the response has no content
+     * @throws JSONException   if the request is invalid or if an error occurred when creating the payload
+     * @throws SimulatedError if the request cannot be fulfilled
+     */
+    private Object respond(TwitterEndpoint endpoint, long accountId, Map<String, String> parameters, long now)
+            throws JSONException, SimulatedError {
+        switch (endpoint) {
+            case SEARCH:
+                return data.search(getRequired(parameters, "q"), getInt(parameters, "count", 15, 100),
+                        getLong(parameters, "max_id"), getLong(parameters, "since_id"), now);
+            case TRENDS_AVAILABLE:
+                return data.availableTrends();
+            case TRENDS_PLACE:
+                JSONArray trends = data.trends(Integer.parseInt(getRequired(parameters, "id")), now);
+                if (trends == null) {
+                    throw new SimulatedError(404, 34, "Sorry, that page does not exist.");
+                }
+                return trends;
+            case USERS_SHOW:
+                return data.user(this.resolveUser(parameters.get("user_id"), parameters.get("screen_name")));
+            case USERS_LOOKUP:
+                return this.lookupUsers(parameters);
+            case VERIFY_CREDENTIALS:
+                return data.user(accountId);
+            case DIRECT_MESSAGES_LIST:
+                return data.directMessages(accountId, getInt(parameters, "count", 20, 50), parameters.get("cursor"),
+                        now);
+            case DIRECT_MESSAGES_SEND:
+                JSONObject messageCreate = new JSONObject(getRequired(parameters, "body"))
+                        .getJSONObject("event").getJSONObject("message_create");
+                long recipientId = Long.parseLong(messageCreate.getJSONObject("target").getString("recipient_id"));
+                if (!data.isUser(recipientId)) {
+                    throw new SimulatedError(404, 50, "User not found.");
+                }
+                return data.sendDirectMessage(accountId, recipientId,
+                        messageCreate.getJSONObject("message_data").getString("text"), now);
+            case MENTIONS_TIMELINE:
+                return data.mentions(accountId, getInt(parameters, "count", 20, 200), getLong(parameters, "max_id"),
+                        getLong(parameters, "since_id"), now);
+            case STATUSES_UPDATE:
+                String status = getRequired(parameters, "status");
+                if (status.codePointCount(0, status.length()) > 280) {
+                    throw new SimulatedError(403, 186, "Tweet needs to be a bit shorter.");
+                }
+                if (parameters.containsKey("media_ids")) {
+                    this.checkMediaIds(accountId, parameters.get("media_ids"), now);
+                }
+                return data.postStatus(accountId, status, getLong(parameters, "in_reply_to_status_id"), now);
+            case STATUSES_SHOW:
+                JSONObject shownStatus = data.showStatus(accountId, Long.parseLong(getRequired(parameters, "id")),
+                        now);
+                if (shownStatus == null) {
+                    throw new SimulatedError(404, 144, "No status found with that ID.");
+                }
+                return shownStatus;
+            case MEDIA_UPLOAD:
+                return this.uploadMedia(accountId, parameters, now);
+            default:
+                throw new SimulatedError(404, 34, "Sorry, that page does not exist.");
+        }
+    }
+
+    /**
+     * Computes the response of a {@code media/upload} request.
+     * <p>
+     * The simulated media are processed asynchronously if their category is a video or an animated GIF, and are
+     * available as soon as they are finalized otherwise.
+     *
+     * @param accountId  the ID of the account performing the request
+     * @param parameters the parameters of the request
+     * @param now        the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response, or {@code null} for the {@code APPEND} command
+     * @throws JSONException   if an error occurred when creating the payload
+     * @throws SimulatedError if the request cannot be fulfilled
+     */
+    private JSONObject uploadMedia(long accountId, Map<String, String> parameters, long now)
+            throws JSONException, SimulatedError {
+        String command = getRequired(parameters, "command");
+        if (command.equals("INIT")) {
+            media.values().removeIf(simulatedMedia -> simulatedMedia.expiresAt <= now);
+            long totalBytes = Long.parseLong(getRequired(parameters, "total_bytes"));
+            getRequired(parameters, "media_type");
+            String category = parameters.getOrDefault("media_category", "tweet_image");
+            long mediaId = lastMediaId.incrementAndGet();
+            media.put(mediaId, new SimulatedMedia(mediaId, accountId, totalBytes,
+                    category.endsWith("_video") || category.endsWith("_gif"),
+                    now + TimeUnit.SECONDS.toMillis(MEDIA_EXPIRES_AFTER_SECS)));
+            return new JSONObject()
+                    .put("media_id", mediaId)
+                    .put("media_id_string", Long.toString(mediaId))
+                    .put("expires_after_secs", MEDIA_EXPIRES_AFTER_SECS);
+        }
+        SimulatedMedia simulatedMedia = media.get(Long.parseLong(getRequired(parameters, "media_id")));
+        if (simulatedMedia == null || simulatedMedia.accountId != accountId || simulatedMedia.expiresAt <= now) {
+            throw new SimulatedError(400, 324, "Invalid media id.");
+        }
+        switch (command) {
+            case "APPEND":
+                int segment = Integer.parseInt(getRequired(parameters, "segment_index"));
+                int length = Integer.parseInt(getRequired(parameters, "media"));
+                if (segment < 0 || segment >= MediaUploader.MAX_SEGMENT_COUNT || length > MediaUploader.MAX_SEGMENT_SIZE
+                        || simulatedMedia.finalizedAt >= 0) {
+                    throw new SimulatedError(400, 324, "Invalid segment.");
+                }
+                simulatedMedia.segmentLengths.put(segment, length);
+                return null;
+            case "FINALIZE":
+                long receivedBytes = 0;
+                for (int i = 0; i < simulatedMedia.segmentLengths.size(); i++) {
+                    Integer segmentLength = simulatedMedia.segmentLengths.get(i);
+                    if (segmentLength == null) {
+                        throw new SimulatedError(400, 324, "Segments are missing.");
+                    }
+                    receivedBytes += segmentLength;
+                }
+                if (receivedBytes != simulatedMedia.totalBytes) {
+                    throw new SimulatedError(400, 324, "Segments do not add up to provided total file size.");
+                }
+                if (simulatedMedia.finalizedAt < 0) {
+                    simulatedMedia.finalizedAt = now;
+                }
+                return this.mediaStatus(simulatedMedia, now);
+            case "STATUS":
+                if (simulatedMedia.finalizedAt < 0) {
+                    throw new SimulatedError(400, 324, "The media has not been finalized.");
+                }
+                return this.mediaStatus(simulatedMedia, now);
+            default:
+                throw new SimulatedError(400, 324, "Invalid command.");
+        }
+    }
+
+    /**
+     * Creates the JSON payload of a {@code FINALIZE} or {@code STATUS} response for the provided finalized
+     * {@code simulatedMedia}.
+     *
+     * @param simulatedMedia the finalized {@link SimulatedMedia}
+     * @param now            the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    private JSONObject mediaStatus(SimulatedMedia simulatedMedia, long now) throws JSONException {
+        JSONObject response = new JSONObject()
+                .put("media_id", simulatedMedia.mediaId)
+                .put("media_id_string", Long.toString(simulatedMedia.mediaId))
+                .put("size", simulatedMedia.totalBytes)
+                .put("expires_after_secs", TimeUnit.MILLISECONDS.toSeconds(simulatedMedia.expiresAt - now));
+        if (simulatedMedia.processed) {
+            long elapsed = now - simulatedMedia.finalizedAt;
+            if (elapsed >= MEDIA_PROCESSING_TIME) {
+                response.put("processing_info", new JSONObject().put("state", "succeeded")
+                        .put("progress_percent", 100));
+            } else {
+                response.put("processing_info", new JSONObject()
+                        .put("state", elapsed == 0 ? "pending" : "in_progress")
+                        .put("check_after_secs", 1)
+                        .put("progress_percent", elapsed * 100 / MEDIA_PROCESSING_TIME));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Checks that the provided {@code mediaIds} can be attached to a tweet of the provided account.
+     *
+     * @param accountId the ID of the account posting the tweet
+     * @param mediaIds  the comma-separated IDs of the media attached to the tweet
+     * @param now       the current time, in milliseconds since the epoch
+     * @throws SimulatedError if a media does not exist, or is not uploaded or processed yet
+     */
+    private void checkMediaIds(long accountId, String mediaIds, long now) throws SimulatedError {
+        for (String mediaId : mediaIds.split(",")) {
+            SimulatedMedia simulatedMedia = media.get(Long.parseLong(mediaId.trim()));
+            if (simulatedMedia == null || simulatedMedia.accountId != accountId || simulatedMedia.finalizedAt < 0
+                    || (simulatedMedia.processed && now - simulatedMedia.finalizedAt < MEDIA_PROCESSING_TIME)) {
+                throw new SimulatedError(400, 324, "The validation of media ids failed.");
+            }
+        }
+    }
+
+    /**
+     * Computes the response of a {@code users/lookup} request.
+     *
+     * @param parameters the parameters of the request
+     * @return the JSON payload of the response
+     * @throws JSONException   if an error occurred when creating the payload
+     * @throws SimulatedError if the request does not contain any existing user
+     */
+    private JSONArray lookupUsers(Map<String, String> parameters) throws JSONException, SimulatedError {
+        String userIds = parameters.get("user_id");
+        String screenNames = parameters.get("screen_name");
+        String[] identifiers = userIds != null ? userIds.split(",") : screenNames != null ? screenNames.split(",") :
+                new String[0];
+        if (identifiers.length > MAX_USERS_PER_LOOKUP) {
+            throw new SimulatedError(400, 18, "Too many terms specified in query.");
+        }
+        JSONArray result = new JSONArray();
+        for (String identifier : identifiers) {
+            long id = userIds != null ? Long.parseLong(identifier.trim()) : data.getUserId(identifier.trim());
+            if (data.isUser(id)) {
+                result.put(data.user(id));
+            }
+        }
+        if (result.length() == 0) {
+            throw new SimulatedError(404, 17, "No user matches for specified terms.");
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ID of the user identified by the provided {@code userId} or {@code screenName}.
+     *
+     * @param userId     the ID of the user, or {@code null}
+     * @param screenName the screen name of the user, or {@code null}
+     * @return the ID of the user
+     * @throws SimulatedError if the user does not exist
+     */
+    private long resolveUser(String userId, String screenName) throws SimulatedError {
+        long id = userId != null ? Long.parseLong(userId) : screenName != null ? data.getUserId(screenName) : -1;
+        if (!data.isUser(id)) {
+            throw new SimulatedError(404, 50, "User not found.");
+        }
+        return id;
+    }
+
+    /**
+     * Creates the JSON payload of a {@code application/rate_limit_status} response.
+     *
+     * @param accessToken the access token of the account performing the request
+     * @param now         the current time, in milliseconds since the epoch
+     * @return the JSON payload of the response
+     * @throws JSONException if an error occurred when creating the payload
+     */
+    private JSONObject rateLimitStatus(String accessToken, long now) throws JSONException {
+        JSONObject resources = new JSONObject();
+        for (EndpointBehavior behavior : behaviors.values()) {
+            String resource = behavior.getEndpoint().getResource();
+            String family = resource.split("/")[1];
+            if (!resources.has(family)) {
+                resources.put(family, new JSONObject());
+            }
+            EndpointBehavior.RateLimitState state = behavior.peek(accessToken, now);
+            resources.getJSONObject(family).put(resource, new JSONObject()
+                    .put("limit", state.limit)
+                    .put("remaining", state.remaining)
+                    .put("reset", state.reset));
+        }
+        return new JSONObject()
+                .put("rate_limit_context", new JSONObject().put("access_token", accessToken))
+                .put("resources", resources);
+    }
+
+    /**
+     * Sends an injected error with the provided {@code status}.
+     *
+     * @param exchange the {@link HttpExchange} to send the error to
+     * @param status   the HTTP status of the error
+     * @throws IOException if an error occurred when writing the response
+     */
+    private static void sendInjectedError(HttpExchange exchange, int status) throws IOException {
+        switch (status) {
+            case 429:
+                sendError(exchange, status, 88, "Rate limit exceeded");
+                break;
+            case 500:
+                sendError(exchange, status, 131, "Internal error");
+                break;
+            case 503:
+                sendError(exchange, status, 130, "Over capacity");
+                break;
+            default:
+                sendError(exchange, status, 0, "Simulated error");
+        }
+    }
+
+    /**
+     * Sends an error response using the format of the Twitter API.
+     *
+     * @param exchange the {@link HttpExchange} to send the error to
+     * @param status   the HTTP status of the error
+     * @param code     the Twitter error code
+     * @param message  the error message
+     * @throws IOException if an error occurred when writing the response
+     */
+    private static void sendError(HttpExchange exchange, int status, int code, String message) throws IOException {
+        send(exchange, status, "{\"errors\":[{\"code\":" + code + ",\"message\":" + JSONObject.quote(message)
+                + "}]}");
+    }
+
+    /**
+     * Sends a JSON response.
+     * <p>
+     * As the Twitter API, the response is compressed (and sent with a chunked transfer encoding) if the request
+     * accepts the gzip encoding.
+     *
+     * @param exchange the {@link HttpExchange} to send the response to
+     * @param status   the HTTP status of the response
+     * @param body     the JSON body of the response
+     * @throws IOException if an error occurred when writing the response
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream outputStream = new GZIPOutputStream(exchange.getResponseBody())) {
+                outputStream.write(bytes);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Returns the access token of the OAuth {@code Authorization} header of the provided {@code exchange}.
+     *
+     * @param exchange the {@link HttpExchange} containing the request
+     * @return the decoded access token, or {@code null} if the request is not authenticated
+     * @throws UnsupportedEncodingException if the UTF-8 encoding is not supported
+     */
+    private static String getAccessToken(HttpExchange exchange) throws UnsupportedEncodingException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null) {
+            return null;
+        }
+        Matcher matcher = ACCESS_TOKEN_PATTERN.matcher(authorization);
+        return matcher.find() ? URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8.name()) : null;
+    }
+
+    /**
+     * Returns the parameters of the request contained in the provided {@code exchange}.
+     * <p>
+     * This method returns the query parameters and the form parameters of the request. JSON bodies are returned
+     * with the {@code body} key, and the files of the multipart bodies are returned with their size.
+     *
+     * @param exchange    the {@link HttpExchange} containing the request
+     * @param maxBodySize the maximum size of the request body, in bytes
+     * @return the decoded parameters of the request
+     * @throws IOException     if an error occurred when reading the request
+     * @throws SimulatedError if the request body is too large or malformed
+     */
+    private static Map<String, String> getParameters(HttpExchange exchange, int maxBodySize) throws IOException,
+            SimulatedError {
+        Map<String, String> parameters = new HashMap<>();
+        parseParameters(exchange.getRequestURI().getRawQuery(), parameters);
+        if ("POST".equals(exchange.getRequestMethod())) {
+            byte[] body = readBody(exchange.getRequestBody(), maxBodySize);
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType != null && contentType.startsWith("application/json")) {
+                parameters.put("body", new String(body, StandardCharsets.UTF_8));
+            } else if (contentType != null && contentType.startsWith("multipart/form-data")) {
+                parseMultipart(body, contentType, parameters);
+            } else {
+                parseParameters(new String(body, StandardCharsets.UTF_8), parameters);
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Parses the provided {@code multipart/form-data} {@code body}.
+     * <p>
+     * The content of the file parts is not stored: their size is stored instead.
+     *
+     * @param body        the body of the request
+     * @param contentType the {@code Content-Type} header of the request, containing the boundary of the parts
+     * @param parameters  the map to store the decoded parameters in
+     * @throws SimulatedError if the body is malformed
+     */
+    private static void parseMultipart(byte[] body, String contentType, Map<String, String> parameters)
+            throws SimulatedError {
+        int boundaryIndex = contentType.indexOf("boundary=");
+        if (boundaryIndex < 0) {
+            throw new SimulatedError(400, 0, "Missing multipart boundary");
+        }
+        byte[] delimiter = ("--" + contentType.substring(boundaryIndex + "boundary=".length()).trim())
+                .getBytes(StandardCharsets.ISO_8859_1);
+        int partStart = indexOf(body, delimiter, 0);
+        while (partStart >= 0) {
+            int headersStart = partStart + delimiter.length + 2;
+            int partEnd = indexOf(body, delimiter, headersStart);
+            if (partEnd < 0) {
+                break;
+            }
+            int headersEnd = indexOf(body, "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1), headersStart);
+            if (headersEnd < 0 || headersEnd > partEnd) {
+                throw new SimulatedError(400, 0, "Malformed multipart body");
+            }
+            String headers = new String(body, headersStart, headersEnd - headersStart, StandardCharsets.UTF_8);
+            Matcher nameMatcher = MULTIPART_NAME_PATTERN.matcher(headers);
+            int contentStart = headersEnd + 4;
+            int contentLength = Math.max(0, partEnd - 2 - contentStart);
+            if (nameMatcher.find()) {
+                parameters.put(nameMatcher.group(1), headers.contains("filename=") ? Integer.toString(contentLength)
+                        : new String(body, contentStart, contentLength, StandardCharsets.UTF_8));
+            }
+            partStart = partEnd;
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the provided {@code pattern} in the provided {@code bytes}.
+     *
+     * @param bytes   the bytes to search in
+     * @param pattern the bytes to search
+     * @param from    the index to start the search from
+     * @return the index of the first occurrence of {@code pattern}, or {@code -1} if {@code bytes} does not
+     * contain {@code pattern}
+     */
+    private static int indexOf(byte[] bytes, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the provided URL-encoded {@code parameters}.
+     *
+     * @param encodedParameters the URL-encoded parameters to parse, or {@code null}
+     * @param parameters        the map to store the decoded parameters in
+     * @throws UnsupportedEncodingException if the UTF-8 encoding is not supported
+     */
+    private static void parseParameters(String encodedParameters, Map<String, String> parameters)
+            throws UnsupportedEncodingException {
+        if (encodedParameters == null || encodedParameters.isEmpty()) {
+            return;
+        }
+        for (String parameter : encodedParameters.split("&")) {
+            String[] keyValue = parameter.split("=", 2);
+            if (keyValue.length == 2) {
+                parameters.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8.name()),
+                        URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8.name()));
+            }
+        }
+    }
+
+    /**
+     * Reads the provided request body.
+     *
+     * @param inputStream the {@link InputStream} of the request body
+     * @param maxBodySize the maximum size of the request body, in bytes
+     * @return the request body
+     * @throws IOException     if an error occurred when reading the request body
+     * @throws SimulatedError if the request body is too large
+     */
+    private static byte[] readBody(InputStream inputStream, int maxBodySize) throws IOException, SimulatedError {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            if (outputStream.size() + read > maxBodySize) {
+                throw new SimulatedError(413, 0, "Request entity too large");
+            }
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Returns the value of the required parameter {@code name}.
+     *
+     * @param parameters the parameters of the request
+     * @param name       the name of the parameter
+     * @return the value of the parameter
+     * @throws SimulatedError if the parameter is missing
+     */
+    private static String getRequired(Map<String, String> parameters, String name) throws SimulatedError {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new SimulatedError(400, 25, "Query parameters are missing.");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of the integer parameter {@code name}.
+     *
+     * @param parameters   the parameters of the request
+     * @param name         the name of the parameter
+     * @param defaultValue the value returned if the parameter is missing
+     * @param maxValue     the maximum value of the parameter
+     * @return the value of the parameter, capped to {@code maxValue}
+     */
+    private static int getInt(Map<String, String> parameters, String name, int defaultValue, int maxValue) {
+        String value = parameters.get(name);
+        return value == null ? defaultValue : Math.max(1, Math.min(Integer.parseInt(value), maxValue));
+    }
+
+    /**
+     * Returns the value of the long parameter {@code name}.
+     *
+     * @param parameters the parameters of the request
+     * @param name       the name of the parameter
+     * @return the value of the parameter, or {@code -1} if the parameter is missing
+     */
+    private static long getLong(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        return value == null ? -1 : Long.parseLong(value);
+    }
+
+    /**
+     * Starts a standalone {@link TwitterApiSimulator}.
+     * <p>
+     * The simulator is configured with the properties file located at the path provided as first argument, if
+     * any, and runs until the process is stopped.
+     *
+     * @param args the command-line arguments: the optional path of the simulator's properties file
+     * @throws IOException if the properties file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        Properties properties = new Properties();
+        if (args.length > 0) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        TwitterApiSimulator simulator = new TwitterApiSimulator(new MapConfiguration(properties));
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+        simulator.start();
+    }
+
+    /**
+     * A media uploaded to the simulator.
+     */
+    private static class SimulatedMedia {
+
+        /**
+         * The ID of the media.
+         */
+        private final long mediaId;
+
+        /**
+         * The ID of the account that uploaded the media.
+         */
+        private final long accountId;
+
+        /**
+         * The declared size of the media, in bytes.
+         */
+        private final long totalBytes;
+
+        /**
+         * Whether the media is processed asynchronously.
+         */
+        private final boolean processed;
+
+        /**
+         * The time (in milliseconds since the epoch) at which the media ID expires.
+         */
+        private final long expiresAt;
+
+        /**
+         * The size of the received segments, indexed by their index.
+         */
+        private final Map<Integer, Integer> segmentLengths = new ConcurrentHashMap<>();
+
+        /**
+         * The time (in milliseconds since the epoch) at which the media has been finalized, or {@code -1}.
+         */
+        private volatile long finalizedAt = -1;
+
+        /**
+         * Constructs a {@link SimulatedMedia} with the provided parameters.
+         *
+         * @param mediaId    the ID of the media
+         * @param accountId  the ID of the account that uploaded the media
+         * @param totalBytes the declared size of the media, in bytes
+         * @param processed  whether the media is processed asynchronously
+         * @param expiresAt  the time (in milliseconds since the epoch) at which the media ID expires
+         */
+        private SimulatedMedia(long mediaId, long accountId, long totalBytes, boolean processed, long expiresAt) {
+            this.mediaId = mediaId;
+            this.accountId = accountId;
+            this.totalBytes = totalBytes;
+            this.processed = processed;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * An error returned by a simulated endpoint.
+     */
+    private static class SimulatedError extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The HTTP status of the error.
+         */
+        private final int status;
+
+        /**
+         * The Twitter error code.
+         */
+        private final int code;
+
+        /**
+         * Constructs a {@link SimulatedError} with the provided parameters.
+         *
+         * @param status  the HTTP status of the error
+         * @param code    the Twitter error code
+         * @param message the error message
+         */
+        private SimulatedError(int status, int code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,792 @@
+package com.xatkit.plugins.twitter.platform.state;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.cache.LongWindowSet;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Persists the state of the platform across restarts.
+ * <p>
+ * This store holds the high-water marks of the {@link com.xatkit.plugins.twitter.platform.service.IncrementalReceiver}
+ * and the cursors of the {@link com.xatkit.plugins.twitter.platform.service.SearchTracker}, the users resolved by
+ * the {@link com.xatkit.plugins.twitter.platform.service.UserResolver}, the trend locations indexed by the
+ * {@link com.xatkit.plugins.twitter.platform.service.LocationIndex}, and the IDs of the recently seen tweets and
+ * direct messages (by namespace). The platform restores them when it starts, meaning that its caches are
+ * warm and that the items processed before the restart are not processed again.
+ * <p>
+ * The state is stored in the directory defined by {@link TwitterUtils#TWITTER_STATE_DIRECTORY_KEY}, in two files:
+ * <ul>
+ * <li>{@code state.snapshot}: the complete state as of the last compaction</li>
+ * <li>{@code state.journal}: the changes performed since the last compaction, appended as they happen and flushed
+ * periodically (see {@link #flush()})</li>
+ * </ul>
+ * The journal is folded into a new snapshot when it reaches {@link TwitterUtils#TWITTER_STATE_COMPACTION_THRESHOLD_KEY}
+ * records, and when the store is opened. Journal records are idempotent, meaning that replaying a journal that has
+ * already been folded into the snapshot (e.g. after a crash during a compaction) does not change the state, and a
+ * truncated or unreadable record at the end of the journal (e.g. after a crash during a write) is ignored. If a
+ * compaction fails the previous snapshot and journal are kept, and the compaction is retried by the next
+ * {@link #flush()}.
+ * <p>
+ * If no directory is configured the store keeps the seen IDs in memory and does not persist anything.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see TwitterPlatform#getStateStore()
+ */
+public class StateStore implements Closeable {
+
+    /**
+     * The namespace of the seen direct message IDs.
+     */
+    public static final String DIRECT_MESSAGES_NAMESPACE = "dm";
+
+    /**
+     * The namespace of the seen tweet IDs.
+     */
+    public static final String TWEETS_NAMESPACE = "tweets";
+
+    /**
+     * The name of the snapshot file.
+     */
+    private static final String SNAPSHOT_FILE_NAME = "state.snapshot";
+
+    /**
+     * The name of the journal file.
+     */
+    private static final String JOURNAL_FILE_NAME = "state.journal";
+
+    /**
+     * The magic number starting the snapshot and journal files.
+     */
+    private static final int MAGIC = 0x58545354;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The type of the records storing a high-water mark.
+     */
+    private static final byte HIGH_WATER_MARK_RECORD = 1;
+
+    /**
+     * The type of the records storing a resolved user.
+     */
+    private static final byte USER_RECORD = 2;
+
+    /**
+     * The type of the records storing a seen ID.
+     */
+    private static final byte SEEN_ID_RECORD = 3;
+
+    /**
+     * The type of the records storing the trend locations.
+     */
+    private static final byte LOCATIONS_RECORD = 4;
+
+    /**
+     * The directory containing the state files, or {@code null} if the state is not persisted.
+     */
+    private final Path directory;
+
+    /**
+     * The number of journal records triggering a compaction.
+     */
+    private final int compactionThreshold;
+
+    /**
+     * The maximum number of IDs remembered for each namespace.
+     */
+    private final int seenIdsPerNamespace;
+
+    /**
+     * The maximum number of stored users.
+     */
+    private final int maxUsers;
+
+    /**
+     * The time-to-live of the stored users, in milliseconds.
+     */
+    private final long userTtlMillis;
+
+    /**
+     * The high-water marks, by key.
+     */
+    private final Map<String, Long> highWaterMarks = new HashMap<>();
+
+    /**
+     * The stored users, from the least to the most recently stored.
+     */
+    private final LinkedHashMap<Long, StoredUser> users = new LinkedHashMap<>();
+
+    /**
+     * The seen IDs, by namespace.
+     */
+    private final Map<String, LongWindowSet> seenIds = new HashMap<>();
+
+    /**
+     * The WOEIDs of the trend locations, by folded name.
+     */
+    private Map<String, Integer> locations = Collections.emptyMap();
+
+    /**
+     * The time (in milliseconds since the epoch) the trend locations have been loaded at.
+     */
+    private long locationsLoadedAt;
+
+    /**
+     * Whether the changes of the state are persisted, i.e. whether the state has been loaded and the store has not
+     * been closed.
+     */
+    private boolean persisting;
+
+    /**
+     * The stream appending the records to the journal, or {@code null} if the state is not persisted or if the
+     * journal could not be created by the last compaction.
+     */
+    private DataOutputStream journal;
+
+    /**
+     * The {@link FileOutputStream} of the journal, used to sync it to the disk.
+     */
+    private FileOutputStream journalFile;
+
+    /**
+     * The number of records appended to the journal since the last compaction.
+     */
+    private int journalRecordCount;
+
+    /**
+     * Whether a record could not be appended to the journal, or the journal could not be created.
+     * <p>
+     * The journal is not written anymore once a record could not be appended to it, and is replaced by the next
+     * compaction.
+     */
+    private boolean journalFailed;
+
+    /**
+     * The buffer containing the record being appended to the journal.
+     * <p>
+     * Each record is written into this buffer and appended to the journal with a single write, meaning that an
+     * error when writing a record does not leave a part of it in the journal.
+     */
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+
+    /**
+     * The stream writing the record being appended into the {@link #recordBuffer}.
+     */
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+
+    /**
+     * Constructs a {@link StateStore} with the provided settings.
+     * <p>
+     * Use {@link #open(Configuration)} to create a store from the platform's configuration.
+     *
+     * @param directory           the directory containing the state files, or {@code null} to not persist the state
+     * @param compactionThreshold the number of journal records triggering a compaction
+     * @param seenIdsPerNamespace the maximum number of IDs remembered for each namespace
+     * @param maxUsers            the maximum number of stored users
+     * @param userTtl             the time-to-live of the stored users
+     * @param unit                the {@link TimeUnit} of {@code userTtl}
+     * @throws IllegalArgumentException if {@code compactionThreshold}, {@code seenIdsPerNamespace}, or
+     *                                  {@code maxUsers} is lower than {@code 1}
+     */
+    public StateStore(Path directory, int compactionThreshold, int seenIdsPerNamespace, int maxUsers, long userTtl,
+                      @NonNull TimeUnit unit) {
+        checkArgument(compactionThreshold > 0 && seenIdsPerNamespace > 0 && maxUsers > 0, "Cannot create a %s with "
+                        + "the provided compactionThreshold (%s), seenIds (%s), and maxUsers (%s), expected strictly "
+                        + "positive integers", this.getClass().getSimpleName(), compactionThreshold,
+                seenIdsPerNamespace, maxUsers);
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        this.seenIdsPerNamespace = seenIdsPerNamespace;
+        this.maxUsers = maxUsers;
+        this.userTtlMillis = unit.toMillis(userTtl);
+    }
+
+    /**
+     * Creates a {@link StateStore} from the provided {@code configuration} and loads its persisted state.
+     * <p>
+     * The returned store does not persist its state if {@link TwitterUtils#TWITTER_STATE_DIRECTORY_KEY} is not
+     * defined, or if the state files cannot be read or written (an error is logged in this case).
+     *
+     * @param configuration the platform's {@link Configuration}
+     * @return the created {@link StateStore}
+     */
+    public static StateStore open(@NonNull Configuration configuration) {
+        String directory = configuration.getString(TwitterUtils.TWITTER_STATE_DIRECTORY_KEY);
+        int compactionThreshold = configuration.getInt(TwitterUtils.TWITTER_STATE_COMPACTION_THRESHOLD_KEY,
+                TwitterUtils.DEFAULT_STATE_COMPACTION_THRESHOLD);
+        int seenIds = configuration.getInt(TwitterUtils.TWITTER_STATE_SEEN_IDS_KEY,
+                TwitterUtils.DEFAULT_STATE_SEEN_IDS);
+        int maxUsers = configuration.getInt(TwitterUtils.TWITTER_USER_CACHE_SIZE_KEY,
+                TwitterUtils.DEFAULT_USER_CACHE_SIZE);
+        long userTtl = configuration.getLong(TwitterUtils.TWITTER_USER_CACHE_TTL_KEY,
+                TwitterUtils.DEFAULT_USER_CACHE_TTL);
+        if (directory != null) {
+            StateStore store = new StateStore(Paths.get(directory), compactionThreshold, seenIds, maxUsers, userTtl,
+                    TimeUnit.SECONDS);
+            try {
+                store.load();
+                return store;
+            } catch (IOException e) {
+                Log.error(e, "{0} Cannot load the state stored in {1}, the platform state will not be persisted",
+                        StateStore.class.getSimpleName(), directory);
+            }
+        }
+        return new StateStore(null, compactionThreshold, seenIds, maxUsers, userTtl, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns whether this store persists its state.
+     *
+     * @return {@code true} if this store persists its state, {@code false} otherwise
+     */
+    public boolean isPersistent() {
+        return directory != null;
+    }
+
+    /**
+     * Loads the persisted state and compacts it.
+     * <p>
+     * This method creates the state directory if it does not exist.
+     *
+     * @throws IOException if an error occurred when reading or writing the state files
+     */
+    public synchronized void load() throws IOException {
+        checkArgument(directory != null, "Cannot load the state of a non-persistent %s",
+                this.getClass().getSimpleName());
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        int snapshotRecords = this.read(directory.resolve(SNAPSHOT_FILE_NAME));
+        int journalRecords = this.read(directory.resolve(JOURNAL_FILE_NAME));
+        /*
+         * Always compact after a load: the journal may end with a truncated record, new records cannot be appended
+         * after it.
+         */
+        this.compact();
+        persisting = true;
+        Log.info("{0} Loaded {1} state records ({2} from the journal) in {3} ms: {4} high-water marks, {5} users, {6} "
+                        + "locations", this.getClass().getSimpleName(), snapshotRecords + journalRecords,
+                journalRecords, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), highWaterMarks.size(),
+                users.size(), locations.size());
+    }
+
+    /**
+     * Returns the stored high-water marks.
+     *
+     * @return an unmodifiable copy of the stored high-water marks, by key
+     */
+    public synchronized Map<String, Long> getHighWaterMarks() {
+        return Collections.unmodifiableMap(new HashMap<>(highWaterMarks));
+    }
+
+    /**
+     * Returns the stored high-water mark with the provided {@code key}.
+     *
+     * @param key the key of the mark
+     * @return the value of the mark, or {@code 0} if there is no mark with the provided {@code key}
+     */
+    public synchronized long getHighWaterMark(@NonNull String key) {
+        return highWaterMarks.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Stores the provided high-water mark.
+     * <p>
+     * A stored mark is never moved backward.
+     *
+     * @param key   the key of the mark
+     * @param value the value of the mark
+     */
+    public synchronized void putHighWaterMark(@NonNull String key, long value) {
+        Long current = highWaterMarks.get(key);
+        if (current == null || current < value) {
+            highWaterMarks.put(key, value);
+            if (persisting) {
+                this.append(HIGH_WATER_MARK_RECORD, out -> writeHighWaterMark(out, key, value));
+            }
+        }
+    }
+
+    /**
+     * Returns the stored users that have not expired.
+     *
+     * @return the stored users, from the least to the most recently stored
+     */
+    public synchronized List<StoredUser> getUsers() {
+        long now = System.currentTimeMillis();
+        List<StoredUser> result = new ArrayList<>(users.size());
+        for (StoredUser user : users.values()) {
+            if (!user.isExpired(now, userTtlMillis)) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the provided {@code user}.
+     * <p>
+     * The user is only appended to the journal if it is not stored yet, if its name or screen name changed, or if
+     * the stored copy is older than half the time-to-live of the stored users: resolving the same users again does
+     * not grow the journal. This method does nothing if the store does not persist its state.
+     *
+     * @param user the {@link UserSummary} to store
+     */
+    public synchronized void putUser(@NonNull UserSummary user) {
+        if (!persisting) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        StoredUser current = users.get(user.getId());
+        if (current != null && now - current.getStoredAt() < userTtlMillis / 2
+                && Objects.equals(current.getUser().getName(), user.getName())
+                && Objects.equals(current.getUser().getScreenName(), user.getScreenName())) {
+            return;
+        }
+        StoredUser storedUser = new StoredUser(user, now);
+        this.storeUser(storedUser);
+        this.append(USER_RECORD, out -> writeUser(out, storedUser));
+    }
+
+    /**
+     * Marks the provided {@code id} as seen in the given {@code namespace}.
+     * <p>
+     * Each namespace remembers the last {@link TwitterUtils#TWITTER_STATE_SEEN_IDS_KEY} IDs marked as seen.
+     *
+     * @param namespace the namespace of the ID (e.g. {@link #DIRECT_MESSAGES_NAMESPACE})
+     * @param id        the ID to mark as seen
+     * @return {@code true} if the {@code id} has not been seen before, {@code false} otherwise
+     */
+    public synchronized boolean markSeen(@NonNull String namespace, long id) {
+        boolean added = seenIds.computeIfAbsent(namespace, key -> new LongWindowSet(seenIdsPerNamespace)).add(id);
+        if (added && persisting) {
+            this.append(SEEN_ID_RECORD, out -> writeSeenId(out, namespace, id));
+        }
+        return added;
+    }
+
+    /**
+     * Returns whether the provided {@code id} has been seen in the given {@code namespace}.
+     *
+     * @param namespace the namespace of the ID
+     * @param id        the ID to check
+     * @return {@code true} if the {@code id} has been seen, {@code false} otherwise
+     */
+    public synchronized boolean isSeen(@NonNull String namespace, long id) {
+        LongWindowSet namespaceIds = seenIds.get(namespace);
+        return namespaceIds != null && namespaceIds.contains(id);
+    }
+
+    /**
+     * Returns the stored trend locations.
+     *
+     * @return an unmodifiable map containing the WOEIDs of the trend locations, by folded name
+     * @see #getLocationsLoadedAt()
+     */
+    public synchronized Map<String, Integer> getLocations() {
+        return locations;
+    }
+
+    /**
+     * Returns the time the stored trend locations have been loaded at.
+     *
+     * @return the time (in milliseconds since the epoch) the trend locations have been loaded at
+     */
+    public synchronized long getLocationsLoadedAt() {
+        return locationsLoadedAt;
+    }
+
+    /**
+     * Stores the provided trend {@code locations}.
+     * <p>
+     * This method does nothing if the store does not persist its state.
+     *
+     * @param locations the WOEIDs of the trend locations, by folded name
+     * @param loadedAt  the time (in milliseconds since the epoch) the trend locations have been loaded at
+     */
+    public synchronized void putLocations(@NonNull Map<String, Integer> locations, long loadedAt) {
+        if (!persisting) {
+            return;
+        }
+        this.locations = Collections.unmodifiableMap(new HashMap<>(locations));
+        this.locationsLoadedAt = loadedAt;
+        this.append(LOCATIONS_RECORD, out -> writeLocations(out, this.locations, loadedAt));
+    }
+
+    /**
+     * Flushes the journal, and compacts it if it has reached the compaction threshold or if it could not be written.
+     * <p>
+     * This method is called periodically by the platform, see {@link TwitterUtils#TWITTER_STATE_FLUSH_INTERVAL_KEY}.
+     * A failed compaction is retried by the next call.
+     */
+    public synchronized void flush() {
+        if (!persisting) {
+            return;
+        }
+        if (journalFailed || journalRecordCount >= compactionThreshold) {
+            try {
+                this.compact();
+                return;
+            } catch (IOException e) {
+                Log.error(e, "{0} Cannot compact the state, the compaction will be retried by the next flush",
+                        this.getClass().getSimpleName());
+            }
+        }
+        if (!journalFailed) {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                journalFailed = true;
+                Log.error(e, "{0} Cannot write the state journal, the state will be persisted by the next "
+                        + "compaction", this.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Flushes the journal, syncs it to the disk, and closes it.
+     * <p>
+     * The state is not persisted anymore once this method has been called.
+     */
+    @Override
+    public synchronized void close() {
+        persisting = false;
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.flush();
+            journalFile.getFD().sync();
+            journal.close();
+        } catch (IOException e) {
+            Log.error(e, "{0} Cannot close the state journal", this.getClass().getSimpleName());
+        }
+        journal = null;
+        journalFile = null;
+    }
+
+    /**
+     * Writes the current state into a new snapshot and starts a new journal.
+     * <p>
+     * The new snapshot is written in a temporary file that atomically replaces the previous one once it is synced
+     * to the disk. The previous journal is kept (and records are still appended to it) if the snapshot cannot be
+     * written, and the journal is marked as failed if the new journal cannot be created: in both cases the next
+     * {@link #flush()} compacts the state again.
+     *
+     * @throws IOException if an error occurred when writing the state files
+     */
+    private void compact() throws IOException {
+        Path temporarySnapshot = directory.resolve(SNAPSHOT_FILE_NAME + ".tmp");
+        try {
+            this.writeSnapshot(temporarySnapshot);
+            Files.move(temporarySnapshot, directory.resolve(SNAPSHOT_FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporarySnapshot);
+            } catch (IOException deleteError) {
+                e.addSuppressed(deleteError);
+            }
+            throw e;
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                /*
+                 * The records of the previous journal are contained in the new snapshot.
+                 */
+                Log.warn("{0} Cannot close the previous state journal: {1}", this.getClass().getSimpleName(),
+                        e.toString());
+            }
+            journal = null;
+            journalFile = null;
+        }
+        journalRecordCount = 0;
+        journalFailed = true;
+        journalFile = new FileOutputStream(directory.resolve(JOURNAL_FILE_NAME).toFile(), false);
+        journal = new DataOutputStream(new BufferedOutputStream(journalFile));
+        writeHeader(journal);
+        journal.flush();
+        journalFailed = false;
+    }
+
+    /**
+     * Writes the current state into the provided {@code file} and syncs it to the disk.
+     * <p>
+     * This method also evicts the expired users.
+     *
+     * @param file the file to write the state to
+     * @throws IOException if an error occurred when writing the {@code file}
+     */
+    private void writeSnapshot(Path file) throws IOException {
+        try (FileOutputStream snapshotFile = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(snapshotFile))) {
+            writeHeader(out);
+            for (Map.Entry<String, Long> mark : highWaterMarks.entrySet()) {
+                out.writeByte(HIGH_WATER_MARK_RECORD);
+                writeHighWaterMark(out, mark.getKey(), mark.getValue());
+            }
+            long now = System.currentTimeMillis();
+            users.values().removeIf(user -> user.isExpired(now, userTtlMillis));
+            for (StoredUser user : users.values()) {
+                out.writeByte(USER_RECORD);
+                writeUser(out, user);
+            }
+            for (Map.Entry<String, LongWindowSet> namespace : seenIds.entrySet()) {
+                IOException[] error = new IOException[1];
+                namespace.getValue().forEach(id -> {
+                    try {
+                        out.writeByte(SEEN_ID_RECORD);
+                        writeSeenId(out, namespace.getKey(), id);
+                    } catch (IOException e) {
+                        error[0] = e;
+                    }
+                });
+                if (error[0] != null) {
+                    throw error[0];
+                }
+            }
+            if (!locations.isEmpty()) {
+                out.writeByte(LOCATIONS_RECORD);
+                writeLocations(out, locations, locationsLoadedAt);
+            }
+            out.flush();
+            snapshotFile.getFD().sync();
+        }
+    }
+
+    /**
+     * Appends a record to the journal.
+     * <p>
+     * The record is written into the {@link #recordBuffer} and appended to the journal with a single write, then
+     * buffered until the next {@link #flush()}. The journal is not written anymore if an error occurs, the state
+     * will be persisted again by the next compaction (see {@link #flush()}).
+     *
+     * @param type   the type of the record
+     * @param writer the {@link RecordWriter} writing the content of the record
+     */
+    private void append(byte type, RecordWriter writer) {
+        if (journalFailed) {
+            return;
+        }
+        recordBuffer.reset();
+        try {
+            record.writeByte(type);
+            writer.write(record);
+        } catch (IOException e) {
+            Log.error(e, "{0} Cannot write a state record", this.getClass().getSimpleName());
+            return;
+        }
+        try {
+            recordBuffer.writeTo(journal);
+            journalRecordCount++;
+        } catch (IOException e) {
+            journalFailed = true;
+            Log.error(e, "{0} Cannot append a record to the state journal, the state will be persisted by the next "
+                    + "compaction", this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Reads the records of the provided {@code file} and applies them to the current state.
+     * <p>
+     * A truncated or unreadable record at the end of the {@code file} (e.g. after a crash during a write) is logged
+     * and ignored, the records read before it are kept.
+     *
+     * @param file the file to read
+     * @return the number of records read from the {@code file}
+     * @throws IOException if an error occurred when opening the {@code file}, or if it is not a state file
+     */
+    private int read(Path file) throws IOException {
+        int count = 0;
+        try (InputStream inputStream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("The file " + file + " is not a state file with the version " + FORMAT_VERSION);
+            }
+            int type;
+            try {
+                while ((type = in.read()) != -1) {
+                    this.readRecord(type, in);
+                    count++;
+                }
+            } catch (IOException e) {
+                Log.warn("{0} Ignoring the truncated or unreadable records at the end of {1} after {2} records: {3}",
+                        this.getClass().getSimpleName(), file, count, e.toString());
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (EOFException e) {
+            Log.warn("{0} Ignoring the truncated header of {1}", this.getClass().getSimpleName(), file);
+        }
+        return count;
+    }
+
+    /**
+     * Reads a record of the provided {@code type} and applies it to the current state.
+     *
+     * @param type the type of the record
+     * @param in   the {@link DataInputStream} to read the record from
+     * @throws IOException if an error occurred when reading the record, or if its {@code type} is unknown
+     */
+    private void readRecord(int type, DataInputStream in) throws IOException {
+        switch (type) {
+            case HIGH_WATER_MARK_RECORD:
+                highWaterMarks.merge(in.readUTF(), in.readLong(), Math::max);
+                break;
+            case USER_RECORD:
+                long id = in.readLong();
+                String name = in.readUTF();
+                String screenName = in.readUTF();
+                this.storeUser(new StoredUser(new UserSummary(id, name, screenName), in.readLong()));
+                break;
+            case SEEN_ID_RECORD:
+                String namespace = in.readUTF();
+                seenIds.computeIfAbsent(namespace, key -> new LongWindowSet(seenIdsPerNamespace)).add(in.readLong());
+                break;
+            case LOCATIONS_RECORD:
+                long loadedAt = in.readLong();
+                int size = in.readInt();
+                Map<String, Integer> readLocations = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    readLocations.put(in.readUTF(), in.readInt());
+                }
+                locations = Collections.unmodifiableMap(readLocations);
+                locationsLoadedAt = loadedAt;
+                break;
+            default:
+                throw new IOException("Unknown state record type " + type);
+        }
+    }
+
+    /**
+     * Stores the provided {@code user} as the most recently stored user, and evicts the oldest one if needed.
+     *
+     * @param user the {@link StoredUser} to store
+     */
+    private void storeUser(StoredUser user) {
+        users.remove(user.getUser().getId());
+        users.put(user.getUser().getId(), user);
+        if (users.size() > maxUsers) {
+            users.remove(users.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Writes the header of a state file.
+     *
+     * @param out the {@link DataOutputStream} to write the header to
+     * @throws IOException if an error occurred when writing the header
+     */
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+    }
+
+    /**
+     * Writes the content of a high-water mark record.
+     *
+     * @param out   the {@link DataOutputStream} to write the record to
+     * @param key   the key of the mark
+     * @param value the value of the mark
+     * @throws IOException if an error occurred when writing the record
+     */
+    private static void writeHighWaterMark(DataOutputStream out, String key, long value) throws IOException {
+        out.writeUTF(key);
+        out.writeLong(value);
+    }
+
+    /**
+     * Writes the content of a user record.
+     *
+     * @param out  the {@link DataOutputStream} to write the record to
+     * @param user the {@link StoredUser} to write
+     * @throws IOException if an error occurred when writing the record
+     */
+    private static void writeUser(DataOutputStream out, StoredUser user) throws IOException {
+        out.writeLong(user.getUser().getId());
+        out.writeUTF(user.getUser().getName());
+        out.writeUTF(user.getUser().getScreenName());
+        out.writeLong(user.getStoredAt());
+    }
+
+    /**
+     * Writes the content of a seen ID record.
+     *
+     * @param out       the {@link DataOutputStream} to write the record to
+     * @param namespace the namespace of the ID
+     * @param id        the seen ID
+     * @throws IOException if an error occurred when writing the record
+     */
+    private static void writeSeenId(DataOutputStream out, String namespace, long id) throws IOException {
+        out.writeUTF(namespace);
+        out.writeLong(id);
+    }
+
+    /**
+     * Writes the content of a trend locations record.
+     *
+     * @param out       the {@link DataOutputStream} to write the record to
+     * @param locations the WOEIDs of the trend locations, by folded name
+     * @param loadedAt  the time (in milliseconds since the epoch) the trend locations have been loaded at
+     * @throws IOException if an error occurred when writing the record
+     */
+    private static void writeLocations(DataOutputStream out, Map<String, Integer> locations, long loadedAt)
+            throws IOException {
+        out.writeLong(loadedAt);
+        out.writeInt(locations.size());
+        for (Map.Entry<String, Integer> location : locations.entrySet()) {
+            out.writeUTF(location.getKey());
+            out.writeInt(location.getValue());
+        }
+    }
+
+    /**
+     * Writes the content of a journal record.
+     */
+    @FunctionalInterface
+    private interface RecordWriter {
+
+        /**
+         * Writes the content of the record to the provided {@code out} stream.
+         *
+         * @param out the {@link DataOutputStream} to write the record to
+         * @throws IOException if an error occurred when writing the record
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+}
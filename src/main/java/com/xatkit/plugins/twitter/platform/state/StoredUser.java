@@ -0,0 +1,60 @@
+package com.xatkit.plugins.twitter.platform.state;
+
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import lombok.NonNull;
+
+/**
+ * A {@link UserSummary} persisted by the {@link StateStore}, with the time it has been stored at.
+ */
+public final class StoredUser {
+
+    /**
+     * The stored {@link UserSummary}.
+     */
+    private final UserSummary user;
+
+    /**
+     * The time (in milliseconds since the epoch) the user has been stored at.
+     */
+    private final long storedAt;
+
+    /**
+     * Constructs a {@link StoredUser} with the provided {@code user} and {@code storedAt} time.
+     *
+     * @param user     the stored {@link UserSummary}
+     * @param storedAt the time (in milliseconds since the epoch) the user has been stored at
+     */
+    public StoredUser(@NonNull UserSummary user, long storedAt) {
+        this.user = user;
+        this.storedAt = storedAt;
+    }
+
+    /**
+     * Returns the stored {@link UserSummary}.
+     *
+     * @return the stored {@link UserSummary}
+     */
+    public UserSummary getUser() {
+        return this.user;
+    }
+
+    /**
+     * Returns the time the user has been stored at.
+     *
+     * @return the time (in milliseconds since the epoch) the user has been stored at
+     */
+    public long getStoredAt() {
+        return this.storedAt;
+    }
+
+    /**
+     * Returns whether the stored user has expired at the provided time.
+     *
+     * @param now       the current time, in milliseconds since the epoch
+     * @param ttlMillis the time-to-live of the stored users, in milliseconds
+     * @return {@code true} if the stored user has expired, {@code false} otherwise
+     */
+    public boolean isExpired(long now, long ttlMillis) {
+        return now - this.storedAt >= ttlMillis;
+    }
+}
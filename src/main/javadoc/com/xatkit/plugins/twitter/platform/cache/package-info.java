@@ -0,0 +1,4 @@
+/**
+ * Contains the bounded in-memory data structures used by the Xatkit Twitter platform to cache API results.
+ */
+package com.xatkit.plugins.twitter.platform.cache;
@@ -0,0 +1,5 @@
+/**
+ * Contains the records returned by the actions of the Xatkit Twitter platform, and the formatters rendering them
+ * for the channel displaying them.
+ */
+package com.xatkit.plugins.twitter.platform.format;
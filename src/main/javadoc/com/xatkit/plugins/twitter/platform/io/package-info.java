@@ -0,0 +1,4 @@
+/**
+ * Contains the event providers of the Xatkit Twitter platform.
+ */
+package com.xatkit.plugins.twitter.platform.io;
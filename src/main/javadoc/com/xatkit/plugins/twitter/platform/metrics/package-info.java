@@ -0,0 +1,5 @@
+/**
+ * Contains the metrics and trace spans recorded for the calls performed by the Xatkit Twitter platform to the
+ * Twitter API, and the exporters exposing them to monitoring systems.
+ */
+package com.xatkit.plugins.twitter.platform.metrics;
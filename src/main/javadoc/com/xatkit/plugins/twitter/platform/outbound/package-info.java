@@ -0,0 +1,5 @@
+/**
+ * Contains the outbound dispatcher queuing, pacing, and deduplicating the tweets and direct messages sent by the
+ * Xatkit Twitter platform.
+ */
+package com.xatkit.plugins.twitter.platform.outbound;
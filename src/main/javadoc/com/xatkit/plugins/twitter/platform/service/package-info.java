@@ -0,0 +1,4 @@
+/**
+ * Contains the platform-level services shared by the Xatkit Twitter actions (user resolution, lookups, etc).
+ */
+package com.xatkit.plugins.twitter.platform.service;
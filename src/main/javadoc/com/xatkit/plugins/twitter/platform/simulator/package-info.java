@@ -0,0 +1,5 @@
+/**
+ * Contains a local simulator of the Twitter REST API, used to load and soak test the Xatkit Twitter platform
+ * without accessing Twitter.
+ */
+package com.xatkit.plugins.twitter.platform.simulator;
@@ -0,0 +1,5 @@
+/**
+ * Contains the on-disk store persisting the cursors, caches, and seen IDs of the Xatkit Twitter platform across
+ * restarts.
+ */
+package com.xatkit.plugins.twitter.platform.state;
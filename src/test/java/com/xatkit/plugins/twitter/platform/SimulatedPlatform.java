@@ -0,0 +1,151 @@
+package com.xatkit.plugins.twitter.platform;
+
+import com.xatkit.core.XatkitBot;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.simulator.TwitterApiSimulator;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A {@link TwitterPlatform} started against a local {@link TwitterApiSimulator}, used by the tests accessing the
+ * Twitter API.
+ * <p>
+ * The simulator listens on an available port and accepts the credentials of the platform's single account. Closing
+ * this fixture shuts down the platform and stops the simulator.
+ */
+public final class SimulatedPlatform implements AutoCloseable {
+
+    /**
+     * The access token of the platform's account, that defines the simulated account.
+     */
+    public static final String ACCESS_TOKEN = "1-simulated";
+
+    private final TwitterApiSimulator simulator;
+
+    private final TwitterPlatform platform;
+
+    private final Configuration configuration;
+
+    private SimulatedPlatform(TwitterApiSimulator simulator, TwitterPlatform platform, Configuration configuration) {
+        this.simulator = simulator;
+        this.platform = platform;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Starts a simulator and a platform with the default configuration.
+     *
+     * @return the started {@link SimulatedPlatform}
+     */
+    public static SimulatedPlatform start() {
+        return start(new BaseConfiguration());
+    }
+
+    /**
+     * Starts a simulator and a platform with the provided {@code configuration}.
+     * <p>
+     * The {@code configuration} is used by both the simulator and the platform, the credentials and the REST base
+     * URL of the platform are added to it.
+     *
+     * @param configuration the {@link Configuration} of the simulator and the platform
+     * @return the started {@link SimulatedPlatform}
+     */
+    public static SimulatedPlatform start(Configuration configuration) {
+        return start(configuration, null);
+    }
+
+    /**
+     * Starts a simulator and a platform managed by the provided {@code xatkitBot}.
+     *
+     * @param configuration the {@link Configuration} of the simulator and the platform
+     * @param xatkitBot     the {@link XatkitBot} managing the platform (may be {@code null})
+     * @return the started {@link SimulatedPlatform}
+     * @see #createBot()
+     */
+    public static SimulatedPlatform start(Configuration configuration, XatkitBot xatkitBot) {
+        if (!configuration.containsKey(TwitterUtils.TWITTER_SIMULATOR_PORT_KEY)) {
+            configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_PORT_KEY, 0);
+        }
+        TwitterApiSimulator simulator = new TwitterApiSimulator(configuration);
+        simulator.start();
+        configuration.setProperty(TwitterUtils.TWITTER_CONSUMER_KEY, "consumer");
+        configuration.setProperty(TwitterUtils.TWITTER_CONSUMER_SECRET, "consumer-secret");
+        configuration.setProperty(TwitterUtils.TWITTER_ACCESS_TOKEN_KEY, ACCESS_TOKEN);
+        configuration.setProperty(TwitterUtils.TWITTER_ACCESS_SECRET_TOKEN_KEY, "access-secret");
+        configuration.setProperty(TwitterUtils.TWITTER_REST_BASE_URL_KEY, simulator.getRestBaseUrl());
+        TwitterPlatform platform = new TwitterPlatform();
+        try {
+            platform.start(xatkitBot, configuration);
+        } catch (RuntimeException e) {
+            simulator.close();
+            throw e;
+        }
+        return new SimulatedPlatform(simulator, platform, configuration);
+    }
+
+    /**
+     * Creates a mocked {@link XatkitBot} that creates a new {@link StateContext} for each requested context.
+     *
+     * @return the mocked {@link XatkitBot}
+     */
+    public static XatkitBot createBot() {
+        XatkitBot xatkitBot = mock(XatkitBot.class);
+        when(xatkitBot.getOrCreateContext(anyString())).thenAnswer(invocation ->
+                createContext(invocation.getArgument(0)));
+        return xatkitBot;
+    }
+
+    /**
+     * Creates a {@link StateContext} with the provided {@code contextId}.
+     *
+     * @param contextId the identifier of the context
+     * @return the created {@link StateContext}
+     */
+    public static StateContext createContext(String contextId) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId(contextId);
+        return context;
+    }
+
+    /**
+     * Returns the simulator the platform is connected to.
+     *
+     * @return the {@link TwitterApiSimulator}
+     */
+    public TwitterApiSimulator getSimulator() {
+        return simulator;
+    }
+
+    /**
+     * Returns the started platform.
+     *
+     * @return the {@link TwitterPlatform}
+     */
+    public TwitterPlatform getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Returns the configuration of the simulator and the platform.
+     *
+     * @return the {@link Configuration}
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Shuts down the platform and stops the simulator.
+     */
+    @Override
+    public void close() {
+        platform.shutdown();
+        simulator.close();
+    }
+}
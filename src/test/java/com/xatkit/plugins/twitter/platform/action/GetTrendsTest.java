@@ -0,0 +1,99 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.format.FormattedResults;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link GetTrends} action.
+ */
+public class GetTrendsTest {
+
+    private SimulatedPlatform simulated;
+
+    private TwitterPlatform platform;
+
+    private StateContext context;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not retry the failed calls.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        platform = simulated.getPlatform();
+        context = SimulatedPlatform.createContext("test");
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructEmptyLocationName() {
+        new GetTrends(platform, context, "");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeWoeid() {
+        new GetTrends(platform, context, -1);
+    }
+
+    @Test
+    public void constructLocationNameDoesNotLoadLocations() {
+        new GetTrends(platform, context, "Paris");
+        assertEquals(0, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_AVAILABLE));
+    }
+
+    @Test
+    public void getTrendsAsyncLocationName() throws InterruptedException, ExecutionException, TimeoutException {
+        Object result = platform.getTrendsAsync(context, "Paris").get(5, TimeUnit.SECONDS);
+        assertTrue(result instanceof FormattedResults);
+        assertFalse(((FormattedResults<?, ?>) result).isEmpty());
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_AVAILABLE));
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_PLACE));
+        assertSame(result, context.getSession().get(TwitterPlatform.ASYNC_RESULT_SESSION_KEY_PREFIX + "GetTrends"));
+    }
+
+    @Test
+    public void getTrendsAsyncUnknownLocationName() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        assertEquals("0", platform.getTrendsAsync(context, "Atlantis").get(5, TimeUnit.SECONDS));
+        assertEquals(0, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_PLACE));
+    }
+
+    @Test
+    public void getTrendsAsyncWoeids() throws InterruptedException, ExecutionException, TimeoutException {
+        Object result = platform.getTrendsAsync(context, Arrays.asList(615702, 44418)).get(5, TimeUnit.SECONDS);
+        assertTrue(result instanceof FormattedResults);
+        assertEquals(2, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_PLACE));
+    }
+
+    @Test
+    public void getTrendsAsyncError() throws InterruptedException, ExecutionException, TimeoutException {
+        simulated.getSimulator().getBehavior(TwitterEndpoint.TRENDS_PLACE).failNext(1, 500);
+        assertEquals("1", platform.getTrendsAsync(context, 615702).get(5, TimeUnit.SECONDS));
+    }
+}
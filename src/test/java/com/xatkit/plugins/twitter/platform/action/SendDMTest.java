@@ -0,0 +1,79 @@
+package com.xatkit.plugins.twitter.platform.action;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryReport;
+import com.xatkit.plugins.twitter.platform.outbound.DeliveryStatus;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link SendDM} action.
+ */
+public class SendDMTest {
+
+    private static final String REPORT_KEY = TwitterPlatform.DELIVERY_REPORT_SESSION_KEY_PREFIX + "SendDM";
+
+    private SimulatedPlatform simulated;
+
+    private StateContext context;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        context = SimulatedPlatform.createContext("test");
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test
+    public void sendDMStoresDeliveryReport() throws InterruptedException, ExecutionException, TimeoutException {
+        simulated.getPlatform().sendDM(context, "user2", "hello");
+        DeliveryReport report = this.getReport();
+        assertEquals(DeliveryStatus.SENT, report.getStatus());
+        assertEquals("hello", report.getMessage().getText());
+    }
+
+    @Test
+    public void sendDMAsyncReportsLaterFailure() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        simulated.getSimulator().getBehavior(TwitterEndpoint.DIRECT_MESSAGES_SEND).failNext(1, 403);
+        assertEquals(0, simulated.getPlatform().sendDMAsync(context, "user2", "hello").get(5, TimeUnit.SECONDS));
+        assertEquals(DeliveryStatus.FAILED, this.getReport().getStatus());
+    }
+
+    @Test
+    public void sendDMAsyncDuplicate() throws InterruptedException, ExecutionException, TimeoutException {
+        simulated.getPlatform().sendDM(context, "user2", "hello");
+        assertTrue(this.getReport().isSent());
+        assertEquals(1, simulated.getPlatform().sendDMAsync(context, "user2", "hello").get(5, TimeUnit.SECONDS));
+        assertEquals(DeliveryStatus.DUPLICATE, this.getReport().getStatus());
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeliveryReport getReport() throws InterruptedException, ExecutionException, TimeoutException {
+        Object report = context.getSession().get(REPORT_KEY);
+        assertTrue(report instanceof CompletableFuture);
+        return ((CompletableFuture<DeliveryReport>) report).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,163 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link LongTtlCache}.
+ */
+public class LongTtlCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxSize() {
+        new LongTtlCache<>(0, 1, TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroTtl() {
+        new LongTtlCache<>(1, 0, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void putAndGet() {
+        LongTtlCache<String> cache = new LongTtlCache<>(4, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(0, "zero");
+        cache.put(-1, "minus one");
+        assertEquals("one", cache.get(1));
+        assertEquals("zero", cache.get(0));
+        assertEquals("minus one", cache.get(-1));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void putExistingKeyReplacesValue() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(1, "uno");
+        assertEquals("uno", cache.get(1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void putExistingKeyMovesItToTail() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(1, "uno");
+        cache.put(3, "three");
+        assertEquals("uno", cache.get(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+    }
+
+    @Test
+    public void putExpiredKeyMovesItToTail() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES, time::get);
+        cache.put(1, "one", 1, TimeUnit.SECONDS);
+        cache.put(2, "two");
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertFalse(cache.contains(1));
+        cache.put(1, "one again");
+        cache.put(3, "three");
+        assertEquals("one again", cache.get(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+    }
+
+    @Test
+    public void putFullCacheEvictsOldestEntry() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        assertFalse(cache.contains(1));
+        assertTrue(cache.contains(2));
+        assertTrue(cache.contains(3));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void putInvalidatedKeyIsEvictedByLatestInsertion() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.invalidate(1);
+        cache.put(1, "one again");
+        cache.put(3, "three");
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+    }
+
+    @Test
+    public void getExpiredEntry() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES, time::get);
+        cache.put(1, "one", 1, TimeUnit.MILLISECONDS);
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(1) - 1);
+        assertEquals("one", cache.get(1));
+        time.incrementAndGet();
+        assertNull(cache.get(1));
+        assertFalse(cache.contains(1));
+    }
+
+    @Test
+    public void putTtlIsBoundedByCacheTtl() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MILLISECONDS, time::get);
+        cache.put(1, "one", 1, TimeUnit.MINUTES);
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void clear() {
+        LongTtlCache<String> cache = new LongTtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+        cache.put(3, "three");
+        assertEquals("three", cache.get(3));
+    }
+
+    @Test
+    public void randomOperationsMatchInsertionOrderModel() {
+        int maxSize = 16;
+        LongTtlCache<Long> cache = new LongTtlCache<>(maxSize, 1, TimeUnit.MINUTES);
+        Map<Long, Long> model = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(48);
+            if (random.nextInt(4) == 0) {
+                cache.invalidate(key);
+                model.remove(key);
+            } else {
+                cache.put(key, key);
+                if (model.remove(key) == null && model.size() == maxSize) {
+                    model.remove(model.keySet().iterator().next());
+                }
+                model.put(key, key);
+            }
+            assertEquals(model.size(), cache.size());
+        }
+        for (long key = 0; key < 48; key++) {
+            assertEquals("key " + key, model.get(key), cache.get(key));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link LongWindowSet}.
+ */
+public class LongWindowSetTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxSize() {
+        new LongWindowSet(0);
+    }
+
+    @Test
+    public void addAndContains() {
+        LongWindowSet set = new LongWindowSet(4);
+        assertTrue(set.add(1));
+        assertTrue(set.add(0));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(1));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertFalse(set.contains(2));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void addFullSetEvictsOldestElement() {
+        LongWindowSet set = new LongWindowSet(3);
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        set.add(1);
+        set.add(4);
+        assertFalse(set.contains(1));
+        assertTrue(set.contains(2));
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(4));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void addEvictedElement() {
+        LongWindowSet set = new LongWindowSet(2);
+        set.add(0);
+        set.add(1);
+        set.add(2);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    public void forEachIteratesFromOldestToNewest() {
+        LongWindowSet set = new LongWindowSet(3);
+        for (long id = 1; id <= 5; id++) {
+            set.add(id);
+        }
+        List<Long> elements = new ArrayList<>();
+        set.forEach(elements::add);
+        assertEquals(Arrays.asList(3L, 4L, 5L), elements);
+    }
+
+    @Test
+    public void clear() {
+        LongWindowSet set = new LongWindowSet(2);
+        set.add(0);
+        set.add(1);
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+        assertTrue(set.add(1));
+    }
+}
@@ -0,0 +1,97 @@
+package com.xatkit.plugins.twitter.platform.cache;
+
+import org.junit.Test;
+import twitter4j.TwitterException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void executeReturnsLoadedValue() throws TwitterException {
+        assertEquals("one", singleFlight.execute(1, () -> "one"));
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void executeDoesNotRetainValue() throws TwitterException {
+        AtomicInteger loads = new AtomicInteger();
+        singleFlight.execute(1, () -> "load " + loads.incrementAndGet());
+        assertEquals("load 2", singleFlight.execute(1, () -> "load " + loads.incrementAndGet()));
+    }
+
+    @Test
+    public void executeCoalescesConcurrentLoads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> this.execute(1, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "one";
+        }));
+        loading.await();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> second.complete(this.execute(1, () -> {
+            loads.incrementAndGet();
+            return "other";
+        })));
+        waiter.start();
+        /*
+         * Wait until the second thread waits for the running load.
+         */
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        release.countDown();
+        assertEquals("one", first.get());
+        assertEquals("one", second.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void executePropagatesLoadError() throws Exception {
+        TwitterException error = new TwitterException("failure");
+        try {
+            singleFlight.execute(1, () -> {
+                throw error;
+            });
+            fail("Expected a TwitterException");
+        } catch (TwitterException e) {
+            assertSame(error, e);
+        }
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    private String execute(int key, InterruptibleLoader loader) {
+        try {
+            return singleFlight.execute(key, () -> {
+                try {
+                    return loader.load();
+                } catch (InterruptedException e) {
+                    throw new TwitterException(e);
+                }
+            });
+        } catch (TwitterException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleLoader {
+
+        String load() throws InterruptedException, TwitterException;
+    }
+}
@@ -0,0 +1,118 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link FormattedResults}.
+ */
+public class FormattedResultsTest {
+
+    private static final UserSummary AUTHOR = new UserSummary(2, "User 2", "user2");
+
+    @Test
+    public void recordsAreFormattedOnceWhenAccessed() {
+        CountingFormatter formatter = new CountingFormatter();
+        List<TweetRecord> tweets = Arrays.asList(new TweetRecord(1, AUTHOR, "first", 1000),
+                new TweetRecord(2, AUTHOR, "second", 2000));
+        FormattedResults<TweetRecord, String> results = FormattedResults.ofTweets(tweets, formatter);
+        assertEquals(2, results.size());
+        assertEquals(tweets, results.getRecords());
+        assertEquals(0, formatter.count.get());
+        String second = results.get(1);
+        assertEquals("tweet second", second);
+        assertEquals(1, formatter.count.get());
+        assertSame(second, results.get(1));
+        assertEquals(1, formatter.count.get());
+        assertEquals(Arrays.asList("tweet first", "tweet second"), results);
+        assertEquals(2, formatter.count.get());
+    }
+
+    @Test
+    public void ofTrendsAndDirectMessagesUseMatchingFormatMethod() {
+        CountingFormatter formatter = new CountingFormatter();
+        assertEquals("trend #xatkit", FormattedResults.ofTrends(Arrays.asList(new TrendRecord(1, "#xatkit", null,
+                null, 0, Arrays.asList(1))), formatter).get(0));
+        assertEquals("dm hello", FormattedResults.ofDirectMessages(Arrays.asList(new DirectMessageRecord(1, AUTHOR,
+                "hello", 1000)), formatter).get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void resultsAreUnmodifiable() {
+        FormattedResults.ofTweets(Arrays.asList(new TweetRecord(1, AUTHOR, "first", 1000)), new CountingFormatter())
+                .add("other");
+    }
+
+    @Test
+    public void platformUsesConfiguredFormatter() throws InterruptedException, ExecutionException, TimeoutException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_FORMATTER_KEY, "text");
+        try (SimulatedPlatform simulated = SimulatedPlatform.start(configuration)) {
+            assertTrue(simulated.getPlatform().getFormatter() instanceof PlainTextFormatter);
+            Object result = simulated.getPlatform().lookForTweetsAsync(SimulatedPlatform.createContext("test"),
+                    "xatkit").get(5, TimeUnit.SECONDS);
+            assertTrue(result instanceof FormattedResults);
+            FormattedResults<?, ?> results = (FormattedResults<?, ?>) result;
+            assertTrue(results.get(0) instanceof String);
+            assertTrue(results.getRecords().get(0) instanceof TweetRecord);
+        }
+    }
+
+    @Test
+    public void platformCreatesCustomFormatter() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_FORMATTER_KEY, CountingFormatter.class.getName());
+        try (SimulatedPlatform simulated = SimulatedPlatform.start(configuration)) {
+            assertTrue(simulated.getPlatform().getFormatter() instanceof CountingFormatter);
+        }
+    }
+
+    @Test(expected = XatkitException.class)
+    public void platformUnknownFormatter() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_FORMATTER_KEY, "html");
+        SimulatedPlatform.start(configuration).close();
+    }
+
+    /**
+     * A {@link ResultFormatter} counting the formatted records.
+     */
+    public static class CountingFormatter implements ResultFormatter<String> {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String formatTweet(TweetRecord tweet) {
+            count.incrementAndGet();
+            return "tweet " + tweet.getText();
+        }
+
+        @Override
+        public String formatTrend(TrendRecord trend) {
+            count.incrementAndGet();
+            return "trend " + trend.getName();
+        }
+
+        @Override
+        public String formatDirectMessage(DirectMessageRecord directMessage) {
+            count.incrementAndGet();
+            return "dm " + directMessage.getText();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import org.junit.Test;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests of the {@link JsonFormatter}.
+ */
+public class JsonFormatterTest {
+
+    private static final UserSummary AUTHOR = new UserSummary(2, "User \"2\"", "user2");
+
+    private final JsonFormatter formatter = new JsonFormatter();
+
+    @Test
+    public void formatTweet() throws JSONException {
+        JSONObject json = new JSONObject(formatter.formatTweet(new TweetRecord(1234567890123456789L, AUTHOR,
+                "hello\n\"world\"", 1000, Arrays.asList("hello", "#world"))));
+        assertEquals("1234567890123456789", json.getString("id"));
+        assertEquals("User \"2\"", json.getString("author"));
+        assertEquals("user2", json.getString("screenName"));
+        assertEquals("hello\n\"world\"", json.getString("text"));
+        assertEquals(1000, json.getLong("createdAt"));
+        assertEquals("https://twitter.com/user2/status/1234567890123456789", json.getString("url"));
+        assertEquals(2, json.getJSONArray("matches").length());
+        assertEquals("#world", json.getJSONArray("matches").getString(1));
+    }
+
+    @Test
+    public void formatTweetWithoutMatches() throws JSONException {
+        JSONObject json = new JSONObject(formatter.formatTweet(new TweetRecord(1, AUTHOR, "hello", 1000)));
+        assertFalse(json.has("matches"));
+    }
+
+    @Test
+    public void formatTrend() throws JSONException {
+        JSONObject json = new JSONObject(formatter.formatTrend(new TrendRecord(3, "#xatkit",
+                "http://twitter.com/search?q=%23xatkit", "%23xatkit", 1200, Arrays.asList(615702, 44418))));
+        assertEquals(3, json.getInt("rank"));
+        assertEquals("#xatkit", json.getString("name"));
+        assertEquals("http://twitter.com/search?q=%23xatkit", json.getString("url"));
+        assertEquals("%23xatkit", json.getString("query"));
+        assertEquals(1200, json.getInt("tweetVolume"));
+        assertEquals(44418, json.getJSONArray("woeids").getInt(1));
+    }
+
+    @Test
+    public void formatTrendWithoutOptionalFields() throws JSONException {
+        JSONObject json = new JSONObject(formatter.formatTrend(new TrendRecord(1, "#xatkit", null, null, 0,
+                Collections.singletonList(1))));
+        assertFalse(json.has("url"));
+        assertFalse(json.has("query"));
+        assertFalse(json.has("tweetVolume"));
+    }
+
+    @Test
+    public void formatDirectMessage() throws JSONException {
+        JSONObject json = new JSONObject(formatter.formatDirectMessage(new DirectMessageRecord(42, AUTHOR, "hi",
+                1000)));
+        assertEquals("42", json.getString("id"));
+        assertEquals("2", json.getString("senderId"));
+        assertEquals("User \"2\"", json.getString("sender"));
+        assertEquals("hi", json.getString("text"));
+    }
+}
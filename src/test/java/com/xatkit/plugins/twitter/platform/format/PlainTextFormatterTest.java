@@ -0,0 +1,38 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link PlainTextFormatter}.
+ */
+public class PlainTextFormatterTest {
+
+    private static final UserSummary AUTHOR = new UserSummary(2, "User 2", "user2");
+
+    private final PlainTextFormatter formatter = new PlainTextFormatter();
+
+    @Test
+    public void formatTweet() {
+        assertEquals("User 2 @user2: hello", formatter.formatTweet(new TweetRecord(1, AUTHOR, "hello", 1000)));
+    }
+
+    @Test
+    public void formatTrend() {
+        assertEquals("1. #xatkit", formatter.formatTrend(new TrendRecord(1, "#xatkit", null, null, 0,
+                Collections.singletonList(1))));
+        assertEquals("2. #xatkit (1200 tweets) in 2 locations", formatter.formatTrend(new TrendRecord(2, "#xatkit",
+                null, null, 1200, Arrays.asList(1, 2))));
+    }
+
+    @Test
+    public void formatDirectMessage() {
+        assertEquals("User 2 @user2: hi", formatter.formatDirectMessage(new DirectMessageRecord(1, AUTHOR, "hi",
+                1000)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.xatkit.plugins.twitter.platform.format;
+
+import com.github.seratch.jslack.api.model.Attachment;
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link SlackAttachmentFormatter}.
+ */
+public class SlackAttachmentFormatterTest {
+
+    private static final UserSummary AUTHOR = new UserSummary(2, "User 2", "user2");
+
+    private final SlackAttachmentFormatter formatter = new SlackAttachmentFormatter();
+
+    @Test
+    public void formatTweet() {
+        Attachment attachment = formatter.formatTweet(new TweetRecord(1, AUTHOR, "hello", 5000));
+        assertEquals("User 2 @user2", attachment.getAuthorName());
+        assertEquals("hello", attachment.getText());
+        assertEquals("#1da1f2", attachment.getColor());
+        assertEquals("5", attachment.getTs());
+    }
+
+    @Test
+    public void formatTrend() {
+        Attachment attachment = formatter.formatTrend(new TrendRecord(1, "#xatkit", "http://twitter.com/xatkit",
+                null, 0, Collections.singletonList(1)));
+        assertEquals("#xatkit", attachment.getTitle());
+        assertEquals("http://twitter.com/xatkit", attachment.getTitleLink());
+        assertEquals("Tweet volume: undefined", attachment.getText());
+        assertEquals("Tweet volume: 1200 in 2 locations", formatter.formatTrend(new TrendRecord(1, "#xatkit", null,
+                null, 1200, Arrays.asList(1, 2))).getText());
+    }
+
+    @Test
+    public void formatDirectMessage() {
+        Attachment attachment = formatter.formatDirectMessage(new DirectMessageRecord(1, AUTHOR, "hi", 5000));
+        assertEquals("User 2 @user2", attachment.getAuthorName());
+        assertEquals("hi", attachment.getText());
+        assertEquals("5", attachment.getTs());
+    }
+}
@@ -0,0 +1,205 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link TwitterStreamEventProvider}.
+ */
+public class TwitterStreamEventProviderTest {
+
+    private SimulatedPlatform simulated;
+
+    private LocalStreamServer server;
+
+    private TwitterStreamEventProvider provider;
+
+    private BlockingQueue<EventInstance> events;
+
+    private CountDownLatch unblock;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_MATCHER_KEYWORDS_PREFIX + "support", "help");
+        simulated = SimulatedPlatform.start(configuration, SimulatedPlatform.createBot());
+        server = new LocalStreamServer(0);
+        server.start();
+        events = new LinkedBlockingQueue<>();
+        unblock = new CountDownLatch(0);
+    }
+
+    @After
+    public void tearDown() {
+        unblock.countDown();
+        if (provider != null) {
+            provider.close();
+        }
+        server.close();
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startWithoutFilter() {
+        this.startProvider(new BaseConfiguration());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startNonNumericFollowedUser() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_FOLLOW_KEY, "user2");
+        this.startProvider(configuration);
+    }
+
+    @Test(expected = XatkitException.class)
+    public void startUnknownOverflowPolicy() {
+        Configuration configuration = this.trackConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_OVERFLOW_KEY, "ignore");
+        this.startProvider(configuration);
+    }
+
+    @Test
+    public void streamTweet() throws InterruptedException {
+        Configuration configuration = this.trackConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_FOLLOW_KEY, Arrays.asList("2", "3"));
+        this.startProvider(configuration);
+        this.publishTweet(10, "I need help");
+        EventInstance event = this.nextEvent();
+        assertSame(TwitterStreamEventProvider.TweetReceived, event.getDefinition());
+        assertEquals(10L, event.getPlatformData().get(TwitterStreamEventProvider.ID_KEY));
+        assertEquals("I need help", event.getPlatformData().get(TwitterStreamEventProvider.TEXT_KEY));
+        assertEquals(2L, event.getPlatformData().get(TwitterStreamEventProvider.USER_ID_KEY));
+        assertEquals("user2", event.getPlatformData().get(TwitterStreamEventProvider.USER_SCREEN_NAME_KEY));
+        assertEquals(Collections.singletonList("support"),
+                event.getPlatformData().get(TwitterStreamEventProvider.MATCHES_KEY));
+        assertEquals("xatkit,bot", server.getLastParameters().get("track"));
+        assertEquals("2,3", server.getLastParameters().get("follow"));
+        assertEquals("true", server.getLastParameters().get("stall_warnings"));
+        assertTrue(simulated.getPlatform().getConversationIndex().contains(10));
+    }
+
+    @Test
+    public void streamIgnoresNotices() throws InterruptedException {
+        this.startProvider(this.trackConfiguration());
+        this.publishTweet(10, "first");
+        this.nextEvent();
+        server.publish("{\"delete\":{\"status\":{\"id\":10,\"user_id\":2}}}");
+        server.publish("{\"limit\":{\"track\":5,\"timestamp_ms\":\"1791799200000\"}}");
+        server.publish("{\"warning\":{\"code\":\"FALLING_BEHIND\",\"percent_full\":60}}");
+        server.publish("not json");
+        this.publishTweet(11, "second");
+        assertEquals(11L, this.nextEvent().getPlatformData().get(TwitterStreamEventProvider.ID_KEY));
+        assertEquals(5, provider.getUndeliveredTweetCount());
+        assertEquals(2, provider.getReceivedTweetCount());
+    }
+
+    @Test
+    public void streamReconnectsAfterDisconnection() throws InterruptedException {
+        this.startProvider(this.trackConfiguration());
+        this.publishTweet(10, "first");
+        this.nextEvent();
+        server.disconnectClients();
+        await(() -> server.getClientCount() == 0);
+        this.publishTweet(11, "second");
+        assertEquals(11L, this.nextEvent().getPlatformData().get(TwitterStreamEventProvider.ID_KEY));
+        assertEquals(2, provider.getConnectionCount());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void streamDropsTweetsWhenQueueIsFull() throws InterruptedException {
+        unblock = new CountDownLatch(1);
+        Configuration configuration = this.trackConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_QUEUE_SIZE_KEY, 1);
+        this.startProvider(configuration);
+        this.publishTweet(10, "first");
+        this.nextEvent();
+        /*
+         * The dispatcher is blocked on the first tweet: the second one fills the queue.
+         */
+        server.publishTweet(11, 2, "user2", "second");
+        server.publishTweet(12, 2, "user2", "third");
+        server.publishTweet(13, 2, "user2", "fourth");
+        await(() -> provider.getReceivedTweetCount() == 4);
+        assertEquals(2, provider.getDroppedTweetCount());
+        unblock.countDown();
+        assertEquals(11L, this.nextEvent().getPlatformData().get(TwitterStreamEventProvider.ID_KEY));
+        this.publishTweet(14, "fifth");
+        assertEquals(14L, this.nextEvent().getPlatformData().get(TwitterStreamEventProvider.ID_KEY));
+    }
+
+    private Configuration trackConfiguration() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_TRACK_KEY, Arrays.asList("xatkit", " bot "));
+        return configuration;
+    }
+
+    /**
+     * Starts a provider connected to the {@link #server} with the provided {@code configuration}.
+     * <p>
+     * The events emitted by the provider are added to {@link #events}, and the dispatcher waits for
+     * {@link #unblock} after each event.
+     *
+     * @param configuration the configuration of the provider
+     */
+    private void startProvider(Configuration configuration) {
+        configuration.addProperty(TwitterUtils.TWITTER_STREAM_BASE_URL_KEY, server.getBaseUrl());
+        provider = new TwitterStreamEventProvider(simulated.getPlatform()) {
+            @Override
+            public void sendEventInstance(EventInstance eventInstance, StateContext context) {
+                events.add(eventInstance);
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        provider.start(configuration);
+    }
+
+    /**
+     * Publishes a tweet once the provider is connected to the {@link #server}.
+     *
+     * @param id   the ID of the tweet
+     * @param text the text of the tweet
+     */
+    private void publishTweet(long id, String text) {
+        await(() -> server.publishTweet(id, 2, "user2", text) > 0);
+    }
+
+    private EventInstance nextEvent() throws InterruptedException {
+        EventInstance event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No event emitted", event);
+        return event;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("The condition is not met", System.nanoTime() < deadline);
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link TwitterTrendEventProvider}.
+ */
+public class TwitterTrendEventProviderTest {
+
+    private SimulatedPlatform simulated;
+
+    private TwitterTrendEventProvider provider;
+
+    @Before
+    public void setUp() {
+        simulated = SimulatedPlatform.start(new BaseConfiguration(), SimulatedPlatform.createBot());
+        provider = new TwitterTrendEventProvider(simulated.getPlatform());
+    }
+
+    @After
+    public void tearDown() {
+        provider.close();
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startWithoutWatchedLocation() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_TRENDS_WATCH_KEY, " ");
+        provider.start(configuration);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startInvalidInterval() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_TRENDS_WATCH_KEY, "Paris");
+        configuration.addProperty(TwitterUtils.TWITTER_TRENDS_WATCH_INTERVAL_KEY, 0);
+        provider.start(configuration);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startInvalidTop() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_TRENDS_WATCH_KEY, "Paris");
+        configuration.addProperty(TwitterUtils.TWITTER_TRENDS_TOP_KEY, 0);
+        provider.start(configuration);
+    }
+}
@@ -0,0 +1,255 @@
+package com.xatkit.plugins.twitter.platform.io;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.JSONArray;
+import twitter4j.JSONException;
+import twitter4j.JSONObject;
+import twitter4j.TwitterException;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link TwitterWebhookEventProvider}.
+ */
+public class TwitterWebhookEventProviderTest {
+
+    private static final String CREATED_AT = "Mon Oct 12 10:00:00 +0000 2026";
+
+    private static final long USER_ID = 2;
+
+    private SimulatedPlatform simulated;
+
+    private TwitterWebhookEventProvider provider;
+
+    private BlockingQueue<EventInstance> events;
+
+    private CountDownLatch unblock;
+
+    private LocalWebhookClient client;
+
+    private long selfId;
+
+    @Before
+    public void setUp() throws TwitterException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_WEBHOOK_PORT_KEY, 0);
+        simulated = SimulatedPlatform.start(configuration, SimulatedPlatform.createBot());
+        selfId = simulated.getPlatform().getSelf().getId();
+        events = new LinkedBlockingQueue<>();
+        unblock = new CountDownLatch(0);
+    }
+
+    @After
+    public void tearDown() {
+        unblock.countDown();
+        if (provider != null) {
+            provider.close();
+        }
+        simulated.close();
+    }
+
+    @Test
+    public void checkChallenge() throws IOException {
+        this.startProvider(1, 10);
+        assertTrue(client.checkChallenge());
+        assertFalse(this.createClient("another-secret").checkChallenge());
+    }
+
+    @Test
+    public void postInvalidSignature() throws IOException, JSONException, InterruptedException {
+        this.startProvider(1, 10);
+        assertEquals(401, this.createClient("another-secret").post(this.directMessagePayload(1, USER_ID,
+                "hello")));
+        assertEquals(200, client.post(this.followPayload()));
+        assertSame(TwitterWebhookEventProvider.FollowReceived, this.nextEvent().getDefinition());
+    }
+
+    @Test
+    public void postDirectMessage() throws IOException, JSONException, InterruptedException {
+        this.startProvider(1, 10);
+        assertEquals(200, client.post(this.directMessagePayload(1, USER_ID, "hello")));
+        EventInstance event = this.nextEvent();
+        assertSame(TwitterWebhookEventProvider.DirectMessageReceived, event.getDefinition());
+        assertEquals(1L, event.getPlatformData().get(TwitterWebhookEventProvider.ID_KEY));
+        assertEquals("hello", event.getPlatformData().get(TwitterWebhookEventProvider.TEXT_KEY));
+        assertEquals(USER_ID, event.getPlatformData().get(TwitterWebhookEventProvider.USER_ID_KEY));
+        assertEquals("alice", event.getPlatformData().get(TwitterWebhookEventProvider.USER_SCREEN_NAME_KEY));
+        assertEquals(selfId, event.getPlatformData().get(TwitterWebhookEventProvider.FOR_USER_ID_KEY));
+    }
+
+    @Test
+    public void postDirectMessageTwice() throws IOException, JSONException, InterruptedException {
+        this.startProvider(1, 10);
+        String payload = this.directMessagePayload(1, USER_ID, "hello");
+        assertEquals(200, client.post(payload));
+        assertEquals(200, client.post(payload));
+        assertEquals(200, client.post(this.followPayload()));
+        assertSame(TwitterWebhookEventProvider.DirectMessageReceived, this.nextEvent().getDefinition());
+        assertSame(TwitterWebhookEventProvider.FollowReceived, this.nextEvent().getDefinition());
+    }
+
+    @Test
+    public void postDirectMessageSentBySelf() throws IOException, JSONException, InterruptedException {
+        this.startProvider(1, 10);
+        assertEquals(200, client.post(this.directMessagePayload(1, selfId, "hello")));
+        assertEquals(200, client.post(this.followPayload()));
+        assertSame(TwitterWebhookEventProvider.FollowReceived, this.nextEvent().getDefinition());
+    }
+
+    @Test
+    public void postMention() throws IOException, JSONException, InterruptedException {
+        this.startProvider(1, 10);
+        assertEquals(200, client.post(this.tweetPayload(10, false)));
+        assertEquals(200, client.post(this.tweetPayload(11, true)));
+        EventInstance event = this.nextEvent();
+        assertSame(TwitterWebhookEventProvider.MentionReceived, event.getDefinition());
+        assertEquals(11L, event.getPlatformData().get(TwitterWebhookEventProvider.ID_KEY));
+        assertEquals(USER_ID, event.getPlatformData().get(TwitterWebhookEventProvider.USER_ID_KEY));
+        assertTrue(simulated.getPlatform().getConversationIndex().contains(10));
+        assertEquals(10, simulated.getPlatform().getConversationIndex().getParentId(11));
+    }
+
+    @Test
+    public void postWhenQueueIsFull() throws IOException, JSONException, InterruptedException {
+        unblock = new CountDownLatch(1);
+        this.startProvider(1, 1);
+        assertEquals(200, client.post(this.directMessagePayload(1, USER_ID, "hello")));
+        EventInstance blocked = this.nextEvent();
+        assertEquals(200, client.post(this.followPayload()));
+        assertEquals(503, client.post(this.directMessagePayload(2, USER_ID, "hello")));
+        assertEquals(1, provider.getRejectedPayloadCount());
+        unblock.countDown();
+        assertSame(TwitterWebhookEventProvider.DirectMessageReceived, blocked.getDefinition());
+        assertSame(TwitterWebhookEventProvider.FollowReceived, this.nextEvent().getDefinition());
+    }
+
+    /**
+     * Starts a provider with the provided number of workers and queue size.
+     * <p>
+     * The events emitted by the provider are added to {@link #events}, and the workers wait for {@link #unblock}
+     * after each event.
+     *
+     * @param workers   the number of workers of the provider
+     * @param queueSize the size of the queue of pending payloads
+     */
+    private void startProvider(int workers, int queueSize) {
+        Configuration configuration = simulated.getConfiguration();
+        configuration.setProperty(TwitterUtils.TWITTER_WEBHOOK_WORKERS_KEY, workers);
+        configuration.setProperty(TwitterUtils.TWITTER_WEBHOOK_QUEUE_SIZE_KEY, queueSize);
+        provider = new TwitterWebhookEventProvider(simulated.getPlatform()) {
+            @Override
+            public void sendEventInstance(EventInstance eventInstance, StateContext context) {
+                events.add(eventInstance);
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        provider.start(configuration);
+        client = this.createClient(configuration.getString(TwitterUtils.TWITTER_CONSUMER_SECRET));
+    }
+
+    private LocalWebhookClient createClient(String consumerSecret) {
+        return new LocalWebhookClient("http://localhost:" + provider.getPort() + TwitterUtils.DEFAULT_WEBHOOK_PATH,
+                consumerSecret);
+    }
+
+    private EventInstance nextEvent() throws InterruptedException {
+        EventInstance event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No event emitted", event);
+        return event;
+    }
+
+    private String directMessagePayload(long id, long senderId, String text) throws JSONException {
+        JSONObject directMessage = new JSONObject()
+                .put("type", "message_create")
+                .put("id", Long.toString(id))
+                .put("created_timestamp", "1791799200000")
+                .put("message_create", new JSONObject()
+                        .put("target", new JSONObject().put("recipient_id", Long.toString(selfId)))
+                        .put("sender_id", Long.toString(senderId))
+                        .put("message_data", new JSONObject()
+                                .put("text", text)
+                                .put("entities", entities(new JSONArray()))));
+        return new JSONObject()
+                .put("for_user_id", Long.toString(selfId))
+                .put("users", new JSONObject().put(Long.toString(USER_ID), user(USER_ID, "alice")))
+                .put("direct_message_events", new JSONArray().put(directMessage))
+                .toString();
+    }
+
+    private String tweetPayload(long id, boolean mention) throws JSONException {
+        JSONArray mentions = new JSONArray();
+        if (mention) {
+            mentions.put(new JSONObject()
+                    .put("id", selfId)
+                    .put("id_str", Long.toString(selfId))
+                    .put("screen_name", "self")
+                    .put("name", "Self")
+                    .put("indices", new JSONArray().put(0).put(5)));
+        }
+        JSONObject tweet = new JSONObject()
+                .put("id", id)
+                .put("id_str", Long.toString(id))
+                .put("text", "@self hello")
+                .put("created_at", CREATED_AT)
+                .put("entities", entities(mentions))
+                .put("user", user(USER_ID, "alice"));
+        if (mention) {
+            tweet.put("in_reply_to_status_id", 10).put("in_reply_to_status_id_str", "10");
+        }
+        return new JSONObject()
+                .put("for_user_id", Long.toString(selfId))
+                .put("tweet_create_events", new JSONArray().put(tweet))
+                .toString();
+    }
+
+    private String followPayload() throws JSONException {
+        JSONObject follow = new JSONObject()
+                .put("type", "follow")
+                .put("created_timestamp", "1791799200000")
+                .put("target", user(selfId, "self"))
+                .put("source", user(USER_ID, "alice"));
+        return new JSONObject()
+                .put("for_user_id", Long.toString(selfId))
+                .put("follow_events", new JSONArray().put(follow))
+                .toString();
+    }
+
+    private static JSONObject entities(JSONArray mentions) throws JSONException {
+        return new JSONObject()
+                .put("hashtags", new JSONArray())
+                .put("symbols", new JSONArray())
+                .put("urls", new JSONArray())
+                .put("user_mentions", mentions);
+    }
+
+    private static JSONObject user(long id, String screenName) throws JSONException {
+        return new JSONObject()
+                .put("id", id)
+                .put("id_str", Long.toString(id))
+                .put("name", "User " + id)
+                .put("screen_name", screenName)
+                .put("created_at", CREATED_AT);
+    }
+}
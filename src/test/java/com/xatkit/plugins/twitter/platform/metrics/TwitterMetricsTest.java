@@ -0,0 +1,156 @@
+package com.xatkit.plugins.twitter.platform.metrics;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TwitterMetrics}.
+ */
+public class TwitterMetricsTest {
+
+    private SimulatedPlatform simulated;
+
+    private TwitterMetrics metrics;
+
+    private MetricsExporter exporter;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not retry the failed calls.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        metrics = simulated.getPlatform().getMetrics();
+    }
+
+    @After
+    public void tearDown() {
+        if (exporter != null) {
+            exporter.close();
+        }
+        simulated.close();
+    }
+
+    @Test
+    public void recordCalls() {
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("test"), "xatkit");
+        simulated.getSimulator().getBehavior(TwitterEndpoint.SEARCH).failNext(1, 500);
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("test"), "xatkit");
+        EndpointMetrics search = metrics.getEndpointMetrics(TwitterEndpoint.SEARCH);
+        assertEquals(simulated.getSimulator().getRequestCount(TwitterEndpoint.SEARCH), search.getCallCount());
+        assertEquals(1, search.getErrorCount());
+        assertEquals(Long.valueOf(1), search.getErrorCounts().get(500));
+        assertEquals(search.getCallCount(), search.getLatency().getCount());
+    }
+
+    @Test
+    public void spansAreTaggedWithContextId() {
+        List<TraceSpan> spans = new CopyOnWriteArrayList<>();
+        SpanListener listener = spans::add;
+        metrics.addSpanListener(listener);
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("traced"), "xatkit");
+        assertFalse(spans.isEmpty());
+        for (TraceSpan span : spans) {
+            assertEquals(TwitterEndpoint.SEARCH, span.getEndpoint());
+            assertEquals("traced", span.getContextId());
+            assertEquals(200, span.getStatusCode());
+        }
+        int spanCount = spans.size();
+        metrics.removeSpanListener(listener);
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("traced"), "other");
+        assertEquals(spanCount, spans.size());
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void closedScopeRestoresEnclosingContextId() {
+        List<TraceSpan> spans = new CopyOnWriteArrayList<>();
+        metrics.addSpanListener(spans::add);
+        try (TwitterMetrics.TraceScope outer = metrics.openScope("outer")) {
+            metrics.openScope("inner").close();
+            simulated.getPlatform().searchTweets("xatkit", 10).count();
+        }
+        assertFalse(spans.isEmpty());
+        assertEquals("outer", spans.get(0).getContextId());
+    }
+
+    @Test
+    public void prometheusExporterServesMetrics() throws IOException {
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("test"), "xatkit");
+        PrometheusMetricsExporter prometheus = new PrometheusMetricsExporter();
+        exporter = prometheus;
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_METRICS_PROMETHEUS_PORT_KEY, 0);
+        prometheus.start(metrics, configuration);
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + prometheus.getPort()
+                + TwitterUtils.DEFAULT_METRICS_PROMETHEUS_PATH).openConnection();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain"));
+        String body = read(connection.getInputStream());
+        assertEquals(prometheus.scrape(), body);
+        long searchCount = metrics.getEndpointMetrics(TwitterEndpoint.SEARCH).getCallCount();
+        assertTrue(body.contains("twitter_api_request_duration_seconds_count{endpoint=\"search\"} " + searchCount
+                + "\n"));
+        assertTrue(body.contains("# TYPE twitter_ratelimit_remaining gauge"));
+    }
+
+    @Test
+    public void jmxExporterRegistersEndpointMBeans() throws Exception {
+        simulated.getPlatform().lookForTweets(SimulatedPlatform.createContext("test"), "xatkit");
+        exporter = new JmxMetricsExporter();
+        exporter.start(metrics, new BaseConfiguration());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(JmxMetricsExporter.DOMAIN + ":type=Endpoint,name=search");
+        assertTrue(server.isRegistered(name));
+        assertEquals(metrics.getEndpointMetrics(TwitterEndpoint.SEARCH).getCallCount(),
+                server.getAttribute(name, "CallCount"));
+        assertEquals("CLOSED", server.getAttribute(name, "CircuitState"));
+        try {
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            fail("The MBean does not define any operation");
+        } catch (ReflectionException e) {
+            assertTrue(e.getTargetException() instanceof NoSuchMethodException);
+        }
+        exporter.close();
+        assertFalse(server.isRegistered(name));
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream input = inputStream) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
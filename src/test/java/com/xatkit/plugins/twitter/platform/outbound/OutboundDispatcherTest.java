@@ -0,0 +1,188 @@
+package com.xatkit.plugins.twitter.platform.outbound;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link OutboundDispatcher}.
+ */
+public class OutboundDispatcherTest {
+
+    private SimulatedPlatform simulated;
+
+    private OutboundDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        if (simulated != null) {
+            simulated.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidQueueSize() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_QUEUE_SIZE_KEY, 0);
+        this.start(configuration);
+    }
+
+    @Test
+    public void submitTweet() throws InterruptedException, ExecutionException, TimeoutException {
+        this.start(0, 0);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.tweet("hello")));
+        assertEquals(DeliveryStatus.SENT, report.getStatus());
+        assertTrue(report.isSent());
+        assertTrue(report.getId() > 0);
+        assertEquals(1, report.getAttempts());
+        assertTrue(simulated.getPlatform().getConversationIndex().contains(report.getId()));
+    }
+
+    @Test
+    public void submitDirectMessage() throws InterruptedException, ExecutionException, TimeoutException {
+        this.start(0, 0);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.directMessage("user2", "hello")));
+        assertEquals(DeliveryStatus.SENT, report.getStatus());
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.DIRECT_MESSAGES_SEND));
+    }
+
+    @Test
+    public void submitDuplicate() throws InterruptedException, ExecutionException, TimeoutException {
+        this.start(0, 0);
+        assertTrue(get(dispatcher.submit(OutboundMessage.tweet("hello"))).isSent());
+        CompletableFuture<DeliveryReport> duplicate = dispatcher.submit(OutboundMessage.tweet("hello"));
+        assertTrue(duplicate.isDone());
+        assertEquals(DeliveryStatus.DUPLICATE, duplicate.get().getStatus());
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_UPDATE));
+    }
+
+    @Test
+    public void submitFullQueue() throws InterruptedException, ExecutionException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_QUEUE_SIZE_KEY, 1);
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_INTERVAL_KEY, 10000);
+        this.start(configuration);
+        dispatcher.submit(OutboundMessage.tweet("first"));
+        dispatcher.submit(OutboundMessage.tweet("second"));
+        CompletableFuture<DeliveryReport> rejected = dispatcher.submit(OutboundMessage.tweet("third"));
+        assertTrue(rejected.isDone());
+        assertEquals(DeliveryStatus.REJECTED, rejected.get().getStatus());
+    }
+
+    @Test
+    public void closeCancelsPendingMessages() throws InterruptedException, ExecutionException, TimeoutException {
+        this.start(10000, 0);
+        dispatcher.submit(OutboundMessage.tweet("first"));
+        CompletableFuture<DeliveryReport> pending = dispatcher.submit(OutboundMessage.tweet("second"));
+        dispatcher.close();
+        assertEquals(DeliveryStatus.CANCELLED, get(pending).getStatus());
+        assertEquals(0, dispatcher.getPendingCount());
+        assertEquals(DeliveryStatus.CANCELLED, get(dispatcher.submit(OutboundMessage.tweet("third"))).getStatus());
+    }
+
+    @Test
+    public void submitPacesSends() throws InterruptedException, ExecutionException, TimeoutException {
+        this.start(100, 0);
+        long start = System.nanoTime();
+        CompletableFuture<DeliveryReport> first = dispatcher.submit(OutboundMessage.tweet("first"));
+        CompletableFuture<DeliveryReport> second = dispatcher.submit(OutboundMessage.tweet("second"));
+        CompletableFuture<DeliveryReport> third = dispatcher.submit(OutboundMessage.tweet("third"));
+        assertTrue(get(first).isSent() && get(second).isSent() && get(third).isSent());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void submitPacesMessagesToSameRecipient() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        this.start(0, 500);
+        long start = System.nanoTime();
+        dispatcher.submit(OutboundMessage.directMessage("user2", "first"));
+        CompletableFuture<Long> second = dispatcher.submit(OutboundMessage.directMessage("user2", "second"))
+                .thenApply(report -> report.isSent() ? System.nanoTime() : -1);
+        CompletableFuture<Long> other = dispatcher.submit(OutboundMessage.directMessage("user3", "other"))
+                .thenApply(report -> report.isSent() ? System.nanoTime() : -1);
+        assertTrue(second.get(10, TimeUnit.SECONDS) - start >= TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(other.get() > 0 && other.get() < second.get());
+        assertEquals(3, simulated.getSimulator().getRequestCount(TwitterEndpoint.DIRECT_MESSAGES_SEND));
+    }
+
+    @Test
+    public void submitRetriesTweetAfterServerError() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        this.start(0, 0);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.STATUSES_UPDATE).failNext(1, 500);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.tweet("hello")));
+        assertEquals(DeliveryStatus.SENT, report.getStatus());
+        assertEquals(2, report.getAttempts());
+    }
+
+    @Test
+    public void submitDoesNotRetryTweetAfterClientError() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        this.start(0, 0);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.STATUSES_UPDATE).failNext(1, 403);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.tweet("hello")));
+        assertEquals(DeliveryStatus.FAILED, report.getStatus());
+        assertEquals(1, report.getAttempts());
+        assertEquals(403, report.getError().getStatusCode());
+        /*
+         * Failed messages can be submitted again.
+         */
+        assertTrue(get(dispatcher.submit(OutboundMessage.tweet("hello"))).isSent());
+    }
+
+    @Test
+    public void submitRetriesDirectMessageAfterUnavailable() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        this.start(0, 0);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.DIRECT_MESSAGES_SEND).failNext(1, 503);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.directMessage("user2", "hello")));
+        assertEquals(DeliveryStatus.SENT, report.getStatus());
+        assertEquals(2, report.getAttempts());
+    }
+
+    @Test
+    public void submitDoesNotRetryDirectMessageAfterServerError() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        this.start(0, 0);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.DIRECT_MESSAGES_SEND).failNext(1, 500);
+        DeliveryReport report = get(dispatcher.submit(OutboundMessage.directMessage("user2", "hello")));
+        assertEquals(DeliveryStatus.FAILED, report.getStatus());
+        assertEquals(1, report.getAttempts());
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.DIRECT_MESSAGES_SEND));
+    }
+
+    private void start(long interval, long recipientInterval) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_INTERVAL_KEY, interval);
+        configuration.addProperty(TwitterUtils.TWITTER_OUTBOUND_RECIPIENT_INTERVAL_KEY, recipientInterval);
+        this.start(configuration);
+    }
+
+    private void start(Configuration configuration) {
+        /*
+         * Only the dispatcher retries the failed messages.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        dispatcher = simulated.getPlatform().getOutboundDispatcher();
+    }
+
+    private static DeliveryReport get(CompletableFuture<DeliveryReport> report) throws InterruptedException,
+            ExecutionException, TimeoutException {
+        return report.get(10, TimeUnit.SECONDS);
+    }
+}
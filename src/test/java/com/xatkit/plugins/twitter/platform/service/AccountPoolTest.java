@@ -0,0 +1,159 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Test;
+import twitter4j.HttpClientConfiguration;
+import twitter4j.HttpClientFactory;
+import twitter4j.Query;
+import twitter4j.TwitterException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the {@link AccountPool}.
+ */
+public class AccountPoolTest {
+
+    private SimulatedPlatform simulated;
+
+    @After
+    public void tearDown() {
+        if (simulated != null) {
+            simulated.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructEmptyAccounts() {
+        new AccountPool(Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createWithoutAccounts() {
+        AccountPool.create(new BaseConfiguration());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void createMissingCredentials() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(this.accountKey(0, TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX), "consumer");
+        AccountPool.create(configuration);
+    }
+
+    @Test
+    public void createIndexedAccounts() {
+        Configuration configuration = new BaseConfiguration();
+        this.addAccount(configuration, 0, "reader");
+        this.addAccount(configuration, 1, null);
+        AccountPool pool = AccountPool.create(configuration);
+        assertEquals(2, pool.getAccounts().size());
+        assertEquals("reader", pool.getPrimary().getName());
+        assertEquals("account1", pool.getAccounts().get(1).getName());
+        assertNotSame(pool.getAccounts().get(0).getRateLimitScheduler(),
+                pool.getAccounts().get(1).getRateLimitScheduler());
+    }
+
+    @Test
+    public void createSharesHttpClient() {
+        Configuration configuration = this.twoAccounts();
+        configuration.addProperty(TwitterUtils.TWITTER_HTTP_CONNECT_TIMEOUT_KEY, 1000);
+        configuration.addProperty(TwitterUtils.TWITTER_HTTP_READ_TIMEOUT_KEY, 2000);
+        configuration.addProperty(TwitterUtils.TWITTER_HTTP_GZIP_KEY, false);
+        AccountPool pool = AccountPool.create(configuration);
+        HttpClientConfiguration primary = pool.getPrimary().getTwitter().getConfiguration()
+                .getHttpClientConfiguration();
+        HttpClientConfiguration secondary = pool.getAccounts().get(1).getTwitter().getConfiguration()
+                .getHttpClientConfiguration();
+        assertEquals(1000, primary.getHttpConnectionTimeout());
+        assertEquals(2000, primary.getHttpReadTimeout());
+        assertFalse(primary.isGZIPEnabled());
+        assertEquals(0, primary.getHttpRetryCount());
+        assertSame(HttpClientFactory.getInstance(primary), HttpClientFactory.getInstance(secondary));
+    }
+
+    @Test
+    public void selectAccountBoundEndpoint() {
+        AccountPool pool = AccountPool.create(this.twoAccounts());
+        for (int i = 0; i < 4; i++) {
+            assertSame(pool.getPrimary(), pool.select(TwitterEndpoint.DIRECT_MESSAGES_LIST));
+        }
+    }
+
+    @Test
+    public void selectRotatesAccountsWithSameBudget() {
+        AccountPool pool = AccountPool.create(this.twoAccounts());
+        Set<TwitterAccount> selected = new HashSet<>();
+        selected.add(pool.select(TwitterEndpoint.SEARCH));
+        selected.add(pool.select(TwitterEndpoint.SEARCH));
+        assertEquals(2, selected.size());
+    }
+
+    @Test
+    public void selectHighestRemainingBudget() throws TwitterException {
+        AccountPool pool = AccountPool.create(this.twoAccounts());
+        TwitterAccount secondary = pool.getAccounts().get(1);
+        pool.getPrimary().getRateLimitScheduler().acquire(TwitterEndpoint.SEARCH);
+        pool.getPrimary().getRateLimitScheduler().acquire(TwitterEndpoint.SEARCH);
+        for (int i = 0; i < 4; i++) {
+            assertSame(secondary, pool.select(TwitterEndpoint.SEARCH));
+        }
+    }
+
+    @Test
+    public void searchIsBalancedAcrossAccounts() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(this.accountKey(0, TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX), "consumer");
+        configuration.addProperty(this.accountKey(0, TwitterUtils.TWITTER_ACCOUNT_CONSUMER_SECRET_SUFFIX),
+                "consumer-secret");
+        configuration.addProperty(this.accountKey(0, TwitterUtils.TWITTER_ACCOUNT_ACCESS_TOKEN_SUFFIX),
+                "2-simulated");
+        configuration.addProperty(this.accountKey(0, TwitterUtils.TWITTER_ACCOUNT_ACCESS_SECRET_TOKEN_SUFFIX),
+                "access-secret");
+        simulated = SimulatedPlatform.start(configuration);
+        List<TwitterAccount> accounts = simulated.getPlatform().getAccountPool().getAccounts();
+        assertEquals(2, accounts.size());
+        for (int i = 0; i < 4; i++) {
+            simulated.getPlatform().searchTweets(new Query("xatkit"), 10).count();
+        }
+        int limit = accounts.get(0).getRateLimitScheduler().getLimit(TwitterEndpoint.SEARCH);
+        assertEquals(limit - 2, accounts.get(0).getRateLimitScheduler().getRemaining(TwitterEndpoint.SEARCH));
+        assertEquals(limit - 2, accounts.get(1).getRateLimitScheduler().getRemaining(TwitterEndpoint.SEARCH));
+    }
+
+    private Configuration twoAccounts() {
+        Configuration configuration = new BaseConfiguration();
+        this.addAccount(configuration, 0, "primary");
+        this.addAccount(configuration, 1, "secondary");
+        return configuration;
+    }
+
+    private void addAccount(Configuration configuration, int index, String name) {
+        if (name != null) {
+            configuration.addProperty(this.accountKey(index, TwitterUtils.TWITTER_ACCOUNT_NAME_SUFFIX), name);
+        }
+        configuration.addProperty(this.accountKey(index, TwitterUtils.TWITTER_ACCOUNT_CONSUMER_KEY_SUFFIX),
+                "consumer" + index);
+        configuration.addProperty(this.accountKey(index, TwitterUtils.TWITTER_ACCOUNT_CONSUMER_SECRET_SUFFIX),
+                "consumer-secret" + index);
+        configuration.addProperty(this.accountKey(index, TwitterUtils.TWITTER_ACCOUNT_ACCESS_TOKEN_SUFFIX),
+                index + "-token");
+        configuration.addProperty(this.accountKey(index, TwitterUtils.TWITTER_ACCOUNT_ACCESS_SECRET_TOKEN_SUFFIX),
+                "access-secret" + index);
+    }
+
+    private String accountKey(int index, String suffix) {
+        return TwitterUtils.TWITTER_ACCOUNTS_PREFIX + index + "." + suffix;
+    }
+}
@@ -0,0 +1,82 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.format.TrendRecord;
+import org.junit.Test;
+import twitter4j.Trend;
+import twitter4j.Trends;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the {@link AggregatedTrends}.
+ */
+public class AggregatedTrendsTest {
+
+    private static final int PARIS = 615702;
+
+    private static final int LONDON = 44418;
+
+    private static final int MADRID = 766273;
+
+    @Test
+    public void mergeEmpty() {
+        AggregatedTrends aggregated = AggregatedTrends.merge(Collections.emptyList(), Collections.emptyList());
+        assertTrue(aggregated.isEmpty());
+        assertTrue(aggregated.isComplete());
+    }
+
+    @Test
+    public void mergeFoldsTrendNames() {
+        AggregatedTrends aggregated = AggregatedTrends.merge(Arrays.asList(
+                trends(PARIS, trend("#Caf\u00e9", 100), trend("#paris", 50)),
+                trends(LONDON, trend("#cafe", 200), trend("#london", -1))),
+                Collections.singletonList(MADRID));
+        List<TrendRecord> records = aggregated.getTrends();
+        assertEquals(3, records.size());
+        TrendRecord first = records.get(0);
+        assertEquals(1, first.getRank());
+        assertEquals("#Caf\u00e9", first.getName());
+        assertEquals(300, first.getTweetVolume());
+        assertEquals(Arrays.asList(PARIS, LONDON), first.getWoeids());
+        assertEquals("#paris", records.get(1).getName());
+        assertEquals("#london", records.get(2).getName());
+        assertEquals(-1, records.get(2).getTweetVolume());
+        assertEquals(Arrays.asList(PARIS, LONDON), aggregated.getWoeids());
+        assertEquals(Collections.singletonList(MADRID), aggregated.getMissingWoeids());
+        assertFalse(aggregated.isComplete());
+    }
+
+    @Test
+    public void mergeRanksTrendsWithoutVolumeByLocationsThenRank() {
+        AggregatedTrends aggregated = AggregatedTrends.merge(Arrays.asList(
+                trends(PARIS, trend("#first", -1), trend("#shared", -1)),
+                trends(LONDON, trend("#other", -1), trend("#shared", -1))),
+                Collections.emptyList());
+        List<TrendRecord> records = aggregated.getTrends();
+        assertEquals("#shared", records.get(0).getName());
+        assertEquals("#first", records.get(1).getName());
+        assertEquals("#other", records.get(2).getName());
+        assertEquals(3, records.get(2).getRank());
+    }
+
+    private static CachedTrends trends(int woeid, Trend... trendArray) {
+        Trends trends = mock(Trends.class);
+        when(trends.getTrends()).thenReturn(trendArray);
+        return new CachedTrends(woeid, trends, Long.MAX_VALUE);
+    }
+
+    private static Trend trend(String name, int tweetVolume) {
+        Trend trend = mock(Trend.class);
+        when(trend.getName()).thenReturn(name);
+        when(trend.getTweetVolume()).thenReturn(tweetVolume);
+        return trend;
+    }
+}
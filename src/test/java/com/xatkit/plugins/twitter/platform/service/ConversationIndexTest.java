@@ -0,0 +1,159 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.format.TweetRecord;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.TwitterException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link ConversationIndex}.
+ */
+public class ConversationIndexTest {
+
+    /**
+     * The ID of the newest mention generated by the simulator.
+     */
+    private static final long LAST_MENTION_ID = 500_000_000_100L;
+
+    private static final UserSummary AUTHOR = new UserSummary(2, "User 2", "user2");
+
+    private SimulatedPlatform simulated;
+
+    private ConversationIndex index;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_MESSAGE_RATE_KEY, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        index = new ConversationIndex(simulated.getPlatform(), 4);
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxSize() {
+        new ConversationIndex(simulated.getPlatform(), 0);
+    }
+
+    @Test
+    public void recordThread() {
+        index.record(tweet(1), ConversationIndex.NO_PARENT);
+        index.record(tweet(2), 1);
+        index.record(tweet(3), 2);
+        assertTrue(index.contains(3));
+        assertEquals(3, index.get(3).getId());
+        assertEquals(2, index.getParentId(3));
+        assertEquals(ConversationIndex.NO_PARENT, index.getParentId(1));
+        assertEquals(1, index.getRootId(3));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.getThread(3)));
+        assertEquals(Arrays.asList(1L, 2L), ids(index.getThread(2)));
+    }
+
+    @Test
+    public void getUnknownTweet() {
+        assertFalse(index.contains(1));
+        assertNull(index.get(1));
+        assertEquals(ConversationIndex.NO_PARENT, index.getParentId(1));
+        assertEquals(1, index.getRootId(1));
+        assertTrue(index.getThread(1).isEmpty());
+    }
+
+    @Test
+    public void getRootIdOfAncestorRecordedLater() {
+        index.record(tweet(3), 2);
+        assertEquals(2, index.getRootId(3));
+        index.record(tweet(2), 1);
+        index.record(tweet(1), ConversationIndex.NO_PARENT);
+        assertEquals(1, index.getRootId(3));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.getThread(3)));
+    }
+
+    @Test
+    public void recordEvictsOldestTweets() {
+        for (long id = 1; id <= 4; id++) {
+            index.record(tweet(id), id == 1 ? ConversationIndex.NO_PARENT : id - 1);
+        }
+        /*
+         * Recording a tweet again does not change its position in the eviction order.
+         */
+        index.record(tweet(1), ConversationIndex.NO_PARENT);
+        index.record(tweet(5), 4);
+        assertEquals(4, index.size());
+        assertFalse(index.contains(1));
+        assertEquals(Arrays.asList(2L, 3L, 4L, 5L), ids(index.getThread(5)));
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.contains(5));
+    }
+
+    @Test
+    public void resolveRecordedThread() throws TwitterException {
+        index.record(tweet(1), ConversationIndex.NO_PARENT);
+        index.record(tweet(2), 1);
+        assertEquals(Arrays.asList(1L, 2L), ids(index.resolveThread(2, 10)));
+        assertEquals(2, index.getHitCount());
+        assertEquals(0, index.getMissCount());
+        assertEquals(0, simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_SHOW));
+    }
+
+    @Test
+    public void resolveThreadRetrievesMissingTweets() throws TwitterException {
+        index = new ConversationIndex(simulated.getPlatform(), 100);
+        List<TweetRecord> thread = index.resolveThread(LAST_MENTION_ID, 100);
+        assertFalse(thread.isEmpty());
+        assertEquals(LAST_MENTION_ID, thread.get(thread.size() - 1).getId());
+        assertEquals(ConversationIndex.NO_PARENT, index.getParentId(thread.get(0).getId()));
+        for (int i = 1; i < thread.size(); i++) {
+            assertEquals(thread.get(i - 1).getId(), index.getParentId(thread.get(i).getId()));
+        }
+        assertEquals(thread.size(), index.getMissCount());
+        assertEquals(thread.size(), simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_SHOW));
+        /*
+         * The retrieved tweets are recorded: the second resolution is answered locally.
+         */
+        assertEquals(ids(thread), ids(index.resolveThread(LAST_MENTION_ID, 100)));
+        assertEquals(thread.size(), index.getHitCount());
+        assertEquals(thread.size(), simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_SHOW));
+        assertEquals(ids(thread), ids(index.getThread(LAST_MENTION_ID)));
+    }
+
+    @Test
+    public void resolveThreadStopsAtMaxLookups() throws TwitterException {
+        index.record(tweet(LAST_MENTION_ID + 1), LAST_MENTION_ID);
+        assertEquals(Collections.singletonList(LAST_MENTION_ID + 1), ids(index.resolveThread(LAST_MENTION_ID + 1, 0)));
+        assertEquals(0, simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_SHOW));
+    }
+
+    @Test
+    public void resolveThreadOfDeletedTweet() throws TwitterException {
+        assertTrue(index.resolveThread(42, 10).isEmpty());
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.STATUSES_SHOW));
+    }
+
+    private static TweetRecord tweet(long id) {
+        return new TweetRecord(id, AUTHOR, "tweet " + id, id * 1000);
+    }
+
+    private static List<Long> ids(List<TweetRecord> tweets) {
+        return tweets.stream().map(TweetRecord::getId).collect(Collectors.toList());
+    }
+}
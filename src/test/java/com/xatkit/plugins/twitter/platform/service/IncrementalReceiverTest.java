@@ -0,0 +1,124 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.DirectMessage;
+import twitter4j.Status;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link IncrementalReceiver}.
+ */
+public class IncrementalReceiverTest {
+
+    /**
+     * The number of direct messages and mentions of the simulated account.
+     */
+    private static final int MESSAGES = 100;
+
+    private SimulatedPlatform simulated;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not generate new messages during the tests.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_MESSAGE_RATE_KEY, 0);
+        simulated = SimulatedPlatform.start(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test
+    public void firstPollReturnsFirstPage() throws TwitterException {
+        IncrementalReceiver receiver = new IncrementalReceiver(simulated.getPlatform(), 2);
+        assertEquals(10, receiver.receiveNewDirectMessages(10).size());
+        assertEquals(10, receiver.receiveNewMentions(10).size());
+        assertEquals(0, receiver.receiveNewDirectMessages(10).size());
+        assertEquals(0, receiver.receiveNewMentions(10).size());
+    }
+
+    @Test
+    public void pollDirectMessagesDrainsBacklog() throws TwitterException {
+        IncrementalReceiver receiver = this.receiverWithBacklog(true);
+        List<Long> ids = new ArrayList<>();
+        List<DirectMessage> messages;
+        do {
+            messages = receiver.receiveNewDirectMessages(10);
+            assertTrue(messages.size() <= 20);
+            messages.forEach(message -> ids.add(message.getId()));
+        } while (!messages.isEmpty());
+        this.assertDrained(ids, receiver);
+    }
+
+    @Test
+    public void pollMentionsDrainsBacklog() throws TwitterException {
+        IncrementalReceiver receiver = this.receiverWithBacklog(false);
+        List<Long> ids = new ArrayList<>();
+        List<Status> mentions;
+        do {
+            mentions = receiver.receiveNewMentions(10);
+            assertTrue(mentions.size() <= 20);
+            mentions.forEach(mention -> ids.add(mention.getId()));
+        } while (!mentions.isEmpty());
+        this.assertDrained(ids, receiver);
+    }
+
+    /**
+     * Creates an {@link IncrementalReceiver} fetching 2 pages per poll, with a high-water mark 10 items above the
+     * oldest direct message or mention.
+     *
+     * @param directMessages whether to set the mark of the direct messages or the mark of the mentions
+     * @return the created {@link IncrementalReceiver}
+     * @throws TwitterException if an error occurred when retrieving the key of the mark
+     */
+    private IncrementalReceiver receiverWithBacklog(boolean directMessages) throws TwitterException {
+        IncrementalReceiver initialized = new IncrementalReceiver(simulated.getPlatform(), 2);
+        List<Long> firstPage = new ArrayList<>();
+        if (directMessages) {
+            initialized.receiveNewDirectMessages(10).forEach(message -> firstPage.add(message.getId()));
+        } else {
+            initialized.receiveNewMentions(10).forEach(mention -> firstPage.add(mention.getId()));
+        }
+        Map.Entry<String, Long> mark = initialized.getHighWaterMarks().entrySet().iterator().next();
+        assertEquals(Collections.max(firstPage), mark.getValue());
+        IncrementalReceiver receiver = new IncrementalReceiver(simulated.getPlatform(), 2);
+        receiver.restoreHighWaterMarks(Collections.singletonMap(mark.getKey(), mark.getValue() - MESSAGES + 10));
+        return receiver;
+    }
+
+    /**
+     * Asserts that the provided {@code ids} contain the backlog of the provided {@code receiver}, and that its mark
+     * has been moved to the newest item.
+     *
+     * @param ids      the IDs returned by the polls
+     * @param receiver the {@link IncrementalReceiver} that returned the {@code ids}
+     */
+    private void assertDrained(List<Long> ids, IncrementalReceiver receiver) {
+        Set<Long> distinct = new HashSet<>(ids);
+        assertEquals(ids.size(), distinct.size());
+        assertEquals(MESSAGES - 10, distinct.size());
+        long newest = Collections.max(ids);
+        assertEquals(newest - MESSAGES + 11, (long) Collections.min(ids));
+        assertEquals(Collections.singleton(newest), new HashSet<>(receiver.getHighWaterMarks().values()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link KeywordMatcher}.
+ */
+public class KeywordMatcherTest {
+
+    @Test
+    public void matchIsCaseAndAccentInsensitive() {
+        KeywordMatcher matcher = matcher(false, "greeting", "caf\u00e9", "Hello World");
+        assertEquals(Collections.singletonList("greeting"), matcher.match("CAFE is open"));
+        assertEquals(Collections.singletonList("greeting"), matcher.match("hello   world!"));
+        assertEquals(Collections.singletonList("greeting"), matcher.match("hello\n\tWORLD"));
+    }
+
+    @Test
+    public void matchReturnsIdsInDeclarationOrder() {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        keywords.put("help", Arrays.asList("help", "support"));
+        keywords.put("bot", Collections.singletonList("bot"));
+        keywords.put("unused", Collections.singletonList("nothing"));
+        KeywordMatcher matcher = new KeywordMatcher(keywords, false);
+        assertEquals(Arrays.asList("help", "bot"), matcher.match("bot, I need support"));
+        assertEquals(Arrays.asList("help", "bot", "unused"), matcher.getIds());
+        assertEquals(4, matcher.getKeywordCount());
+    }
+
+    @Test
+    public void matchOverlappingKeywords() {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        keywords.put("she", Collections.singletonList("she"));
+        keywords.put("he", Collections.singletonList("he"));
+        keywords.put("hers", Collections.singletonList("hers"));
+        KeywordMatcher matcher = new KeywordMatcher(keywords, false);
+        assertEquals(Arrays.asList("she", "he", "hers"), matcher.match("ushers"));
+    }
+
+    @Test
+    public void matchWholeWords() {
+        KeywordMatcher matcher = matcher(true, "bot", "bot");
+        assertEquals(Collections.singletonList("bot"), matcher.match("Bot!"));
+        assertEquals(Collections.singletonList("bot"), matcher.match("#bot"));
+        assertTrue(matcher.match("robot").isEmpty());
+        assertTrue(matcher.match("bots").isEmpty());
+    }
+
+    @Test
+    public void matchWholeWordsHashtag() {
+        KeywordMatcher matcher = matcher(true, "tag", "#bot");
+        assertEquals(Collections.singletonList("tag"), matcher.match("hello #bot"));
+        assertTrue(matcher.match("hello bot").isEmpty());
+    }
+
+    @Test
+    public void matchWithoutWholeWords() {
+        KeywordMatcher matcher = matcher(false, "bot", "bot");
+        assertEquals(Collections.singletonList("bot"), matcher.match("robot"));
+    }
+
+    @Test
+    public void matchEmptyText() {
+        KeywordMatcher matcher = matcher(false, "bot", "bot");
+        assertTrue(matcher.match(null).isEmpty());
+        assertTrue(matcher.match("").isEmpty());
+    }
+
+    @Test
+    public void constructBlankKeywords() {
+        KeywordMatcher matcher = matcher(false, "blank", "  ", "");
+        assertTrue(matcher.isEmpty());
+        assertTrue(matcher.match("anything").isEmpty());
+    }
+
+    @Test
+    public void createFromConfiguration() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_MATCHER_KEYWORDS_PREFIX + "support", Arrays.asList("help",
+                "#support"));
+        configuration.addProperty(TwitterUtils.TWITTER_MATCHER_KEYWORDS_PREFIX + "bot", "bot");
+        configuration.addProperty(TwitterUtils.TWITTER_MATCHER_WHOLE_WORDS_KEY, false);
+        KeywordMatcher matcher = KeywordMatcher.create(configuration);
+        assertEquals(3, matcher.getKeywordCount());
+        assertEquals(Arrays.asList("support", "bot"), matcher.match("robot #support"));
+    }
+
+    @Test
+    public void createWithoutKeywords() {
+        assertTrue(KeywordMatcher.create(new BaseConfiguration()).isEmpty());
+    }
+
+    private static KeywordMatcher matcher(boolean wholeWords, String id, String... keywords) {
+        return new KeywordMatcher(Collections.singletonMap(id, Arrays.asList(keywords)), wholeWords);
+    }
+}
@@ -0,0 +1,101 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link LocationIndex}.
+ */
+public class LocationIndexTest {
+
+    private SimulatedPlatform simulated;
+
+    private LocationIndex index;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_LOCATION_ALIASES_KEY, "NYC=New York");
+        simulated = SimulatedPlatform.start(configuration);
+        index = simulated.getPlatform().getLocationIndex();
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test
+    public void findWoeidExactName() {
+        assertEquals(615702, index.findWoeid("Paris"));
+        assertEquals(23424977, index.findWoeid("United States"));
+    }
+
+    @Test
+    public void findWoeidIgnoresCaseAndAccents() {
+        assertEquals(615702, index.findWoeid("PARIS"));
+        assertEquals(615702, index.findWoeid("P\u00e2ris"));
+    }
+
+    @Test
+    public void findWoeidCountryCode() {
+        assertEquals(23424819, index.findWoeid("fr"));
+    }
+
+    @Test
+    public void findWoeidPrefix() {
+        assertEquals(753692, index.findWoeid("Barc"));
+    }
+
+    @Test
+    public void findWoeidAlias() {
+        assertEquals(2459115, index.findWoeid("nyc"));
+        index.addAlias("Big Smoke", "London");
+        assertEquals(44418, index.findWoeid("big smoke"));
+    }
+
+    @Test
+    public void findWoeidUnknownLocation() {
+        assertEquals(LocationIndex.UNKNOWN_WOEID, index.findWoeid("Atlantis"));
+    }
+
+    @Test
+    public void findWoeidLoadsLocationsOnce() {
+        index.findWoeid("Paris");
+        index.findWoeid("London");
+        index.findWoeid("Atlantis");
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_AVAILABLE));
+    }
+
+    @Test
+    public void findWoeidRestoredLocations() {
+        LocationIndex restored = new LocationIndex(simulated.getPlatform(), Runnable::run, 1, TimeUnit.HOURS);
+        restored.restore(Collections.singletonMap("atlantis", 42), System.currentTimeMillis());
+        assertEquals(42, restored.findWoeid("Atlantis"));
+        assertEquals(0, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_AVAILABLE));
+    }
+
+    @Test
+    public void findWoeidRefreshesExpiredLocations() {
+        LocationIndex restored = new LocationIndex(simulated.getPlatform(), Runnable::run, 1, TimeUnit.HOURS);
+        restored.restore(Collections.singletonMap("atlantis", 42),
+                System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        /*
+         * The expired locations are returned while the index is refreshed.
+         */
+        assertEquals(42, restored.findWoeid("Atlantis"));
+        assertEquals(LocationIndex.UNKNOWN_WOEID, restored.findWoeid("Atlantis"));
+        assertEquals(615702, restored.findWoeid("Paris"));
+        assertEquals(1, simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_AVAILABLE));
+    }
+}
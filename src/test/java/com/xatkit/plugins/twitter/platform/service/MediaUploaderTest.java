@@ -0,0 +1,174 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link MediaUploader}.
+ */
+public class MediaUploaderTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final int MEDIA_SIZE = 3000;
+
+    private SimulatedPlatform simulated;
+
+    private MediaUploader uploader;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_MEDIA_CHUNK_SIZE_KEY, CHUNK_SIZE);
+        configuration.addProperty(TwitterUtils.TWITTER_MEDIA_PARALLELISM_KEY, 1);
+        configuration.addProperty(TwitterUtils.TWITTER_MEDIA_MAX_ATTEMPTS_KEY, 1);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+        uploader = simulated.getPlatform().getMediaUploader();
+        directory = Files.createTempDirectory("media-uploader-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        simulated.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidChunkSize() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_MEDIA_CHUNK_SIZE_KEY, 0);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            new MediaUploader(simulated.getPlatform(), configuration, scheduler);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void uploadUnsupportedFile() throws IOException {
+        uploader.upload(this.createFile("notes.txt", MEDIA_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void uploadEmptyMedia() {
+        uploader.upload(new ByteArrayInputStream(new byte[0]), 0, "image/png");
+    }
+
+    @Test
+    public void uploadImageFile() throws Exception {
+        MediaUpload upload = uploader.upload(this.createFile("image.png", MEDIA_SIZE)).get(5, TimeUnit.SECONDS);
+        assertEquals(MediaUpload.State.SUCCEEDED, upload.getState());
+        assertTrue(upload.getMediaId() > 0);
+        assertEquals("image/png", upload.getMediaType());
+        assertEquals("tweet_image", upload.getMediaCategory());
+        assertEquals(3, upload.getSegmentCount());
+        assertEquals(3, upload.getAcknowledgedSegmentCount());
+        assertEquals(100, upload.getProgress());
+        /*
+         * INIT, 3 APPEND, and FINALIZE.
+         */
+        assertEquals(5, simulated.getSimulator().getRequestCount(TwitterEndpoint.MEDIA_UPLOAD));
+    }
+
+    @Test
+    public void uploadVideoStream() throws Exception {
+        MediaUpload upload = uploader.upload(new ByteArrayInputStream(new byte[MEDIA_SIZE]), MEDIA_SIZE,
+                "video/mp4").get(10, TimeUnit.SECONDS);
+        assertEquals(MediaUpload.State.SUCCEEDED, upload.getState());
+        assertEquals("tweet_video", upload.getMediaCategory());
+        /*
+         * INIT, 3 APPEND, FINALIZE, and at least one STATUS.
+         */
+        assertTrue(simulated.getSimulator().getRequestCount(TwitterEndpoint.MEDIA_UPLOAD) >= 6);
+    }
+
+    @Test
+    public void resumeFailedUpload() throws Exception {
+        MediaUpload upload = null;
+        try {
+            uploader.upload(new FailingInputStream(CHUNK_SIZE), MEDIA_SIZE, "image/png").get(5, TimeUnit.SECONDS);
+            fail("The upload should fail when the media cannot be read");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MediaUploadException);
+            upload = ((MediaUploadException) e.getCause()).getUpload();
+        }
+        assertEquals(MediaUpload.State.UPLOADING, upload.getState());
+        assertEquals(1, upload.getAcknowledgedSegmentCount());
+        assertEquals(1, upload.getFirstPendingSegment());
+        long mediaId = upload.getMediaId();
+        MediaUpload resumed = uploader.resume(upload, new ByteArrayInputStream(new byte[MEDIA_SIZE]))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(MediaUpload.State.SUCCEEDED, resumed.getState());
+        assertEquals(mediaId, resumed.getMediaId());
+        /*
+         * INIT and the first APPEND, then the 2 remaining APPEND and FINALIZE.
+         */
+        assertEquals(5, simulated.getSimulator().getRequestCount(TwitterEndpoint.MEDIA_UPLOAD));
+    }
+
+    @Test
+    public void uploadFailsWhenEndpointIsUnavailable() throws Exception {
+        simulated.getSimulator().getBehavior(TwitterEndpoint.MEDIA_UPLOAD).setErrorRate(1, 503);
+        try {
+            uploader.upload(new ByteArrayInputStream(new byte[MEDIA_SIZE]), MEDIA_SIZE, "image/png")
+                    .get(5, TimeUnit.SECONDS);
+            fail("The upload should fail when the media endpoint is unavailable");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MediaUploadException);
+            assertEquals(0, ((MediaUploadException) e.getCause()).getUpload().getAcknowledgedSegmentCount());
+        }
+    }
+
+    private Path createFile(String name, int size) throws IOException {
+        return Files.write(directory.resolve(name), new byte[size]);
+    }
+
+    /**
+     * An {@link InputStream} of zeros that fails once a given number of bytes has been read.
+     */
+    private static class FailingInputStream extends InputStream {
+
+        private int remaining;
+
+        private FailingInputStream(int readableBytes) {
+            this.remaining = readableBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Simulated read failure");
+            }
+            remaining--;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import com.xatkit.plugins.twitter.platform.TwitterPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+import twitter4j.Query;
+import twitter4j.RateLimitStatus;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link RateLimitScheduler}.
+ */
+public class RateLimitSchedulerTest {
+
+    @Test
+    public void constructDefaultBudget() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(new BaseConfiguration());
+        assertEquals(TwitterEndpoint.SEARCH.getDefaultLimit(), scheduler.getLimit(TwitterEndpoint.SEARCH));
+        assertEquals(TwitterEndpoint.SEARCH.getDefaultLimit(), scheduler.getRemaining(TwitterEndpoint.SEARCH));
+        assertEquals(RateLimitPolicy.QUEUE, scheduler.getPolicy(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void constructEndpointPolicyOverridesGlobalPolicy() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RATE_LIMIT_PREFIX
+                + TwitterUtils.TWITTER_RATE_LIMIT_POLICY_SUFFIX, "delay");
+        configuration.addProperty(TwitterUtils.TWITTER_RATE_LIMIT_PREFIX
+                + TwitterEndpoint.SEARCH.getConfigurationName() + "." + TwitterUtils.TWITTER_RATE_LIMIT_POLICY_SUFFIX,
+                "reject");
+        RateLimitScheduler scheduler = new RateLimitScheduler(configuration);
+        assertEquals(RateLimitPolicy.REJECT, scheduler.getPolicy(TwitterEndpoint.SEARCH));
+        assertEquals(RateLimitPolicy.DELAY, scheduler.getPolicy(TwitterEndpoint.USERS_SHOW));
+    }
+
+    @Test
+    public void acquireConsumesBudget() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(new BaseConfiguration());
+        scheduler.acquire(TwitterEndpoint.SEARCH);
+        scheduler.acquire(TwitterEndpoint.SEARCH);
+        assertEquals(TwitterEndpoint.SEARCH.getDefaultLimit() - 2, scheduler.getRemaining(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void acquireExhaustedBudgetWithRejectPolicy() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(policy(RateLimitPolicy.REJECT));
+        scheduler.seed(Collections.singletonMap(TwitterEndpoint.SEARCH.getResource(), status(10, 1, 600)));
+        scheduler.acquire(TwitterEndpoint.SEARCH);
+        try {
+            scheduler.acquire(TwitterEndpoint.SEARCH);
+            fail("The call should have been rejected");
+        } catch (RateLimitExceededException e) {
+            assertEquals(TwitterEndpoint.SEARCH, e.getEndpoint());
+            assertTrue(e.getSecondsUntilReset() > 0);
+        }
+    }
+
+    @Test
+    public void acquireExhaustedBudgetWithQueuePolicyAndShortMaxWait() throws Exception {
+        Configuration configuration = policy(RateLimitPolicy.QUEUE);
+        configuration.addProperty(TwitterUtils.TWITTER_RATE_LIMIT_PREFIX
+                + TwitterUtils.TWITTER_RATE_LIMIT_MAX_WAIT_SUFFIX, 10);
+        RateLimitScheduler scheduler = new RateLimitScheduler(configuration);
+        scheduler.seed(Collections.singletonMap(TwitterEndpoint.SEARCH.getResource(), status(10, 0, 600)));
+        try {
+            scheduler.acquire(TwitterEndpoint.SEARCH);
+            fail("The call should have been rejected");
+        } catch (RateLimitExceededException e) {
+            assertEquals(TwitterEndpoint.SEARCH, e.getEndpoint());
+        }
+    }
+
+    @Test
+    public void acquireWaitsForReset() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(policy(RateLimitPolicy.QUEUE));
+        scheduler.seed(Collections.singletonMap(TwitterEndpoint.SEARCH.getResource(), status(10, 0, 1)));
+        scheduler.acquire(TwitterEndpoint.SEARCH);
+        assertEquals(9, scheduler.getRemaining(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void seedIgnoresUnknownResources() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(new BaseConfiguration());
+        scheduler.seed(Collections.singletonMap("/unknown/resource", status(1, 0, 600)));
+        assertEquals(TwitterEndpoint.SEARCH.getDefaultLimit(), scheduler.getRemaining(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void onResponseNeverIncreasesRemainingBudgetOfCurrentWindow() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(new BaseConfiguration());
+        RateLimitStatus status = status(10, 5, 600);
+        scheduler.seed(Collections.singletonMap(TwitterEndpoint.SEARCH.getResource(), status));
+        scheduler.acquire(TwitterEndpoint.SEARCH);
+        scheduler.seed(Collections.singletonMap(TwitterEndpoint.SEARCH.getResource(), status));
+        assertEquals(4, scheduler.getRemaining(TwitterEndpoint.SEARCH));
+        assertEquals(10, scheduler.getLimit(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void platformRejectsCallsOnceSeededBudgetIsExhausted() throws Exception {
+        Configuration configuration = policy(RateLimitPolicy.REJECT);
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_PREFIX
+                + TwitterEndpoint.SEARCH.getConfigurationName() + ".rateLimit", 2);
+        try (SimulatedPlatform simulated = SimulatedPlatform.start(configuration)) {
+            TwitterPlatform platform = simulated.getPlatform();
+            assertEquals(2, platform.getRateLimitScheduler().getLimit(TwitterEndpoint.SEARCH));
+            platform.execute(TwitterEndpoint.SEARCH, twitter -> twitter.search(new Query("xatkit")));
+            platform.execute(TwitterEndpoint.SEARCH, twitter -> twitter.search(new Query("xatkit")));
+            try {
+                platform.execute(TwitterEndpoint.SEARCH, twitter -> twitter.search(new Query("xatkit")));
+                fail("The call should have been rejected");
+            } catch (RateLimitExceededException e) {
+                assertEquals(TwitterEndpoint.SEARCH, e.getEndpoint());
+            }
+            assertEquals(2, simulated.getSimulator().getRequestCount(TwitterEndpoint.SEARCH));
+        }
+    }
+
+    private static Configuration policy(RateLimitPolicy policy) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RATE_LIMIT_PREFIX
+                + TwitterUtils.TWITTER_RATE_LIMIT_POLICY_SUFFIX, policy.name());
+        return configuration;
+    }
+
+    private static RateLimitStatus status(int limit, int remaining, int secondsUntilReset) {
+        int resetTime = (int) (System.currentTimeMillis() / 1000) + secondsUntilReset;
+        return new RateLimitStatus() {
+            @Override
+            public int getRemaining() {
+                return remaining;
+            }
+
+            @Override
+            public int getLimit() {
+                return limit;
+            }
+
+            @Override
+            public int getResetTimeInSeconds() {
+                return resetTime;
+            }
+
+            @Override
+            public int getSecondsUntilReset() {
+                return secondsUntilReset;
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+import twitter4j.TwitterException;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link ResiliencePolicy}.
+ */
+public class ResiliencePolicyTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeMaxRetries() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, -1);
+        new ResiliencePolicy(configuration);
+    }
+
+    @Test
+    public void isTransient() {
+        assertTrue(ResiliencePolicy.isTransient(error(500)));
+        assertTrue(ResiliencePolicy.isTransient(new TwitterException("timeout", new IOException("timeout"))));
+        assertFalse(ResiliencePolicy.isTransient(error(404)));
+        assertFalse(ResiliencePolicy.isTransient(new RateLimitExceededException(TwitterEndpoint.SEARCH, 10)));
+        assertFalse(ResiliencePolicy.isTransient(new CircuitOpenException(TwitterEndpoint.SEARCH, 10)));
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveTransientFailures() throws CircuitOpenException {
+        ResiliencePolicy policy = new ResiliencePolicy(breaker(2, 60000));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        assertEquals(CircuitState.CLOSED, policy.getState(TwitterEndpoint.SEARCH));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(503));
+        assertEquals(CircuitState.OPEN, policy.getState(TwitterEndpoint.SEARCH));
+        try {
+            policy.beforeCall(TwitterEndpoint.SEARCH);
+            fail("The circuit breaker should reject the call");
+        } catch (CircuitOpenException e) {
+            assertEquals(CircuitState.OPEN, policy.getState(TwitterEndpoint.SEARCH));
+        }
+        /*
+         * The circuit breakers are defined per endpoint.
+         */
+        assertEquals(CircuitState.CLOSED, policy.getState(TwitterEndpoint.USERS_SHOW));
+        policy.beforeCall(TwitterEndpoint.USERS_SHOW);
+    }
+
+    @Test
+    public void clientErrorsResetConsecutiveFailures() throws CircuitOpenException {
+        ResiliencePolicy policy = new ResiliencePolicy(breaker(2, 60000));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(404));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        assertEquals(CircuitState.CLOSED, policy.getState(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void zeroThresholdDisablesCircuit() throws CircuitOpenException {
+        ResiliencePolicy policy = new ResiliencePolicy(breaker(0, 60000));
+        for (int i = 0; i < 10; i++) {
+            this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        }
+        assertEquals(CircuitState.CLOSED, policy.getState(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void halfOpenCircuitLetsSingleProbeThrough() throws CircuitOpenException {
+        ResiliencePolicy policy = new ResiliencePolicy(breaker(1, 0));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        assertEquals(CircuitState.HALF_OPEN, policy.getState(TwitterEndpoint.SEARCH));
+        policy.beforeCall(TwitterEndpoint.SEARCH);
+        try {
+            policy.beforeCall(TwitterEndpoint.SEARCH);
+            fail("The circuit breaker should reject the calls while the probe is in progress");
+        } catch (CircuitOpenException e) {
+            assertEquals(CircuitState.HALF_OPEN, policy.getState(TwitterEndpoint.SEARCH));
+        }
+        policy.onSuccess(TwitterEndpoint.SEARCH);
+        assertEquals(CircuitState.CLOSED, policy.getState(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void releasedProbeLetsAnotherProbeThrough() throws CircuitOpenException {
+        ResiliencePolicy policy = new ResiliencePolicy(breaker(1, 0));
+        this.recordFailure(policy, TwitterEndpoint.SEARCH, error(500));
+        policy.beforeCall(TwitterEndpoint.SEARCH);
+        policy.release(TwitterEndpoint.SEARCH);
+        policy.beforeCall(TwitterEndpoint.SEARCH);
+    }
+
+    @Test
+    public void getRetryDelayTransientError() {
+        ResiliencePolicy policy = new ResiliencePolicy(retries(2, 100, 1000));
+        long first = policy.getRetryDelay(TwitterEndpoint.SEARCH, error(500), 1);
+        assertTrue(first >= 50 && first <= 100);
+        long second = policy.getRetryDelay(TwitterEndpoint.SEARCH, error(500), 2);
+        assertTrue(second >= 100 && second <= 200);
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.SEARCH, error(500), 3));
+    }
+
+    @Test
+    public void getRetryDelayIsCappedByMaxDelay() {
+        ResiliencePolicy policy = new ResiliencePolicy(retries(20, 100, 300));
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            assertTrue(policy.getRetryDelay(TwitterEndpoint.SEARCH, error(503), attempt) <= 300);
+        }
+    }
+
+    @Test
+    public void getRetryDelayNotRetried() {
+        ResiliencePolicy policy = new ResiliencePolicy(retries(2, 100, 1000));
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.STATUSES_UPDATE, error(500), 1));
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.SEARCH, error(403), 1));
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.SEARCH,
+                new RateLimitExceededException(TwitterEndpoint.SEARCH, 10), 1));
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.SEARCH,
+                new CircuitOpenException(TwitterEndpoint.SEARCH, 10), 1));
+    }
+
+    @Test
+    public void getRetryDelayRateLimitExceeded() {
+        ResiliencePolicy policy = new ResiliencePolicy(retries(2, 100, 1000));
+        /*
+         * Account-neutral calls are retried immediately with another account.
+         */
+        assertEquals(0, policy.getRetryDelay(TwitterEndpoint.SEARCH, error(429), 1));
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.DIRECT_MESSAGES_LIST, error(429), 1));
+    }
+
+    @Test
+    public void getRetryDelayEndpointSettingsOverrideGlobalSettings() {
+        Configuration configuration = retries(2, 100, 1000);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterEndpoint.SEARCH.getConfigurationName() + "."
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        ResiliencePolicy policy = new ResiliencePolicy(configuration);
+        assertEquals(-1, policy.getRetryDelay(TwitterEndpoint.SEARCH, error(500), 1));
+        assertTrue(policy.getRetryDelay(TwitterEndpoint.USERS_SHOW, error(500), 1) >= 0);
+    }
+
+    private void recordFailure(ResiliencePolicy policy, TwitterEndpoint endpoint, TwitterException error)
+            throws CircuitOpenException {
+        policy.beforeCall(endpoint);
+        policy.onFailure(endpoint, error);
+    }
+
+    private static TwitterException error(int statusCode) {
+        return new TwitterException("error " + statusCode, null, statusCode);
+    }
+
+    private static Configuration breaker(int failureThreshold, long openDuration) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_FAILURE_THRESHOLD_SUFFIX, failureThreshold);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_OPEN_DURATION_SUFFIX, openDuration);
+        return configuration;
+    }
+
+    private static Configuration retries(int maxRetries, long baseDelay, long maxDelay) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, maxRetries);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_BASE_DELAY_SUFFIX, baseDelay);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_DELAY_SUFFIX, maxDelay);
+        return configuration;
+    }
+}
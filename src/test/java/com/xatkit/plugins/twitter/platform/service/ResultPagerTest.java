@@ -0,0 +1,288 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.plugins.twitter.TwitterUtils;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link ResultPager}.
+ */
+public class ResultPagerTest {
+
+    private ExecutorService executor;
+
+    private ScheduledExecutorService scheduler;
+
+    private AtomicLong time;
+
+    private ResultPager pager;
+
+    private StateContext context;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        time = new AtomicLong();
+        context = createContext("context");
+    }
+
+    @After
+    public void tearDown() {
+        if (pager != null) {
+            pager.close();
+        }
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroMaxPageSize() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_PAGING_MAX_PAGE_SIZE_KEY, 0);
+        new ResultPager(configuration, executor, scheduler);
+    }
+
+    @Test
+    public void nextPageWithoutCursor() throws TwitterException {
+        pager = createPager(false);
+        assertNull(pager.nextPage(context));
+    }
+
+    @Test
+    public void nextPageReturnsPagesUntilExhausted() throws TwitterException {
+        pager = createPager(false);
+        ListSource source = new ListSource(1, 2, 3, 4, 5);
+        pager.open(context, 2, source, page -> page);
+        assertEquals(Arrays.asList(1, 2), pager.nextPage(context));
+        assertEquals(Arrays.asList(3, 4), pager.nextPage(context));
+        assertEquals(Collections.singletonList(5), pager.nextPage(context));
+        assertTrue(pager.hasCursor(context));
+        assertNull(pager.nextPage(context));
+        assertFalse(pager.hasCursor(context));
+    }
+
+    @Test
+    public void openDoesNotFetchPages() throws Exception {
+        pager = createPager(true);
+        ListSource source = new ListSource(1, 2, 3);
+        pager.open(context, 1, source, page -> page);
+        executor.submit(() -> null).get(1, TimeUnit.SECONDS);
+        assertEquals(0, source.fetchCount);
+    }
+
+    @Test
+    public void nextPagePrefetchesFollowingPage() throws Exception {
+        pager = createPager(true);
+        ListSource source = new ListSource(1, 2, 3);
+        pager.open(context, 1, source, page -> page);
+        assertEquals(Collections.singletonList(1), pager.nextPage(context));
+        executor.submit(() -> null).get(1, TimeUnit.SECONDS);
+        assertEquals(2, source.fetchCount);
+        assertEquals(Collections.singletonList(2), pager.nextPage(context));
+        assertEquals(1, pager.getHitCount());
+        assertEquals(1, pager.getMissCount());
+    }
+
+    @Test
+    public void nextPageWithoutPrefetch() throws Exception {
+        pager = createPager(false);
+        ListSource source = new ListSource(1, 2, 3);
+        pager.open(context, 1, source, page -> page);
+        pager.nextPage(context);
+        executor.submit(() -> null).get(1, TimeUnit.SECONDS);
+        assertEquals(1, source.fetchCount);
+    }
+
+    @Test
+    public void nextPageEmptyPageOfNonExhaustedSourceKeepsCursor() throws TwitterException {
+        pager = createPager(false);
+        List<List<Integer>> pages = new ArrayList<>(Arrays.asList(Collections.emptyList(),
+                Collections.singletonList(1)));
+        pager.open(context, 1, new ResultPager.PageSource<Integer>() {
+            @Override
+            public List<Integer> fetch(int count) {
+                return pages.isEmpty() ? Collections.emptyList() : pages.remove(0);
+            }
+
+            @Override
+            public boolean isExhausted() {
+                return pages.isEmpty();
+            }
+        }, page -> page);
+        assertNull(pager.nextPage(context));
+        assertTrue(pager.hasCursor(context));
+        assertEquals(Collections.singletonList(1), pager.nextPage(context));
+        assertNull(pager.nextPage(context));
+        assertFalse(pager.hasCursor(context));
+    }
+
+    @Test
+    public void nextPageFailedFetchKeepsCursor() throws TwitterException {
+        pager = createPager(false);
+        ListSource source = new ListSource(1, 2);
+        source.failingFetch = 1;
+        pager.open(context, 1, source, page -> page);
+        try {
+            pager.nextPage(context);
+            fail("The fetch error should have been thrown");
+        } catch (TwitterException e) {
+            assertSame(source.error, e);
+        }
+        assertTrue(pager.hasCursor(context));
+        assertEquals(Collections.singletonList(1), pager.nextPage(context));
+    }
+
+    @Test
+    public void nextPageFailedPrefetchIsThrown() throws Exception {
+        pager = createPager(true);
+        ListSource source = new ListSource(1, 2);
+        source.failingFetch = 2;
+        pager.open(context, 1, source, page -> page);
+        pager.nextPage(context);
+        try {
+            pager.nextPage(context);
+            fail("The fetch error should have been thrown");
+        } catch (TwitterException e) {
+            assertSame(source.error, e);
+        }
+        assertEquals(Collections.singletonList(2), pager.nextPage(context));
+    }
+
+    @Test
+    public void openPageSizeIsBoundedByMaxPageSize() throws TwitterException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_PAGING_MAX_PAGE_SIZE_KEY, 2);
+        pager = new ResultPager(configuration, executor, scheduler, time::get);
+        pager.open(context, 10, new ListSource(1, 2, 3), page -> page);
+        assertEquals(Arrays.asList(1, 2), pager.nextPage(context));
+    }
+
+    @Test
+    public void openReplacesPreviousCursor() throws TwitterException {
+        pager = createPager(false);
+        pager.open(context, 1, new ListSource(1), page -> page);
+        pager.open(context, 1, new ListSource(2), page -> page);
+        assertEquals(1, pager.size());
+        assertEquals(Collections.singletonList(2), pager.nextPage(context));
+    }
+
+    @Test
+    public void openEvictsLeastRecentlyUsedCursor() throws TwitterException {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_PAGING_MAX_CONTEXTS_KEY, 2);
+        pager = new ResultPager(configuration, executor, scheduler, time::get);
+        StateContext second = createContext("second");
+        StateContext third = createContext("third");
+        pager.open(context, 1, new ListSource(1, 2), page -> page);
+        pager.open(second, 1, new ListSource(1, 2), page -> page);
+        pager.nextPage(context);
+        pager.open(third, 1, new ListSource(1, 2), page -> page);
+        assertTrue(pager.hasCursor(context));
+        assertFalse(pager.hasCursor(second));
+        assertTrue(pager.hasCursor(third));
+    }
+
+    @Test
+    public void nextPageRendersPage() throws TwitterException {
+        pager = createPager(false);
+        Object rendered = new Object();
+        pager.open(context, 1, new ListSource(1), page -> rendered);
+        assertSame(rendered, pager.nextPage(context));
+    }
+
+    @Test
+    public void evict() throws TwitterException {
+        pager = createPager(false);
+        pager.open(context, 1, new ListSource(1), page -> page);
+        pager.evict(context);
+        assertFalse(pager.hasCursor(context));
+        assertNull(pager.nextPage(context));
+    }
+
+    @Test
+    public void nextPageEvictsIdleCursor() throws TwitterException {
+        pager = createPager(false);
+        pager.open(context, 1, new ListSource(1, 2), page -> page);
+        time.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertNull(pager.nextPage(context));
+        assertFalse(pager.hasCursor(context));
+    }
+
+    @Test
+    public void nextPageRefreshesIdleTimeout() throws TwitterException {
+        pager = createPager(false);
+        pager.open(context, 1, new ListSource(1, 2), page -> page);
+        time.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        assertEquals(Collections.singletonList(1), pager.nextPage(context));
+        time.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        assertEquals(Collections.singletonList(2), pager.nextPage(context));
+    }
+
+    private ResultPager createPager(boolean prefetch) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_PAGING_PREFETCH_KEY, prefetch);
+        configuration.addProperty(TwitterUtils.TWITTER_PAGING_IDLE_TIMEOUT_KEY, 60);
+        return new ResultPager(configuration, executor, scheduler, time::get);
+    }
+
+    private static StateContext createContext(String contextId) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId(contextId);
+        return context;
+    }
+
+    /**
+     * A {@link ResultPager.PageSource} returning the elements of a list.
+     */
+    private static final class ListSource implements ResultPager.PageSource<Integer> {
+
+        private final List<Integer> elements;
+
+        private final TwitterException error = new TwitterException("fetch error");
+
+        private volatile int fetchCount;
+
+        private volatile int failingFetch;
+
+        private int position;
+
+        private ListSource(Integer... elements) {
+            this.elements = Arrays.asList(elements);
+        }
+
+        @Override
+        public List<Integer> fetch(int count) throws TwitterException {
+            if (++fetchCount == failingFetch) {
+                throw error;
+            }
+            List<Integer> page = new ArrayList<>(elements.subList(position, Math.min(elements.size(),
+                    position + count)));
+            position += page.size();
+            return page;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.Query;
+import twitter4j.Status;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link SearchTracker}.
+ */
+public class SearchTrackerTest {
+
+    /**
+     * The ID of the newest tweet returned by the simulator.
+     */
+    private static final long NEWEST_ID = 10000;
+
+    private SimulatedPlatform simulated;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not generate new tweets during the tests, and do not retry the failed searches.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_MESSAGE_RATE_KEY, 0);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidMaxQueries() {
+        new SearchTracker(simulated.getPlatform(), 0, 10, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void searchNewTweetsInvalidLimit() {
+        simulated.getPlatform().getSearchTracker().searchNewTweets(new Query("xatkit"), 0);
+    }
+
+    @Test
+    public void firstSearchReturnsNewestTweets() {
+        SearchTracker tracker = simulated.getPlatform().getSearchTracker();
+        List<Long> ids = this.search(tracker, "xatkit", 10);
+        assertEquals(10, ids.size());
+        assertEquals(NEWEST_ID, (long) ids.get(0));
+        assertEquals(NEWEST_ID, tracker.getCursor("xatkit"));
+        assertEquals(NEWEST_ID, simulated.getPlatform().getStateStore().getHighWaterMark("search/xatkit"));
+        assertTrue(this.search(tracker, "xatkit", 10).isEmpty());
+        assertEquals(2, simulated.getSimulator().getRequestCount(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void queriesAreTrackedSeparately() {
+        SearchTracker tracker = simulated.getPlatform().getSearchTracker();
+        assertEquals(10, this.search(tracker, "xatkit", 10).size());
+        assertEquals(10, this.search(tracker, "twitter", 10).size());
+        assertEquals(0, tracker.getCursor("other"));
+    }
+
+    @Test
+    public void searchDrainsBacklog() {
+        simulated.getPlatform().getStateStore().putHighWaterMark("search/xatkit", NEWEST_ID - 25);
+        SearchTracker tracker = new SearchTracker(simulated.getPlatform(), 10, 100, 5);
+        assertEquals(NEWEST_ID - 25, tracker.getCursor("xatkit"));
+        List<Long> ids = new ArrayList<>();
+        List<Long> page;
+        do {
+            page = this.search(tracker, "xatkit", 10);
+            assertTrue(page.size() <= 10);
+            ids.addAll(page);
+        } while (!page.isEmpty());
+        assertEquals(25, ids.size());
+        assertEquals(25, new HashSet<>(ids).size());
+        assertTrue(ids.stream().allMatch(id -> id > NEWEST_ID - 25));
+        assertEquals(NEWEST_ID, tracker.getCursor("xatkit"));
+    }
+
+    @Test
+    public void searchSkipsBacklogLargerThanMaxPages() {
+        simulated.getPlatform().getStateStore().putHighWaterMark("search/xatkit", NEWEST_ID - 100);
+        SearchTracker tracker = new SearchTracker(simulated.getPlatform(), 10, 100, 2);
+        assertEquals(10, this.search(tracker, "xatkit", 10).size());
+        assertEquals(NEWEST_ID - 100, tracker.getCursor("xatkit"));
+        /*
+         * The second search reaches the page limit before the cursor: the older tweets are skipped.
+         */
+        assertEquals(10, this.search(tracker, "xatkit", 10).size());
+        assertEquals(NEWEST_ID, tracker.getCursor("xatkit"));
+        assertTrue(this.search(tracker, "xatkit", 10).isEmpty());
+    }
+
+    @Test
+    public void failedSearchKeepsCursor() {
+        simulated.getPlatform().getStateStore().putHighWaterMark("search/xatkit", NEWEST_ID - 10);
+        SearchTracker tracker = new SearchTracker(simulated.getPlatform(), 10, 100, 5);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.SEARCH).failNext(1, 500);
+        try {
+            this.search(tracker, "xatkit", 10);
+            fail("The search should fail with the injected error");
+        } catch (UncheckedTwitterException e) {
+            assertEquals(500, e.getCause().getStatusCode());
+        }
+        assertEquals(NEWEST_ID - 10, tracker.getCursor("xatkit"));
+        assertEquals(10, this.search(tracker, "xatkit", 10).size());
+        assertEquals(NEWEST_ID, tracker.getCursor("xatkit"));
+    }
+
+    @Test
+    public void leastRecentlyUsedQueryIsForgotten() {
+        SearchTracker tracker = new SearchTracker(simulated.getPlatform(), 1, 100, 5);
+        this.search(tracker, "xatkit", 10);
+        this.search(tracker, "twitter", 10);
+        /*
+         * The forgotten query is restored from the state store.
+         */
+        assertEquals(NEWEST_ID, tracker.getCursor("xatkit"));
+        assertTrue(this.search(tracker, "xatkit", 10).isEmpty());
+    }
+
+    private List<Long> search(SearchTracker tracker, String query, int limit) {
+        try (Stream<Status> tweets = tracker.searchNewTweets(new Query(query).count(10), limit)) {
+            return tweets.map(Status::getId).collect(Collectors.toList());
+        }
+    }
+}
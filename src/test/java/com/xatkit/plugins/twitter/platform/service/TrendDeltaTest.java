@@ -0,0 +1,61 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link TrendDelta}.
+ */
+public class TrendDeltaTest {
+
+    private static final TrendChange ADDED = new TrendChange(TrendChange.Type.NEW, "#new", 3, 0, 100, -1);
+
+    private static final TrendChange DROPPED = new TrendChange(TrendChange.Type.DROPPED, "#dropped", 0, 1, -1, 200);
+
+    private static final TrendChange RISING = new TrendChange(TrendChange.Type.MOVED, "#rising", 2, 12, 300, 150);
+
+    private static final TrendChange FALLING = new TrendChange(TrendChange.Type.MOVED, "#falling", 12, 2, 100,
+            300);
+
+    private final TrendDelta delta = new TrendDelta(1, 1000, 2000, Arrays.asList(ADDED, DROPPED, RISING,
+            FALLING));
+
+    @Test
+    public void getChangesOfType() {
+        assertEquals(Arrays.asList(RISING, FALLING), delta.getChanges(TrendChange.Type.MOVED));
+        assertTrue(delta.getChanges(TrendChange.Type.VOLUME_CHANGED).isEmpty());
+    }
+
+    @Test
+    public void getEnteredTop() {
+        assertEquals(Arrays.asList(ADDED, RISING), delta.getEnteredTop(10));
+        assertEquals(Collections.singletonList(RISING), delta.getEnteredTop(2));
+    }
+
+    @Test
+    public void hasLeftTop() {
+        assertTrue(DROPPED.hasLeftTop(10));
+        assertTrue(FALLING.hasLeftTop(10));
+        assertFalse(RISING.hasLeftTop(10));
+        assertFalse(ADDED.hasLeftTop(10));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void changesAreUnmodifiable() {
+        List<TrendChange> changes = delta.getChanges();
+        changes.clear();
+    }
+
+    @Test
+    public void isEmpty() {
+        assertFalse(delta.isEmpty());
+        assertTrue(new TrendDelta(1, 1000, 2000, Collections.emptyList()).isEmpty());
+    }
+}
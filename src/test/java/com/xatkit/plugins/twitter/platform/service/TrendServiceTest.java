@@ -0,0 +1,166 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.TwitterException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TrendService}.
+ */
+public class TrendServiceTest {
+
+    private static final int WORLDWIDE = 1;
+
+    private static final int PARIS = 615702;
+
+    private static final int LONDON = 44418;
+
+    private static final int NEW_YORK = 2459115;
+
+    /**
+     * A WOEID that is not a trend location.
+     */
+    private static final int UNKNOWN = 42;
+
+    private SimulatedPlatform simulated;
+
+    private TrendService trendService;
+
+    @Before
+    public void setUp() {
+        simulated = SimulatedPlatform.start();
+        trendService = simulated.getPlatform().getTrendService();
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test
+    public void getTrendsReturnsLocationTrends() throws TwitterException {
+        CachedTrends trends = trendService.getTrends(PARIS);
+        assertEquals(PARIS, trends.getWoeid());
+        assertFalse(trends.isEmpty());
+        assertTrue(trends.isFresh(System.currentTimeMillis()));
+        assertEquals(trends.getTrends().getTrends().length, trends.getRecords().size());
+    }
+
+    @Test
+    public void getTrendsCachesFreshTrends() throws TwitterException {
+        CachedTrends first = trendService.getTrends(WORLDWIDE);
+        CachedTrends second = trendService.getTrends(WORLDWIDE);
+        assertSame(first, second);
+        assertEquals(1, this.getPlaceRequestCount());
+        assertEquals(1, trendService.getCacheHitCount());
+        assertEquals(1, trendService.getCacheMissCount());
+    }
+
+    @Test
+    public void getTrendsCachesLocationsSeparately() throws TwitterException {
+        trendService.getTrends(WORLDWIDE);
+        trendService.getTrends(PARIS);
+        trendService.getTrends(PARIS);
+        assertEquals(2, this.getPlaceRequestCount());
+    }
+
+    @Test
+    public void getTrendsAfterClear() throws TwitterException {
+        CachedTrends first = trendService.getTrends(WORLDWIDE);
+        trendService.clear();
+        assertNotSame(first, trendService.getTrends(WORLDWIDE));
+        assertEquals(2, this.getPlaceRequestCount());
+    }
+
+    @Test
+    public void getTrendsError() {
+        simulated.getSimulator().getBehavior(TwitterEndpoint.TRENDS_PLACE).failNext(1, 404);
+        try {
+            trendService.getTrends(WORLDWIDE);
+            fail("Expected a TwitterException");
+        } catch (TwitterException e) {
+            assertEquals(404, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void getTrendsOfLocationsMergesLocations() throws TwitterException {
+        CachedTrends cached = trendService.getTrends(WORLDWIDE);
+        AggregatedTrends aggregated = trendService.getTrends(Arrays.asList(WORLDWIDE, PARIS, LONDON, PARIS));
+        assertTrue(aggregated.isComplete());
+        assertEquals(Arrays.asList(WORLDWIDE, PARIS, LONDON), aggregated.getWoeids());
+        assertFalse(aggregated.isEmpty());
+        assertTrue(aggregated.getTrends().size() >= cached.getRecords().size());
+        /*
+         * The fresh trends are answered from the cache, and the duplicated locations are only retrieved once.
+         */
+        assertEquals(3, this.getPlaceRequestCount());
+    }
+
+    @Test
+    public void getTrendsOfLocationsRetrievesLocationsConcurrently() {
+        simulated.getSimulator().getBehavior(TwitterEndpoint.TRENDS_PLACE).setLatency(300, 300);
+        long start = System.nanoTime();
+        AggregatedTrends aggregated = trendService.getTrends(Arrays.asList(WORLDWIDE, PARIS, LONDON, NEW_YORK));
+        assertTrue(aggregated.isComplete());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(4 * 300));
+    }
+
+    @Test
+    public void getTrendsOfLocationsReportsFailedLocations() {
+        AggregatedTrends aggregated = trendService.getTrends(Arrays.asList(PARIS, UNKNOWN));
+        assertFalse(aggregated.isComplete());
+        assertEquals(Collections.singletonList(PARIS), aggregated.getWoeids());
+        assertEquals(Collections.singletonList(UNKNOWN), aggregated.getMissingWoeids());
+    }
+
+    @Test
+    public void getTrendsOfLocationsReturnsPartialTrendsAfterTimeout() throws TwitterException {
+        trendService.getTrends(PARIS);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.TRENDS_PLACE).setLatency(1000, 1000);
+        AggregatedTrends aggregated = trendService.getTrends(Arrays.asList(PARIS, LONDON), 100,
+                TimeUnit.MILLISECONDS);
+        assertEquals(Collections.singletonList(PARIS), aggregated.getWoeids());
+        assertEquals(Collections.singletonList(LONDON), aggregated.getMissingWoeids());
+    }
+
+    @Test
+    public void getTrendsRecordsFirstTrendsWithoutDelta() throws TwitterException {
+        List<TrendDelta> deltas = new CopyOnWriteArrayList<>();
+        trendService.addChangeListener(deltas::add);
+        trendService.getTrends(PARIS);
+        assertNull(trendService.getLastDelta(PARIS));
+        /*
+         * The trends computed by Twitter at the same time as the previous ones are not compared.
+         */
+        trendService.clear();
+        trendService.getTrends(PARIS);
+        assertNull(trendService.getLastDelta(PARIS));
+        assertTrue(deltas.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeVolumeChangeRatio() {
+        new TrendService(simulated.getPlatform(), 1, 1000, TimeUnit.MILLISECONDS, -1);
+    }
+
+    private long getPlaceRequestCount() {
+        return simulated.getSimulator().getRequestCount(TwitterEndpoint.TRENDS_PLACE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import org.junit.Test;
+import twitter4j.Trend;
+import twitter4j.Trends;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the {@link TrendSnapshot}.
+ */
+public class TrendSnapshotTest {
+
+    @Test
+    public void getAsOf() {
+        assertEquals(1000, snapshot(1000).getAsOf());
+        Trends trends = mock(Trends.class);
+        when(trends.getTrends()).thenReturn(new Trend[0]);
+        assertEquals(0, new TrendSnapshot(trends).getAsOf());
+    }
+
+    @Test
+    public void diffIdenticalSnapshots() {
+        TrendSnapshot previous = snapshot(1000, trend("#a", 100), trend("#b", -1));
+        assertTrue(snapshot(2000, trend("#a", 100), trend("#b", -1)).diff(previous, 0.5).isEmpty());
+    }
+
+    @Test
+    public void diffNewAndDroppedTrends() {
+        TrendSnapshot previous = snapshot(1000, trend("#a", 100), trend("#b", 200));
+        List<TrendChange> changes = snapshot(2000, trend("#a", 100), trend("#c", 300)).diff(previous, 0.5);
+        assertEquals(2, changes.size());
+        TrendChange added = changes.get(0);
+        assertEquals(TrendChange.Type.NEW, added.getType());
+        assertEquals("#c", added.getName());
+        assertEquals(2, added.getRank());
+        assertEquals(0, added.getPreviousRank());
+        assertEquals(300, added.getTweetVolume());
+        TrendChange dropped = changes.get(1);
+        assertEquals(TrendChange.Type.DROPPED, dropped.getType());
+        assertEquals("#b", dropped.getName());
+        assertEquals(0, dropped.getRank());
+        assertEquals(2, dropped.getPreviousRank());
+        assertEquals(200, dropped.getPreviousTweetVolume());
+    }
+
+    @Test
+    public void diffMovedTrends() {
+        TrendSnapshot previous = snapshot(1000, trend("#a", 100), trend("#b", 200), trend("#c", 300));
+        List<TrendChange> changes = snapshot(2000, trend("#b", 250), trend("#a", 100), trend("#c", 300))
+                .diff(previous, 0.5);
+        assertEquals(2, changes.size());
+        assertEquals(TrendChange.Type.MOVED, changes.get(0).getType());
+        assertEquals("#b", changes.get(0).getName());
+        assertEquals(1, changes.get(0).getRank());
+        assertEquals(2, changes.get(0).getPreviousRank());
+        assertEquals(250, changes.get(0).getTweetVolume());
+        assertEquals(200, changes.get(0).getPreviousTweetVolume());
+        assertEquals("#a", changes.get(1).getName());
+        assertEquals(2, changes.get(1).getRank());
+    }
+
+    @Test
+    public void diffReportsSignificantVolumeChanges() {
+        TrendSnapshot previous = snapshot(1000, trend("#a", 100), trend("#b", 100), trend("#c", -1));
+        List<TrendChange> changes = snapshot(2000, trend("#a", 160), trend("#b", 140), trend("#c", 500))
+                .diff(previous, 0.5);
+        assertEquals(1, changes.size());
+        assertEquals(TrendChange.Type.VOLUME_CHANGED, changes.get(0).getType());
+        assertEquals("#a", changes.get(0).getName());
+        assertEquals(160, changes.get(0).getTweetVolume());
+        assertEquals(100, changes.get(0).getPreviousTweetVolume());
+    }
+
+    private static TrendSnapshot snapshot(long asOf, Trend... trendArray) {
+        Trends trends = mock(Trends.class);
+        when(trends.getAsOf()).thenReturn(new Date(asOf));
+        when(trends.getTrends()).thenReturn(trendArray);
+        return new TrendSnapshot(trends);
+    }
+
+    private static Trend trend(String name, int tweetVolume) {
+        Trend trend = mock(Trend.class);
+        when(trend.getName()).thenReturn(name);
+        when(trend.getTweetVolume()).thenReturn(tweetVolume);
+        return trend;
+    }
+}
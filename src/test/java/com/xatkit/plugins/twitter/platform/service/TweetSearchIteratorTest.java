@@ -0,0 +1,153 @@
+package com.xatkit.plugins.twitter.platform.service;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.SimulatedPlatform;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.Query;
+import twitter4j.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TweetSearchIterator}.
+ */
+public class TweetSearchIteratorTest {
+
+    private SimulatedPlatform simulated;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        /*
+         * Do not generate new tweets during the tests, and do not retry the failed calls.
+         */
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_MESSAGE_RATE_KEY, 0);
+        configuration.addProperty(TwitterUtils.TWITTER_RESILIENCE_PREFIX
+                + TwitterUtils.TWITTER_RESILIENCE_MAX_RETRIES_SUFFIX, 0);
+        simulated = SimulatedPlatform.start(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        simulated.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroLimit() {
+        new TweetSearchIterator(simulated.getPlatform(), new Query("xatkit"), 0);
+    }
+
+    @Test
+    public void iterateFetchesPagesLazily() {
+        TweetSearchIterator iterator = this.iterator(20, 1000);
+        assertEquals(0, this.getSearchRequestCount());
+        for (int i = 0; i < 20; i++) {
+            iterator.next();
+        }
+        assertEquals(1, this.getSearchRequestCount());
+        iterator.next();
+        assertEquals(2, this.getSearchRequestCount());
+    }
+
+    @Test
+    public void iterateReturnsDecreasingIdsUpToLimit() {
+        List<Status> tweets = this.collect(this.iterator(20, 50));
+        assertEquals(50, tweets.size());
+        for (int i = 1; i < tweets.size(); i++) {
+            assertTrue(tweets.get(i).getId() < tweets.get(i - 1).getId());
+        }
+        /*
+         * The last page only requests the remaining results.
+         */
+        assertEquals(3, this.getSearchRequestCount());
+    }
+
+    @Test
+    public void iterateStopsAtSinceId() {
+        Query query = new Query("xatkit");
+        long newest = this.iterator(1, 1).next().getId();
+        query.setSinceId(newest - 30);
+        query.setCount(20);
+        TweetSearchIterator iterator = new TweetSearchIterator(simulated.getPlatform(), query, 1000);
+        assertEquals(30, this.collect(iterator).size());
+        assertTrue(iterator.isExhausted());
+    }
+
+    @Test
+    public void closeStopsIteration() {
+        TweetSearchIterator iterator = this.iterator(20, 1000);
+        iterator.next();
+        iterator.close();
+        assertFalse(iterator.hasNext());
+        assertFalse(iterator.isExhausted());
+        assertEquals(1, this.getSearchRequestCount());
+    }
+
+    @Test
+    public void hasNextResumesAfterTransientError() {
+        TweetSearchIterator iterator = this.iterator(20, 40);
+        List<Status> tweets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tweets.add(iterator.next());
+        }
+        simulated.getSimulator().getBehavior(TwitterEndpoint.SEARCH).failNext(1, 503);
+        try {
+            iterator.hasNext();
+            fail("Expected an UncheckedTwitterException");
+        } catch (UncheckedTwitterException e) {
+            assertEquals(503, e.getCause().getStatusCode());
+        }
+        tweets.addAll(this.collect(iterator));
+        assertEquals(40, tweets.size());
+        assertEquals(tweets.get(19).getId() - 1, tweets.get(20).getId());
+    }
+
+    @Test
+    public void hasNextEndsIterationAfterPermanentError() {
+        TweetSearchIterator iterator = this.iterator(20, 40);
+        simulated.getSimulator().getBehavior(TwitterEndpoint.SEARCH).failNext(1, 403);
+        try {
+            iterator.hasNext();
+            fail("Expected an UncheckedTwitterException");
+        } catch (UncheckedTwitterException e) {
+            assertEquals(403, e.getCause().getStatusCode());
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(1, this.getSearchRequestCount());
+    }
+
+    @Test
+    public void searchTweetsStreamShortCircuits() {
+        List<Long> ids = simulated.getPlatform().searchTweets("xatkit", 1000).limit(5).map(Status::getId)
+                .collect(Collectors.toList());
+        assertEquals(5, ids.size());
+        assertEquals(1, this.getSearchRequestCount());
+    }
+
+    private TweetSearchIterator iterator(int pageSize, int limit) {
+        Query query = new Query("xatkit");
+        query.setCount(pageSize);
+        return new TweetSearchIterator(simulated.getPlatform(), query, limit);
+    }
+
+    private List<Status> collect(TweetSearchIterator iterator) {
+        List<Status> tweets = new ArrayList<>();
+        iterator.forEachRemaining(tweets::add);
+        return tweets;
+    }
+
+    private long getSearchRequestCount() {
+        return simulated.getSimulator().getRequestCount(TwitterEndpoint.SEARCH);
+    }
+}
@@ -0,0 +1,160 @@
+package com.xatkit.plugins.twitter.platform.simulator;
+
+import com.xatkit.plugins.twitter.TwitterUtils;
+import com.xatkit.plugins.twitter.platform.service.TwitterEndpoint;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import twitter4j.Query;
+import twitter4j.QueryResult;
+import twitter4j.Status;
+import twitter4j.Twitter;
+import twitter4j.TwitterException;
+import twitter4j.TwitterFactory;
+import twitter4j.User;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link TwitterApiSimulator}.
+ */
+public class TwitterApiSimulatorTest {
+
+    private TwitterApiSimulator simulator;
+
+    private Twitter twitter;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(TwitterUtils.TWITTER_SIMULATOR_PORT_KEY, 0);
+        simulator = new TwitterApiSimulator(configuration);
+        simulator.start();
+        twitter = this.createClient("1-simulated");
+    }
+
+    @After
+    public void tearDown() {
+        simulator.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failNextInvalidStatus() {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).failNext(1, 200);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setLatencyInvalidRange() {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).setLatency(100, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setErrorRateInvalidRate() {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).setErrorRate(1.5, 500);
+    }
+
+    @Test
+    public void search() throws TwitterException {
+        QueryResult result = twitter.search(new Query("xatkit").count(10));
+        assertEquals(10, result.getTweets().size());
+        assertTrue(result.hasNext());
+        QueryResult next = twitter.search(result.nextQuery());
+        assertTrue(next.getTweets().get(0).getId() < result.getTweets().get(9).getId());
+        assertEquals(2, simulator.getRequestCount(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void updateStatus() throws TwitterException {
+        Status status = twitter.updateStatus("hello");
+        assertEquals("hello", status.getText());
+        assertEquals(1, simulator.getRequestCount(TwitterEndpoint.STATUSES_UPDATE));
+    }
+
+    @Test
+    public void showUser() throws TwitterException {
+        User user = twitter.showUser("user2");
+        assertEquals(2, user.getId());
+        assertEquals("user2", user.getScreenName());
+    }
+
+    @Test
+    public void failNext() throws TwitterException {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).failNext(2, 503);
+        for (int i = 0; i < 2; i++) {
+            try {
+                twitter.search(new Query("xatkit"));
+                fail("The request should fail with the injected error");
+            } catch (TwitterException e) {
+                assertEquals(503, e.getStatusCode());
+            }
+        }
+        assertFalse(twitter.search(new Query("xatkit")).getTweets().isEmpty());
+        assertEquals(3, simulator.getRequestCount(TwitterEndpoint.SEARCH));
+    }
+
+    @Test
+    public void errorRate() {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).setErrorRate(1, 500);
+        try {
+            twitter.search(new Query("xatkit"));
+            fail("The request should fail with the injected error");
+        } catch (TwitterException e) {
+            assertEquals(500, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void rateLimitIsPerAccount() throws TwitterException {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).setRateLimit(2);
+        twitter.search(new Query("xatkit"));
+        QueryResult result = twitter.search(new Query("xatkit"));
+        assertEquals(2, result.getRateLimitStatus().getLimit());
+        assertEquals(0, result.getRateLimitStatus().getRemaining());
+        try {
+            twitter.search(new Query("xatkit"));
+            fail("The request should exceed the rate limit");
+        } catch (TwitterException e) {
+            assertEquals(429, e.getStatusCode());
+            assertTrue(e.exceededRateLimitation());
+        }
+        assertFalse(this.createClient("2-simulated").search(new Query("xatkit")).getTweets().isEmpty());
+        simulator.getBehavior(TwitterEndpoint.SEARCH).resetRateLimits();
+        assertFalse(twitter.search(new Query("xatkit")).getTweets().isEmpty());
+    }
+
+    @Test
+    public void latency() throws TwitterException {
+        simulator.getBehavior(TwitterEndpoint.SEARCH).setLatency(100, 100);
+        long start = System.nanoTime();
+        twitter.search(new Query("xatkit"));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void requestWithoutCredentials() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(simulator.getRestBaseUrl()
+                + "search/tweets.json?q=xatkit").openConnection();
+        assertEquals(400, connection.getResponseCode());
+        assertEquals(0, simulator.getRequestCount(TwitterEndpoint.SEARCH));
+    }
+
+    private Twitter createClient(String accessToken) {
+        ConfigurationBuilder builder = new ConfigurationBuilder()
+                .setRestBaseURL(simulator.getRestBaseUrl())
+                .setOAuthConsumerKey("consumer")
+                .setOAuthConsumerSecret("consumer-secret")
+                .setOAuthAccessToken(accessToken)
+                .setOAuthAccessTokenSecret("access-secret");
+        return new TwitterFactory(builder.build()).getInstance();
+    }
+}
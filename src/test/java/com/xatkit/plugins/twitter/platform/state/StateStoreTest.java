@@ -0,0 +1,259 @@
+package com.xatkit.plugins.twitter.platform.state;
+
+import com.xatkit.plugins.twitter.platform.service.UserSummary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link StateStore}.
+ */
+public class StateStoreTest {
+
+    private Path directory;
+
+    private Path journal;
+
+    private StateStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("state-store-test");
+        journal = directory.resolve("state.journal");
+        store = open();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroCompactionThreshold() {
+        new StateStore(null, 0, 10, 10, 1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void nonPersistentStore() {
+        StateStore memoryStore = new StateStore(null, 100, 10, 10, 1, TimeUnit.HOURS);
+        assertFalse(memoryStore.isPersistent());
+        assertTrue(memoryStore.markSeen(StateStore.TWEETS_NAMESPACE, 1));
+        assertFalse(memoryStore.markSeen(StateStore.TWEETS_NAMESPACE, 1));
+        assertTrue(memoryStore.isSeen(StateStore.TWEETS_NAMESPACE, 1));
+        memoryStore.putUser(new UserSummary(1, "Alice", "alice"));
+        assertTrue(memoryStore.getUsers().isEmpty());
+        memoryStore.flush();
+        memoryStore.close();
+    }
+
+    @Test
+    public void highWaterMarkNeverMovesBackward() {
+        store.putHighWaterMark("dm", 10);
+        store.putHighWaterMark("dm", 5);
+        assertEquals(10, store.getHighWaterMark("dm"));
+        assertEquals(0, store.getHighWaterMark("unknown"));
+    }
+
+    @Test
+    public void replayJournal() throws IOException {
+        this.writeState();
+        store.flush();
+        assertTrue(Files.size(journal) > 8);
+        /*
+         * Do not close the store: the new one reads the state from the journal, as after a crash.
+         */
+        StateStore reloaded = open();
+        try {
+            this.assertState(reloaded);
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void reloadAfterCompaction() throws IOException {
+        store.close();
+        store = new StateStore(directory, 1, 10, 10, 1, TimeUnit.HOURS);
+        store.load();
+        this.writeState();
+        store.flush();
+        assertEquals(8, Files.size(journal));
+        StateStore reloaded = open();
+        try {
+            this.assertState(reloaded);
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void ignoreTruncatedJournalRecord() throws IOException {
+        store.putHighWaterMark("dm", 10);
+        store.putHighWaterMark("tweets", 20);
+        store.flush();
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        StateStore reloaded = open();
+        try {
+            assertEquals(10, reloaded.getHighWaterMark("dm"));
+            assertEquals(0, reloaded.getHighWaterMark("tweets"));
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void ignoreUnreadableJournalTail() throws IOException {
+        store.putHighWaterMark("dm", 10);
+        store.flush();
+        Files.write(journal, new byte[]{42, 1, 2, 3}, StandardOpenOption.APPEND);
+        StateStore reloaded = open();
+        try {
+            assertEquals(10, reloaded.getHighWaterMark("dm"));
+            /*
+             * The load compacts the state, the unreadable tail is not in the new journal.
+             */
+            assertEquals(8, Files.size(journal));
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void failedCompactionKeepsJournal() throws IOException {
+        store.close();
+        store = new StateStore(directory, 1, 10, 10, 1, TimeUnit.HOURS);
+        store.load();
+        this.blockSnapshot();
+        store.putHighWaterMark("dm", 10);
+        store.flush();
+        store.putHighWaterMark("tweets", 20);
+        store.flush();
+        /*
+         * Do not close the store: the new one reads the state from the previous journal, as after a crash.
+         */
+        StateStore reloaded = new StateStore(directory, 100, 10, 10, 1, TimeUnit.HOURS);
+        Files.delete(directory.resolve("state.snapshot.tmp").resolve("blocker"));
+        Files.delete(directory.resolve("state.snapshot.tmp"));
+        reloaded.load();
+        try {
+            assertEquals(10, reloaded.getHighWaterMark("dm"));
+            assertEquals(20, reloaded.getHighWaterMark("tweets"));
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void failedCompactionIsRetriedByNextFlush() throws IOException {
+        store.close();
+        store = new StateStore(directory, 1, 10, 10, 1, TimeUnit.HOURS);
+        store.load();
+        this.blockSnapshot();
+        store.putHighWaterMark("dm", 10);
+        store.flush();
+        assertTrue(Files.size(journal) > 8);
+        Files.delete(directory.resolve("state.snapshot.tmp").resolve("blocker"));
+        Files.delete(directory.resolve("state.snapshot.tmp"));
+        store.flush();
+        assertEquals(8, Files.size(journal));
+        store.putHighWaterMark("tweets", 20);
+        store.close();
+        store = open();
+        assertEquals(10, store.getHighWaterMark("dm"));
+        assertEquals(20, store.getHighWaterMark("tweets"));
+    }
+
+    @Test(expected = IOException.class)
+    public void loadNotAStateFile() throws IOException {
+        store.close();
+        Files.write(directory.resolve("state.snapshot"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        open();
+    }
+
+    @Test
+    public void putUserSkipsUnchangedUser() throws IOException {
+        store.putUser(new UserSummary(1, "Alice", "alice"));
+        store.flush();
+        long size = Files.size(journal);
+        store.putUser(new UserSummary(1, "Alice", "alice"));
+        store.flush();
+        assertEquals(size, Files.size(journal));
+        store.putUser(new UserSummary(1, "Alice B.", "alice"));
+        store.flush();
+        assertTrue(Files.size(journal) > size);
+        List<StoredUser> users = store.getUsers();
+        assertEquals(1, users.size());
+        assertEquals("Alice B.", users.get(0).getUser().getName());
+    }
+
+    @Test
+    public void putUserEvictsOldest() {
+        StateStore smallStore = new StateStore(directory.resolve("small"), 100, 10, 2, 1, TimeUnit.HOURS);
+        try {
+            smallStore.load();
+            smallStore.putUser(new UserSummary(1, "Alice", "alice"));
+            smallStore.putUser(new UserSummary(2, "Bob", "bob"));
+            smallStore.putUser(new UserSummary(3, "Carol", "carol"));
+            List<StoredUser> users = smallStore.getUsers();
+            assertEquals(2, users.size());
+            assertEquals(2, users.get(0).getUser().getId());
+            assertEquals(3, users.get(1).getUser().getId());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            smallStore.close();
+        }
+    }
+
+    private StateStore open() throws IOException {
+        StateStore result = new StateStore(directory, 100, 10, 10, 1, TimeUnit.HOURS);
+        result.load();
+        return result;
+    }
+
+    /**
+     * Prevents the store from writing its snapshot, by creating a non-empty directory at the path of its temporary
+     * snapshot file.
+     */
+    private void blockSnapshot() throws IOException {
+        Path temporarySnapshot = Files.createDirectory(directory.resolve("state.snapshot.tmp"));
+        Files.createFile(temporarySnapshot.resolve("blocker"));
+    }
+
+    private void writeState() {
+        store.putHighWaterMark("dm", 10);
+        store.putUser(new UserSummary(1, "Alice", "alice"));
+        store.markSeen(StateStore.TWEETS_NAMESPACE, 42);
+        store.putLocations(Collections.singletonMap("paris", 615702), 1000);
+    }
+
+    private void assertState(StateStore reloaded) {
+        assertEquals(10, reloaded.getHighWaterMark("dm"));
+        assertEquals(1, reloaded.getUsers().size());
+        assertEquals("alice", reloaded.getUsers().get(0).getUser().getScreenName());
+        assertTrue(reloaded.isSeen(StateStore.TWEETS_NAMESPACE, 42));
+        assertFalse(reloaded.isSeen(StateStore.TWEETS_NAMESPACE, 43));
+        assertEquals(Collections.singletonMap("paris", 615702), reloaded.getLocations());
+        assertEquals(1000, reloaded.getLocationsLoadedAt());
+    }
+}